@@ -0,0 +1,18 @@
+-- Columns of arquivosanexados (SoliArquivo) added after the table was created.
+-- Production runs with spring.jpa.hibernate.ddl-auto=validate, so this script must be
+-- applied before deploying a version that maps them, or the application fails to start.
+-- It can be run again safely.
+
+-- Content-addressed local storage: SHA-256 of the content; rows sharing a hash share one
+-- blob. Rows saved before it existed keep a NULL hash and their own file.
+ALTER TABLE arquivosanexados ADD COLUMN IF NOT EXISTS conteudo_hash varchar(64);
+
+CREATE INDEX IF NOT EXISTS idx_arquivosanexados_conteudo_hash ON arquivosanexados (conteudo_hash);
+
+-- Background transfer to Google Drive of "google_drive_pending" rows: failed attempts,
+-- when the next one is due and the last error
+ALTER TABLE arquivosanexados ADD COLUMN IF NOT EXISTS transferencia_tentativas integer;
+ALTER TABLE arquivosanexados ADD COLUMN IF NOT EXISTS transferencia_proxima timestamp(6);
+ALTER TABLE arquivosanexados ADD COLUMN IF NOT EXISTS transferencia_erro varchar(500);
+
+CREATE INDEX IF NOT EXISTS idx_arquivosanexados_transferencia ON arquivosanexados (storage_location, transferencia_proxima);
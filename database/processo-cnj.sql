@@ -0,0 +1,41 @@
+-- CNJ number columns of processo (NNNNNNN-DD.AAAA.J.TR.OOOO), used by the
+-- /api/processos/buscar/cnj and /buscar/tribunal lookups and the duplicate check.
+-- Production runs with spring.jpa.hibernate.ddl-auto=validate, so this script must be
+-- applied before deploying a version that maps these columns, or the application fails
+-- to start. It also fills them for the processes saved before they existed, and can be
+-- run again safely, as a whole or in a single transaction (psql -1).
+
+ALTER TABLE processo ADD COLUMN IF NOT EXISTS numerocnj varchar(20);
+ALTER TABLE processo ADD COLUMN IF NOT EXISTS cnjsequencial integer;
+ALTER TABLE processo ADD COLUMN IF NOT EXISTS cnjano integer;
+ALTER TABLE processo ADD COLUMN IF NOT EXISTS cnjsegmento integer;
+ALTER TABLE processo ADD COLUMN IF NOT EXISTS cnjtribunal integer;
+ALTER TABLE processo ADD COLUMN IF NOT EXISTS cnjorigem integer;
+
+-- Same rule as ProcessoService.preencherNumeroCnj: numeroprocesso if it has 20 digits,
+-- otherwise numeroprocessopesq
+UPDATE processo p SET
+    numerocnj     = d.digitos,
+    cnjsequencial = substr(d.digitos, 1, 7)::integer,
+    cnjano        = substr(d.digitos, 10, 4)::integer,
+    cnjsegmento   = substr(d.digitos, 14, 1)::integer,
+    cnjtribunal   = substr(d.digitos, 15, 2)::integer,
+    cnjorigem     = substr(d.digitos, 17, 4)::integer
+FROM (
+    SELECT idprocesso,
+           CASE WHEN length(regexp_replace(coalesce(numeroprocesso, ''), '\D', '', 'g')) = 20
+                THEN regexp_replace(numeroprocesso, '\D', '', 'g')
+                ELSE regexp_replace(coalesce(numeroprocessopesq, ''), '\D', '', 'g')
+           END AS digitos
+    FROM processo
+    WHERE numerocnj IS NULL
+) d
+WHERE p.idprocesso = d.idprocesso AND length(d.digitos) = 20;
+
+CREATE INDEX IF NOT EXISTS idx_processo_numeroprocesso ON processo (numeroprocesso);
+CREATE INDEX IF NOT EXISTS idx_processo_numerocnj ON processo (numerocnj);
+CREATE INDEX IF NOT EXISTS idx_processo_cnj_tribunal ON processo (cnjsegmento, cnjtribunal, cnjano);
+
+-- Then, as a separate step (VACUUM cannot run inside a transaction block), keep the
+-- visibility map current so the duplicate check can use index-only scans:
+--     psql -c 'VACUUM ANALYZE processo'
@@ -0,0 +1,32 @@
+-- Trigram (pg_trgm) fuzzy search over processo parte, adverso, assunto and number,
+-- used by GET /api/processos/buscar (ProcessoBuscaService).
+-- Until this script has been applied the endpoint falls back to LIKE.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE, because its dictionary can be changed; pinning the
+-- dictionary makes it safe to use in a generated column and an index
+CREATE OR REPLACE FUNCTION public.f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+-- Lower case and without accents (same as TextoNormalizado.normalizar); process numbers
+-- are kept as digits only, so "0001234-56.2024" and "0001234562024" both match.
+-- Maintained by PostgreSQL on every INSERT and UPDATE. Adding the column rewrites the table once.
+ALTER TABLE processo ADD COLUMN IF NOT EXISTS busca_trgm text
+    GENERATED ALWAYS AS (
+        regexp_replace(coalesce(numeroprocesso, ''), '\D', '', 'g') || ' ' ||
+        regexp_replace(coalesce(numeroprocessopesq, ''), '\D', '', 'g') || ' ' ||
+        lower(public.f_unaccent(coalesce(parte, ''))) || ' ' ||
+        lower(public.f_unaccent(coalesce(adverso, ''))) || ' ' ||
+        lower(public.f_unaccent(coalesce(assunto, '')))
+    ) STORED;
+
+-- Serves both the <% (word similarity) operator and LIKE '%...%'
+CREATE INDEX IF NOT EXISTS idx_processo_busca_trgm ON processo USING GIN (busca_trgm gin_trgm_ops);
+
+-- To remove:
+-- DROP INDEX IF EXISTS idx_processo_busca_trgm;
+-- ALTER TABLE processo DROP COLUMN IF EXISTS busca_trgm;
+-- DROP FUNCTION IF EXISTS public.f_unaccent(text);
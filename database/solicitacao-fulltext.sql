@@ -0,0 +1,31 @@
+-- Full-text search over solicitacao.observacao and solicitacao.instrucoes,
+-- used by GET /api/solicitacoes/buscar/texto/ranqueada (SolicitacaoBuscaService).
+-- Until this script has been applied the endpoint falls back to LIKE.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- Portuguese stemming with accents removed first, so "citacao" matches "citação"
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'portuguese_unaccent') THEN
+        CREATE TEXT SEARCH CONFIGURATION public.portuguese_unaccent (COPY = pg_catalog.portuguese);
+        ALTER TEXT SEARCH CONFIGURATION public.portuguese_unaccent
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem;
+    END IF;
+END
+$$;
+
+-- Maintained by PostgreSQL on every INSERT and UPDATE; matches in observacao rank above
+-- matches in instrucoes. Adding the column rewrites the table once.
+ALTER TABLE solicitacao ADD COLUMN IF NOT EXISTS busca tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('public.portuguese_unaccent', coalesce(observacao, '')), 'A') ||
+        setweight(to_tsvector('public.portuguese_unaccent', coalesce(instrucoes, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_solicitacao_busca ON solicitacao USING GIN (busca);
+
+-- To remove:
+-- DROP INDEX IF EXISTS idx_solicitacao_busca;
+-- ALTER TABLE solicitacao DROP COLUMN IF EXISTS busca;
+-- DROP TEXT SEARCH CONFIGURATION IF EXISTS public.portuguese_unaccent;
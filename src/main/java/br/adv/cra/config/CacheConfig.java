@@ -0,0 +1,47 @@
+package br.adv.cra.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Enables Spring Cache for reference data lookups.
+ *
+ * The cache manager is Caffeine, configured through spring.cache.* in
+ * application.properties. Entries are evicted by the write methods of each
+ * service, so the names below must stay in sync with spring.cache.cache-names.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String UFS = "ufs";
+    public static final String COMARCAS = "comarcas";
+    public static final String ORGAOS = "orgaos";
+    public static final String STATUS_SOLICITACAO = "statusSolicitacao";
+    public static final String TIPOS_SOLICITACAO = "tiposSolicitacao";
+    public static final String PRINCIPAIS = "principais";
+
+    /**
+     * Registers the authenticated principal cache with its own bounds.
+     * Its TTL is much shorter than the reference data spec, because it also
+     * limits how long a change made outside UsuarioService can go unnoticed.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> principalCacheCustomizer(
+            @Value("${app.security.principal-cache.ttl:5m}") Duration ttl,
+            @Value("${app.security.principal-cache.max-size:10000}") long maxSize) {
+        return cacheManager -> cacheManager.registerCustomCache(PRINCIPAIS,
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build());
+    }
+}
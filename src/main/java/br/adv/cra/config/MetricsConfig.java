@@ -0,0 +1,58 @@
+package br.adv.cra.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Metrics exported on /actuator/prometheus.
+ *
+ * Boot already binds HTTP, Hikari (pool=CraHikariPool), Hibernate statistics and
+ * the Caffeine caches; this class adds a common application tag and tags every
+ * http.server.requests sample with the controller method that handled it.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> commonTags(
+            @Value("${spring.application.name:cra-backend}") String application) {
+        return registry -> registry.config().commonTags("application", application);
+    }
+
+    @Bean
+    public DefaultServerRequestObservationConvention handlerMethodObservationConvention() {
+        return new HandlerMethodObservationConvention();
+    }
+
+    /**
+     * Adds handler=Controller.method to the HTTP server observations.
+     * The uri tag alone mixes endpoints that share a path template across HTTP methods.
+     */
+    static class HandlerMethodObservationConvention extends DefaultServerRequestObservationConvention {
+
+        static final String HANDLER_TAG = "handler";
+
+        @Override
+        public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+            return super.getLowCardinalityKeyValues(context).and(handler(context));
+        }
+
+        private KeyValue handler(ServerRequestObservationContext context) {
+            Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+            if (handler instanceof HandlerMethod handlerMethod) {
+                return KeyValue.of(HANDLER_TAG,
+                        handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+            }
+            return KeyValue.of(HANDLER_TAG, "none");
+        }
+    }
+}
@@ -2,7 +2,6 @@ package br.adv.cra.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import jakarta.servlet.FilterChain;
@@ -10,36 +9,63 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
 
-@Component
+/**
+ * Writes one compact access-log record per API request.
+ *
+ * Records go to the "br.adv.cra.access" logger, which logback-spring.xml routes
+ * through a bounded async appender, so the request thread never waits on disk.
+ * Only a sample of ordinary requests is logged; slow requests and server errors
+ * are always logged. Latency itself is measured for every request by the
+ * http.server.requests histogram (see management.metrics.* properties).
+ *
+ * Registered only through WebConfig, for /api/*.
+ */
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger logger = LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private static final Logger accessLog = LoggerFactory.getLogger("br.adv.cra.access");
+
+    private final double sampleRate;
+    private final long slowThresholdMs;
+
+    public RequestLoggingFilter(double sampleRate, Duration slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdMs = slowThreshold.toMillis();
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        
-        long startTime = System.currentTimeMillis();
-        
-        // Log request details
-        logger.info("=== INCOMING REQUEST ===");
-        logger.info("Method: {}", request.getMethod());
-        logger.info("URL: {}://{}:{}{}", 
-                   request.getScheme(), 
-                   request.getServerName(), 
-                   request.getServerPort(), 
-                   request.getRequestURI());
-        logger.info("Query String: {}", request.getQueryString());
-        logger.info("Remote Address: {}", request.getRemoteAddr());
-        logger.info("Content Type: {}", request.getContentType());
-        
-        // Continue with the filter chain
-        filterChain.doFilter(request, response);
-        
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("=== REQUEST COMPLETED ===");
-        logger.info("Status: {}", response.getStatus());
-        logger.info("Duration: {} ms", duration);
+
+        long startTime = System.nanoTime();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            long durationMs = (System.nanoTime() - startTime) / 1_000_000;
+            boolean slow = durationMs >= slowThresholdMs;
+            boolean erro = status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+            if ((slow || erro || sampled()) && accessLog.isInfoEnabled()) {
+                String record = String.format("method=%s uri=%s status=%d durationMs=%d remote=%s user=%s",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        status,
+                        durationMs,
+                        request.getRemoteAddr(),
+                        request.getRemoteUser() != null ? request.getRemoteUser() : "-");
+                if (slow || erro) {
+                    accessLog.warn(record);
+                } else {
+                    accessLog.info(record);
+                }
+            }
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,5 @@
 package br.adv.cra.config;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
@@ -8,14 +7,19 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     
     @Value("${file.upload-dir}")
     private String uploadDir;
     
-    @Autowired
-    private RequestLoggingFilter requestLoggingFilter;
+    @Value("${app.access-log.sample-rate:1.0}")
+    private double accessLogSampleRate;
+    
+    @Value("${app.access-log.slow-threshold:1s}")
+    private Duration accessLogSlowThreshold;
     
     // CORS configuration is handled in SecurityConfig
     // to avoid conflicts with Spring Security
@@ -32,7 +36,8 @@ public class WebConfig implements WebMvcConfigurer {
     @Bean
     public FilterRegistrationBean<RequestLoggingFilter> loggingFilter() {
         FilterRegistrationBean<RequestLoggingFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(requestLoggingFilter);
+        // The filter is not a @Component, so this is its only registration
+        registrationBean.setFilter(new RequestLoggingFilter(accessLogSampleRate, accessLogSlowThreshold));
         registrationBean.addUrlPatterns("/api/*");
         registrationBean.setOrder(1);
         return registrationBean;
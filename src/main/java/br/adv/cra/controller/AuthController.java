@@ -131,17 +131,20 @@ public class AuthController {
     /**
      * Logs out the current user.
      * 
-     * In a JWT stateless setup, logout is typically handled client-side
-     * by removing the token from storage. This endpoint provides a 
-     * confirmation response.
+     * The bearer token sent with the request is revoked, and so is the refresh
+     * token given in the body, so neither is accepted before its expiration and
+     * the refresh token cannot issue new access tokens. The client should still
+     * discard both.
      * 
+     * @param authorization The Authorization header carrying the bearer token
+     * @param request Optional body with the refresh token issued at login
      * @return Success message
      */
     @PostMapping(value = "/logout", produces = "application/json")
-    public ResponseEntity<?> logoutUser() {
-        // In a JWT stateless setup, logout is typically handled client-side
-        // by removing the token from storage. However, we can provide a 
-        // confirmation endpoint.
+    public ResponseEntity<?> logoutUser(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                        @RequestBody(required = false) RefreshTokenRequest request) {
+        String token = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(token, request != null ? request.getRefreshToken() : null);
         Map<String, String> response = new HashMap<>();
         response.put("message", "Logout realizado com sucesso");
         return ResponseEntity.ok(response);
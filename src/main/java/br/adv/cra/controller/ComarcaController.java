@@ -1,5 +1,6 @@
 package br.adv.cra.controller;
 
+import br.adv.cra.dto.AutocompleteDTO;
 import br.adv.cra.entity.Comarca;
 import br.adv.cra.service.ComarcaService;
 import jakarta.validation.Valid;
@@ -96,6 +97,24 @@ public class ComarcaController {
         }
     }
     
+    /**
+     * Typeahead suggestions: court districts whose name, or a word of it, starts with the
+     * typed text, ignoring case and accents. Served from memory.
+     * 
+     * @param q The typed text
+     * @param limite Maximum number of suggestions (default 10, max 50)
+     * @return List of suggestions with ID and name
+     */
+    @GetMapping("/buscar/autocomplete")
+    public ResponseEntity<List<AutocompleteDTO>> autocompletar(@RequestParam String q,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(comarcaService.autocompletar(q, limite));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     /**
      * Searches court districts by name (partial match).
      * 
@@ -152,12 +152,14 @@ public class GoogleDriveController {
     /**
      * Simple endpoint to test if Google Drive service is working
      * 
+     * Availability comes from the cached probe; "circuit" holds the circuit breaker state.
+     * 
      * @return ResponseEntity with connection status
      */
     @GetMapping("/status")
     @Operation(
         summary = "Verificar status da conexão com o Google Drive",
-        description = "Verifica se o serviço do Google Drive está funcionando"
+        description = "Verifica se o serviço do Google Drive está funcionando e informa o estado do circuit breaker"
     )
     @ApiResponse(responseCode = "200", description = "Status retornado com sucesso",
         content = @Content(mediaType = "application/json",
@@ -175,6 +177,7 @@ public class GoogleDriveController {
             response.put("message", "Google Drive service is not available or not properly authenticated");
             response.put("status", "UNAVAILABLE");
         }
+        response.put("circuit", googleDriveService.getCircuitStatus());
         
         return ResponseEntity.ok(response);
     }
@@ -1,15 +1,29 @@
 package br.adv.cra.controller;
 
 import br.adv.cra.entity.Processo;
+import br.adv.cra.service.ProcessoBuscaService;
+import br.adv.cra.service.ProcessoImportacaoService;
 import br.adv.cra.service.ProcessoService;
+import br.adv.cra.util.MultipartFields;
 import br.adv.cra.dto.ProcessoDTO;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletDiskFileUpload;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for managing legal processes.
@@ -25,6 +39,11 @@ import java.util.List;
 public class ProcessoController {
     
     private final ProcessoService processoService;
+    private final ProcessoBuscaService processoBuscaService;
+    private final ProcessoImportacaoService processoImportacaoService;
+    
+    @Value("${app.processo.importacao.max-size:209715200}")
+    private long importacaoMaxSize;
     
     /**
      * Creates a new process.
@@ -158,6 +177,82 @@ public class ProcessoController {
         }
     }
     
+    /**
+     * Finds processes by CNJ number, formatted or digits only.
+     * 
+     * @param numero The CNJ number, e.g. 0001234-71.2024.8.26.0100
+     * @return List of processes with that number, or 400 if it does not have 20 digits
+     */
+    @GetMapping("/buscar/cnj/{numero}")
+    public ResponseEntity<?> buscarPorNumeroCnj(@PathVariable String numero) {
+        try {
+            return ResponseEntity.ok(processoService.buscarPorNumeroCnj(numero));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao buscar processos: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Finds processes whose CNJ number starts with the prefix, in number order.
+     * 
+     * @param prefixo The first digits of the number, punctuation allowed
+     * @param limite Maximum number of results (default 50, max 200)
+     * @return List of matching processes, or 400 for an invalid prefix
+     */
+    @GetMapping("/buscar/cnj")
+    public ResponseEntity<?> buscarPorPrefixoCnj(@RequestParam String prefixo,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(processoService.buscarPorPrefixoCnj(prefixo, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao buscar processos: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Finds processes of one tribunal by the J and TR fields of the CNJ number, newest first.
+     * 
+     * @param segmento The justice segment (J), e.g. 8 for state courts
+     * @param tribunal The tribunal code (TR), e.g. 26 for TJSP
+     * @param ano The filing year (AAAA), optional
+     * @param limite Maximum number of results (default 50, max 200)
+     * @return List of matching processes
+     */
+    @GetMapping("/buscar/tribunal")
+    public ResponseEntity<?> buscarPorTribunal(@RequestParam Integer segmento, @RequestParam Integer tribunal,
+            @RequestParam(required = false) Integer ano, @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(processoService.buscarPorTribunal(segmento, tribunal, ano, limite));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao buscar processos: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Fuzzy search over party, opposing party, subject and process number.
+     * 
+     * Accent- and case-insensitive and tolerant to typos once
+     * database/processo-trigram.sql has been applied; best matches first.
+     * 
+     * @param q The free-text query or a process number
+     * @param limite Maximum number of results (default 20, max 100)
+     * @return List of ProcessoBuscaDTO, or 400 for a blank query
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<?> buscar(@RequestParam String q, @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(processoBuscaService.buscar(q, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao buscar processos: " + e.getMessage());
+        }
+    }
+    
     /**
      * Searches processes by party name (partial match).
      * 
@@ -296,6 +391,65 @@ public class ProcessoController {
         }
     }
     
+    /**
+     * Starts a bulk import of processes from a CSV or JSON file.
+     * 
+     * The multipart body is streamed to disk and imported in the background; poll
+     * GET /api/processos/importacao/{id} for progress and per-row errors. The optional
+     * fields formato (csv or json, default from the file extension) and charset
+     * (default UTF-8) must come before the file field.
+     * 
+     * @param request The multipart request with the file field
+     * @return 202 with the queued import, 400 for an invalid file, 413 if it is too large,
+     *         or 503 if too many imports are queued
+     */
+    @PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importar(HttpServletRequest request) {
+        try {
+            JakartaServletDiskFileUpload upload = new JakartaServletDiskFileUpload();
+            upload.setFileSizeMax(importacaoMaxSize);
+            FileItemInputIterator items = upload.getItemIterator(request);
+            Map<String, String> campos = new HashMap<>();
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+                if (item.isFormField()) {
+                    campos.put(item.getFieldName(), MultipartFields.read(item));
+                    continue;
+                }
+                if (!"file".equals(item.getFieldName())) {
+                    continue;
+                }
+                try (InputStream conteudo = item.getInputStream()) {
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).body(processoImportacaoService.iniciar(
+                            conteudo, item.getName(), campos.get("formato"), campos.get("charset")));
+                }
+            }
+            return ResponseEntity.badRequest().body("Arquivo não enviado");
+        } catch (FileUploadSizeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body("Arquivo maior que o limite de " + importacaoMaxSize + " bytes");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao importar processos: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Gets the progress of a bulk import.
+     * 
+     * @param id The import ID returned by POST /api/processos/importacao
+     * @return The import with its counters and row errors, or 404 if unknown or expired
+     */
+    @GetMapping("/importacao/{id}")
+    public ResponseEntity<?> statusImportacao(@PathVariable String id) {
+        return processoImportacaoService.status(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     /**
      * Deletes a process.
      * 
@@ -1,8 +1,12 @@
 package br.adv.cra.controller;
 
 import br.adv.cra.dto.SoliArquivoDTO;
+import br.adv.cra.dto.UploadSessionDTO;
 import br.adv.cra.entity.SoliArquivo;
+import br.adv.cra.service.ChunkedUploadService;
 import br.adv.cra.service.SoliArquivoService;
+import br.adv.cra.util.MultipartFields;
+import br.adv.cra.util.RangedFileResponse;
 import br.adv.cra.util.SoliArquivoMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,7 +14,13 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletDiskFileUpload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,9 +38,14 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -51,10 +66,14 @@ public class SoliArquivoController {
     private static final Logger logger = LoggerFactory.getLogger(SoliArquivoController.class);
 
     private final SoliArquivoService soliArquivoService;
-    
+    private final ChunkedUploadService chunkedUploadService;
+
     @Value("${google.drive.oauth.enabled:false}")
     private boolean googleDriveEnabled;
 
+    @Value("${app.upload.streaming.max-size:2147483648}")
+    private long streamingMaxSize;
+
     /**
      * Health check endpoint to verify the controller is reachable
      */
@@ -141,24 +160,308 @@ public class SoliArquivoController {
         }
     }
 
+    /**
+     * Upload a file attachment, streaming the multipart body straight to its destination
+     *
+     * Same form fields as /upload, but the body is parsed incrementally: the file part
+     * is written once to local storage (or piped to Google Drive) as it arrives, instead
+     * of being buffered to a servlet temp file and copied afterwards. The form fields must
+     * come before the file part.
+     *
+     * @param request The multipart request
+     * @return The created file attachment entity
+     */
+    @PostMapping(value = "/upload/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+        summary = "Fazer upload de um arquivo em streaming",
+        description = "Igual a /upload, mas grava o arquivo diretamente no destino enquanto é recebido. "
+                + "Os campos solicitacaoId, origem e storageLocation devem vir antes do campo file"
+    )
+    @ApiResponse(responseCode = "201", description = "Arquivo carregado com sucesso",
+        content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = SoliArquivoDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    @ApiResponse(responseCode = "404", description = "Solicitação não encontrada")
+    @ApiResponse(responseCode = "413", description = "Arquivo maior que o permitido")
+    @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    public ResponseEntity<?> uploadAnexoStream(HttpServletRequest request) {
+        Map<String, String> errorResponse = new HashMap<>();
+        try {
+            JakartaServletDiskFileUpload upload = new JakartaServletDiskFileUpload();
+            upload.setFileSizeMax(streamingMaxSize);
+            FileItemInputIterator items = upload.getItemIterator(request);
+            Map<String, String> campos = new HashMap<>();
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+                if (item.isFormField()) {
+                    campos.put(item.getFieldName(), MultipartFields.read(item));
+                    continue;
+                }
+                if (!"file".equals(item.getFieldName())) {
+                    continue;
+                }
+
+                String solicitacaoId = campos.get("solicitacaoId");
+                String origem = campos.getOrDefault("origem", "usuario");
+                String storageLocation = campos.getOrDefault("storageLocation", "local");
+                logger.info("Received streamed upload for file: {}", item.getName());
+                logger.info("Solicitacao ID: {}, Origin: {}, Storage Location: {}", solicitacaoId, origem, storageLocation);
+
+                if (solicitacaoId == null || !solicitacaoId.matches("\\d+")) {
+                    errorResponse.put("error", "solicitacaoId must be sent before the file");
+                    return ResponseEntity.badRequest().body(errorResponse);
+                }
+                if ("google_drive".equals(storageLocation) && !googleDriveEnabled) {
+                    logger.warn("Google Drive storage requested but not enabled");
+                    errorResponse.put("error", "Google Drive storage is not enabled");
+                    return ResponseEntity.badRequest().body(errorResponse);
+                }
+                PushbackInputStream conteudo = new PushbackInputStream(item.getInputStream());
+                int primeiro = conteudo.read();
+                if (primeiro == -1) {
+                    logger.warn("Streamed upload received with empty file");
+                    errorResponse.put("error", "File is empty");
+                    return ResponseEntity.badRequest().body(errorResponse);
+                }
+                conteudo.unread(primeiro);
+
+                SoliArquivo soliArquivo = soliArquivoService.salvarAnexo(conteudo, item.getName(), item.getContentType(),
+                        Long.valueOf(solicitacaoId), origem, storageLocation);
+                logger.info("File uploaded successfully with ID: {}", soliArquivo.getId());
+                return ResponseEntity.status(HttpStatus.CREATED).body(SoliArquivoMapper.toDTO(soliArquivo));
+            }
+            errorResponse.put("error", "File is missing");
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (FileUploadSizeException e) {
+            logger.warn("Streamed upload exceeds the size limit: {}", e.getMessage());
+            errorResponse.put("error", "File exceeds the maximum size of " + streamingMaxSize + " bytes");
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(errorResponse);
+        } catch (IOException e) {
+            logger.error("IO Exception during streamed file upload: ", e);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid streamed upload request: {}", e.getMessage());
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (RuntimeException e) {
+            logger.error("Runtime Exception during streamed file upload: ", e);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    /**
+     * Initiate a resumable chunked upload
+     *
+     * The file is then sent with PUT /uploads/{uploadId}?offset=N, in any number of
+     * chunks, and attached with POST /uploads/{uploadId}/finalizar.
+     *
+     * @param solicitacaoId The ID of the solicitacao to attach the file to
+     * @param origem        The origin of the file (e.g., "correspondente" or user)
+     * @param nomeArquivo   The original filename
+     * @param tamanho       The size of the complete file, in bytes
+     * @param sha256        Optional SHA-256 of the complete file, checked when finalizing
+     * @return The upload session
+     */
+    @PostMapping("/uploads")
+    @Operation(
+        summary = "Iniciar upload em partes",
+        description = "Inicia um upload retomável de um arquivo grande, enviado em partes e armazenado localmente"
+    )
+    @ApiResponse(responseCode = "201", description = "Upload iniciado",
+        content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = UploadSessionDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    @ApiResponse(responseCode = "404", description = "Solicitação não encontrada")
+    @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    public ResponseEntity<?> iniciarUpload(
+            @Parameter(description = "ID da solicitação à qual o arquivo será anexado", required = true)
+            @RequestParam("solicitacaoId") Long solicitacaoId,
+            @Parameter(description = "Origem do arquivo (ex: correspondente ou usuario)", example = "usuario")
+            @RequestParam(value = "origem", defaultValue = "usuario") String origem,
+            @Parameter(description = "Nome original do arquivo", required = true)
+            @RequestParam("nomeArquivo") String nomeArquivo,
+            @Parameter(description = "Tamanho total do arquivo em bytes", required = true)
+            @RequestParam("tamanho") long tamanho,
+            @Parameter(description = "SHA-256 do arquivo completo, em hexadecimal (opcional)")
+            @RequestParam(value = "sha256", required = false) String sha256) {
+        try {
+            UploadSessionDTO session = chunkedUploadService.iniciar(solicitacaoId, origem, nomeArquivo, tamanho,
+                    sha256, usuarioAtual());
+            return ResponseEntity.status(HttpStatus.CREATED).body(session);
+        } catch (Exception e) {
+            return uploadErrorResponse(e, null);
+        }
+    }
+
+    /**
+     * Get the state of a chunked upload, to resume it after a failure
+     */
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(
+        summary = "Consultar upload em partes",
+        description = "Retorna o offset a partir do qual o envio deve continuar"
+    )
+    @ApiResponse(responseCode = "200", description = "Estado do upload",
+        content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = UploadSessionDTO.class)))
+    @ApiResponse(responseCode = "404", description = "Upload não encontrado ou expirado")
+    public ResponseEntity<?> statusUpload(
+            @Parameter(description = "ID do upload", required = true)
+            @PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.status(uploadId, usuarioAtual()));
+        } catch (Exception e) {
+            return uploadErrorResponse(e, uploadId);
+        }
+    }
+
+    /**
+     * Send one chunk of a chunked upload
+     *
+     * The body is streamed to disk at the given offset, which must be the offset the
+     * server reported. A chunk is either stored completely or not at all.
+     *
+     * @param uploadId      The upload session
+     * @param offset        Position of the chunk in the file
+     * @param checksumParte Optional SHA-256 of the chunk, in hexadecimal
+     * @param request       The request whose body is the chunk
+     * @return The upload session with its new offset
+     */
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+        summary = "Enviar parte de um upload",
+        description = "Grava o corpo da requisição no arquivo a partir do offset informado"
+    )
+    @ApiResponse(responseCode = "200", description = "Parte gravada",
+        content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = UploadSessionDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Parte inválida ou checksum divergente")
+    @ApiResponse(responseCode = "404", description = "Upload não encontrado ou expirado")
+    @ApiResponse(responseCode = "409", description = "Offset diferente do esperado")
+    @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    public ResponseEntity<?> enviarParte(
+            @Parameter(description = "ID do upload", required = true)
+            @PathVariable String uploadId,
+            @Parameter(description = "Posição da parte no arquivo", required = true)
+            @RequestParam("offset") long offset,
+            @Parameter(description = "SHA-256 da parte, em hexadecimal (opcional)")
+            @RequestHeader(value = "X-Checksum-Sha256", required = false) String checksumParte,
+            HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.receberParte(uploadId, offset, request.getInputStream(),
+                    checksumParte, usuarioAtual()));
+        } catch (Exception e) {
+            return uploadErrorResponse(e, uploadId);
+        }
+    }
+
+    /**
+     * Complete a chunked upload and attach the file to its solicitacao
+     */
+    @PostMapping("/uploads/{uploadId}/finalizar")
+    @Operation(
+        summary = "Finalizar upload em partes",
+        description = "Confere tamanho e checksum do arquivo recebido e o anexa à solicitação"
+    )
+    @ApiResponse(responseCode = "201", description = "Arquivo anexado com sucesso",
+        content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = SoliArquivoDTO.class)))
+    @ApiResponse(responseCode = "400", description = "Checksum do arquivo divergente")
+    @ApiResponse(responseCode = "404", description = "Upload não encontrado ou expirado")
+    @ApiResponse(responseCode = "409", description = "Upload incompleto")
+    @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    public ResponseEntity<?> finalizarUpload(
+            @Parameter(description = "ID do upload", required = true)
+            @PathVariable String uploadId) {
+        try {
+            SoliArquivo soliArquivo = chunkedUploadService.finalizar(uploadId, usuarioAtual());
+            return ResponseEntity.status(HttpStatus.CREATED).body(SoliArquivoMapper.toDTO(soliArquivo));
+        } catch (Exception e) {
+            return uploadErrorResponse(e, uploadId);
+        }
+    }
+
+    /**
+     * Abort a chunked upload
+     */
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(
+        summary = "Cancelar upload em partes",
+        description = "Cancela o upload e descarta as partes já recebidas"
+    )
+    @ApiResponse(responseCode = "204", description = "Upload cancelado")
+    @ApiResponse(responseCode = "404", description = "Upload não encontrado ou expirado")
+    public ResponseEntity<?> cancelarUpload(
+            @Parameter(description = "ID do upload", required = true)
+            @PathVariable String uploadId) {
+        try {
+            chunkedUploadService.cancelar(uploadId, usuarioAtual());
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return uploadErrorResponse(e, uploadId);
+        }
+    }
+
+    private ResponseEntity<?> uploadErrorResponse(Exception e, String uploadId) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", e.getMessage());
+        if (e instanceof IllegalStateException) {
+            logger.warn("Chunked upload {} conflict: {}", uploadId, e.getMessage());
+            // Tell the client where to resume
+            try {
+                errorResponse.put("offset", chunkedUploadService.status(uploadId, usuarioAtual()).getOffset());
+            } catch (RuntimeException ignored) {
+                // session gone in the meantime
+            }
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } else if (e instanceof IllegalArgumentException) {
+            logger.warn("Invalid chunked upload request {}: {}", uploadId, e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } else if (e instanceof RuntimeException) {
+            logger.warn("Chunked upload {} not found: {}", uploadId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+        logger.error("Error during chunked upload {}: ", uploadId, e);
+        errorResponse.put("error", "An unexpected error occurred during file upload");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+
+    private String usuarioAtual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
     /**
      * Download a specific file attachment by ID
      * 
+     * Locally stored files are streamed straight from disk with Range and
+     * conditional request support (see RangedFileResponse); files kept in
+     * Google Drive are proxied as a stream.
+     * 
      * @param id The ID of the file attachment to download
-     * @return The file as a downloadable resource
+     * @return The file as a downloadable resource, or null when the local file
+     *         was already written to the response
      */
     @GetMapping("/{id}/download")
     @Operation(
         summary = "Baixar um arquivo",
-        description = "Baixa um arquivo anexado, recuperando-o do armazenamento local ou do Google Drive"
+        description = "Baixa um arquivo anexado, recuperando-o do armazenamento local ou do Google Drive. "
+                + "Arquivos locais aceitam os cabeçalhos Range, If-Range e If-None-Match"
     )
     @ApiResponse(responseCode = "200", description = "Arquivo baixado com sucesso")
+    @ApiResponse(responseCode = "206", description = "Intervalo do arquivo baixado com sucesso")
+    @ApiResponse(responseCode = "304", description = "Arquivo não modificado")
     @ApiResponse(responseCode = "400", description = "ID inválido")
     @ApiResponse(responseCode = "404", description = "Arquivo não encontrado")
+    @ApiResponse(responseCode = "416", description = "Intervalo solicitado inválido")
     @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     public ResponseEntity<Resource> downloadAnexo(
         @Parameter(description = "ID do arquivo a ser baixado", required = true)
-        @PathVariable Long id
+        @PathVariable Long id,
+        HttpServletRequest request,
+        HttpServletResponse response
     ) {
         // Validate the ID parameter
         if (id == null || id <= 0) {
@@ -170,6 +473,27 @@ public class SoliArquivoController {
             SoliArquivo soliArquivo = soliArquivoService.buscarPorId(id)
                     .orElseThrow(() -> new RuntimeException("Arquivo não encontrado"));
 
+            Optional<Path> localFile = soliArquivoService.getLocalFilePath(id);
+            if (localFile.isPresent()) {
+                if (!Files.isReadable(localFile.get())) {
+                    logger.warn("Local file for attachment {} not found: {}", id, localFile.get());
+                    return ResponseEntity.notFound().build();
+                }
+                try {
+                    RangedFileResponse.write(localFile.get(), soliArquivo.getNomearquivo(), request, response);
+                } catch (NoSuchFileException e) {
+                    // A cached Google Drive copy was evicted between the lookup and the open;
+                    // resolving it again downloads a fresh copy
+                    logger.warn("File for attachment {} disappeared before it was opened, retrying: {}", id, e.getMessage());
+                    localFile = soliArquivoService.getLocalFilePath(id);
+                    if (localFile.isEmpty()) {
+                        return ResponseEntity.notFound().build();
+                    }
+                    RangedFileResponse.write(localFile.get(), soliArquivo.getNomearquivo(), request, response);
+                }
+                return null;
+            }
+
             // Get file content as InputStream
             InputStream fileStream = soliArquivoService.getFileContent(id);
             InputStreamResource resource = new InputStreamResource(fileStream);
@@ -181,6 +505,9 @@ public class SoliArquivoController {
                     .body(resource);
         } catch (Exception e) {
             logger.error("Error during file download for ID {}: {}", id, e.getMessage(), e);
+            if (response.isCommitted()) {
+                return null;
+            }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
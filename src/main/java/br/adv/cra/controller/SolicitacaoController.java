@@ -1,25 +1,38 @@
 package br.adv.cra.controller;
 
+import br.adv.cra.dto.CursorPageDTO;
+import br.adv.cra.dto.StatusLoteRequest;
+import br.adv.cra.dto.StatusLoteResultadoDTO;
 import br.adv.cra.entity.Correspondente;
 import br.adv.cra.entity.Solicitacao;
 import br.adv.cra.entity.StatusSolicitacao;
 import br.adv.cra.entity.Usuario;
+import br.adv.cra.service.AnexoZipService;
+import br.adv.cra.service.SolicitacaoBuscaService;
 import br.adv.cra.service.SolicitacaoService;
 import br.adv.cra.service.StatusSolicitacaoService;
 import br.adv.cra.service.UsuarioService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.GrantedAuthority;
 import br.adv.cra.security.UserDetailsImpl;
+import com.fasterxml.jackson.annotation.JsonView;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for managing requests.
@@ -35,9 +48,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SolicitacaoController {
     
+    private static final Logger logger = LoggerFactory.getLogger(SolicitacaoController.class);
+    
     private final SolicitacaoService solicitacaoService;
     private final StatusSolicitacaoService statusSolicitacaoService;
     private final UsuarioService usuarioService; // Added to fetch usuario by ID
+    private final AnexoZipService anexoZipService;
+    private final SolicitacaoBuscaService solicitacaoBuscaService;
     
     /**
      * Creates a new request.
@@ -161,14 +178,48 @@ public class SolicitacaoController {
         }
     }
     
+    /**
+     * Moves several requests to one status in a single transaction.
+     * 
+     * As with /{id}/status/{statusId}, concluded requests can only be changed by
+     * ADMIN and ADVOGADO users; for anyone else they are reported as PROIBIDA.
+     * 
+     * @param request The IDs of the requests and the ID of the new status
+     * @return One result per ID, 400 for an invalid list, or 404 if the status does not exist
+     */
+    @PutMapping("/status-lote")
+    public ResponseEntity<?> setStatusEmLote(@Valid @RequestBody StatusLoteRequest request) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            boolean podeAlterarConcluidas = authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .anyMatch(role -> "ROLE_ADMIN".equals(role) || "ROLE_ADVOGADO".equals(role));
+            
+            StatusLoteResultadoDTO resultado = solicitacaoService.setStatusEmLote(
+                    request.getIds(), request.getStatusId(), podeAlterarConcluidas);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            logger.warn("Batch status change failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     /**
      * Lists all requests.
      * 
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of all requests
      */
     @GetMapping
-    public ResponseEntity<List<Solicitacao>> listarTodas() {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarTodas(@RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarTodasResumo());
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.listarTodas();
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -193,14 +244,87 @@ public class SolicitacaoController {
         }
     }
     
+    /**
+     * Downloads all attachments of a request as a ZIP, streamed as it is built.
+     * 
+     * @param id The ID of the request
+     * @param response The response the ZIP is written to
+     * @return 404 if the request does not exist; null once the ZIP has been written
+     */
+    @GetMapping("/{id}/anexos.zip")
+    public ResponseEntity<?> baixarAnexosZip(@PathVariable Long id, HttpServletResponse response) {
+        try {
+            if (solicitacaoService.buscarPorId(id).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            escreverZip(List.of(id), "solicitacao-" + id + "-anexos.zip", response);
+            return null;
+        } catch (Exception e) {
+            return zipErrorResponse(e, response);
+        }
+    }
+    
+    /**
+     * Downloads the attachments of several requests as one ZIP, one folder per request.
+     * 
+     * @param ids The IDs of the requests (at most app.anexos.zip.max-solicitacoes)
+     * @param response The response the ZIP is written to
+     * @return 400 for an invalid list, 404 if a request does not exist; null once the ZIP has been written
+     */
+    @GetMapping("/anexos.zip")
+    public ResponseEntity<?> baixarAnexosZip(@RequestParam List<Long> ids, HttpServletResponse response) {
+        try {
+            anexoZipService.validarSolicitacoes(ids);
+            List<Long> distintos = ids.stream().distinct().toList();
+            List<Long> inexistentes = distintos.stream()
+                    .filter(solicitacaoId -> solicitacaoService.buscarPorId(solicitacaoId).isEmpty())
+                    .toList();
+            if (!inexistentes.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Solicitações não encontradas: " + inexistentes));
+            }
+            escreverZip(distintos, "anexos.zip", response);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return zipErrorResponse(e, response);
+        }
+    }
+    
+    private void escreverZip(List<Long> ids, String nomeArquivo, HttpServletResponse response) throws IOException {
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(nomeArquivo)
+                .build()
+                .toString());
+        anexoZipService.escreverZip(ids, response.getOutputStream());
+    }
+    
+    private ResponseEntity<?> zipErrorResponse(Exception e, HttpServletResponse response) {
+        logger.error("Error streaming attachments ZIP: {}", e.getMessage(), e);
+        if (response.isCommitted()) {
+            // Part of the ZIP was already sent; the client sees a truncated archive
+            return null;
+        }
+        response.reset();
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+    
     /**
      * Lists pending requests.
      * 
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of pending requests
      */
     @GetMapping("/pendentes")
-    public ResponseEntity<List<Solicitacao>> listarPendentes() {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarPendentes(@RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarPendentesResumo());
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.listarPendentes();
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -211,11 +335,17 @@ public class SolicitacaoController {
     /**
      * Lists completed requests.
      * 
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of completed requests
      */
     @GetMapping("/concluidas")
-    public ResponseEntity<List<Solicitacao>> listarConcluidas() {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarConcluidas(@RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarConcluidasResumo());
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.listarConcluidas();
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -226,11 +356,17 @@ public class SolicitacaoController {
     /**
      * Lists overdue requests.
      * 
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of overdue requests
      */
     @GetMapping("/atrasadas")
-    public ResponseEntity<List<Solicitacao>> listarAtrasadas() {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarAtrasadas(@RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarAtrasadasResumo());
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.listarAtrasadas();
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -241,11 +377,17 @@ public class SolicitacaoController {
     /**
      * Lists paid requests.
      * 
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of paid requests
      */
     @GetMapping("/pagas")
-    public ResponseEntity<List<Solicitacao>> listarPagas() {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarPagas(@RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarPagasResumo());
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.listarPagas();
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -256,11 +398,17 @@ public class SolicitacaoController {
     /**
      * Lists unpaid requests.
      * 
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of unpaid requests
      */
     @GetMapping("/nao-pagas")
-    public ResponseEntity<List<Solicitacao>> listarNaoPagas() {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarNaoPagas(@RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarNaoPagasResumo());
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.listarNaoPagas();
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -272,10 +420,13 @@ public class SolicitacaoController {
      * Finds requests by user ID, where the user is associated with the correspondente of the requests.
      * 
      * @param usuarioId The user ID to search for
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of requests for the specified user's correspondente
      */
     @GetMapping("/usuario/{usuarioId}/correspondente")
-    public ResponseEntity<List<Solicitacao>> buscarPorUsuarioCorrespondente(@PathVariable Long usuarioId) {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorUsuarioCorrespondente(@PathVariable Long usuarioId,
+            @RequestParam(required = false) String view) {
         try {
             // First, fetch the usuario by ID
             Usuario usuario = usuarioService.buscarPorId(usuarioId)
@@ -288,6 +439,9 @@ public class SolicitacaoController {
             
             // Fetch solicitacoes by the usuario's correspondente
             Correspondente correspondente = usuario.getCorrespondente();
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorCorrespondenteResumo(correspondente.getId()));
+            }
             List<Solicitacao> solicitacoes = solicitacaoService.buscarPorCorrespondente(correspondente);
             
             return ResponseEntity.ok(solicitacoes);
@@ -302,11 +456,18 @@ public class SolicitacaoController {
      * Finds requests by user.
      * 
      * @param usuarioId The user ID to search for
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of requests for the specified user
      */
     @GetMapping("/usuario/{usuarioId}")
-    public ResponseEntity<List<Solicitacao>> buscarPorUsuario(@PathVariable Long usuarioId) {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorUsuario(@PathVariable Long usuarioId,
+            @RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorUsuarioResumo(usuarioId));
+            }
+            
             // Create a Usuario object with the ID to pass to the service
             Usuario usuario = new Usuario();
             usuario.setId(usuarioId);
@@ -322,11 +483,18 @@ public class SolicitacaoController {
      * Finds requests by correspondente.
      * 
      * @param correspondenteId The correspondente ID to search for
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of requests for the specified correspondente
      */
     @GetMapping("/correspondente/{correspondenteId}")
-    public ResponseEntity<List<Solicitacao>> buscarPorCorrespondente(@PathVariable Long correspondenteId) {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorCorrespondente(@PathVariable Long correspondenteId,
+            @RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorCorrespondenteResumo(correspondenteId));
+            }
+            
             // Create a Correspondente object with the ID to pass to the service
             Correspondente correspondente = new Correspondente();
             correspondente.setId(correspondenteId);
@@ -343,13 +511,20 @@ public class SolicitacaoController {
      * 
      * @param inicio The start date/time
      * @param fim The end date/time
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of requests within the specified date range
      */
     @GetMapping("/buscar/periodo")
-    public ResponseEntity<List<Solicitacao>> buscarPorPeriodo(
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorPeriodoResumo(inicio, fim));
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.buscarPorPeriodo(inicio, fim);
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -361,11 +536,18 @@ public class SolicitacaoController {
      * Searches requests by text (partial match).
      * 
      * @param texto The text to search for
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of matching requests
      */
     @GetMapping("/buscar/texto")
-    public ResponseEntity<List<Solicitacao>> buscarPorTexto(@RequestParam String texto) {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorTexto(@RequestParam String texto,
+            @RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorTextoResumo(texto));
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.buscarPorTexto(texto);
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -373,15 +555,48 @@ public class SolicitacaoController {
         }
     }
     
+    /**
+     * Searches observacao and instrucoes, best matches first, with highlighted snippets.
+     * 
+     * Uses the PostgreSQL full-text index when database/solicitacao-fulltext.sql has
+     * been applied, and a LIKE search otherwise.
+     * 
+     * @param texto The search text (words, "quoted phrases", OR, -excluded)
+     * @param cursor The previous page's nextCursor (a row offset), omitted for the first page
+     * @param tamanho Page size (default 20, max 100)
+     * @return A page of SolicitacaoBuscaDTO, or 400 for a blank text or invalid cursor;
+     *         paging stops after the first 1000 hits
+     */
+    @GetMapping("/buscar/texto/ranqueada")
+    public ResponseEntity<?> buscarPorTextoRanqueada(@RequestParam String texto,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            return ResponseEntity.ok(solicitacaoBuscaService.buscar(texto, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Text search failed: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     /**
      * Finds requests by group.
      * 
      * @param grupo The group ID to search for
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of requests in the specified group
      */
     @GetMapping("/buscar/grupo/{grupo}")
-    public ResponseEntity<List<Solicitacao>> buscarPorGrupo(@PathVariable Integer grupo) {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorGrupo(@PathVariable Integer grupo,
+            @RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorGrupoResumo(grupo));
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.buscarPorGrupo(grupo);
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -393,11 +608,18 @@ public class SolicitacaoController {
      * Finds requests by external status.
      * 
      * @param status The external status to search for
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
      * @return List of requests with the specified external status
      */
     @GetMapping("/buscar/status/{status}")
-    public ResponseEntity<List<Solicitacao>> buscarPorStatus(@PathVariable String status) {
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorStatus(@PathVariable String status,
+            @RequestParam(required = false) String view) {
         try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorStatusExternoResumo(status));
+            }
+            
             List<Solicitacao> solicitacoes = solicitacaoService.buscarPorStatusExterno(status);
             return ResponseEntity.ok(solicitacoes);
         } catch (Exception e) {
@@ -405,6 +627,286 @@ public class SolicitacaoController {
         }
     }
     
+    /**
+     * Lists all requests, newest first, one keyset page at a time.
+     * 
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, or 400 if the cursor is invalid
+     */
+    @GetMapping("/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarTodasPaginado(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarTodasResumoPaginado(cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.listarTodasPaginado(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Lists pending requests, one keyset page at a time.
+     * 
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, or 400 if the cursor is invalid
+     */
+    @GetMapping("/pendentes/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarPendentesPaginado(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarPendentesResumoPaginado(cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.listarPendentesPaginado(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Lists completed requests, one keyset page at a time.
+     * 
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, or 400 if the cursor is invalid
+     */
+    @GetMapping("/concluidas/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarConcluidasPaginado(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarConcluidasResumoPaginado(cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.listarConcluidasPaginado(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Lists overdue requests, one keyset page at a time.
+     * 
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, or 400 if the cursor is invalid
+     */
+    @GetMapping("/atrasadas/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarAtrasadasPaginado(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarAtrasadasResumoPaginado(cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.listarAtrasadasPaginado(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Lists paid requests, one keyset page at a time.
+     * 
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, or 400 if the cursor is invalid
+     */
+    @GetMapping("/pagas/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarPagasPaginado(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarPagasResumoPaginado(cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.listarPagasPaginado(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Lists unpaid requests, one keyset page at a time.
+     * 
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, or 400 if the cursor is invalid
+     */
+    @GetMapping("/nao-pagas/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> listarNaoPagasPaginado(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.listarNaoPagasResumoPaginado(cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.listarNaoPagasPaginado(cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Finds requests by user, one keyset page at a time.
+     * 
+     * @param usuarioId The user ID to search for
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, or 400 if the cursor is invalid
+     */
+    @GetMapping("/usuario/{usuarioId}/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorUsuarioPaginado(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorUsuarioResumoPaginado(usuarioId, cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.buscarPorUsuarioPaginado(usuarioId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Finds requests by correspondente, one keyset page at a time.
+     * 
+     * @param correspondenteId The correspondente ID to search for
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, or 400 if the cursor is invalid
+     */
+    @GetMapping("/correspondente/{correspondenteId}/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorCorrespondentePaginado(
+            @PathVariable Long correspondenteId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorCorrespondenteResumoPaginado(correspondenteId, cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.buscarPorCorrespondentePaginado(correspondenteId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Searches requests by date range, ordered by request date, one keyset page at a time.
+     * 
+     * @param inicio The start date/time
+     * @param fim The end date/time
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, or 400 if the cursor is invalid
+     */
+    @GetMapping("/buscar/periodo/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorPeriodoPaginado(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorPeriodoResumoPaginado(inicio, fim, cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.buscarPorPeriodoPaginado(inicio, fim, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Finds requests for the correspondente of the given user, one keyset page at a time.
+     * 
+     * @param usuarioId The user ID whose correspondente is used
+     * @param cursor Opaque token from the previous page's nextCursor, omitted for the first page
+     * @param tamanho Page size (default 50, max 200)
+     * @param view "summary" to return SolicitacaoResumoDTO rows instead of full entities
+     * @return The page with its continuation token, 404 if the user does not exist, or 400 if the cursor is invalid
+     */
+    @GetMapping("/usuario/{usuarioId}/correspondente/pagina")
+    @JsonView(Solicitacao.VisaoLista.class)
+    public ResponseEntity<?> buscarPorUsuarioCorrespondentePaginado(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String view) {
+        try {
+            Usuario usuario = usuarioService.buscarPorId(usuarioId)
+                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+            
+            if (usuario.getCorrespondente() == null) {
+                return ResponseEntity.ok(new CursorPageDTO<>(List.of(), null, false, 0));
+            }
+            
+            Long correspondenteId = usuario.getCorrespondente().getId();
+            if (isResumo(view)) {
+                return ResponseEntity.ok(solicitacaoService.buscarPorCorrespondenteResumoPaginado(correspondenteId, cursor, tamanho));
+            }
+            return ResponseEntity.ok(solicitacaoService.buscarPorCorrespondentePaginado(correspondenteId, cursor, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     /**
      * Marks a request as completed.
      * 
@@ -492,4 +994,8 @@ public class SolicitacaoController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+    
+    private boolean isResumo(String view) {
+        return "summary".equalsIgnoreCase(view);
+    }
+}
@@ -1,5 +1,6 @@
 package br.adv.cra.controller;
 
+import br.adv.cra.dto.AutocompleteDTO;
 import br.adv.cra.dto.PasswordChangeRequest;
 import br.adv.cra.entity.Usuario;
 import br.adv.cra.service.UsuarioService;
@@ -141,6 +142,24 @@ public class UsuarioController {
         }
     }
     
+    /**
+     * Typeahead suggestions: users whose name, or a word of it, starts with the
+     * typed text, ignoring case and accents. Served from memory.
+     * 
+     * @param q The typed text
+     * @param limite Maximum number of suggestions (default 10, max 50)
+     * @return List of suggestions with ID and name
+     */
+    @GetMapping("/buscar/autocomplete")
+    public ResponseEntity<List<AutocompleteDTO>> autocompletar(@RequestParam String q,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(usuarioService.autocompletar(q, limite));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     /**
      * Searches users by name (partial match).
      * 
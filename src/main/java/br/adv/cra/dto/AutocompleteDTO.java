@@ -0,0 +1,17 @@
+package br.adv.cra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One suggestion of the /buscar/autocomplete endpoints: the ID and the name as stored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteDTO {
+    private Long id;
+
+    private String nome;
+}
@@ -0,0 +1,26 @@
+package br.adv.cra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * nextCursor is an opaque token: clients pass it back unchanged as the
+ * "cursor" parameter to fetch the following page. It is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    private int size;
+}
@@ -0,0 +1,65 @@
+package br.adv.cra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a bulk processo import, polled while it runs.
+ *
+ * Every data row read ends up in exactly one of inseridas, duplicadas or rejeitadas.
+ * Rejected and duplicate rows are listed in erros with their line in the file, up to
+ * app.processo.importacao.max-erros entries; errosOmitidos counts the rest.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoProcessoDTO {
+
+    public enum Situacao {
+        AGUARDANDO, PROCESSANDO, CONCLUIDA, FALHOU
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Erro {
+        private long linha;
+
+        private String numeroprocesso;
+
+        private String mensagem;
+    }
+
+    private String id;
+
+    private String arquivo;
+
+    private String formato;
+
+    private Situacao situacao;
+
+    private long linhasLidas;
+
+    private long inseridas;
+
+    private long duplicadas;
+
+    private long rejeitadas;
+
+    private double linhasPorSegundo;
+
+    private LocalDateTime iniciadaEm;
+
+    private LocalDateTime concluidaEm;
+
+    // Set when the whole import failed, e.g. a malformed file
+    private String falha;
+
+    private List<Erro> erros;
+
+    private long errosOmitidos;
+}
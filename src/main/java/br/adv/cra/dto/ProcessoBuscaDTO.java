@@ -0,0 +1,21 @@
+package br.adv.cra.dto;
+
+import br.adv.cra.entity.Processo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One result of the fuzzy search over parte, adverso, assunto and process number.
+ *
+ * similaridade is the pg_trgm word similarity between the query and the process,
+ * from 0 to 1; it is 1 for every hit of the LIKE fallback.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessoBuscaDTO {
+    private Processo processo;
+
+    private double similaridade;
+}
@@ -0,0 +1,22 @@
+package br.adv.cra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One result of the ranked text search over observacao and instrucoes.
+ *
+ * trecho is HTML-escaped text from the matching columns, with the matched terms
+ * wrapped in &lt;mark&gt; tags.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitacaoBuscaDTO {
+    private SolicitacaoResumoDTO solicitacao;
+
+    private double relevancia;
+
+    private String trecho;
+}
@@ -0,0 +1,58 @@
+package br.adv.cra.dto;
+
+import br.adv.cra.config.CustomLocalDateTimeDeserializer;
+import br.adv.cra.config.CustomLocalDateTimeSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of a solicitacao for grid screens (?view=summary).
+ *
+ * Filled directly by a JPQL constructor expression, so no associated entity is
+ * loaded. The field order must match the SELECT in SolicitacaoRepository.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitacaoResumoDTO {
+    private Long idsolicitacao;
+
+    @JsonDeserialize(using = CustomLocalDateTimeDeserializer.class)
+    @JsonSerialize(using = CustomLocalDateTimeSerializer.class)
+    private LocalDateTime datasolicitacao;
+
+    @JsonDeserialize(using = CustomLocalDateTimeDeserializer.class)
+    @JsonSerialize(using = CustomLocalDateTimeSerializer.class)
+    private LocalDateTime dataprazo;
+
+    @JsonDeserialize(using = CustomLocalDateTimeDeserializer.class)
+    @JsonSerialize(using = CustomLocalDateTimeSerializer.class)
+    private LocalDateTime dataagendamento;
+
+    @JsonDeserialize(using = CustomLocalDateTimeDeserializer.class)
+    @JsonSerialize(using = CustomLocalDateTimeSerializer.class)
+    private LocalDateTime dataconclusao;
+
+    private String numeroProcesso;
+
+    private String comarca;
+
+    private String status;
+
+    private String tipoSolicitacao;
+
+    private String usuario;
+
+    private String correspondente;
+
+    private String statusexterno;
+
+    private String pago;
+
+    private Float valor;
+}
@@ -0,0 +1,24 @@
+package br.adv.cra.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of PUT /api/solicitacoes/status-lote: moves every listed solicitacao to statusId.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusLoteRequest {
+
+    @NotEmpty(message = "Informe ao menos uma solicitação")
+    private List<Long> ids;
+
+    @NotNull(message = "ID do status é obrigatório")
+    private Long statusId;
+}
@@ -0,0 +1,41 @@
+package br.adv.cra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch status change, with one item per requested ID in request order.
+ *
+ * Only ATUALIZADA rows were written (and got a historico row from the database
+ * trigger); INALTERADA rows already had the status, PROIBIDA rows are concluded
+ * and the caller may not reopen them, NAO_ENCONTRADA IDs do not exist.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusLoteResultadoDTO {
+
+    public enum Resultado {
+        ATUALIZADA, INALTERADA, PROIBIDA, NAO_ENCONTRADA
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long id;
+
+        private Resultado resultado;
+    }
+
+    private Long statusId;
+
+    private String status;
+
+    private int atualizadas;
+
+    private List<Item> resultados;
+}
@@ -0,0 +1,27 @@
+package br.adv.cra.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of a chunked upload: the next chunk must be sent at {@code offset}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private String uploadId;
+
+    private Long idSolicitacao;
+
+    private String nomeArquivo;
+
+    private long tamanho;
+
+    private long offset;
+
+    private LocalDateTime expiraEm;
+}
@@ -1,20 +1,29 @@
 package br.adv.cra.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.io.Serializable;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "comarca")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Comarca implements Serializable {
     
     private static final long serialVersionUID = 1L;
@@ -36,6 +45,10 @@ public class Comarca implements Serializable {
     private boolean ativo;
     
     // Adding the inverse relationship with Solicitacao
+    // Kept out of toString/equals: cached Comarca instances are detached and this collection is never loaded
     @OneToMany(mappedBy = "comarca", fetch = FetchType.LAZY)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Solicitacao> solicitacoes;
 }
\ No newline at end of file
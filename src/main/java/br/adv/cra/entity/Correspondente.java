@@ -22,6 +22,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Correspondente implements Serializable {
     private static final long serialVersionUID = 1L;
     
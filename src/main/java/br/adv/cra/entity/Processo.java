@@ -1,6 +1,8 @@
 package br.adv.cra.entity;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,10 +11,15 @@ import java.io.Serializable;
 import java.util.Date;
 
 @Entity
-@Table(name = "processo")
+@Table(name = "processo", indexes = {
+        @Index(name = "idx_processo_numeroprocesso", columnList = "numeroprocesso"),
+        @Index(name = "idx_processo_numerocnj", columnList = "numerocnj"),
+        @Index(name = "idx_processo_cnj_tribunal", columnList = "cnjsegmento, cnjtribunal, cnjano")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Processo implements Serializable {
     
     private static final long serialVersionUID = 1L;
@@ -43,11 +50,11 @@ public class Processo implements Serializable {
     
     private String numerointegracao;
     
-    @ManyToOne(fetch = FetchType.EAGER, cascade = {})
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {})
     @JoinColumn(name = "comarca_idcomarca")
     private Comarca comarca;
     
-    @ManyToOne(fetch = FetchType.EAGER, cascade = {})
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {})
     @JoinColumn(name = "orgao_idorgao")
     private Orgao orgao;
     
@@ -61,6 +68,27 @@ public class Processo implements Serializable {
     @Column(length = 1000, columnDefinition = "Text")
     private String observacao;
     
+    // Digits and parts of the CNJ number, derived from numeroprocesso on every save
+    // (ProcessoService); null when the number is not in the CNJ format
+    @Column(length = 20)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String numerocnj;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer cnjsequencial;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer cnjano;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer cnjsegmento;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer cnjtribunal;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer cnjorigem;
+    
     @Transient
     private Integer totalfeita;
 }
\ No newline at end of file
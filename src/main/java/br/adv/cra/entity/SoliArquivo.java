@@ -9,7 +9,10 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "arquivosanexados")
+@Table(name = "arquivosanexados", indexes = {
+		@Index(name = "idx_arquivosanexados_conteudo_hash", columnList = "conteudo_hash"),
+		@Index(name = "idx_arquivosanexados_transferencia", columnList = "storage_location, transferencia_proxima")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,7 +23,7 @@ public class SoliArquivo implements Serializable {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 	
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idsolicitacao")
 	private Solicitacao solicitacao;
 	
@@ -49,6 +52,21 @@ public class SoliArquivo implements Serializable {
 	@Column(name = "google_drive_file_id", length = 255)
 	private String googleDriveFileId;
 	
+	// SHA-256 of the content of locally stored files; rows sharing a hash share one blob
+	@Column(name = "conteudo_hash", length = 64)
+	private String conteudoHash;
+	
+	// Background transfer to Google Drive ("google_drive_pending" rows): failed attempts,
+	// when the next one is due and the last error
+	@Column(name = "transferencia_tentativas")
+	private Integer transferenciaTentativas;
+	
+	@Column(name = "transferencia_proxima")
+	private LocalDateTime transferenciaProxima;
+	
+	@Column(name = "transferencia_erro", length = 500)
+	private String transferenciaErro;
+	
 	// User ID who owns this file (for Google Drive access)
 	@Column(name = "user_id")
 	private Long userId;
@@ -11,6 +11,7 @@ import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import br.adv.cra.config.CustomLocalDateTimeDeserializer;
@@ -19,12 +20,71 @@ import br.adv.cra.config.CustomLocalDateTimeSerializer;
 @Entity
 @Table(name = "solicitacao")
 @SequenceGenerator(name = "seqsol", sequenceName = "idsolicitacao", allocationSize = 1, initialValue = 1)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Fetch plans: every association is LAZY and each use case picks a graph in SolicitacaoRepository.
+// "lista" joins what grid screens show; "detalhe" adds the remaining single-valued associations.
+// List endpoints serialize with VisaoLista, which leaves out the associations outside "lista".
+@NamedEntityGraph(name = Solicitacao.GRAFO_LISTA,
+	attributeNodes = {
+		@NamedAttributeNode(value = "processo", subgraph = "processo"),
+		@NamedAttributeNode(value = "comarca", subgraph = "comarca"),
+		@NamedAttributeNode("statusSolicitacao"),
+		@NamedAttributeNode("tipoSolicitacao"),
+		@NamedAttributeNode(value = "usuario", subgraph = "usuario"),
+		@NamedAttributeNode(value = "correspondente", subgraph = "correspondente")
+	},
+	subgraphs = {
+		@NamedSubgraph(name = "processo", attributeNodes = {
+			@NamedAttributeNode(value = "comarca", subgraph = "comarca"),
+			@NamedAttributeNode("orgao")
+		}),
+		@NamedSubgraph(name = "comarca", attributeNodes = @NamedAttributeNode("uf")),
+		@NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode(value = "correspondente", subgraph = "correspondente")),
+		@NamedSubgraph(name = "correspondente", attributeNodes = @NamedAttributeNode(value = "enderecos", subgraph = "endereco")),
+		@NamedSubgraph(name = "endereco", attributeNodes = @NamedAttributeNode("uf"))
+	})
+@NamedEntityGraph(name = Solicitacao.GRAFO_DETALHE,
+	attributeNodes = {
+		@NamedAttributeNode(value = "processo", subgraph = "processo"),
+		@NamedAttributeNode(value = "comarca", subgraph = "comarca"),
+		@NamedAttributeNode("statusSolicitacao"),
+		@NamedAttributeNode("tipoSolicitacao"),
+		@NamedAttributeNode(value = "usuario", subgraph = "usuario"),
+		@NamedAttributeNode(value = "correspondente", subgraph = "correspondente"),
+		@NamedAttributeNode("renumeracao"),
+		@NamedAttributeNode("formularioAudiencia"),
+		@NamedAttributeNode("bancaProcesso"),
+		@NamedAttributeNode("enviosolicitacao"),
+		@NamedAttributeNode("reciboPagamento"),
+		@NamedAttributeNode("auditoriaInterna")
+	},
+	subgraphs = {
+		@NamedSubgraph(name = "processo", attributeNodes = {
+			@NamedAttributeNode(value = "comarca", subgraph = "comarca"),
+			@NamedAttributeNode("orgao")
+		}),
+		@NamedSubgraph(name = "comarca", attributeNodes = @NamedAttributeNode("uf")),
+		@NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode(value = "correspondente", subgraph = "correspondente")),
+		@NamedSubgraph(name = "correspondente", attributeNodes = @NamedAttributeNode(value = "enderecos", subgraph = "endereco")),
+		@NamedSubgraph(name = "endereco", attributeNodes = @NamedAttributeNode("uf"))
+	})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Solicitacao implements Serializable {
 	private static final long serialVersionUID = 1L;
 	
+	public static final String GRAFO_LISTA = "Solicitacao.lista";
+	public static final String GRAFO_DETALHE = "Solicitacao.detalhe";
+	
+	// Jackson views. Properties without @JsonView are in every view, since JacksonConfig's mapper
+	// keeps DEFAULT_VIEW_INCLUSION on.
+	public interface VisaoLista {
+	}
+	
+	public interface VisaoDetalhe extends VisaoLista {
+	}
+	
 	@Id
 	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seqsol")
 	private Long idsolicitacao;
@@ -56,7 +116,7 @@ public class Solicitacao implements Serializable {
 	private String vara;
 	
 	// Replacing the string field with a proper relationship to Comarca entity
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idcomarca")
 	@JsonIgnoreProperties("solicitacoes")
 	private Comarca comarca;
@@ -98,58 +158,64 @@ public class Solicitacao implements Serializable {
 	@Column(nullable = true, length = 20)
 	private String statusexterno; // CONFIRMAR - REJEITAR
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idprocesso")
 	@JsonIgnoreProperties("solicitacoes")
 	private Processo processo;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idrenumeracao")
 	@JsonIgnoreProperties("solicitacoes")
+	@JsonView(VisaoDetalhe.class)
 	private Renumeracao renumeracao;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idstatus")
 	@JsonIgnoreProperties("solicitacoes")
 	private StatusSolicitacao statusSolicitacao;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idformulario")
 	@JsonIgnoreProperties("solicitacoes")
+	@JsonView(VisaoDetalhe.class)
 	private FormularioAudiencia formularioAudiencia;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idbanca")
 	@JsonIgnoreProperties("solicitacoes")
+	@JsonView(VisaoDetalhe.class)
 	private BancaProcesso bancaProcesso;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idenviosolicitacao")
 	@JsonIgnoreProperties("solicitacoes")
+	@JsonView(VisaoDetalhe.class)
 	private Enviosolicitacao enviosolicitacao;
 	
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idrecibo")
 	@JsonIgnoreProperties("solicitacoes")
+	@JsonView(VisaoDetalhe.class)
 	private ReciboPagamento reciboPagamento;
 	
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idusuario")
 	@JsonIgnoreProperties("solicitacoes")
 	private Usuario usuario;
 	
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idaudiinterna")
 	@JsonIgnoreProperties("solicitacoes")
+	@JsonView(VisaoDetalhe.class)
 	private AuditoriaInterna auditoriaInterna;
 	
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idtiposolicitacao")
 	@JsonIgnoreProperties("solicitacoes")
 	private TipoSolicitacao tipoSolicitacao;
 	
 	// Adding the relationship with Correspondente
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "idcorrespondente")
 	@JsonIgnoreProperties("solicitacoes")
 	private Correspondente correspondente;
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.annotation.JsonValue;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Usuario implements Serializable {
     
     private static final long serialVersionUID = 1L;
@@ -1,5 +1,6 @@
 package br.adv.cra.repository;
 
+import br.adv.cra.dto.AutocompleteDTO;
 import br.adv.cra.entity.Comarca;
 import br.adv.cra.entity.Uf;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -17,6 +18,9 @@ public interface ComarcaRepository extends JpaRepository<Comarca, Long> {
     @Query("SELECT c FROM Comarca c WHERE c.nome LIKE %:nome%")
     List<Comarca> findByNomeContaining(@Param("nome") String nome);
     
+    @Query("SELECT new br.adv.cra.dto.AutocompleteDTO(c.id, c.nome) FROM Comarca c")
+    List<AutocompleteDTO> findAutocomplete();
+    
     @Query("SELECT c FROM Comarca c ORDER BY c.nome")
     List<Comarca> findAllOrderByNome();
     
@@ -1,5 +1,6 @@
 package br.adv.cra.repository;
 
+import br.adv.cra.dto.AutocompleteDTO;
 import br.adv.cra.entity.Correspondente;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -18,6 +19,9 @@ public interface CorrespondenteRepository extends JpaRepository<Correspondente,
     @Query("SELECT c FROM Correspondente c WHERE c.nome LIKE CONCAT('%', :nome, '%')")
     List<Correspondente> findByNomeContaining(@Param("nome") String nome);
     
+    @Query("SELECT new br.adv.cra.dto.AutocompleteDTO(c.id, c.nome) FROM Correspondente c")
+    List<AutocompleteDTO> findAutocomplete();
+    
     Optional<Correspondente> findByCpfcnpj(String cpfCnpj);
     
     Optional<Correspondente> findByOab(String oab);
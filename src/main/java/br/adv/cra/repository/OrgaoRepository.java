@@ -1,5 +1,6 @@
 package br.adv.cra.repository;
 
+import br.adv.cra.dto.AutocompleteDTO;
 import br.adv.cra.entity.Orgao;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,6 +15,9 @@ public interface OrgaoRepository extends JpaRepository<Orgao, Long> {
     @Query("SELECT o FROM Orgao o WHERE o.descricao LIKE %:descricao%")
     List<Orgao> findByDescricaoContaining(@Param("descricao") String descricao);
     
+    @Query("SELECT new br.adv.cra.dto.AutocompleteDTO(o.id, o.descricao) FROM Orgao o")
+    List<AutocompleteDTO> findAutocomplete();
+    
     @Query("SELECT o FROM Orgao o ORDER BY o.descricao ASC")
     List<Orgao> findAllOrderByDescricao();
     
@@ -3,38 +3,93 @@ package br.adv.cra.repository;
 import br.adv.cra.entity.Comarca;
 import br.adv.cra.entity.Orgao;
 import br.adv.cra.entity.Processo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProcessoRepository extends JpaRepository<Processo, Long> {
     
+    // comarca and orgao are LAZY; every finder joins them because the API always serializes both
+    @Override
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
+    List<Processo> findAll();
+    
+    @Override
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
+    Optional<Processo> findById(Long id);
+    
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
     Optional<Processo> findByNumeroprocesso(String numeroprocesso);
     
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
     @Query("SELECT p FROM Processo p WHERE p.numeroprocessopesq LIKE %:numero%")
     List<Processo> findByNumeroprocessopesqContaining(@Param("numero") String numero);
     
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
     @Query("SELECT p FROM Processo p WHERE p.parte LIKE %:parte%")
     List<Processo> findByParteContaining(@Param("parte") String parte);
     
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
     @Query("SELECT p FROM Processo p WHERE p.adverso LIKE %:adverso%")
     List<Processo> findByAdversoContaining(@Param("adverso") String adverso);
     
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
     List<Processo> findByStatus(String status);
     
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
     List<Processo> findByComarca(Comarca comarca);
     
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
     List<Processo> findByOrgao(Orgao orgao);
     
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
     @Query("SELECT p FROM Processo p WHERE p.assunto LIKE %:assunto%")
     List<Processo> findByAssuntoContaining(@Param("assunto") String assunto);
     
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
     List<Processo> findByProceletronico(String processoEletronico);
     
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
+    @Query("SELECT p FROM Processo p WHERE p.id IN :ids")
+    List<Processo> findByIds(@Param("ids") Collection<Long> ids);
+    
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
+    List<Processo> findByNumerocnj(String numerocnj);
+    
+    // A range instead of LIKE 'prefix%', so the plain B-tree index serves it in any collation
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
+    @Query("SELECT p FROM Processo p WHERE p.numerocnj >= :inicio AND p.numerocnj < :fim ORDER BY p.numerocnj, p.id")
+    List<Processo> findByNumerocnjPrefixo(@Param("inicio") String inicio, @Param("fim") String fim, Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
+    @Query("SELECT p FROM Processo p WHERE p.cnjsegmento = :segmento AND p.cnjtribunal = :tribunal " +
+           "ORDER BY p.cnjano DESC, p.id DESC")
+    List<Processo> findByTribunal(@Param("segmento") Integer segmento, @Param("tribunal") Integer tribunal,
+                                  Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"comarca", "comarca.uf", "orgao"})
+    @Query("SELECT p FROM Processo p WHERE p.cnjsegmento = :segmento AND p.cnjtribunal = :tribunal " +
+           "AND p.cnjano = :ano ORDER BY p.id DESC")
+    List<Processo> findByTribunalEAno(@Param("segmento") Integer segmento, @Param("tribunal") Integer tribunal,
+                                      @Param("ano") Integer ano, Pageable pageable);
+    
+    // Reads only idx_processo_numerocnj
+    @Query("SELECT p.numerocnj FROM Processo p WHERE p.numerocnj IN :numeros")
+    List<String> findNumerocnjExistentes(@Param("numeros") Collection<String> numeros);
+    
+    // Reads only idx_processo_numeroprocesso
+    @Query("SELECT p.numeroprocesso FROM Processo p WHERE p.numeroprocesso IN :numeros")
+    List<String> findNumeroprocessoExistentes(@Param("numeros") Collection<String> numeros);
+    
+    boolean existsByNumerocnj(String numerocnj);
+    
     boolean existsByNumeroprocesso(String numeroprocesso);
     
     @Query("SELECT COUNT(p) FROM Processo p WHERE p.status = :status")
@@ -5,10 +5,14 @@ import br.adv.cra.entity.Solicitacao;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SoliArquivoRepository extends JpaRepository<SoliArquivo, Long> {
     List<SoliArquivo> findBySolicitacao(Solicitacao solicitacao);
     List<SoliArquivo> findBySolicitacaoIdsolicitacao(Long idSolicitacao);
+    long countByConteudoHash(String conteudoHash);
+    List<SoliArquivo> findTop50ByStorageLocationAndTransferenciaProximaBeforeOrderByTransferenciaProxima(
+            String storageLocation, LocalDateTime limite);
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package br.adv.cra.repository;
 
+import br.adv.cra.dto.SolicitacaoResumoDTO;
 import br.adv.cra.entity.Comarca;
 import br.adv.cra.entity.Correspondente;
 import br.adv.cra.entity.Processo;
 import br.adv.cra.entity.Solicitacao;
+import br.adv.cra.entity.StatusSolicitacao;
 import br.adv.cra.entity.Usuario;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,46 +17,81 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SolicitacaoRepository extends JpaRepository<Solicitacao, Long> {
     
+    // Constructor-expression projection for ?view=summary: a single SELECT with outer joins to the
+    // six associations the grid shows, instead of a full entity graph.
+    String RESUMO_SELECT = "SELECT new br.adv.cra.dto.SolicitacaoResumoDTO(" +
+            "s.idsolicitacao, s.datasolicitacao, s.dataprazo, s.dataagendamento, s.dataconclusao, " +
+            "p.numeroprocesso, c.nome, st.status, t.especie, u.nomecompleto, co.nome, " +
+            "s.statusexterno, s.pago, s.valor) " +
+            "FROM Solicitacao s LEFT JOIN s.processo p LEFT JOIN s.comarca c LEFT JOIN s.statusSolicitacao st " +
+            "LEFT JOIN s.tipoSolicitacao t LEFT JOIN s.usuario u LEFT JOIN s.correspondente co ";
+    
+    String RESUMO_ORDEM = " ORDER BY s.idsolicitacao DESC";
+    
+    @Override
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    List<Solicitacao> findAll();
+    
+    @Override
+    @EntityGraph(Solicitacao.GRAFO_DETALHE)
+    Optional<Solicitacao> findById(Long id);
+    
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     List<Solicitacao> findByUsuario(Usuario usuario);
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     List<Solicitacao> findByProcesso(Processo processo);
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     List<Solicitacao> findByComarca(Comarca comarca);
     
     // Adding method to find solicitacoes by correspondente
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     List<Solicitacao> findByCorrespondente(Correspondente correspondente);
     
     // Adding method to find solicitacoes by usuario and correspondente
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     List<Solicitacao> findByUsuarioAndCorrespondente(Usuario usuario, Correspondente correspondente);
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     @Query("SELECT s FROM Solicitacao s WHERE s.datasolicitacao BETWEEN :inicio AND :fim")
     List<Solicitacao> findByDatasolicitacaoBetween(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     @Query("SELECT s FROM Solicitacao s WHERE s.dataconclusao IS NULL")
     List<Solicitacao> findPendentes();
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     @Query("SELECT s FROM Solicitacao s WHERE s.dataconclusao IS NOT NULL")
     List<Solicitacao> findConcluidas();
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     @Query("SELECT s FROM Solicitacao s WHERE s.pago = 'true'")
     List<Solicitacao> findByPagoTrue();
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     @Query("SELECT s FROM Solicitacao s WHERE s.pago = 'false'")
     List<Solicitacao> findByPagoFalse();
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     @Query("SELECT s FROM Solicitacao s WHERE s.dataagendamento < :data AND s.dataconclusao IS NULL")
     List<Solicitacao> findAtrasadas(@Param("data") LocalDateTime data);
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     @Query("SELECT s FROM Solicitacao s WHERE s.observacao LIKE '%' || :texto || '%' OR s.instrucoes LIKE '%' || :texto || '%'")
     List<Solicitacao> findByTextoContaining(@Param("texto") String texto);
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     List<Solicitacao> findByGrupo(Integer grupo);
     
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
     List<Solicitacao> findByStatusexterno(String statusexterno);
     
     @Query("SELECT COUNT(s) FROM Solicitacao s WHERE s.usuario = :usuario")
@@ -61,6 +100,118 @@ public interface SolicitacaoRepository extends JpaRepository<Solicitacao, Long>
     @Query("SELECT COUNT(s) FROM Solicitacao s WHERE s.dataconclusao IS NULL")
     Long countPendentes();
     
+    // Keyset pagination: every page query takes the last idsolicitacao seen (Long.MAX_VALUE for the
+    // first page) and a Pageable that only carries the limit, so the cost does not grow with depth.
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    @Query("SELECT s FROM Solicitacao s WHERE s.idsolicitacao < :cursor ORDER BY s.idsolicitacao DESC")
+    List<Solicitacao> findPagina(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    @Query("SELECT s FROM Solicitacao s WHERE s.dataconclusao IS NULL AND s.idsolicitacao < :cursor ORDER BY s.idsolicitacao DESC")
+    List<Solicitacao> findPendentesPagina(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    @Query("SELECT s FROM Solicitacao s WHERE s.dataconclusao IS NOT NULL AND s.idsolicitacao < :cursor ORDER BY s.idsolicitacao DESC")
+    List<Solicitacao> findConcluidasPagina(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    @Query("SELECT s FROM Solicitacao s WHERE s.pago = 'true' AND s.idsolicitacao < :cursor ORDER BY s.idsolicitacao DESC")
+    List<Solicitacao> findPagasPagina(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    @Query("SELECT s FROM Solicitacao s WHERE s.pago = 'false' AND s.idsolicitacao < :cursor ORDER BY s.idsolicitacao DESC")
+    List<Solicitacao> findNaoPagasPagina(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    @Query("SELECT s FROM Solicitacao s WHERE s.dataagendamento < :data AND s.dataconclusao IS NULL AND s.idsolicitacao < :cursor ORDER BY s.idsolicitacao DESC")
+    List<Solicitacao> findAtrasadasPagina(@Param("data") LocalDateTime data, @Param("cursor") Long cursor, Pageable pageable);
+    
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    @Query("SELECT s FROM Solicitacao s WHERE s.usuario.id = :usuarioId AND s.idsolicitacao < :cursor ORDER BY s.idsolicitacao DESC")
+    List<Solicitacao> findByUsuarioPagina(@Param("usuarioId") Long usuarioId, @Param("cursor") Long cursor, Pageable pageable);
+    
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    @Query("SELECT s FROM Solicitacao s WHERE s.correspondente.id = :correspondenteId AND s.idsolicitacao < :cursor ORDER BY s.idsolicitacao DESC")
+    List<Solicitacao> findByCorrespondentePagina(@Param("correspondenteId") Long correspondenteId, @Param("cursor") Long cursor, Pageable pageable);
+    
+    // Period listing is ordered by (datasolicitacao, idsolicitacao) ascending; the first page starts at
+    // (inicio, Long.MIN_VALUE) so the same predicate covers every page.
+    @EntityGraph(Solicitacao.GRAFO_LISTA)
+    @Query("SELECT s FROM Solicitacao s WHERE s.datasolicitacao <= :fim " +
+           "AND (s.datasolicitacao > :data OR (s.datasolicitacao = :data AND s.idsolicitacao > :cursor)) " +
+           "ORDER BY s.datasolicitacao ASC, s.idsolicitacao ASC")
+    List<Solicitacao> findByPeriodoPagina(@Param("data") LocalDateTime data, @Param("cursor") Long cursor,
+                                          @Param("fim") LocalDateTime fim, Pageable pageable);
+    
+    // Summary projections. They all take the keyset cursor; unpaginated callers pass Long.MAX_VALUE
+    // and Pageable.unpaged().
+    @Query(RESUMO_SELECT + "WHERE s.idsolicitacao < :cursor" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findResumo(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @Query(RESUMO_SELECT + "WHERE s.dataconclusao IS NULL AND s.idsolicitacao < :cursor" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findPendentesResumo(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @Query(RESUMO_SELECT + "WHERE s.dataconclusao IS NOT NULL AND s.idsolicitacao < :cursor" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findConcluidasResumo(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @Query(RESUMO_SELECT + "WHERE s.pago = 'true' AND s.idsolicitacao < :cursor" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findPagasResumo(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @Query(RESUMO_SELECT + "WHERE s.pago = 'false' AND s.idsolicitacao < :cursor" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findNaoPagasResumo(@Param("cursor") Long cursor, Pageable pageable);
+    
+    @Query(RESUMO_SELECT + "WHERE s.dataagendamento < :data AND s.dataconclusao IS NULL AND s.idsolicitacao < :cursor" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findAtrasadasResumo(@Param("data") LocalDateTime data, @Param("cursor") Long cursor, Pageable pageable);
+    
+    @Query(RESUMO_SELECT + "WHERE u.id = :usuarioId AND s.idsolicitacao < :cursor" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findByUsuarioResumo(@Param("usuarioId") Long usuarioId, @Param("cursor") Long cursor, Pageable pageable);
+    
+    @Query(RESUMO_SELECT + "WHERE co.id = :correspondenteId AND s.idsolicitacao < :cursor" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findByCorrespondenteResumo(@Param("correspondenteId") Long correspondenteId, @Param("cursor") Long cursor, Pageable pageable);
+    
+    @Query(RESUMO_SELECT + "WHERE s.datasolicitacao <= :fim " +
+           "AND (s.datasolicitacao > :data OR (s.datasolicitacao = :data AND s.idsolicitacao > :cursor)) " +
+           "ORDER BY s.datasolicitacao ASC, s.idsolicitacao ASC")
+    List<SolicitacaoResumoDTO> findByPeriodoResumo(@Param("data") LocalDateTime data, @Param("cursor") Long cursor,
+                                                   @Param("fim") LocalDateTime fim, Pageable pageable);
+    
+    @Query(RESUMO_SELECT + "WHERE s.observacao LIKE '%' || :texto || '%' OR s.instrucoes LIKE '%' || :texto || '%'" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findByTextoContainingResumo(@Param("texto") String texto);
+    
+    // Rows of a ranked text search page, reordered by the caller
+    @Query(RESUMO_SELECT + "WHERE s.idsolicitacao IN :ids")
+    List<SolicitacaoResumoDTO> findResumoByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query(RESUMO_SELECT + "WHERE s.grupo = :grupo" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findByGrupoResumo(@Param("grupo") Integer grupo);
+    
+    @Query(RESUMO_SELECT + "WHERE s.statusexterno = :statusexterno" + RESUMO_ORDEM)
+    List<SolicitacaoResumoDTO> findByStatusexternoResumo(@Param("statusexterno") String statusexterno);
+    
+    // Batch status change: the current status of every row is read in one SELECT, then the rows that
+    // change are moved with a single UPDATE. The historico trigger still fires once per updated row.
+    // The UPDATE repeats the checks made on the SELECT, since the rows may change in between.
+    interface StatusAtual {
+        Long getId();
+        
+        Long getStatusId();
+        
+        String getStatus();
+    }
+    
+    @Query("SELECT s.idsolicitacao AS id, st.idstatus AS statusId, st.status AS status " +
+           "FROM Solicitacao s LEFT JOIN s.statusSolicitacao st WHERE s.idsolicitacao IN :ids")
+    List<StatusAtual> findStatusAtual(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Solicitacao s SET s.statusSolicitacao = :status WHERE s.idsolicitacao IN :ids " +
+           "AND (s.statusSolicitacao IS NULL OR (s.statusSolicitacao <> :status " +
+           "AND (:podeAlterarConcluidas = true OR s.statusSolicitacao NOT IN " +
+           "(SELECT c FROM StatusSolicitacao c WHERE c.status = :concluida))))")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") StatusSolicitacao status,
+                     @Param("podeAlterarConcluidas") boolean podeAlterarConcluidas,
+                     @Param("concluida") String concluida);
+    
     // Method to delete historico records by solicitacao id
     @Modifying
     @Transactional
@@ -1,8 +1,11 @@
 package br.adv.cra.repository;
 
 import br.adv.cra.entity.StatusSolicitacao;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,7 +18,9 @@ public interface StatusSolicitacaoRepository extends JpaRepository<StatusSolicit
     @Query("SELECT s FROM StatusSolicitacao s WHERE s.status LIKE CONCAT('%', :status, '%')")
     List<StatusSolicitacao> findByStatusContaining(@Param("status") String status);
     
+    // Resolved on every status transition by name, so the result goes to the Hibernate query cache
     @Query("SELECT s FROM StatusSolicitacao s WHERE s.status = :status")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<StatusSolicitacao> findByStatus(@Param("status") String status);
     
     @Query("SELECT s FROM StatusSolicitacao s ORDER BY s.status ASC")
@@ -1,5 +1,6 @@
 package br.adv.cra.repository;
 
+import br.adv.cra.dto.AutocompleteDTO;
 import br.adv.cra.entity.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -25,6 +26,9 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     @Query("SELECT u FROM Usuario u WHERE u.nomecompleto LIKE %:nome%")
     List<Usuario> findByNomeCompletoContaining(@Param("nome") String nome);
     
+    @Query("SELECT new br.adv.cra.dto.AutocompleteDTO(u.id, u.nomecompleto) FROM Usuario u")
+    List<AutocompleteDTO> findAutocomplete();
+    
     @Query("SELECT u FROM Usuario u WHERE u.emailprincipal = :email OR u.emailsecundario = :email OR u.emailresponsavel = :email")
     List<Usuario> findByAnyEmail(@Param("email") String email);
     
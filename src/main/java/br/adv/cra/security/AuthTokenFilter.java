@@ -9,26 +9,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class AuthTokenFilter extends OncePerRequestFilter {
     
-    private final JwtUtils jwtUtils;
-    private UserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private UserDetailsServiceImpl userDetailsService;
     
-    public AuthTokenFilter(JwtUtils jwtUtils) {
-        this.jwtUtils = jwtUtils;
+    public AuthTokenFilter(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
     }
     
-    public void setUserDetailsService(UserDetailsService userDetailsService) {
+    public void setUserDetailsService(UserDetailsServiceImpl userDetailsService) {
         this.userDetailsService = userDetailsService;
     }
     
@@ -40,23 +40,20 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             if (jwt != null) {
                 log.debug("JWT token found: {}...", jwt.substring(0, Math.min(20, jwt.length())));
                 
-                if (jwtUtils.validateJwtToken(jwt)) {
-                    String username = jwtUtils.getUserNameFromJwtToken(jwt);
+                Optional<JwtClaims> claims = verifiedTokenCache.verify(jwt);
+                if (claims.isPresent()) {
+                    // Signature and expiration were checked on first sight of this token
+                    String username = claims.get().getSubject();
                     log.debug("JWT token valid for user: {}", username);
                     
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails = userDetailsService.carregarPrincipal(username);
+                    UsernamePasswordAuthenticationToken authentication = 
+                            new UsernamePasswordAuthenticationToken(userDetails, null, 
+                                                                   userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     
-                    if (jwtUtils.validateJwtToken(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authentication = 
-                                new UsernamePasswordAuthenticationToken(userDetails, null, 
-                                                                       userDetails.getAuthorities());
-                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                        log.debug("Authentication set for user: {}", username);
-                    } else {
-                        log.warn("JWT token validation failed for user: {}", username);
-                    }
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    log.debug("Authentication set for user: {}", username);
                 } else {
                     log.warn("JWT token validation failed - invalid token");
                 }
@@ -0,0 +1,30 @@
+package br.adv.cra.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiration have already been checked.
+ *
+ * Produced once per token by {@link JwtUtils#parseToken(String)}, so callers
+ * read the subject, type and expiration without parsing the token again.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public final class JwtClaims {
+
+    private static final String REFRESH_TYPE = "refresh";
+
+    private final String subject;
+    private final String type;
+    private final Instant issuedAt;
+    private final Instant expiration;
+
+    public boolean isRefreshToken() {
+        return REFRESH_TYPE.equals(type);
+    }
+}
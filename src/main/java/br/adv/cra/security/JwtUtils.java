@@ -3,6 +3,7 @@ package br.adv.cra.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,6 +13,7 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Component
@@ -27,6 +29,18 @@ public class JwtUtils {
     @Value("${app.jwt.refresh-expiration:604800000}") // 7 days in milliseconds
     private int refreshTokenExpirationMs;
     
+    // Built once from the secret; JwtParser is immutable and thread-safe
+    private Key signingKey;
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = buildSignInKey();
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     public String generateJwtToken(UserDetails userDetails) {
         return generateTokenFromUsername(userDetails.getUsername());
     }
@@ -48,7 +62,7 @@ public class JwtUtils {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
@@ -66,22 +80,24 @@ public class JwtUtils {
     }
     
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-    
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return jwtParser.parseClaimsJws(token).getBody();
     }
     
-    public Boolean validateJwtToken(String authToken, UserDetails userDetails) {
+    /**
+     * Verifies the signature and expiration of a token and extracts its claims
+     * in a single parse.
+     * 
+     * @param authToken The compact JWT
+     * @return The verified claims, or empty if the token is invalid or expired
+     */
+    public Optional<JwtClaims> parseToken(String authToken) {
         try {
-            final String username = getUserNameFromJwtToken(authToken);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(authToken));
+            Claims claims = getAllClaimsFromToken(authToken);
+            return Optional.of(new JwtClaims(
+                    claims.getSubject(),
+                    claims.get("type", String.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null));
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -90,30 +106,23 @@ public class JwtUtils {
             log.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.error("JWT signature is invalid: {}", e.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+    
+    public Boolean validateJwtToken(String authToken, UserDetails userDetails) {
+        return parseToken(authToken)
+                .map(claims -> claims.getSubject().equals(userDetails.getUsername()))
+                .orElse(false);
     }
     
     public Boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
-        }
-        return false;
+        return parseToken(authToken).isPresent();
     }
     
-    private Key getSignInKey() {
+    private Key buildSignInKey() {
         // Use the secret directly as bytes, ensuring it's long enough for HS256
         byte[] keyBytes;
         
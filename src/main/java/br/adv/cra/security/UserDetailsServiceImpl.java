@@ -1,8 +1,10 @@
 package br.adv.cra.security;
 
+import br.adv.cra.config.CacheConfig;
 import br.adv.cra.entity.Usuario;
 import br.adv.cra.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -23,4 +25,24 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         
         return UserDetailsImpl.build(usuario);
     }
+    
+    /**
+     * Loads the principal for an already issued JWT.
+     * 
+     * Results are cached by login (see CacheConfig.PRINCIPAIS) and evicted by
+     * UsuarioService on any user change, so most authenticated requests do not
+     * touch the database. The cached copy carries no password hash, since the
+     * token filter never checks credentials.
+     * 
+     * @param login The login taken from the token subject
+     * @return The principal for the login
+     * @throws UsernameNotFoundException if no user has the given login
+     */
+    @Cacheable(cacheNames = CacheConfig.PRINCIPAIS, key = "#login")
+    @Transactional(readOnly = true)
+    public UserDetailsImpl carregarPrincipal(String login) throws UsernameNotFoundException {
+        UserDetailsImpl principal = (UserDetailsImpl) loadUserByUsername(login);
+        principal.setPassword(null);
+        return principal;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package br.adv.cra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of JWTs whose signature has already been verified.
+ *
+ * Clients resend the same bearer token on every request, so a token is parsed and
+ * HMAC-checked once and later requests are answered from memory. Entries are keyed
+ * by the SHA-256 of the whole token (never by the signature alone, which would let
+ * a modified payload reuse a verified signature) and expire exactly when the token
+ * does. Revoked tokens are remembered until their own expiration. That set has no
+ * size cap: evicting a revocation early would make a revoked token valid again.
+ *
+ * Hit/miss counts are exposed as cache.gets{cache=jwtVerificados} and revocations
+ * as jwt.revocations.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    static final String CACHE_NAME = "jwtVerificados";
+
+    private final JwtUtils jwtUtils;
+    private final Cache<String, JwtClaims> verified;
+    private final Cache<String, Instant> revoked;
+    private final Counter revocations;
+
+    public VerifiedTokenCache(JwtUtils jwtUtils, MeterRegistry meterRegistry,
+                              @Value("${app.jwt.verified-cache.max-size:10000}") long maxSize) {
+        this.jwtUtils = jwtUtils;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(untilExpiration(JwtClaims::getExpiration))
+                .recordStats()
+                .build();
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(untilExpiration((Instant expiration) -> expiration))
+                .build();
+        this.revocations = Counter.builder("jwt.revocations")
+                .description("Tokens revoked before their expiration")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, CACHE_NAME);
+    }
+
+    /**
+     * Returns the claims of a valid token, verifying it only on the first call.
+     *
+     * @param token The compact JWT from the Authorization header
+     * @return The verified claims, or empty if the token is invalid, expired or revoked
+     */
+    public Optional<JwtClaims> verify(String token) {
+        String key = hash(token);
+        if (revoked.getIfPresent(key) != null) {
+            log.debug("JWT token was revoked");
+            return Optional.empty();
+        }
+        JwtClaims claims = verified.getIfPresent(key);
+        if (claims != null) {
+            // The entry expires with the token, but the clock may cross exp between reads
+            return claims.getExpiration().isAfter(Instant.now()) ? Optional.of(claims) : Optional.empty();
+        }
+        Optional<JwtClaims> parsed = jwtUtils.parseToken(token);
+        parsed.filter(c -> c.getExpiration() != null)
+                .ifPresent(c -> verified.put(key, c));
+        return parsed;
+    }
+
+    /**
+     * Revokes a token: it is dropped from the cache and rejected until it expires.
+     *
+     * @param token The compact JWT to revoke
+     */
+    public void revoke(String token) {
+        String key = hash(token);
+        JwtClaims claims = verified.getIfPresent(key);
+        if (claims == null) {
+            claims = jwtUtils.parseToken(token).orElse(null);
+        }
+        verified.invalidate(key);
+        if (claims != null && claims.getExpiration() != null) {
+            revoked.put(key, claims.getExpiration());
+            revocations.increment();
+            log.info("JWT token revoked for user {}", claims.getSubject());
+        }
+    }
+
+    long revokedSize() {
+        revoked.cleanUp();
+        return revoked.estimatedSize();
+    }
+
+    long size() {
+        verified.cleanUp();
+        return verified.estimatedSize();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    private static <V> Expiry<String, V> untilExpiration(Function<V, Instant> expiration) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, V value, long currentTime) {
+                long nanos = Duration.between(Instant.now(), expiration.apply(value)).toNanos();
+                return Math.max(nanos, 0);
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -0,0 +1,245 @@
+package br.adv.cra.service;
+
+import br.adv.cra.entity.SoliArquivo;
+import br.adv.cra.repository.SoliArquivoRepository;
+import br.adv.cra.util.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams the attachments of one or more solicitações as a single ZIP.
+ *
+ * The ZIP is written straight to the response while it is built. Attachments are opened
+ * ahead of the writer by a shared worker pool, at most app.anexos.zip.parallelism per
+ * download, so the latency of opening Drive downloads overlaps with writing the previous
+ * entries. Content is only ever copied from an open stream into the ZIP: nothing is
+ * buffered in memory or on disk. Drive files already in DriveBlobCache are read from
+ * there; others are streamed from Drive without being cached.
+ *
+ * An attachment that cannot be read does not abort the download, since the response is
+ * already committed; it is listed in a final ERROS.txt entry instead.
+ */
+@Service
+public class AnexoZipService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnexoZipService.class);
+
+    static final String ERROS_ENTRY = "ERROS.txt";
+
+    private final SoliArquivoRepository soliArquivoRepository;
+    private final GoogleDriveService googleDriveService;
+    private final DriveBlobCache driveBlobCache;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    @Value("${app.anexos.zip.max-solicitacoes:50}")
+    private int maxSolicitacoes = 50;
+
+    public AnexoZipService(SoliArquivoRepository soliArquivoRepository,
+                           GoogleDriveService googleDriveService,
+                           DriveBlobCache driveBlobCache,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.anexos.zip.threads:8}") int threads,
+                           @Value("${app.anexos.zip.parallelism:4}") int parallelism,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.soliArquivoRepository = soliArquivoRepository;
+        this.googleDriveService = googleDriveService;
+        this.driveBlobCache = driveBlobCache;
+        this.parallelism = parallelism;
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), WorkerThreads.factory("anexos-zip-", virtualThreads));
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "anexosZip");
+    }
+
+    /**
+     * An attachment and its unique entry name in the ZIP.
+     */
+    record Entrada(SoliArquivo anexo, String nome) {
+    }
+
+    /**
+     * Lists the attachments that go into the ZIP, in entry order.
+     *
+     * @param solicitacaoIds The IDs of the solicitações; with more than one, each one
+     *                       gets its own folder in the ZIP
+     * @return The entries of every solicitação, grouped by solicitação
+     */
+    List<Entrada> listarEntradas(List<Long> solicitacaoIds) {
+        boolean pastas = solicitacaoIds.size() > 1;
+        Set<String> nomes = new HashSet<>();
+        List<Entrada> entradas = new ArrayList<>();
+        for (Long solicitacaoId : solicitacaoIds) {
+            for (SoliArquivo anexo : soliArquivoRepository.findBySolicitacaoIdsolicitacao(solicitacaoId)) {
+                String nome = nomeArquivo(anexo);
+                if (pastas) {
+                    nome = "solicitacao-" + solicitacaoId + "/" + nome;
+                }
+                entradas.add(new Entrada(anexo, nomeUnico(nome, nomes)));
+            }
+        }
+        return entradas;
+    }
+
+    /**
+     * Checks the list of solicitações of a multi-solicitação ZIP.
+     *
+     * @throws IllegalArgumentException If the list is empty or longer than app.anexos.zip.max-solicitacoes
+     */
+    public void validarSolicitacoes(List<Long> solicitacaoIds) {
+        if (solicitacaoIds == null || solicitacaoIds.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma solicitação");
+        }
+        if (solicitacaoIds.size() > maxSolicitacoes) {
+            throw new IllegalArgumentException("No máximo " + maxSolicitacoes + " solicitações por download");
+        }
+    }
+
+    /**
+     * Writes the attachments of the given solicitações as a ZIP.
+     *
+     * @param solicitacaoIds The IDs of the solicitações
+     * @param out            The response stream; it is finished but not closed
+     * @throws IOException If writing to the response fails (e.g. the client went away)
+     */
+    public void escreverZip(List<Long> solicitacaoIds, OutputStream out) throws IOException {
+        List<Entrada> entradas = listarEntradas(solicitacaoIds);
+        logger.info("Streaming ZIP with {} attachments of solicitações {}", entradas.size(), solicitacaoIds);
+
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // Attachments are mostly PDFs and images, which barely compress
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        Deque<Future<InputStream>> abertos = new ArrayDeque<>();
+        List<String> erros = new ArrayList<>();
+        int proximo = 0;
+        try {
+            for (Entrada entrada : entradas) {
+                // Keep up to parallelism attachments being opened ahead of the writer
+                while (proximo < entradas.size() && abertos.size() < parallelism) {
+                    SoliArquivo seguinte = entradas.get(proximo++).anexo();
+                    abertos.add(executor.submit(() -> abrir(seguinte)));
+                }
+
+                InputStream conteudo;
+                try {
+                    conteudo = abertos.removeFirst().get();
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause() != null ? e.getCause() : e;
+                    logger.warn("Attachment {} left out of the ZIP: {}", entrada.anexo().getId(), causa.getMessage());
+                    erros.add(entrada.nome() + " (id " + entrada.anexo().getId() + "): " + causa.getMessage());
+                    continue;
+                }
+
+                try (InputStream in = conteudo) {
+                    zip.putNextEntry(new ZipEntry(entrada.nome()));
+                    in.transferTo(zip);
+                    zip.closeEntry();
+                }
+            }
+
+            if (!erros.isEmpty()) {
+                zip.putNextEntry(new ZipEntry(ERROS_ENTRY));
+                zip.write(("Arquivos que não puderam ser incluídos:\n" + String.join("\n", erros) + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("ZIP download interrupted", e);
+        } finally {
+            fecharAbertos(abertos);
+        }
+    }
+
+    /**
+     * Opens the content of one attachment. Runs on the worker pool.
+     */
+    InputStream abrir(SoliArquivo anexo) throws IOException {
+        if ("google_drive".equals(anexo.getStorageLocation()) && anexo.getGoogleDriveFileId() != null) {
+            Optional<Path> cached = driveBlobCache.getIfPresent(anexo.getGoogleDriveFileId());
+            if (cached.isPresent()) {
+                return Files.newInputStream(cached.get());
+            }
+            return googleDriveService.downloadFile(anexo.getGoogleDriveFileId());
+        }
+        if (anexo.getCaminhofisico() == null) {
+            throw new IOException("Arquivo sem caminho físico");
+        }
+        return Files.newInputStream(Paths.get(anexo.getCaminhofisico()));
+    }
+
+    private static String nomeArquivo(SoliArquivo anexo) {
+        String nome = anexo.getNomearquivo() != null && !anexo.getNomearquivo().isBlank()
+                ? anexo.getNomearquivo() : "anexo-" + anexo.getId();
+        // Entry names must not escape the archive root
+        return nome.replace('\\', '_').replace('/', '_');
+    }
+
+    /**
+     * Makes an entry name unique by adding " (2)", " (3)"... before the extension.
+     */
+    static String nomeUnico(String nome, Set<String> usados) {
+        if (usados.add(nome)) {
+            return nome;
+        }
+        int ponto = nome.lastIndexOf('.');
+        int barra = nome.lastIndexOf('/');
+        String base = ponto > barra + 1 ? nome.substring(0, ponto) : nome;
+        String extensao = ponto > barra + 1 ? nome.substring(ponto) : "";
+        for (int i = 2; ; i++) {
+            String candidato = base + " (" + i + ")" + extensao;
+            if (usados.add(candidato)) {
+                return candidato;
+            }
+        }
+    }
+
+    private static void fecharAbertos(Deque<Future<InputStream>> abertos) {
+        for (Future<InputStream> aberto : abertos) {
+            if (!aberto.cancel(true) && !aberto.isCancelled()) {
+                try {
+                    aberto.get().close();
+                } catch (Exception e) {
+                    // Already failed or closing: nothing left to release
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -8,8 +8,10 @@ import br.adv.cra.entity.Usuario;
 import br.adv.cra.entity.Correspondente;
 import br.adv.cra.repository.UsuarioRepository;
 import br.adv.cra.repository.CorrespondenteRepository;
+import br.adv.cra.security.JwtClaims;
 import br.adv.cra.security.JwtUtils;
 import br.adv.cra.security.UserDetailsImpl;
+import br.adv.cra.security.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -38,6 +40,8 @@ public class AuthService {
     private final CorrespondenteRepository correspondenteRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UsuarioService usuarioService;
     
     public JwtResponse authenticate(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
@@ -88,14 +92,13 @@ public class AuthService {
         
         Usuario usuario = new Usuario();
         usuario.setLogin(registerRequest.getLogin());
-        usuario.setSenha(passwordEncoder.encode(registerRequest.getSenha()));
+        usuario.setSenha(registerRequest.getSenha());
         usuario.setNomecompleto(registerRequest.getNomeCompleto());
         usuario.setEmailprincipal(registerRequest.getEmailPrincipal());
         usuario.setEmailsecundario(registerRequest.getEmailSecundario());
         usuario.setEmailresponsavel(registerRequest.getEmailResponsavel());
         usuario.setTipo(registerRequest.getTipo());
         usuario.setAtivo(true);
-        usuario.setDataentrada(LocalDateTime.now());
         
         // If user type is "correspondente" (type 3) and a correspondent ID is provided, associate it
         if (registerRequest.getTipo() == 3 && registerRequest.getCorrespondenteId() != null) {
@@ -107,7 +110,8 @@ public class AuthService {
             }
         }
         
-        usuario = usuarioRepository.save(usuario);
+        // Through UsuarioService, which encodes the password, sets dataentrada and adds the name to its autocomplete index
+        usuario = usuarioService.salvar(usuario);
         
         UserDetailsImpl userDetails = UserDetailsImpl.build(usuario);
         String jwt = jwtUtils.generateJwtToken(userDetails);
@@ -137,18 +141,32 @@ public class AuthService {
         );
     }
     
+    /**
+     * Revokes the given tokens, so they are rejected from now on even before they expire.
+     * 
+     * @param token The compact JWT taken from the Authorization header, may be null
+     * @param refreshToken The refresh token issued with it, may be null
+     */
+    public void logout(String token, String refreshToken) {
+        if (token != null && !token.isBlank()) {
+            verifiedTokenCache.revoke(token);
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            verifiedTokenCache.revoke(refreshToken);
+        }
+    }
+    
     public JwtResponse refreshToken(RefreshTokenRequest request) {
         String refreshToken = request.getRefreshToken();
         
-        if (!jwtUtils.validateJwtToken(refreshToken)) {
-            throw new RuntimeException("Refresh token inválido!");
-        }
+        JwtClaims claims = verifiedTokenCache.verify(refreshToken)
+                .orElseThrow(() -> new RuntimeException("Refresh token inválido!"));
         
-        if (!jwtUtils.isRefreshToken(refreshToken)) {
+        if (!claims.isRefreshToken()) {
             throw new RuntimeException("Token fornecido não é um refresh token!");
         }
         
-        String username = jwtUtils.getUserNameFromJwtToken(refreshToken);
+        String username = claims.getSubject();
         Usuario usuario = usuarioRepository.findByLogin(username)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado!"));
         
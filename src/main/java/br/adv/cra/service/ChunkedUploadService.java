@@ -0,0 +1,353 @@
+package br.adv.cra.service;
+
+import br.adv.cra.dto.UploadSessionDTO;
+import br.adv.cra.entity.SoliArquivo;
+import br.adv.cra.repository.SolicitacaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Resumable chunked uploads of local attachments.
+ *
+ * A session is initiated with the final size; chunks are then sent in order, each one
+ * at the offset the server reports, and written with positional FileChannel writes
+ * straight into a single part file under {upload-dir}/parts. The SHA-256 of the whole
+ * file is computed incrementally as chunks arrive, so finalizing neither re-reads nor
+ * copies the file: it is renamed into the content-addressed store by
+ * SoliArquivoService.salvarAnexoLocal.
+ *
+ * A chunk is all-or-nothing: if the connection drops or its optional checksum does not
+ * match, the offset stays where it was and the client resends the chunk. Sessions live
+ * in memory and expire after app.upload.chunked.session-ttl without activity; their part
+ * files (and any left over from a restart) are removed by a scheduled sweep.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final SoliArquivoService soliArquivoService;
+    private final SolicitacaoRepository solicitacaoRepository;
+    private final Duration sessionTtl;
+    private final long maxSize;
+    private final long maxChunkSize;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(SoliArquivoService soliArquivoService,
+                                SolicitacaoRepository solicitacaoRepository,
+                                @Value("${app.upload.chunked.session-ttl:24h}") Duration sessionTtl,
+                                @Value("${app.upload.chunked.max-size:2147483648}") long maxSize,
+                                @Value("${app.upload.chunked.max-chunk-size:67108864}") long maxChunkSize) {
+        this.soliArquivoService = soliArquivoService;
+        this.solicitacaoRepository = solicitacaoRepository;
+        this.sessionTtl = sessionTtl;
+        this.maxSize = maxSize;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    /**
+     * Initiate a chunked upload
+     *
+     * @param solicitacaoId The ID of the solicitation the file will be attached to
+     * @param origem        The origin of the file (e.g., "correspondente" or user)
+     * @param nomeArquivo   The original filename
+     * @param tamanho       The size of the complete file, in bytes
+     * @param sha256        Optional SHA-256 of the complete file, hex encoded, checked when finalizing
+     * @param usuario       The user initiating the upload; only this user may continue it
+     * @return The new session, with offset 0
+     * @throws IOException If the part file cannot be created
+     */
+    public UploadSessionDTO iniciar(Long solicitacaoId, String origem, String nomeArquivo, long tamanho,
+                                    String sha256, String usuario) throws IOException {
+        if (tamanho <= 0 || tamanho > maxSize) {
+            throw new IllegalArgumentException("Tamanho do arquivo deve estar entre 1 e " + maxSize + " bytes");
+        }
+        if (nomeArquivo == null || nomeArquivo.isBlank()) {
+            throw new IllegalArgumentException("Nome do arquivo é obrigatório");
+        }
+        if (sha256 != null && !sha256.matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("SHA-256 inválido");
+        }
+        if (!solicitacaoRepository.existsById(solicitacaoId)) {
+            throw new RuntimeException("Solicitação não encontrada");
+        }
+
+        Path partsDir = soliArquivoService.getPartialUploadDir();
+        Files.createDirectories(partsDir);
+        String uploadId = UUID.randomUUID().toString();
+        Path partFile = Files.createFile(partsDir.resolve(uploadId + PART_SUFFIX));
+
+        UploadSession session = new UploadSession(uploadId, solicitacaoId, origem, nomeArquivo, tamanho,
+                sha256 != null ? sha256.toLowerCase() : null, usuario, partFile, newDigest());
+        session.expiraEm = Instant.now().plus(sessionTtl);
+        sessions.put(uploadId, session);
+        logger.info("Chunked upload {} started by {} for solicitacao {}: {} ({} bytes)",
+                uploadId, usuario, solicitacaoId, nomeArquivo, tamanho);
+        return toDTO(session);
+    }
+
+    /**
+     * Current state of an upload, used by clients to resume after a failure
+     */
+    public UploadSessionDTO status(String uploadId, String usuario) {
+        return toDTO(session(uploadId, usuario));
+    }
+
+    /**
+     * Append a chunk to an upload
+     *
+     * @param uploadId      The upload session
+     * @param offset        Position of the chunk in the file; must equal the session offset
+     * @param conteudo      The chunk body, streamed from the request
+     * @param checksumParte Optional SHA-256 of the chunk, hex encoded
+     * @param usuario       The user sending the chunk
+     * @return The session with its new offset
+     * @throws IOException If the chunk cannot be read or written; the offset is not advanced
+     */
+    public UploadSessionDTO receberParte(String uploadId, long offset, InputStream conteudo, String checksumParte,
+                                         String usuario) throws IOException {
+        UploadSession session = session(uploadId, usuario);
+        if (!session.lock.tryLock()) {
+            throw new IllegalStateException("Outra parte deste upload está sendo enviada");
+        }
+        try {
+            if (offset != session.recebido) {
+                throw new IllegalStateException("Offset inválido: esperado " + session.recebido);
+            }
+            MessageDigest anterior = cloneDigest(session.digest);
+            MessageDigest digestParte = checksumParte != null ? newDigest() : null;
+            long position = offset;
+            try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+                ReadableByteChannel in = Channels.newChannel(conteudo);
+                ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    if (position + buffer.remaining() > session.tamanho || position + buffer.remaining() - offset > maxChunkSize) {
+                        throw new IllegalArgumentException("Parte excede o tamanho permitido");
+                    }
+                    session.digest.update(buffer.duplicate());
+                    if (digestParte != null) {
+                        digestParte.update(buffer.duplicate());
+                    }
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                    buffer.clear();
+                }
+            } catch (IOException | RuntimeException e) {
+                session.digest = anterior;
+                logger.warn("Chunk at offset {} of upload {} discarded: {}", offset, uploadId, e.getMessage());
+                throw e;
+            }
+            if (digestParte != null && !HexFormat.of().formatHex(digestParte.digest()).equalsIgnoreCase(checksumParte)) {
+                session.digest = anterior;
+                throw new IllegalArgumentException("Checksum da parte não confere");
+            }
+            session.recebido = position;
+            session.expiraEm = Instant.now().plus(sessionTtl);
+            logger.debug("Upload {}: {} of {} bytes received", uploadId, session.recebido, session.tamanho);
+            return toDTO(session);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Complete an upload and attach the file to its solicitation
+     *
+     * @param uploadId The upload session
+     * @param usuario  The user finalizing the upload
+     * @return The saved SoliArquivo entity
+     * @throws IOException If the file cannot be moved into the store
+     */
+    public SoliArquivo finalizar(String uploadId, String usuario) throws IOException {
+        UploadSession session = session(uploadId, usuario);
+        if (!session.lock.tryLock()) {
+            throw new IllegalStateException("Uma parte deste upload ainda está sendo enviada");
+        }
+        try {
+            if (session.recebido != session.tamanho) {
+                throw new IllegalStateException("Upload incompleto: " + session.recebido + " de " + session.tamanho + " bytes");
+            }
+            String hash = HexFormat.of().formatHex(cloneDigest(session.digest).digest());
+            if (session.sha256 != null && !session.sha256.equals(hash)) {
+                discard(session);
+                throw new IllegalArgumentException("Checksum do arquivo não confere; o upload foi descartado");
+            }
+            SoliArquivo saved;
+            try {
+                saved = soliArquivoService.salvarAnexoLocal(session.partFile, hash, session.nomeArquivo,
+                        session.solicitacaoId, session.origem);
+            } catch (IOException | RuntimeException e) {
+                // Once the part file has been moved into the store the session cannot be retried
+                if (!Files.exists(session.partFile)) {
+                    sessions.remove(uploadId);
+                }
+                throw e;
+            }
+            sessions.remove(uploadId);
+            logger.info("Chunked upload {} finalized as attachment {}", uploadId, saved.getId());
+            return saved;
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Abort an upload and delete what was received
+     */
+    public void cancelar(String uploadId, String usuario) {
+        UploadSession session = session(uploadId, usuario);
+        session.lock.lock();
+        try {
+            discard(session);
+            logger.info("Chunked upload {} cancelled", uploadId);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes expired sessions, and part files no session knows about (e.g. left by a
+     * restart) once they are older than the session TTL.
+     */
+    @Scheduled(fixedDelayString = "${app.upload.chunked.cleanup-interval:PT15M}")
+    public void removerSessoesExpiradas() {
+        Instant now = Instant.now();
+        sessions.values().stream()
+                .filter(session -> session.expiraEm.isBefore(now))
+                .filter(session -> session.lock.tryLock())
+                .forEach(session -> {
+                    try {
+                        logger.info("Chunked upload {} expired after {} of {} bytes",
+                                session.uploadId, session.recebido, session.tamanho);
+                        discard(session);
+                    } finally {
+                        session.lock.unlock();
+                    }
+                });
+
+        Path partsDir = soliArquivoService.getPartialUploadDir();
+        if (!Files.isDirectory(partsDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(partsDir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(PART_SUFFIX))
+                    .filter(file -> !sessions.containsKey(file.getFileName().toString().replace(PART_SUFFIX, "")))
+                    .filter(file -> isOlderThan(file, now.minus(sessionTtl)))
+                    .forEach(file -> {
+                        try {
+                            Files.deleteIfExists(file);
+                            logger.info("Orphan partial upload {} deleted", file.getFileName());
+                        } catch (IOException e) {
+                            logger.error("Failed to delete orphan partial upload {}: {}", file, e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            logger.error("Failed to list partial uploads in {}: {}", partsDir, e.getMessage());
+        }
+    }
+
+    private UploadSession session(String uploadId, String usuario) {
+        UploadSession session = sessions.get(uploadId);
+        // Sessions of other users are reported as missing, like expired ones
+        if (session == null || session.expiraEm.isBefore(Instant.now())
+                || (session.usuario != null && !session.usuario.equals(usuario))) {
+            throw new RuntimeException("Upload não encontrado");
+        }
+        return session;
+    }
+
+    private void discard(UploadSession session) {
+        sessions.remove(session.uploadId);
+        try {
+            Files.deleteIfExists(session.partFile);
+        } catch (IOException e) {
+            logger.error("Failed to delete partial upload {}: {}", session.partFile, e.getMessage());
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant limit) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(limit);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static UploadSessionDTO toDTO(UploadSession session) {
+        return new UploadSessionDTO(session.uploadId, session.solicitacaoId, session.nomeArquivo, session.tamanho,
+                session.recebido, LocalDateTime.ofInstant(session.expiraEm, ZoneId.systemDefault()));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    private static MessageDigest cloneDigest(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 não suporta clone", e);
+        }
+    }
+
+    private static final class UploadSession {
+        private final String uploadId;
+        private final Long solicitacaoId;
+        private final String origem;
+        private final String nomeArquivo;
+        private final long tamanho;
+        private final String sha256;
+        private final String usuario;
+        private final Path partFile;
+        private final ReentrantLock lock = new ReentrantLock();
+        private MessageDigest digest;
+        private volatile long recebido;
+        private volatile Instant expiraEm;
+
+        private UploadSession(String uploadId, Long solicitacaoId, String origem, String nomeArquivo, long tamanho,
+                              String sha256, String usuario, Path partFile, MessageDigest digest) {
+            this.uploadId = uploadId;
+            this.solicitacaoId = solicitacaoId;
+            this.origem = origem;
+            this.nomeArquivo = nomeArquivo;
+            this.tamanho = tamanho;
+            this.sha256 = sha256;
+            this.usuario = usuario;
+            this.partFile = partFile;
+            this.digest = digest;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package br.adv.cra.service;
 
+import br.adv.cra.config.CacheConfig;
+import br.adv.cra.dto.AutocompleteDTO;
 import br.adv.cra.entity.Comarca;
 import br.adv.cra.entity.Uf;
 import br.adv.cra.repository.ComarcaRepository;
+import br.adv.cra.util.IndiceAutocomplete;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -21,14 +26,19 @@ public class ComarcaService {
     
     private final ComarcaRepository comarcaRepository;
     
+    private final IndiceAutocomplete indiceAutocomplete = new IndiceAutocomplete(() -> this.comarcaRepository.findAutocomplete());
+    
     /**
      * Saves a court district.
      * 
      * @param comarca The court district to save
      * @return The saved court district
      */
+    @CacheEvict(cacheNames = CacheConfig.COMARCAS, allEntries = true)
     public Comarca salvar(Comarca comarca) {
-        return comarcaRepository.save(comarca);
+        Comarca salva = comarcaRepository.save(comarca);
+        indiceAutocomplete.atualizar(salva.getId(), salva.getNome());
+        return salva;
     }
     
     /**
@@ -37,8 +47,11 @@ public class ComarcaService {
      * @param comarca The court district to update
      * @return The updated court district
      */
+    @CacheEvict(cacheNames = CacheConfig.COMARCAS, allEntries = true)
     public Comarca atualizar(Comarca comarca) {
-        return comarcaRepository.save(comarca);
+        Comarca atualizada = comarcaRepository.save(comarca);
+        indiceAutocomplete.atualizar(atualizada.getId(), atualizada.getNome());
+        return atualizada;
     }
     
     /**
@@ -46,6 +59,7 @@ public class ComarcaService {
      * 
      * @return List of all court districts ordered by name
      */
+    @Cacheable(cacheNames = CacheConfig.COMARCAS, key = "'todas'")
     public List<Comarca> listarTodas() {
         return comarcaRepository.findAllOrderByNome();
     }
@@ -70,6 +84,18 @@ public class ComarcaService {
         return comarcaRepository.findByNomeContaining(nome);
     }
     
+    /**
+     * Suggests court districts whose name, or a word of it, starts with the prefix.
+     * Answered from the in-memory index, without a database query.
+     * 
+     * @param prefixo The typed text, compared without case and accents
+     * @param limite Maximum number of suggestions (default 10, max 50)
+     * @return The suggestions, names starting with the prefix first
+     */
+    public List<AutocompleteDTO> autocompletar(String prefixo, Integer limite) {
+        return indiceAutocomplete.buscar(prefixo, limite);
+    }
+    
     /**
      * Finds court districts by state (UF).
      * 
@@ -86,6 +112,7 @@ public class ComarcaService {
      * @param sigla The state abbreviation to search for
      * @return List of court districts in the specified state
      */
+    @Cacheable(cacheNames = CacheConfig.COMARCAS, key = "'uf:' + #sigla")
     public List<Comarca> buscarPorUfSigla(String sigla) {
         return comarcaRepository.findByUfSiglaOrderByNome(sigla);
     }
@@ -95,7 +122,9 @@ public class ComarcaService {
      * 
      * @param id The ID of the court district to delete
      */
+    @CacheEvict(cacheNames = CacheConfig.COMARCAS, allEntries = true)
     public void deletar(Long id) {
         comarcaRepository.deleteById(id);
+        indiceAutocomplete.remover(id);
     }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package br.adv.cra.service;
 
+import br.adv.cra.dto.AutocompleteDTO;
 import br.adv.cra.entity.Correspondente;
 import br.adv.cra.entity.Endereco;
 import br.adv.cra.repository.CorrespondenteRepository;
+import br.adv.cra.util.IndiceAutocomplete;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -19,6 +22,8 @@ public class CorrespondenteService {
     private final CorrespondenteRepository correspondenteRepository;
     private final EnderecoService enderecoService;
     
+    private final IndiceAutocomplete indiceAutocomplete = new IndiceAutocomplete(() -> this.correspondenteRepository.findAutocomplete());
+    
     public Correspondente salvar(Correspondente correspondente) {
         // Handle endereco saving/updating
         Endereco endereco = correspondente.getEnderecos();
@@ -34,7 +39,9 @@ public class CorrespondenteService {
         if (!correspondente.isAtivo()) {
             correspondente.setAtivo(true);
         }
-        return correspondenteRepository.save(correspondente);
+        Correspondente salvo = correspondenteRepository.save(correspondente);
+        indiceAutocomplete.atualizar(salvo.getId(), salvo.getNome());
+        return salvo;
     }
     
     public Correspondente atualizar(Correspondente correspondente) {
@@ -58,7 +65,9 @@ public class CorrespondenteService {
             correspondente.setEnderecos(endereco);
         }
         
-        return correspondenteRepository.save(correspondente);
+        Correspondente atualizado = correspondenteRepository.save(correspondente);
+        indiceAutocomplete.atualizar(atualizado.getId(), atualizado.getNome());
+        return atualizado;
     }
     
     public void deletar(Long id) {
@@ -66,6 +75,7 @@ public class CorrespondenteService {
             throw new RuntimeException("Correspondente não encontrado");
         }
         correspondenteRepository.deleteById(id);
+        indiceAutocomplete.remover(id);
     }
     
     public void inativar(Long id) {
@@ -117,6 +127,12 @@ public class CorrespondenteService {
         return correspondenteRepository.findByNomeContaining(nome);
     }
     
+    // Served from memory; NOT_SUPPORTED keeps the class-level transaction from taking a connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<AutocompleteDTO> autocompletar(String prefixo, Integer limite) {
+        return indiceAutocomplete.buscar(prefixo, limite);
+    }
+    
     @Transactional(readOnly = true)
     public Optional<Correspondente> buscarPorCpfCnpj(String cpfCnpj) {
         return correspondenteRepository.findByCpfcnpj(cpfCnpj);
@@ -0,0 +1,369 @@
+package br.adv.cra.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Read-through disk cache of attachments stored in Google Drive.
+ *
+ * A Drive file is downloaded once into {cache-dir}/{sha256 of the Drive file ID} and then
+ * served from disk through the same RangedFileResponse path as local attachments. Drive file IDs
+ * never change content, so entries need no revalidation.
+ *
+ * - Concurrent misses for the same file share a single download.
+ * - Entries are evicted least recently used first once the cache holds more than
+ *   app.google-drive.cache.max-size bytes, and max-age after they were downloaded.
+ *   The entry just added is never evicted, even when it alone exceeds the limit.
+ * - The index lives in memory and is rebuilt from the directory at startup. Its lock
+ *   only guards the in-memory state: files are checked and deleted after releasing it,
+ *   so a sweep or an eviction never blocks lookups on disk I/O.
+ *
+ * Hits and misses are exported as cache.gets{cache=googleDriveArquivos}, evictions as
+ * cache.evictions and the disk usage as cache.size.bytes.
+ */
+@Component
+public class DriveBlobCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriveBlobCache.class);
+
+    static final String CACHE_NAME = "googleDriveArquivos";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final GoogleDriveService googleDriveService;
+    private final boolean enabled;
+    private final Path dir;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+
+    // Guards entries and totalBytes
+    private final ReentrantLock lock = new ReentrantLock();
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> loading = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private record Entry(Path path, long size, long downloadedAt) {
+    }
+
+    public DriveBlobCache(GoogleDriveService googleDriveService, MeterRegistry meterRegistry,
+                          @Value("${app.google-drive.cache.enabled:true}") boolean enabled,
+                          @Value("${app.google-drive.cache.dir:${file.upload-dir}/drive-cache}") String dir,
+                          @Value("${app.google-drive.cache.max-size:2147483648}") long maxBytes,
+                          @Value("${app.google-drive.cache.max-age:7d}") Duration maxAge) {
+        this.googleDriveService = googleDriveService;
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("Drive attachments served from the disk cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("Drive attachments downloaded into the disk cache")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size.bytes", this, DriveBlobCache::totalBytes)
+                .tag("cache", CACHE_NAME)
+                .description("Disk space used by the Drive attachment cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indexes the files left by a previous run, oldest first, and drops partial downloads.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(dir);
+        List<Entry> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(TMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (Files.isRegularFile(file)) {
+                    found.add(new Entry(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong(Entry::downloadedAt));
+        List<Path> evicted;
+        lock.lock();
+        try {
+            for (Entry entry : found) {
+                entries.put(entry.path().getFileName().toString(), entry);
+                totalBytes += entry.size();
+            }
+            evicted = evict(null);
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(DriveBlobCache::delete);
+        logger.info("Google Drive cache at {}: {} files, {} bytes", dir, found.size() - evicted.size(), totalBytes());
+    }
+
+    /**
+     * Returns the cached copy of a Drive file, downloading it on a miss.
+     *
+     * @param googleDriveFileId The Google Drive file ID
+     * @return The local copy, or empty if the cache is disabled
+     * @throws IOException If the download from Google Drive fails
+     */
+    public Optional<Path> get(String googleDriveFileId) throws IOException {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = key(googleDriveFileId);
+        Path cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> inFlight = loading.putIfAbsent(key, created);
+        if (inFlight != null) {
+            // Another request is downloading the same file; wait for it instead of downloading again
+            hits.increment();
+            return Optional.of(await(inFlight));
+        }
+        try {
+            // The previous download may have finished between the lookup and putIfAbsent
+            Path path = lookup(key);
+            if (path != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                path = download(key, googleDriveFileId);
+            }
+            created.complete(path);
+            return Optional.of(path);
+        } catch (IOException | RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, created);
+        }
+    }
+
+    /**
+     * Returns the cached copy of a Drive file without downloading it on a miss.
+     *
+     * @param googleDriveFileId The Google Drive file ID
+     * @return The local copy, or empty if it is not cached
+     */
+    public Optional<Path> getIfPresent(String googleDriveFileId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path cached = lookup(key(googleDriveFileId));
+        if (cached != null) {
+            hits.increment();
+        }
+        return Optional.ofNullable(cached);
+    }
+
+    /**
+     * Drops the cached copy of a Drive file, e.g. after the file was deleted.
+     */
+    public void invalidate(String googleDriveFileId) {
+        if (!enabled) {
+            return;
+        }
+        Entry removed;
+        lock.lock();
+        try {
+            removed = entries.remove(key(googleDriveFileId));
+            if (removed != null) {
+                totalBytes -= removed.size();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (removed != null) {
+            delete(removed.path());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.google-drive.cache.cleanup-interval:PT1H}")
+    public void limparExpirados() {
+        if (!enabled) {
+            return;
+        }
+        List<Path> evicted;
+        lock.lock();
+        try {
+            evicted = evict(null);
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(DriveBlobCache::delete);
+    }
+
+    long totalBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path lookup(String key) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (!expired(entry) && Files.isRegularFile(entry.path())) {
+            return entry.path();
+        }
+        boolean removed;
+        lock.lock();
+        try {
+            // Unless a new download replaced the entry meanwhile
+            removed = entries.remove(key, entry);
+            if (removed) {
+                totalBytes -= entry.size();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (removed) {
+            delete(entry.path());
+        }
+        return null;
+    }
+
+    private Path download(String key, String googleDriveFileId) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, key, TMP_SUFFIX);
+        try {
+            try (InputStream in = googleDriveService.downloadFile(googleDriveFileId)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Path target = dir.resolve(key);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Entry entry = new Entry(target, Files.size(target), System.currentTimeMillis());
+            List<Path> evicted;
+            lock.lock();
+            try {
+                Entry previous = entries.put(key, entry);
+                if (previous != null) {
+                    totalBytes -= previous.size();
+                }
+                totalBytes += entry.size();
+                evicted = evict(key);
+            } finally {
+                lock.unlock();
+            }
+            evicted.forEach(DriveBlobCache::delete);
+            logger.info("Google Drive file {} cached ({} bytes)", googleDriveFileId, entry.size());
+            return target;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Removes expired entries, then least recently used ones until the cache fits.
+     * Must be called holding the lock; the caller deletes the returned files after
+     * releasing it.
+     */
+    private List<Path> evict(String keep) {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> candidate = iterator.next();
+            if (candidate.getKey().equals(keep)) {
+                continue;
+            }
+            if (expired(candidate.getValue()) || totalBytes > maxBytes) {
+                iterator.remove();
+                totalBytes -= candidate.getValue().size();
+                evictions.increment();
+                evicted.add(candidate.getValue().path());
+            }
+        }
+        return evicted;
+    }
+
+    private boolean expired(Entry entry) {
+        return System.currentTimeMillis() - entry.downloadedAt() > maxAgeMillis;
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete cached Google Drive file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        }
+    }
+
+    private static String key(String googleDriveFileId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(googleDriveFileId.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package br.adv.cra.service;
+
+/**
+ * Published when an attachment has been staged locally and should be transferred
+ * to Google Drive. Handled after the transaction commits.
+ *
+ * @param soliArquivoId The ID of the staged attachment
+ */
+public record DriveTransferRequestedEvent(Long soliArquivoId) {
+}
@@ -0,0 +1,189 @@
+package br.adv.cra.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Health of the Google Drive integration: a circuit breaker around every Drive call
+ * and the cached result of the availability probe.
+ *
+ * - CLOSED: calls go through; failure-threshold consecutive failures open the circuit.
+ * - OPEN: calls fail fast with GoogleDriveUnavailableException until open-duration has passed.
+ * - HALF_OPEN: a single trial call goes through; success closes the circuit, failure opens it again.
+ *
+ * Only failures that say something about Drive itself count: I/O errors, 429 and 5xx.
+ * Any other HTTP answer (missing file, bad request, expired token) proves Drive is reachable.
+ *
+ * The state is exported as google.drive.circuit.state{state=...} (1 for the current state,
+ * 0 for the others) and each transition is counted in google.drive.circuit.transitions{from,to}.
+ */
+@Component
+public class GoogleDriveHealth {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoogleDriveHealth.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final MeterRegistry meterRegistry;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final long availabilityTtlNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private Instant openedAt;
+    private boolean trialInFlight;
+    private String lastFailure;
+
+    private Boolean availability;
+    private long availabilityCheckedAtNanos;
+    private Instant availabilityCheckedAt;
+
+    public GoogleDriveHealth(MeterRegistry meterRegistry,
+                             @Value("${app.google-drive.circuit.failure-threshold:5}") int failureThreshold,
+                             @Value("${app.google-drive.circuit.open-duration:30s}") Duration openDuration,
+                             @Value("${app.google-drive.circuit.availability-cache-ttl:60s}") Duration availabilityTtl) {
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.availabilityTtlNanos = availabilityTtl.toNanos();
+        for (State gaugeState : State.values()) {
+            Gauge.builder("google.drive.circuit.state", this, health -> health.getState() == gaugeState ? 1 : 0)
+                    .description("Current state of the Google Drive circuit breaker")
+                    .tag("state", tagValue(gaugeState))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Asks permission for one Drive call. Every granted call must be followed by
+     * onSuccess or onFailure.
+     *
+     * @return false if the call must fail fast
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            trialInFlight = false;
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure(String failure) {
+        lastFailure = failure;
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            open();
+        } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Whether an HTTP status from Drive counts as a failure of Drive itself.
+     */
+    public static boolean isDriveFailure(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * @return the cached availability, false while the circuit is open, or null when
+     *         a fresh probe is needed
+     */
+    public synchronized Boolean cachedAvailability() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos < openDurationNanos) {
+            return false;
+        }
+        if (availability != null && System.nanoTime() - availabilityCheckedAtNanos < availabilityTtlNanos) {
+            return availability;
+        }
+        return null;
+    }
+
+    public synchronized void cacheAvailability(boolean available) {
+        availability = available;
+        availabilityCheckedAtNanos = System.nanoTime();
+        availabilityCheckedAt = Instant.now();
+    }
+
+    public synchronized void invalidateAvailability() {
+        availability = null;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return state and counters for the status endpoint
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", state.name());
+        snapshot.put("consecutiveFailures", consecutiveFailures);
+        snapshot.put("failureThreshold", failureThreshold);
+        if (state != State.CLOSED) {
+            snapshot.put("openedAt", openedAt.toString());
+            snapshot.put("retryAt", openedAt.plusNanos(openDurationNanos).toString());
+        }
+        snapshot.put("lastFailure", lastFailure);
+        snapshot.put("available", availability);
+        snapshot.put("availabilityCheckedAt", availabilityCheckedAt != null ? availabilityCheckedAt.toString() : null);
+        return snapshot;
+    }
+
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        openedAt = Instant.now();
+        transition(State.OPEN);
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        // A cached probe result from before the transition no longer describes Drive
+        availability = null;
+        meterRegistry.counter("google.drive.circuit.transitions", "from", tagValue(from), "to", tagValue(to))
+                .increment();
+        if (to == State.OPEN) {
+            logger.warn("Google Drive circuit opened after failure: {}", lastFailure);
+        } else {
+            logger.info("Google Drive circuit {} -> {}", from, to);
+        }
+    }
+
+    private static String tagValue(State state) {
+        return state.name().toLowerCase(Locale.ROOT);
+    }
+}
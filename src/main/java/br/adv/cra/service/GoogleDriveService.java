@@ -1,20 +1,30 @@
 package br.adv.cra.service;
 
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.CredentialRefreshListener;
+import com.google.api.client.auth.oauth2.TokenErrorResponse;
+import com.google.api.client.auth.oauth2.TokenResponse;
+import com.google.api.client.googleapis.apache.v2.GoogleApacheHttpTransport;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeTokenRequest;
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
 import com.google.api.client.googleapis.auth.oauth2.GoogleRefreshTokenRequest;
 import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.http.HttpRequest;
 import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponseException;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.http.InputStreamContent;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.drive.Drive;
 import com.google.api.services.drive.model.File;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -22,9 +32,11 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class GoogleDriveService {
@@ -45,11 +57,41 @@ public class GoogleDriveService {
     @Value("${google.drive.folder.id:}")
     private String folderId;
     
+    // Overrides the Drive API endpoint (e.g. a local stub); empty means the public API
+    @Value("${google.drive.api.root-url:}")
+    private String rootUrl;
+    
     // OAuth2 tokens
     private volatile String accessToken;
     private volatile String refreshToken;
     private volatile long tokenExpirationTime = 0; // Unix timestamp when token expires
     
+    // Held during the network probe, so not a monitor: that would pin a virtual thread's carrier
+    private final ReentrantLock availabilityLock = new ReentrantLock();
+    
+    // Shared client, built on first use (see driveClient)
+    private volatile Drive drive;
+    private GoogleCredential credential;
+    private HttpTransport httpTransport;
+    
+    // Falls back to the global registry when the service is created outside Spring
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+    
+    // Circuit breaker and cached availability; Spring injects the shared component. The
+    // default keeps its gauges off the global registry, where they would outlive it as NaN
+    private GoogleDriveHealth health = new GoogleDriveHealth(new SimpleMeterRegistry(), 5,
+        Duration.ofSeconds(30), Duration.ofSeconds(60));
+    
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Autowired(required = false)
+    public void setHealth(GoogleDriveHealth health) {
+        this.health = health;
+    }
+    
     /**
      * Set OAuth2 tokens for Google Drive API access
      * 
@@ -64,6 +106,8 @@ public class GoogleDriveService {
         logger.info("Google Drive OAuth2 tokens updated - Access token: {}, Refresh token: {}, Expires at: {}", 
             accessToken != null ? "SET" : "NULL", refreshToken != null ? "SET" : "NULL", 
             new java.util.Date(tokenExpirationTime));
+        updateCredential();
+        health.invalidateAvailability();
     }
     
     /**
@@ -114,11 +158,9 @@ public class GoogleDriveService {
         
         try {
             logger.info("Refreshing access token using refresh token");
-            HttpTransport transport = GoogleNetHttpTransport.newTrustedTransport();
-            
             // Create refresh token request
             GoogleTokenResponse tokenResponse = new GoogleRefreshTokenRequest(
-                transport, JSON_FACTORY,
+                httpTransport(), JSON_FACTORY,
                 refreshToken,
                 clientId, clientSecret)
                 .execute();
@@ -130,6 +172,7 @@ public class GoogleDriveService {
                 !tokenResponse.getRefreshToken().isEmpty()) {
                 this.refreshToken = tokenResponse.getRefreshToken();
             }
+            updateCredential();
             
             // Update expiration time
             this.tokenExpirationTime = System.currentTimeMillis() + 
@@ -223,8 +266,7 @@ public class GoogleDriveService {
                 logger.info("Starting Google Drive file upload for file: {}, attempt {}/{}", 
                     file.getOriginalFilename(), attempt, MAX_RETRIES);
                 
-                // Create Google Drive service
-                Drive service = createDriveService();
+                Drive service = driveClient();
                 
                 // Generate unique filename to prevent overwrites
                 String uniqueFilename = generateUniqueFilename(file.getOriginalFilename());
@@ -249,9 +291,9 @@ public class GoogleDriveService {
                 
                 // Upload file
                 logger.info("Uploading file to Google Drive");
-                File uploadedFile = service.files().create(fileMetadata, mediaContent)
+                File uploadedFile = guarded("upload", () -> service.files().create(fileMetadata, mediaContent)
                         .setFields("id")
-                        .execute();
+                        .execute());
                 
                 logger.info("File uploaded successfully to Google Drive with ID: {}", uploadedFile.getId());
                 return uploadedFile.getId();
@@ -273,6 +315,7 @@ public class GoogleDriveService {
                 
                 // Wait before retrying (exponential backoff)
                 if (attempt < MAX_RETRIES) {
+                    countRetry("upload");
                     try {
                         long waitTime = (long) Math.pow(2, attempt) * 1000; // Exponential backoff
                         logger.info("Waiting {} ms before retrying...", waitTime);
@@ -293,6 +336,47 @@ public class GoogleDriveService {
         throw new IOException("Failed to upload file to Google Drive after " + MAX_RETRIES + " attempts", lastException);
     }
     
+    /**
+     * Upload a file to Google Drive straight from a stream, e.g. a multipart part that
+     * is still being received
+     *
+     * The upload is attempted only once: the stream cannot be replayed after a failure.
+     *
+     * @param originalFilename The original filename
+     * @param contentType      The content type of the file
+     * @param content          The file content
+     * @return The Google Drive file ID
+     * @throws IOException If there's an error during the upload
+     */
+    public String uploadFile(String originalFilename, String contentType, InputStream content) throws IOException {
+        ensureValidAccessToken();
+        try {
+            logger.info("Starting streamed Google Drive file upload for file: {}", originalFilename);
+            Drive service = driveClient();
+
+            String uniqueFilename = generateUniqueFilename(originalFilename);
+            File fileMetadata = new File();
+            fileMetadata.setName(uniqueFilename);
+            if (folderId != null && !folderId.isEmpty()) {
+                fileMetadata.setParents(Collections.singletonList(folderId));
+            }
+
+            InputStreamContent mediaContent = new InputStreamContent(contentType, content);
+            File uploadedFile = guarded("upload", () -> service.files().create(fileMetadata, mediaContent)
+                    .setFields("id")
+                    .execute());
+
+            logger.info("File streamed successfully to Google Drive with ID: {}", uploadedFile.getId());
+            return uploadedFile.getId();
+        } catch (GeneralSecurityException e) {
+            logger.error("Security exception during Google Drive upload: ", e);
+            throw new IOException("Failed to upload file to Google Drive due to security issues", e);
+        } catch (IOException e) {
+            logDetailedErrorInfo(e);
+            throw e;
+        }
+    }
+    
     /**
      * Download a file from Google Drive
      * 
@@ -312,12 +396,11 @@ public class GoogleDriveService {
                 logger.info("Starting Google Drive file download for file ID: {}, attempt {}/{}", 
                     fileId, attempt, MAX_RETRIES);
                 
-                // Create Google Drive service
-                Drive service = createDriveService();
+                Drive service = driveClient();
                 
                 // Download file
                 logger.info("Downloading file from Google Drive");
-                InputStream result = service.files().get(fileId).executeMediaAsInputStream();
+                InputStream result = guarded("download", () -> service.files().get(fileId).executeMediaAsInputStream());
                 logger.info("File downloaded successfully from Google Drive");
                 
                 return result;
@@ -339,6 +422,7 @@ public class GoogleDriveService {
                 
                 // Wait before retrying (exponential backoff)
                 if (attempt < MAX_RETRIES) {
+                    countRetry("download");
                     try {
                         long waitTime = (long) Math.pow(2, attempt) * 1000; // Exponential backoff
                         logger.info("Waiting {} ms before retrying...", waitTime);
@@ -377,12 +461,11 @@ public class GoogleDriveService {
                 logger.info("Starting Google Drive file deletion for file ID: {}, attempt {}/{}", 
                     fileId, attempt, MAX_RETRIES);
                 
-                // Create Google Drive service
-                Drive service = createDriveService();
+                Drive service = driveClient();
                 
                 // Delete file
                 logger.info("Deleting file from Google Drive");
-                service.files().delete(fileId).execute();
+                guarded("delete", () -> service.files().delete(fileId).execute());
                 logger.info("File deleted successfully from Google Drive with ID: {}", fileId);
                 return;
             } catch (GeneralSecurityException e) {
@@ -403,6 +486,7 @@ public class GoogleDriveService {
                 
                 // Wait before retrying (exponential backoff)
                 if (attempt < MAX_RETRIES) {
+                    countRetry("delete");
                     try {
                         long waitTime = (long) Math.pow(2, attempt) * 1000; // Exponential backoff
                         logger.info("Waiting {} ms before retrying...", waitTime);
@@ -423,83 +507,170 @@ public class GoogleDriveService {
         throw new IOException("Failed to delete file from Google Drive after " + MAX_RETRIES + " attempts", lastException);
     }
     
-    private Drive createDriveService() throws GeneralSecurityException, IOException {
-        logger.info("Creating Google Drive service instance");
-        
-        // Use ExecutorService to implement timeout for HTTP transport creation
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        Future<Drive> future = executor.submit(() -> {
-            try {
-                logger.info("Creating HTTP transport for Google Drive service");
-                HttpTransport transport = GoogleNetHttpTransport.newTrustedTransport();
-                logger.info("HTTP transport created successfully");
-                
-                // Create credential with OAuth2 tokens if available, otherwise use application credentials
-                GoogleCredential credential;
-                
-                if (accessToken != null && !accessToken.isEmpty()) {
-                    // Use OAuth2 tokens - create credential with all required components
-                    credential = new GoogleCredential.Builder()
-                        .setTransport(transport)
-                        .setJsonFactory(JSON_FACTORY)
-                        .setClientSecrets(clientId, clientSecret)
-                        .build();
-                    credential.setAccessToken(accessToken);
-                    if (refreshToken != null && !refreshToken.isEmpty()) {
-                        credential.setRefreshToken(refreshToken);
-                    }
-                    logger.info("Using OAuth2 tokens for Google Drive service - Access token: {}, Refresh token: {}", 
-                        accessToken != null ? "SET" : "NULL", refreshToken != null ? "SET" : "NULL");
-                } else {
-                    // Fall back to application credentials
+    @FunctionalInterface
+    private interface DriveCall<T> {
+        T execute() throws IOException;
+    }
+    
+    /**
+     * Runs one Google Drive API call, recording its latency as google.drive.requests
+     * tagged with the operation and its outcome.
+     */
+    private <T> T timed(String operation, DriveCall<T> call) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.execute();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("google.drive.requests")
+                    .description("Latency of Google Drive API calls")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+    
+    /**
+     * Runs one Drive call through the circuit breaker: fails fast while it is open and
+     * reports the outcome otherwise. HTTP answers other than 429/5xx count as healthy.
+     */
+    private <T> T guarded(String operation, DriveCall<T> call) throws IOException {
+        if (!health.tryAcquire()) {
+            throw new GoogleDriveUnavailableException("Google Drive is temporarily unavailable (circuit open), "
+                + operation + " not attempted");
+        }
+        boolean healthy = false;
+        String failure = operation + " failed";
+        try {
+            T result = timed(operation, call);
+            healthy = true;
+            return result;
+        } catch (HttpResponseException e) {
+            healthy = !GoogleDriveHealth.isDriveFailure(e.getStatusCode());
+            failure = operation + ": HTTP " + e.getStatusCode();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            failure = operation + ": " + e.getMessage();
+            throw e;
+        } finally {
+            if (healthy) {
+                health.onSuccess();
+            } else {
+                health.onFailure(failure);
+            }
+        }
+    }
+    
+    /**
+     * Circuit breaker state and cached availability, for the status endpoint
+     */
+    public Map<String, Object> getCircuitStatus() {
+        return health.snapshot();
+    }
+    
+    private void countRetry(String operation) {
+        meterRegistry.counter("google.drive.retries", "operation", operation).increment();
+    }
+    
+    /**
+     * Returns the shared Drive client, building it on first use.
+     *
+     * The client, its credential and the HTTP transport live as long as the service:
+     * the transport keeps a pool of keep-alive connections to the Drive API, and the
+     * credential is updated in place whenever the tokens change, so no call pays for a
+     * new TLS context, connection or client.
+     */
+    private Drive driveClient() throws GeneralSecurityException, IOException {
+        Drive client = drive;
+        if (client == null) {
+            synchronized (this) {
+                client = drive;
+                if (client == null) {
+                    HttpTransport transport = httpTransport();
                     credential = new GoogleCredential.Builder()
                         .setTransport(transport)
                         .setJsonFactory(JSON_FACTORY)
                         .setClientSecrets(clientId, clientSecret)
+                        .addRefreshListener(new TokenSync())
                         .build();
-                    logger.info("Using application credentials for Google Drive service");
-                }
-                
-                // Create HTTP request initializer with timeout settings
-                HttpRequestInitializer requestInitializer = new HttpRequestInitializer() {
-                    @Override
-                    public void initialize(HttpRequest request) throws IOException {
+                    updateCredential();
+                    
+                    HttpRequestInitializer requestInitializer = request -> {
                         credential.initialize(request);
                         request.setConnectTimeout(CONNECT_TIMEOUT_MS);
                         request.setReadTimeout(READ_TIMEOUT_MS);
                         request.setNumberOfRetries(3);
-                        logger.debug("HTTP request initialized with timeouts: connect={}, read={}", 
-                            CONNECT_TIMEOUT_MS, READ_TIMEOUT_MS);
+                    };
+                    
+                    Drive.Builder builder = new Drive.Builder(transport, JSON_FACTORY, requestInitializer)
+                        .setApplicationName(APPLICATION_NAME);
+                    if (rootUrl != null && !rootUrl.isEmpty()) {
+                        builder.setRootUrl(rootUrl);
                     }
-                };
-                
-                // Build the Drive service with timeout settings
-                logger.info("Building Drive service with application name: {}", APPLICATION_NAME);
-                Drive driveService = new Drive.Builder(transport, JSON_FACTORY, requestInitializer)
-                        .setApplicationName(APPLICATION_NAME)
-                        .build();
-                logger.info("Drive service built successfully");
-                
-                return driveService;
-            } catch (Exception e) {
-                logger.error("Error creating Drive service: ", e);
-                throw new RuntimeException(e);
+                    client = builder.build();
+                    drive = client;
+                    logger.info("Google Drive client created with pooled HTTP transport");
+                }
             }
-        });
+        }
+        return client;
+    }
+    
+    private synchronized HttpTransport httpTransport() throws GeneralSecurityException, IOException {
+        if (httpTransport == null) {
+            // Apache HttpClient with a pooling connection manager and Google's trust store
+            httpTransport = GoogleApacheHttpTransport.newTrustedTransport();
+        }
+        return httpTransport;
+    }
+    
+    /**
+     * Copies the current tokens into the shared credential, if it has been built.
+     */
+    private synchronized void updateCredential() {
+        if (credential != null) {
+            credential.setAccessToken(accessToken);
+            credential.setRefreshToken(refreshToken != null && !refreshToken.isEmpty() ? refreshToken : null);
+        }
+    }
+    
+    /**
+     * Keeps the service's tokens in step when the credential refreshes itself after a 401.
+     */
+    private class TokenSync implements CredentialRefreshListener {
+        @Override
+        public void onTokenResponse(Credential refreshed, TokenResponse tokenResponse) {
+            accessToken = tokenResponse.getAccessToken();
+            if (tokenResponse.getRefreshToken() != null && !tokenResponse.getRefreshToken().isEmpty()) {
+                refreshToken = tokenResponse.getRefreshToken();
+            }
+            tokenExpirationTime = System.currentTimeMillis() + 
+                (tokenResponse.getExpiresInSeconds() != null ? 
+                 tokenResponse.getExpiresInSeconds() * 1000 : 50 * 60 * 1000);
+            logger.info("Google Drive access token refreshed by the client credential");
+        }
         
-        try {
-            // Wait for the service creation with a timeout
-            logger.info("Waiting for Drive service creation (timeout: 30 seconds)");
-            return future.get(30, TimeUnit.SECONDS);
-        } catch (InterruptedException | ExecutionException e) {
-            logger.error("Error during Drive service creation: ", e);
-            throw new IOException("Failed to create Drive service", e);
-        } catch (TimeoutException e) {
-            logger.error("Timeout while creating Drive service (30 seconds elapsed)");
-            future.cancel(true); // Cancel the task
-            throw new IOException("Timeout while creating Drive service. This might indicate network connectivity issues.", e);
-        } finally {
-            executor.shutdown();
+        @Override
+        public void onTokenErrorResponse(Credential refreshed, TokenErrorResponse tokenErrorResponse) {
+            logger.warn("Google Drive credential refresh failed: {}", 
+                tokenErrorResponse != null ? tokenErrorResponse.getError() : "unknown");
+        }
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (httpTransport != null) {
+            try {
+                httpTransport.shutdown();
+            } catch (IOException e) {
+                logger.warn("Error closing Google Drive HTTP transport: {}", e.getMessage());
+            }
+            httpTransport = null;
+            drive = null;
+            credential = null;
         }
     }
     
@@ -507,6 +678,9 @@ public class GoogleDriveService {
      * Check if an error is non-retryable
      */
     private boolean isNonRetryableError(IOException e) {
+        if (e instanceof GoogleDriveUnavailableException) {
+            return true;
+        }
         String message = e.getMessage();
         if (message == null) return false;
         
@@ -545,42 +719,68 @@ public class GoogleDriveService {
      * Check if Google Drive is currently available by testing connectivity
      * This method now properly checks OAuth2 authentication
      * 
+     * The result of the live probe is cached (app.google-drive.circuit.availability-cache-ttl)
+     * and no probe is made while the circuit breaker is open.
+     * 
      * @return true if Google Drive is available and properly authenticated, false otherwise
      */
     public boolean isGoogleDriveAvailable() {
+        // First check if we have tokens
+        if (accessToken == null || accessToken.isEmpty()) {
+            logger.warn("No access token available for Google Drive");
+            return false;
+        }
+        
+        Boolean cached = health.cachedAvailability();
+        if (cached != null) {
+            return cached;
+        }
+        // One probe at a time; concurrent callers use its result
+        availabilityLock.lock();
         try {
-            logger.info("Testing Google Drive connectivity and authentication");
-            
-            // First check if we have tokens
-            if (accessToken == null || accessToken.isEmpty()) {
-                logger.warn("No access token available for Google Drive");
-                return false;
+            cached = health.cachedAvailability();
+            if (cached != null) {
+                return cached;
             }
+            return probeAvailability();
+        } finally {
+            availabilityLock.unlock();
+        }
+    }
+    
+    private boolean probeAvailability() {
+        boolean available = false;
+        try {
+            logger.info("Testing Google Drive connectivity and authentication");
             
-            Drive service = createDriveService();
+            Drive service = driveClient();
             
             // Try a simple operation to test connectivity and authentication
             // Using 'about' requires authentication, unlike just creating the service
-            com.google.api.services.drive.model.About about = service.about().get()
+            com.google.api.services.drive.model.About about = guarded("about", () -> service.about().get()
                 .setFields("user,kind")
-                .execute();
+                .execute());
             
             logger.info("Google Drive connectivity and authentication test successful");
             logger.info("Authenticated user: {}", about.getUser().getEmailAddress());
-            return true;
+            available = true;
+        } catch (GoogleDriveUnavailableException e) {
+            // Another call is probing the half-open circuit; nothing was learnt
+            logger.debug("Google Drive availability probe skipped: {}", e.getMessage());
+            return false;
         } catch (com.google.api.client.googleapis.json.GoogleJsonResponseException e) {
             // Specific handling for Google API errors
             logger.warn("Google Drive authentication test failed with Google API error: {}", e.getMessage());
             if (e.getStatusCode() == 401) {
                 logger.warn("Authentication failed - invalid or missing credentials");
-                return false;
+            } else {
+                logger.warn("Google Drive connectivity test failed: ", e);
             }
-            logger.warn("Google Drive connectivity test failed: ", e);
-            return false;
         } catch (Exception e) {
             logger.warn("Google Drive connectivity test failed: ", e);
-            return false;
         }
+        health.cacheAvailability(available);
+        return available;
     }
     
     /**
@@ -590,6 +790,8 @@ public class GoogleDriveService {
         this.accessToken = null;
         this.refreshToken = null;
         this.tokenExpirationTime = 0;
+        updateCredential();
+        health.invalidateAvailability();
         logger.info("Google Drive tokens cleared");
     }
 }
\ No newline at end of file
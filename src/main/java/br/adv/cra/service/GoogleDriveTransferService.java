@@ -0,0 +1,140 @@
+package br.adv.cra.service;
+
+import br.adv.cra.entity.SoliArquivo;
+import br.adv.cra.repository.SoliArquivoRepository;
+import br.adv.cra.util.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfers attachments staged in local storage to Google Drive in the background.
+ *
+ * Uploads with storageLocation=google_drive are written to the local store and committed
+ * as "google_drive_pending", so the request returns without waiting for Drive. Once the
+ * row is committed its transfer is handed to a bounded worker pool. The retry state
+ * (attempts, next attempt, last error) is kept on the row itself, and a scheduled poll
+ * resubmits due rows, so transfers survive a full queue, Drive outages and restarts.
+ * On success the row switches to "google_drive" and the local blob is released.
+ */
+@Service
+public class GoogleDriveTransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoogleDriveTransferService.class);
+
+    private final SoliArquivoRepository soliArquivoRepository;
+    private final SoliArquivoService soliArquivoService;
+    private final GoogleDriveService googleDriveService;
+    private final ExecutorService executor;
+    private final Set<Long> emAndamento = ConcurrentHashMap.newKeySet();
+
+    public GoogleDriveTransferService(SoliArquivoRepository soliArquivoRepository,
+                                      SoliArquivoService soliArquivoService,
+                                      GoogleDriveService googleDriveService,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.google-drive.transfer.workers:2}") int workers,
+                                      @Value("${app.google-drive.transfer.queue-size:100}") int queueSize,
+                                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.soliArquivoRepository = soliArquivoRepository;
+        this.soliArquivoService = soliArquivoService;
+        this.googleDriveService = googleDriveService;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), WorkerThreads.factory("drive-transfer-", virtualThreads));
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "googleDriveTransfer");
+    }
+
+    @TransactionalEventListener
+    public void onTransferRequested(DriveTransferRequestedEvent event) {
+        submit(event.soliArquivoId());
+    }
+
+    /**
+     * Resubmits pending transfers that are due: retries after failures, and transfers
+     * that did not fit in the queue or were interrupted by a restart.
+     */
+    @Scheduled(fixedDelayString = "${app.google-drive.transfer.poll-interval:PT30S}")
+    public void transferirPendentes() {
+        soliArquivoRepository.findTop50ByStorageLocationAndTransferenciaProximaBeforeOrderByTransferenciaProxima(
+                        SoliArquivoService.GOOGLE_DRIVE_PENDENTE, LocalDateTime.now())
+                .forEach(soliArquivo -> submit(soliArquivo.getId()));
+    }
+
+    void submit(Long id) {
+        if (!emAndamento.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    transferir(id);
+                } finally {
+                    emAndamento.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The scheduled poll picks it up again
+            emAndamento.remove(id);
+            logger.warn("Google Drive transfer queue is full, file {} will be retried later", id);
+        }
+    }
+
+    void transferir(Long id) {
+        SoliArquivo soliArquivo = soliArquivoRepository.findById(id).orElse(null);
+        if (soliArquivo == null || !SoliArquivoService.GOOGLE_DRIVE_PENDENTE.equals(soliArquivo.getStorageLocation())) {
+            return;
+        }
+
+        String googleDriveFileId;
+        try (InputStream conteudo = Files.newInputStream(Path.of(soliArquivo.getCaminhofisico()))) {
+            logger.info("Transferring file {} ({}) to Google Drive", id, soliArquivo.getNomearquivo());
+            googleDriveFileId = googleDriveService.uploadFile(soliArquivo.getNomearquivo(),
+                    contentType(soliArquivo.getNomearquivo()), conteudo);
+        } catch (GoogleDriveUnavailableException e) {
+            // Not an attempt: the file stays due and the poll retries it once the circuit lets calls through
+            logger.debug("Google Drive transfer of file {} deferred: {}", id, e.getMessage());
+            return;
+        } catch (Exception e) {
+            soliArquivoService.registrarFalhaTransferencia(id, e.getMessage());
+            return;
+        }
+
+        if (!soliArquivoService.concluirTransferenciaDrive(id, googleDriveFileId)) {
+            // Deleted while it was being uploaded
+            try {
+                googleDriveService.deleteFile(googleDriveFileId);
+            } catch (IOException e) {
+                logger.error("Failed to delete orphan Google Drive file {}: {}", googleDriveFileId, e.getMessage(), e);
+            }
+        }
+    }
+
+    private static String contentType(String nomeArquivo) {
+        String contentType = nomeArquivo != null ? URLConnection.guessContentTypeFromName(nomeArquivo) : null;
+        return contentType != null ? contentType : "application/octet-stream";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
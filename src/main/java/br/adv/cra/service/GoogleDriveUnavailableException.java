@@ -0,0 +1,14 @@
+package br.adv.cra.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown without contacting Google Drive while its circuit breaker is open.
+ * Callers should not retry it; see GoogleDriveHealth.
+ */
+public class GoogleDriveUnavailableException extends IOException {
+
+    public GoogleDriveUnavailableException(String message) {
+        super(message);
+    }
+}
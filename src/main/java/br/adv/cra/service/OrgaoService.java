@@ -1,8 +1,11 @@
 package br.adv.cra.service;
 
+import br.adv.cra.config.CacheConfig;
 import br.adv.cra.entity.Orgao;
 import br.adv.cra.repository.OrgaoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,10 +24,12 @@ public class OrgaoService {
     
     private final OrgaoRepository orgaoRepository;
     
+    @CacheEvict(cacheNames = CacheConfig.ORGAOS, allEntries = true)
     public Orgao salvar(Orgao orgao) {
         return orgaoRepository.save(orgao);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.ORGAOS, allEntries = true)
     public Orgao atualizar(Orgao orgao) {
         if (!orgaoRepository.existsById(orgao.getId())) {
             throw new RuntimeException("Órgão não encontrado");
@@ -32,6 +37,7 @@ public class OrgaoService {
         return orgaoRepository.save(orgao);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.ORGAOS, allEntries = true)
     public void deletar(Long id) {
         if (!orgaoRepository.existsById(id)) {
             throw new RuntimeException("Órgão não encontrado");
@@ -47,6 +53,7 @@ public class OrgaoService {
         return orgao;
     }
     
+    @Cacheable(cacheNames = CacheConfig.ORGAOS, key = "'todos'")
     @Transactional(readOnly = true)
     public List<Orgao> listarTodos() {
         try {
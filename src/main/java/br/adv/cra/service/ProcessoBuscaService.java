@@ -0,0 +1,193 @@
+package br.adv.cra.service;
+
+import br.adv.cra.dto.ProcessoBuscaDTO;
+import br.adv.cra.entity.Processo;
+import br.adv.cra.repository.ProcessoRepository;
+import br.adv.cra.util.TextoNormalizado;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fuzzy search over processo parte, adverso, assunto and process number.
+ *
+ * On PostgreSQL with database/processo-trigram.sql applied, the search uses the
+ * generated column "busca_trgm" (lower case, accents removed, numbers as digits only)
+ * and its pg_trgm GIN index. Text queries match by word similarity, so typos and
+ * partial names still match ("joao da sila" finds "João da Silva"); queries that look
+ * like a process number match any fragment of the digits. Hits are ranked by
+ * word_similarity. Elsewhere (H2 in dev and tests, or before the script is applied)
+ * it falls back to a case-insensitive LIKE, newest first.
+ *
+ * app.processo.busca.trigram selects the mode: auto (detect the column on first use),
+ * true or false. app.processo.busca.similaridade-minima is the word similarity a
+ * process needs to match.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProcessoBuscaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessoBuscaService.class);
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final String COLUNA_EXISTE_SQL =
+            "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE table_name = 'processo' AND column_name = 'busca_trgm'";
+
+    // Local to the transaction, so it does not leak to other users of the pooled connection
+    private static final String LIMIAR_SQL =
+            "SELECT set_config('pg_trgm.word_similarity_threshold', CAST(:limiar AS text), true)";
+
+    private static final String TRIGRAM_SQL =
+            "SELECT idprocesso, word_similarity(CAST(:termo AS text), busca_trgm) AS similaridade " +
+            "FROM processo WHERE CAST(:termo AS text) <% busca_trgm " +
+            "ORDER BY similaridade DESC, idprocesso DESC LIMIT :limite";
+
+    private static final String TRIGRAM_NUMERO_SQL =
+            "SELECT idprocesso, word_similarity(CAST(:termo AS text), busca_trgm) AS similaridade " +
+            "FROM processo WHERE busca_trgm LIKE :padrao " +
+            "ORDER BY similaridade DESC, idprocesso DESC LIMIT :limite";
+
+    private static final String LIKE_SQL =
+            "SELECT idprocesso FROM processo " +
+            "WHERE LOWER(parte) LIKE :padrao OR LOWER(adverso) LIKE :padrao OR LOWER(assunto) LIKE :padrao " +
+            "ORDER BY idprocesso DESC LIMIT :limite";
+
+    private static final String LIKE_NUMERO_SQL =
+            "SELECT idprocesso FROM processo " +
+            "WHERE REGEXP_REPLACE(numeroprocesso, '[^0-9]', '', 'g') LIKE :padrao " +
+            "OR REGEXP_REPLACE(numeroprocessopesq, '[^0-9]', '', 'g') LIKE :padrao " +
+            "ORDER BY idprocesso DESC LIMIT :limite";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ProcessoRepository processoRepository;
+    private final String modo;
+    private final double similaridadeMinima;
+    private volatile Boolean trigram;
+
+    public ProcessoBuscaService(NamedParameterJdbcTemplate jdbcTemplate,
+                                ProcessoRepository processoRepository,
+                                @Value("${app.processo.busca.trigram:auto}") String modo,
+                                @Value("${app.processo.busca.similaridade-minima:0.4}") double similaridadeMinima) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.processoRepository = processoRepository;
+        this.modo = modo;
+        this.similaridadeMinima = similaridadeMinima;
+    }
+
+    /**
+     * One hit of the search before the process is loaded.
+     */
+    record Resultado(Long id, double similaridade) {
+    }
+
+    /**
+     * Searches processes by parte, adverso, assunto or number.
+     *
+     * @param texto  The free-text query
+     * @param limite Maximum number of results (default 20, max 100)
+     * @return The matching processes, best matches first
+     * @throws IllegalArgumentException If the query is blank
+     */
+    public List<ProcessoBuscaDTO> buscar(String texto, Integer limite) {
+        String termo = termo(texto);
+        if (termo.isEmpty()) {
+            throw new IllegalArgumentException("Informe o texto da busca");
+        }
+        int maximo = limite == null || limite <= 0 ? DEFAULT_LIMIT : Math.min(limite, MAX_LIMIT);
+        boolean numero = TextoNormalizado.isNumero(texto);
+
+        List<Resultado> resultados = usaTrigram()
+                ? buscarTrigram(termo, numero, maximo)
+                : buscarLike(termo, numero, maximo);
+        return comProcessos(resultados);
+    }
+
+    /**
+     * The query as it is compared with the index: digits only for process numbers,
+     * normalized text otherwise.
+     */
+    static String termo(String texto) {
+        return TextoNormalizado.isNumero(texto)
+                ? TextoNormalizado.somenteDigitos(texto)
+                : TextoNormalizado.normalizar(texto);
+    }
+
+    boolean usaTrigram() {
+        Boolean atual = trigram;
+        if (atual == null) {
+            atual = switch (modo) {
+                case "true" -> true;
+                case "false" -> false;
+                default -> detectarTrigram();
+            };
+            trigram = atual;
+        }
+        return atual;
+    }
+
+    private boolean detectarTrigram() {
+        Integer colunas = jdbcTemplate.queryForObject(COLUNA_EXISTE_SQL, Map.of(), Integer.class);
+        boolean disponivel = colunas != null && colunas > 0;
+        if (disponivel) {
+            logger.info("Processo search uses the PostgreSQL trigram index");
+        } else {
+            logger.warn("Column processo.busca_trgm not found; process search falls back to LIKE. "
+                    + "Apply database/processo-trigram.sql on PostgreSQL to enable fuzzy search");
+        }
+        return disponivel;
+    }
+
+    private List<Resultado> buscarTrigram(String termo, boolean numero, int limite) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("termo", termo)
+                .addValue("padrao", "%" + escaparLike(termo) + "%")
+                .addValue("limite", limite);
+        if (!numero) {
+            jdbcTemplate.queryForObject(LIMIAR_SQL, Map.of("limiar", similaridadeMinima), String.class);
+        }
+        return jdbcTemplate.query(numero ? TRIGRAM_NUMERO_SQL : TRIGRAM_SQL, parametros,
+                (rs, rowNum) -> new Resultado(rs.getLong("idprocesso"), rs.getDouble("similaridade")));
+    }
+
+    private List<Resultado> buscarLike(String termo, boolean numero, int limite) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("padrao", "%" + escaparLike(termo) + "%")
+                .addValue("limite", limite);
+        return jdbcTemplate.query(numero ? LIKE_NUMERO_SQL : LIKE_SQL, parametros,
+                (rs, rowNum) -> new Resultado(rs.getLong("idprocesso"), 1.0));
+    }
+
+    private List<ProcessoBuscaDTO> comProcessos(List<Resultado> resultados) {
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Processo> processos = processoRepository
+                .findByIds(resultados.stream().map(Resultado::id).toList()).stream()
+                .collect(Collectors.toMap(Processo::getId, Function.identity()));
+        List<ProcessoBuscaDTO> itens = new ArrayList<>(resultados.size());
+        for (Resultado resultado : resultados) {
+            Processo processo = processos.get(resultado.id());
+            if (processo != null) {
+                itens.add(new ProcessoBuscaDTO(processo, resultado.similaridade()));
+            }
+        }
+        return itens;
+    }
+
+    private static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,680 @@
+package br.adv.cra.service;
+
+import br.adv.cra.dto.AutocompleteDTO;
+import br.adv.cra.dto.ImportacaoProcessoDTO;
+import br.adv.cra.dto.ImportacaoProcessoDTO.Erro;
+import br.adv.cra.dto.ImportacaoProcessoDTO.Situacao;
+import br.adv.cra.entity.Processo;
+import br.adv.cra.repository.ComarcaRepository;
+import br.adv.cra.repository.OrgaoRepository;
+import br.adv.cra.repository.ProcessoRepository;
+import br.adv.cra.util.CsvReader;
+import br.adv.cra.util.TextoNormalizado;
+import br.adv.cra.util.WorkerThreads;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import of processos from CSV or JSON files, in the background.
+ *
+ * The upload is copied to {upload-dir}/importacoes and the request returns at once with
+ * an import ID to poll. A worker then streams the file: CSV one record at a time, with
+ * a header row naming the columns, and JSON one element of the top-level array at a
+ * time, so memory does not grow with the file. Comarca and orgao are resolved, by ID or
+ * by name, from maps loaded once per import. Rows are checked for duplicates, in the
+ * file and against the database by numeroprocesso and numerocnj, then written with JDBC
+ * batch inserts of app.processo.importacao.batch-size rows, one transaction per batch.
+ * The IDENTITY key of processo keeps Hibernate from batching inserts, hence JDBC here.
+ *
+ * A batch the database rejects is retried row by row, so one bad row only costs
+ * itself. Imports are kept in memory for app.processo.importacao.retencao after they
+ * finish, so their result can be read; a restart loses running imports.
+ */
+@Service
+public class ProcessoImportacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessoImportacaoService.class);
+
+    public static final String CSV = "csv";
+    public static final String JSON = "json";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO processo (numeroprocesso, numeroprocessopesq, parte, adverso, posicao, status, cartorio, " +
+            "assunto, localizacao, numerointegracao, comarca_idcomarca, orgao_idorgao, numorgao, proceletronico, " +
+            "quantsoli, datadistribuicao, observacao, numerocnj, cnjsequencial, cnjano, cnjsegmento, cnjtribunal, " +
+            "cnjorigem) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Columns mapped to varchar(255); assunto and observacao are text
+    private static final int MAX_TEXTO = 255;
+    private static final long AMBIGUO = -1L;
+    private static final int FILA = 10;
+
+    private static final List<DateTimeFormatter> FORMATOS_DATA = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProcessoService processoService;
+    private final ProcessoRepository processoRepository;
+    private final ComarcaRepository comarcaRepository;
+    private final OrgaoRepository orgaoRepository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final Path diretorio;
+    private final int tamanhoLote;
+    private final int maxErros;
+    private final Duration retencao;
+    private final Map<String, Importacao> importacoes = new ConcurrentHashMap<>();
+
+    public ProcessoImportacaoService(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     ProcessoService processoService,
+                                     ProcessoRepository processoRepository,
+                                     ComarcaRepository comarcaRepository,
+                                     OrgaoRepository orgaoRepository,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${file.upload-dir}") String uploadDir,
+                                     @Value("${app.processo.importacao.threads:2}") int threads,
+                                     @Value("${app.processo.importacao.batch-size:1000}") int tamanhoLote,
+                                     @Value("${app.processo.importacao.max-erros:1000}") int maxErros,
+                                     @Value("${app.processo.importacao.retencao:24h}") Duration retencao,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.processoService = processoService;
+        this.processoRepository = processoRepository;
+        this.comarcaRepository = comarcaRepository;
+        this.orgaoRepository = orgaoRepository;
+        this.objectMapper = objectMapper;
+        this.diretorio = Paths.get(uploadDir, "importacoes");
+        this.tamanhoLote = tamanhoLote;
+        this.maxErros = maxErros;
+        this.retencao = retencao;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(FILA), WorkerThreads.factory("processo-import-", virtualThreads));
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "processoImportacao");
+    }
+
+    /**
+     * State of one import, updated by its worker and read by status requests.
+     */
+    static final class Importacao {
+        final String id;
+        final String arquivo;
+        final String formato;
+        final Charset charset;
+        final Path caminho;
+        final AtomicLong linhasLidas = new AtomicLong();
+        final AtomicLong inseridas = new AtomicLong();
+        final AtomicLong duplicadas = new AtomicLong();
+        final AtomicLong rejeitadas = new AtomicLong();
+        final AtomicLong errosOmitidos = new AtomicLong();
+        final List<Erro> erros = new ArrayList<>();
+        final int maxErros;
+        volatile Situacao situacao = Situacao.AGUARDANDO;
+        volatile LocalDateTime iniciadaEm;
+        volatile LocalDateTime concluidaEm;
+        volatile long inicioNanos;
+        volatile long fimNanos;
+        volatile Instant expiraEm;
+        volatile String falha;
+
+        Importacao(String id, String arquivo, String formato, Charset charset, Path caminho, int maxErros) {
+            this.id = id;
+            this.arquivo = arquivo;
+            this.formato = formato;
+            this.charset = charset;
+            this.caminho = caminho;
+            this.maxErros = maxErros;
+        }
+
+        void erro(long linha, String numeroprocesso, String mensagem) {
+            synchronized (erros) {
+                if (erros.size() < maxErros) {
+                    erros.add(new Erro(linha, numeroprocesso, mensagem));
+                    return;
+                }
+            }
+            errosOmitidos.incrementAndGet();
+        }
+
+        ImportacaoProcessoDTO toDTO() {
+            long fim = fimNanos != 0 ? fimNanos : System.nanoTime();
+            double segundos = inicioNanos == 0 ? 0 : (fim - inicioNanos) / 1e9;
+            List<Erro> copia;
+            synchronized (erros) {
+                copia = List.copyOf(erros);
+            }
+            return new ImportacaoProcessoDTO(id, arquivo, formato, situacao, linhasLidas.get(), inseridas.get(),
+                    duplicadas.get(), rejeitadas.get(), segundos > 0 ? Math.round(linhasLidas.get() / segundos) : 0,
+                    iniciadaEm, concluidaEm, falha, copia, errosOmitidos.get());
+        }
+    }
+
+    /**
+     * A valid row waiting for its batch.
+     */
+    record Linha(long numero, Processo processo, Long comarcaId, Long orgaoId) {
+    }
+
+    private record Referencias(Set<Long> comarcas, Map<String, Long> comarcasPorNome,
+                               Set<Long> orgaos, Map<String, Long> orgaosPorNome) {
+    }
+
+    /**
+     * Stores the file and queues its import.
+     *
+     * @param conteudo    The file, read to the end before returning
+     * @param nomeArquivo The original file name, used to tell CSV from JSON
+     * @param formato     "csv" or "json"; null to use the file extension
+     * @param charset     Encoding of the file; null for UTF-8
+     * @return The queued import
+     * @throws IllegalArgumentException If the format is not supported
+     * @throws IllegalStateException    If too many imports are already queued
+     * @throws IOException              If the file cannot be stored
+     */
+    public ImportacaoProcessoDTO iniciar(InputStream conteudo, String nomeArquivo, String formato, String charset)
+            throws IOException {
+        String tipo = formato(nomeArquivo, formato);
+        Charset codificacao;
+        try {
+            codificacao = charset == null || charset.isBlank() ? StandardCharsets.UTF_8 : Charset.forName(charset);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Codificação não suportada: " + charset);
+        }
+
+        Files.createDirectories(diretorio);
+        String id = UUID.randomUUID().toString();
+        Path caminho = diretorio.resolve(id + "." + tipo);
+        // Registered before the file exists, so the orphan sweep never sees it unowned
+        Importacao importacao = new Importacao(id, nomeArquivo, tipo, codificacao, caminho, maxErros);
+        importacoes.put(id, importacao);
+        long tamanho;
+        try {
+            tamanho = Files.copy(conteudo, caminho);
+        } catch (IOException | RuntimeException e) {
+            importacoes.remove(id);
+            Files.deleteIfExists(caminho);
+            throw e;
+        }
+
+        try {
+            executor.execute(() -> executar(importacao));
+        } catch (RejectedExecutionException e) {
+            importacoes.remove(id);
+            Files.deleteIfExists(caminho);
+            throw new IllegalStateException("Há importações demais em andamento; tente novamente mais tarde");
+        }
+        logger.info("Processo import {} queued: {} ({} bytes)", id, nomeArquivo, tamanho);
+        return importacao.toDTO();
+    }
+
+    /**
+     * Current progress of an import.
+     */
+    public Optional<ImportacaoProcessoDTO> status(String id) {
+        return Optional.ofNullable(importacoes.get(id)).map(Importacao::toDTO);
+    }
+
+    static String formato(String nomeArquivo, String formato) {
+        String tipo = formato;
+        if (tipo == null || tipo.isBlank()) {
+            String nome = nomeArquivo == null ? "" : nomeArquivo.toLowerCase();
+            tipo = nome.endsWith(".json") ? JSON : nome.endsWith(".csv") || nome.endsWith(".txt") ? CSV : "";
+        }
+        tipo = tipo.trim().toLowerCase();
+        if (!CSV.equals(tipo) && !JSON.equals(tipo)) {
+            throw new IllegalArgumentException("Formato não suportado; envie um arquivo .csv ou .json");
+        }
+        return tipo;
+    }
+
+    void executar(Importacao importacao) {
+        importacao.iniciadaEm = LocalDateTime.now();
+        importacao.inicioNanos = System.nanoTime();
+        importacao.situacao = Situacao.PROCESSANDO;
+        try (InputStream in = Files.newInputStream(importacao.caminho)) {
+            Lote lote = new Lote(importacao, carregarReferencias());
+            if (CSV.equals(importacao.formato)) {
+                lerCsv(in, importacao.charset, lote);
+            } else {
+                lerJson(in, lote);
+            }
+            lote.gravar();
+            importacao.situacao = Situacao.CONCLUIDA;
+        } catch (Exception e) {
+            logger.error("Processo import {} failed: {}", importacao.id, e.getMessage(), e);
+            importacao.falha = e.getMessage();
+            importacao.situacao = Situacao.FALHOU;
+        } finally {
+            importacao.fimNanos = System.nanoTime();
+            importacao.concluidaEm = LocalDateTime.now();
+            importacao.expiraEm = Instant.now().plus(retencao);
+            try {
+                Files.deleteIfExists(importacao.caminho);
+            } catch (IOException e) {
+                logger.warn("Could not delete import file {}: {}", importacao.caminho, e.getMessage());
+            }
+        }
+        ImportacaoProcessoDTO resultado = importacao.toDTO();
+        logger.info("Processo import {} {}: {} rows, {} inserted, {} duplicate, {} rejected ({} rows/s)",
+                importacao.id, resultado.getSituacao(), resultado.getLinhasLidas(), resultado.getInseridas(),
+                resultado.getDuplicadas(), resultado.getRejeitadas(), resultado.getLinhasPorSegundo());
+    }
+
+    private Referencias carregarReferencias() {
+        Set<Long> comarcas = new HashSet<>();
+        Map<String, Long> comarcasPorNome = new HashMap<>();
+        indexar(comarcaRepository.findAutocomplete(), comarcas, comarcasPorNome);
+        Set<Long> orgaos = new HashSet<>();
+        Map<String, Long> orgaosPorNome = new HashMap<>();
+        indexar(orgaoRepository.findAutocomplete(), orgaos, orgaosPorNome);
+        return new Referencias(comarcas, comarcasPorNome, orgaos, orgaosPorNome);
+    }
+
+    private static void indexar(List<AutocompleteDTO> itens, Set<Long> ids, Map<String, Long> porNome) {
+        for (AutocompleteDTO item : itens) {
+            ids.add(item.getId());
+            if (item.getNome() != null) {
+                // The same name in two UFs cannot be resolved by name
+                porNome.merge(TextoNormalizado.normalizar(item.getNome()), item.getId(),
+                        (atual, novo) -> atual.equals(novo) ? atual : AMBIGUO);
+            }
+        }
+    }
+
+    private void lerCsv(InputStream in, Charset charset, Lote lote) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset), 65536);
+        reader.mark(65536);
+        String primeira = reader.readLine();
+        if (primeira == null) {
+            throw new IOException("Arquivo vazio");
+        }
+        reader.reset();
+
+        CsvReader csv = new CsvReader(reader, CsvReader.detectarSeparador(primeira));
+        List<String> cabecalho = csv.proximo();
+        List<String> colunas = cabecalho == null ? List.of()
+                : cabecalho.stream().map(ProcessoImportacaoService::chave).toList();
+        if (!colunas.contains("numeroprocesso")) {
+            throw new IOException("Coluna numeroprocesso não encontrada no cabeçalho");
+        }
+        List<String> valores;
+        while ((valores = csv.proximo()) != null) {
+            Map<String, String> campos = new HashMap<>();
+            for (int i = 0; i < colunas.size() && i < valores.size(); i++) {
+                campos.put(colunas.get(i), valores.get(i));
+            }
+            lote.adicionar(csv.getLinha(), campos);
+        }
+    }
+
+    private void lerJson(InputStream in, Lote lote) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("O arquivo JSON deve conter uma lista de processos");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                long linha = parser.currentTokenLocation().getLineNr();
+                JsonNode processo = objectMapper.readTree(parser);
+                lote.adicionar(linha, campos(processo));
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IOException("Elemento inválido na linha " + parser.currentTokenLocation().getLineNr()
+                        + ": cada processo deve ser um objeto");
+            }
+        }
+    }
+
+    /**
+     * Fields of one JSON element; {"comarca": {"id": 3}}, as in the processo JSON, is
+     * read as comarcaId.
+     */
+    private static Map<String, String> campos(JsonNode processo) {
+        Map<String, String> campos = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> it = processo.fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> campo = it.next();
+            String chave = chave(campo.getKey());
+            JsonNode valor = campo.getValue();
+            if (valor.isObject()) {
+                if (valor.hasNonNull("id")) {
+                    campos.put(chave + "id", valor.get("id").asText());
+                }
+            } else if (!valor.isNull() && valor.isValueNode()) {
+                campos.put(chave, valor.asText());
+            }
+        }
+        return campos;
+    }
+
+    /**
+     * Column or property name without case, accents, spaces and punctuation, so
+     * "Número Processo", "numero_processo" and "numeroProcesso" are the same column.
+     * This also drops the BOM that starts a UTF-8 file.
+     */
+    static String chave(String nome) {
+        return TextoNormalizado.normalizar(nome).replaceAll("[^a-z0-9]", "");
+    }
+
+    /**
+     * Validates rows and writes them a batch at a time.
+     */
+    final class Lote {
+        private final Importacao importacao;
+        private final Referencias referencias;
+        private final List<Linha> pendentes = new ArrayList<>();
+        private final Set<String> vistos = new HashSet<>();
+
+        Lote(Importacao importacao, Referencias referencias) {
+            this.importacao = importacao;
+            this.referencias = referencias;
+        }
+
+        void adicionar(long numero, Map<String, String> campos) {
+            importacao.linhasLidas.incrementAndGet();
+            Linha linha;
+            try {
+                linha = converter(numero, campos);
+            } catch (IllegalArgumentException e) {
+                importacao.rejeitadas.incrementAndGet();
+                importacao.erro(numero, campos.get("numeroprocesso"), e.getMessage());
+                return;
+            }
+            Processo processo = linha.processo();
+            String chave = processo.getNumerocnj() != null ? processo.getNumerocnj() : processo.getNumeroprocesso();
+            if (!vistos.add(chave)) {
+                importacao.duplicadas.incrementAndGet();
+                importacao.erro(numero, processo.getNumeroprocesso(), "Número repetido no arquivo");
+                return;
+            }
+            pendentes.add(linha);
+            if (pendentes.size() >= tamanhoLote) {
+                gravar();
+            }
+        }
+
+        private Linha converter(long numero, Map<String, String> campos) {
+            Processo processo = new Processo();
+            String numeroprocesso = texto(campos, "numeroprocesso", MAX_TEXTO);
+            if (numeroprocesso == null) {
+                throw new IllegalArgumentException("numeroprocesso é obrigatório");
+            }
+            processo.setNumeroprocesso(numeroprocesso);
+            String pesquisa = texto(campos, "numeroprocessopesq", MAX_TEXTO);
+            processo.setNumeroprocessopesq(pesquisa != null ? pesquisa : TextoNormalizado.somenteDigitos(numeroprocesso));
+            processo.setParte(texto(campos, "parte", MAX_TEXTO));
+            processo.setAdverso(texto(campos, "adverso", MAX_TEXTO));
+            processo.setPosicao(texto(campos, "posicao", MAX_TEXTO));
+            processo.setStatus(texto(campos, "status", MAX_TEXTO));
+            processo.setCartorio(texto(campos, "cartorio", MAX_TEXTO));
+            processo.setAssunto(texto(campos, "assunto", Integer.MAX_VALUE));
+            processo.setLocalizacao(texto(campos, "localizacao", MAX_TEXTO));
+            processo.setNumerointegracao(texto(campos, "numerointegracao", MAX_TEXTO));
+            processo.setNumorgao(inteiro(campos, "numorgao"));
+            processo.setProceletronico(texto(campos, "proceletronico", MAX_TEXTO));
+            processo.setQuantsoli(inteiro(campos, "quantsoli"));
+            processo.setDatadistribuicao(data(campos, "datadistribuicao"));
+            processo.setObservacao(texto(campos, "observacao", Integer.MAX_VALUE));
+            ProcessoService.preencherNumeroCnj(processo);
+
+            Long comarcaId = referencia(campos, "comarca", "Comarca", referencias.comarcas(), referencias.comarcasPorNome());
+            Long orgaoId = referencia(campos, "orgao", "Órgão", referencias.orgaos(), referencias.orgaosPorNome());
+            return new Linha(numero, processo, comarcaId, orgaoId);
+        }
+
+        /**
+         * Drops the rows already in the database and inserts the others.
+         */
+        void gravar() {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            List<Linha> linhas = semDuplicatasNoBanco(List.copyOf(pendentes));
+            pendentes.clear();
+            if (linhas.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, linhas, linhas.size(), ProcessoImportacaoService::preencher));
+                importacao.inseridas.addAndGet(linhas.size());
+            } catch (DataAccessException e) {
+                logger.warn("Import {}: batch of {} rows rejected ({}), retrying row by row",
+                        importacao.id, linhas.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                for (Linha linha : linhas) {
+                    gravarLinha(linha);
+                }
+            }
+        }
+
+        private List<Linha> semDuplicatasNoBanco(List<Linha> linhas) {
+            List<String> numeros = new ArrayList<>(linhas.size());
+            List<String> cnjs = new ArrayList<>(linhas.size());
+            for (Linha linha : linhas) {
+                numeros.add(linha.processo().getNumeroprocesso());
+                if (linha.processo().getNumerocnj() != null) {
+                    cnjs.add(linha.processo().getNumerocnj());
+                }
+            }
+            Set<String> numerosExistentes = new HashSet<>(processoRepository.findNumeroprocessoExistentes(numeros));
+            Set<String> cnjsExistentes = cnjs.isEmpty() ? Set.of() : processoService.numerosCnjExistentes(cnjs);
+            if (numerosExistentes.isEmpty() && cnjsExistentes.isEmpty()) {
+                return linhas;
+            }
+            List<Linha> novas = new ArrayList<>(linhas.size());
+            for (Linha linha : linhas) {
+                Processo processo = linha.processo();
+                if (numerosExistentes.contains(processo.getNumeroprocesso())
+                        || (processo.getNumerocnj() != null && cnjsExistentes.contains(processo.getNumerocnj()))) {
+                    importacao.duplicadas.incrementAndGet();
+                    importacao.erro(linha.numero(), processo.getNumeroprocesso(), "Processo já cadastrado");
+                } else {
+                    novas.add(linha);
+                }
+            }
+            return novas;
+        }
+
+        private void gravarLinha(Linha linha) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> preencher(ps, linha));
+                importacao.inseridas.incrementAndGet();
+            } catch (DataAccessException e) {
+                importacao.rejeitadas.incrementAndGet();
+                importacao.erro(linha.numero(), linha.processo().getNumeroprocesso(),
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+    }
+
+    private static void preencher(PreparedStatement ps, Linha linha) throws SQLException {
+        Processo p = linha.processo();
+        ps.setString(1, p.getNumeroprocesso());
+        ps.setString(2, p.getNumeroprocessopesq());
+        ps.setString(3, p.getParte());
+        ps.setString(4, p.getAdverso());
+        ps.setString(5, p.getPosicao());
+        ps.setString(6, p.getStatus());
+        ps.setString(7, p.getCartorio());
+        ps.setString(8, p.getAssunto());
+        ps.setString(9, p.getLocalizacao());
+        ps.setString(10, p.getNumerointegracao());
+        ps.setObject(11, linha.comarcaId(), Types.BIGINT);
+        ps.setObject(12, linha.orgaoId(), Types.BIGINT);
+        ps.setObject(13, p.getNumorgao(), Types.INTEGER);
+        ps.setString(14, p.getProceletronico());
+        ps.setObject(15, p.getQuantsoli(), Types.INTEGER);
+        ps.setObject(16, p.getDatadistribuicao(), Types.TIMESTAMP);
+        ps.setString(17, p.getObservacao());
+        ps.setString(18, p.getNumerocnj());
+        ps.setObject(19, p.getCnjsequencial(), Types.INTEGER);
+        ps.setObject(20, p.getCnjano(), Types.INTEGER);
+        ps.setObject(21, p.getCnjsegmento(), Types.INTEGER);
+        ps.setObject(22, p.getCnjtribunal(), Types.INTEGER);
+        ps.setObject(23, p.getCnjorigem(), Types.INTEGER);
+    }
+
+    private static String texto(Map<String, String> campos, String campo, int maximo) {
+        String valor = campos.get(campo);
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        valor = valor.trim();
+        if (valor.length() > maximo) {
+            throw new IllegalArgumentException(campo + " deve ter no máximo " + maximo + " caracteres");
+        }
+        return valor;
+    }
+
+    private static Integer inteiro(Map<String, String> campos, String campo) {
+        String valor = texto(campos, campo, MAX_TEXTO);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(campo + " deve ser um número inteiro: " + valor);
+        }
+    }
+
+    private static Timestamp data(Map<String, String> campos, String campo) {
+        String valor = texto(campos, campo, MAX_TEXTO);
+        if (valor == null) {
+            return null;
+        }
+        for (DateTimeFormatter formato : FORMATOS_DATA) {
+            try {
+                return Timestamp.valueOf(LocalDate.parse(valor, formato).atStartOfDay());
+            } catch (DateTimeParseException e) {
+                // Next format
+            }
+        }
+        try {
+            return Timestamp.valueOf(LocalDateTime.parse(valor));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(campo + " deve estar no formato aaaa-mm-dd ou dd/mm/aaaa: " + valor);
+        }
+    }
+
+    /**
+     * The ID of a comarca or orgao, given by ID ("comarcaId") or by name ("comarca").
+     */
+    private static Long referencia(Map<String, String> campos, String campo, String rotulo,
+                                   Set<Long> ids, Map<String, Long> porNome) {
+        String id = texto(campos, campo + "id", MAX_TEXTO);
+        if (id != null) {
+            Long valor;
+            try {
+                valor = Long.valueOf(id);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(campo + "Id deve ser um número: " + id);
+            }
+            if (!ids.contains(valor)) {
+                throw new IllegalArgumentException(rotulo + " com ID " + valor + " não encontrado(a)");
+            }
+            return valor;
+        }
+        String nome = texto(campos, campo, MAX_TEXTO);
+        if (nome == null) {
+            return null;
+        }
+        Long valor = porNome.get(TextoNormalizado.normalizar(nome));
+        if (valor == null) {
+            throw new IllegalArgumentException(rotulo + " não encontrado(a): " + nome);
+        }
+        if (valor == AMBIGUO) {
+            throw new IllegalArgumentException(rotulo + " \"" + nome + "\" é ambíguo(a); informe " + campo + "Id");
+        }
+        return valor;
+    }
+
+    /**
+     * Forgets finished imports after the retention period, and deletes files left in
+     * the import directory by a restart.
+     */
+    @Scheduled(fixedDelayString = "${app.processo.importacao.cleanup-interval:PT1H}")
+    public void removerImportacoesExpiradas() {
+        Instant agora = Instant.now();
+        importacoes.values().removeIf(importacao -> importacao.expiraEm != null && importacao.expiraEm.isBefore(agora));
+
+        if (!Files.isDirectory(diretorio)) {
+            return;
+        }
+        List<Path> arquivos;
+        try (Stream<Path> lista = Files.list(diretorio)) {
+            arquivos = lista.toList();
+        } catch (IOException e) {
+            logger.error("Failed to list import files in {}: {}", diretorio, e.getMessage());
+            return;
+        }
+        // Read after the listing: iniciar registers an import before creating its file, so
+        // every listed file of a live import is already in the map here
+        Set<Path> emUso = new HashSet<>();
+        importacoes.values().forEach(importacao -> emUso.add(importacao.caminho));
+        for (Path arquivo : arquivos) {
+            if (emUso.contains(arquivo)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(arquivo);
+                logger.info("Orphan import file {} deleted", arquivo.getFileName());
+            } catch (IOException e) {
+                logger.error("Failed to delete orphan import file {}: {}", arquivo, e.getMessage());
+            }
+        }
+    }
+}
@@ -7,12 +7,20 @@ import br.adv.cra.repository.ProcessoRepository;
 import br.adv.cra.repository.OrgaoRepository;
 import br.adv.cra.repository.ComarcaRepository;
 import br.adv.cra.dto.ProcessoDTO;
+import br.adv.cra.util.NumeroCnj;
+import br.adv.cra.util.TextoNormalizado;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +31,11 @@ public class ProcessoService {
     private final OrgaoRepository orgaoRepository;
     private final ComarcaRepository comarcaRepository;
     
+    static final int CNJ_DEFAULT_LIMIT = 50;
+    static final int CNJ_MAX_LIMIT = 200;
+    // Keeps the IN list of the duplicate check well below the bind parameter limits
+    static final int CNJ_BLOCO = 1000;
+    
     /**
      * Obtém um órgão existente pelo ID
      * @param orgaoId ID do órgão
@@ -60,6 +73,22 @@ public class ProcessoService {
         return orgaos.isEmpty() ? Optional.empty() : Optional.of(orgaos.get(0));
     }
     
+    /**
+     * Fills numerocnj and its parts from numeroprocesso, or from numeroprocessopesq when
+     * numeroprocesso is not a CNJ number; clears them when neither is.
+     * @param processo Processo a ser salvo
+     */
+    static void preencherNumeroCnj(Processo processo) {
+        Optional<NumeroCnj> cnj = NumeroCnj.parse(processo.getNumeroprocesso())
+                .or(() -> NumeroCnj.parse(processo.getNumeroprocessopesq()));
+        processo.setNumerocnj(cnj.map(NumeroCnj::getDigitos).orElse(null));
+        processo.setCnjsequencial(cnj.map(NumeroCnj::getSequencial).orElse(null));
+        processo.setCnjano(cnj.map(NumeroCnj::getAno).orElse(null));
+        processo.setCnjsegmento(cnj.map(NumeroCnj::getSegmento).orElse(null));
+        processo.setCnjtribunal(cnj.map(NumeroCnj::getTribunal).orElse(null));
+        processo.setCnjorigem(cnj.map(NumeroCnj::getOrigem).orElse(null));
+    }
+    
     public Processo salvar(Processo processo) {
         // Extrai o ID do órgão se foi enviado um objeto Orgao completo
         Long orgaoId = null;
@@ -102,6 +131,7 @@ public class ProcessoService {
         }
         
         // Salva o processo com as associações corretas
+        preencherNumeroCnj(processo);
         return processoRepository.save(processo);
     }
     
@@ -145,6 +175,7 @@ public class ProcessoService {
         }
         
         // Salva o processo com as associações corretas
+        preencherNumeroCnj(processo);
         return processoRepository.save(processo);
     }
     
@@ -194,6 +225,7 @@ public class ProcessoService {
         }
         
         // Atualiza o processo com as associações
+        preencherNumeroCnj(processo);
         return processoRepository.save(processo);
     }
     
@@ -259,9 +291,86 @@ public class ProcessoService {
         return processoRepository.findByProceletronico(processoEletronico);
     }
     
+    // CNJ numbers are compared by their digits, so a formatted and a digits-only copy of
+    // the same number are duplicates; both probes are index lookups
     @Transactional(readOnly = true)
     public boolean existeNumeroProcesso(String numeroprocesso) {
-        return processoRepository.existsByNumeroprocesso(numeroprocesso);
+        String numerocnj = NumeroCnj.normalizar(numeroprocesso);
+        return (numerocnj != null && processoRepository.existsByNumerocnj(numerocnj))
+                || processoRepository.existsByNumeroprocesso(numeroprocesso);
+    }
+    
+    /**
+     * Busca processos pelo número CNJ, com ou sem pontuação.
+     * @param numero Número CNJ
+     * @return Processos com esse número (mais de um apenas em bases com duplicatas)
+     * @throws IllegalArgumentException Se o número não tiver 20 dígitos
+     */
+    @Transactional(readOnly = true)
+    public List<Processo> buscarPorNumeroCnj(String numero) {
+        NumeroCnj cnj = NumeroCnj.parse(numero)
+                .orElseThrow(() -> new IllegalArgumentException("Número CNJ deve ter 20 dígitos"));
+        return processoRepository.findByNumerocnj(cnj.getDigitos());
+    }
+    
+    /**
+     * Busca processos cujo número CNJ começa com o prefixo, em ordem de número.
+     * @param prefixo Início do número, com ou sem pontuação
+     * @param limite Máximo de resultados (padrão 50, máximo 200)
+     * @return Processos encontrados
+     * @throws IllegalArgumentException Se o prefixo não tiver dígitos ou tiver mais de 20
+     */
+    @Transactional(readOnly = true)
+    public List<Processo> buscarPorPrefixoCnj(String prefixo, Integer limite) {
+        String digitos = TextoNormalizado.somenteDigitos(prefixo);
+        if (digitos.isEmpty() || digitos.length() > NumeroCnj.DIGITOS) {
+            throw new IllegalArgumentException("Prefixo deve ter de 1 a 20 dígitos");
+        }
+        return processoRepository.findByNumerocnjPrefixo(digitos, NumeroCnj.fimDoPrefixo(digitos),
+                PageRequest.of(0, limiteCnj(limite)));
+    }
+    
+    /**
+     * Busca processos de um tribunal (segmento J e tribunal TR do número CNJ), mais recentes primeiro.
+     * @param segmento Segmento da Justiça (1 a 9; 8 = Justiça Estadual)
+     * @param tribunal Código do tribunal no segmento (ex.: 26 = TJSP)
+     * @param ano Ano de ajuizamento, opcional
+     * @param limite Máximo de resultados (padrão 50, máximo 200)
+     * @return Processos encontrados
+     */
+    @Transactional(readOnly = true)
+    public List<Processo> buscarPorTribunal(Integer segmento, Integer tribunal, Integer ano, Integer limite) {
+        PageRequest pagina = PageRequest.of(0, limiteCnj(limite));
+        return ano == null
+                ? processoRepository.findByTribunal(segmento, tribunal, pagina)
+                : processoRepository.findByTribunalEAno(segmento, tribunal, ano, pagina);
+    }
+    
+    /**
+     * Detecção de duplicatas em lote: quais dos números já existem na base.
+     * @param numeros Números CNJ, com ou sem pontuação; os que não são CNJ são ignorados
+     * @return Os 20 dígitos dos números já cadastrados
+     */
+    @Transactional(readOnly = true)
+    public Set<String> numerosCnjExistentes(Collection<String> numeros) {
+        Set<String> normalizados = new LinkedHashSet<>();
+        for (String numero : numeros) {
+            String numerocnj = NumeroCnj.normalizar(numero);
+            if (numerocnj != null) {
+                normalizados.add(numerocnj);
+            }
+        }
+        List<String> lista = new ArrayList<>(normalizados);
+        Set<String> existentes = new HashSet<>();
+        for (int i = 0; i < lista.size(); i += CNJ_BLOCO) {
+            existentes.addAll(processoRepository.findNumerocnjExistentes(
+                    lista.subList(i, Math.min(i + CNJ_BLOCO, lista.size()))));
+        }
+        return existentes;
+    }
+    
+    private static int limiteCnj(Integer limite) {
+        return limite == null || limite <= 0 ? CNJ_DEFAULT_LIMIT : Math.min(limite, CNJ_MAX_LIMIT);
     }
     
     @Transactional(readOnly = true)
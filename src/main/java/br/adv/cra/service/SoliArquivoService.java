@@ -8,22 +8,35 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.SocketException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @RequiredArgsConstructor
@@ -35,6 +48,20 @@ public class SoliArquivoService {
     private final SoliArquivoRepository soliArquivoRepository;
     private final SolicitacaoRepository solicitacaoRepository;
     private final GoogleDriveService googleDriveService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DriveBlobCache driveBlobCache;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Stored locally and waiting for the background transfer to Google Drive */
+    public static final String GOOGLE_DRIVE_PENDENTE = "google_drive_pending";
+
+    static final String BLOB_DIR = "blobs";
+    static final String PARTS_DIR = "parts";
+
+    // ReentrantLock rather than synchronized: blobs are written while the lock is held,
+    // and a virtual thread blocked inside a monitor pins its carrier thread
+    private final ReentrantLock[] blobLocks = newLocks(64);
+    private final ConcurrentHashMap<String, Integer> pendingUploads = new ConcurrentHashMap<>();
 
     @Value("${file.upload-dir}")
     private String uploadDir;
@@ -42,6 +69,23 @@ public class SoliArquivoService {
     @Value("${google.drive.oauth.enabled:false}")
     private boolean googleDriveEnabled;
 
+    @Value("${app.google-drive.transfer.max-attempts:10}")
+    private int transferMaxAttempts = 10;
+
+    @Value("${app.google-drive.transfer.initial-backoff:30s}")
+    private Duration transferInitialBackoff = Duration.ofSeconds(30);
+
+    @Value("${app.google-drive.transfer.max-backoff:1h}")
+    private Duration transferMaxBackoff = Duration.ofHours(1);
+
+    private static ReentrantLock[] newLocks(int size) {
+        ReentrantLock[] locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
     // Setter method for testing purposes
     public void setUploadDir(String uploadDir) {
         this.uploadDir = uploadDir;
@@ -70,25 +114,12 @@ public class SoliArquivoService {
         
         // Determine storage location based on configuration and parameters
         if (googleDriveEnabled && "google_drive".equals(storageLocation)) {
-            logger.info("Attempting to save file to Google Drive");
-            // For Google Drive storage, we don't fallback to local storage on error
-            // We validate authentication and throw an error if it fails
-            if (!googleDriveService.hasValidTokens()) {
-                logger.error("Google Drive authentication is required but no valid tokens are available");
-                throw new IOException("Google Drive authentication is required but not available. Please authenticate with Google Drive first.");
-            }
-            
-            // Check if Google Drive is available before attempting upload
-            if (!googleDriveService.isGoogleDriveAvailable()) {
-                logger.error("Google Drive is not available or not properly authenticated");
-                throw new IOException("Google Drive is not available or not properly authenticated. Please check your connection and authentication.");
-            }
-            
-            // Proceed with Google Drive upload
-            return saveFileToGoogleDrive(file, solicitacao, origem);
+            logger.info("Staging file locally for transfer to Google Drive");
+            ensureGoogleDriveAuthenticated();
+            return requestDriveTransfer(saveFileLocally(file, solicitacao, origem, GOOGLE_DRIVE_PENDENTE));
         } else {
             logger.info("Saving file locally");
-            return saveFileLocally(file, solicitacao, origem);
+            return saveFileLocally(file, solicitacao, origem, "local");
         }
     }
     
@@ -106,101 +137,261 @@ public class SoliArquivoService {
     }
     
     /**
-     * Save a file to Google Drive
+     * Save an attachment received as a stream, e.g. a multipart part being parsed
+     * incrementally, without buffering it to a temporary file first
+     *
+     * The file is written once, straight into the upload directory, while its SHA-256
+     * is computed, and then renamed into the content-addressed store. Google Drive
+     * files are staged the same way and transferred in the background.
+     *
+     * The body is read outside any transaction, so a slow client does not hold a pooled
+     * connection for the whole upload; a transaction is opened only afterwards, to load
+     * the solicitation and save the row.
+     *
+     * @param conteudo        The file content; read until the end
+     * @param nomeArquivo     The original filename
+     * @param contentType     The content type of the file
+     * @param solicitacaoId   The ID of the solicitation to attach the file to
+     * @param origem          The origin of the file (e.g., "correspondente" or user)
+     * @param storageLocation Where to store the file ("local" or "google_drive")
+     * @return The saved SoliArquivo entity
+     * @throws IOException If there's an error saving the file
      */
-    private SoliArquivo saveFileToGoogleDrive(MultipartFile file, Solicitacao solicitacao, String origem) throws IOException {
-        logger.info("Starting Google Drive file save operation");
-        
-        // Upload file to Google Drive
-        String googleDriveFileId = googleDriveService.uploadFile(file);
-        
-        // Create and save the SoliArquivo entity
-        logger.info("Creating SoliArquivo entity for Google Drive file with ID: {}", googleDriveFileId);
-        SoliArquivo soliArquivo = new SoliArquivo();
-        soliArquivo.setSolicitacao(solicitacao);
-        soliArquivo.setNomearquivo(file.getOriginalFilename());
-        soliArquivo.setDatainclusao(LocalDateTime.now());
-        soliArquivo.setCaminhofisico(null); // No physical path for Google Drive files
-        soliArquivo.setOrigem(origem);
-        soliArquivo.setAtivo(true); // Default to active
-        soliArquivo.setCaminhorelativo(null); // No relative path for Google Drive files
-        soliArquivo.setStorageLocation("google_drive");
-        soliArquivo.setGoogleDriveFileId(googleDriveFileId);
-        soliArquivo.setUserId(null);
-        
-        logger.info("Saving SoliArquivo entity to database");
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SoliArquivo salvarAnexo(InputStream conteudo, String nomeArquivo, String contentType, Long solicitacaoId,
+                                   String origem, String storageLocation) throws IOException {
+        logger.info("Saving streamed attachment for solicitacao ID: {}", solicitacaoId);
+        logger.info("Origin: {}, Storage location: {}, File name: {}", origem, storageLocation, nomeArquivo);
+
+        // Fail before reading the body; the row is loaded again once the body is stored
+        if (!solicitacaoRepository.existsById(solicitacaoId)) {
+            logger.error("Solicitação with ID {} not found", solicitacaoId);
+            throw new RuntimeException("Solicitação não encontrada");
+        }
+
+        boolean googleDrive = googleDriveEnabled && "google_drive".equals(storageLocation);
+        if (googleDrive) {
+            ensureGoogleDriveAuthenticated();
+        }
+
+        logger.info("Streaming file to local storage");
+        Path partsDir = getPartialUploadDir();
+        Files.createDirectories(partsDir);
+        Path tempFile = Files.createTempFile(partsDir, "stream-", ".tmp");
         try {
-            SoliArquivo saved = soliArquivoRepository.save(soliArquivo);
-            logger.info("SoliArquivo entity saved successfully with ID: {}", saved.getId());
-            return saved;
-        } catch (Exception e) {
-            logger.error("Failed to save SoliArquivo entity to database: {}", e.getMessage(), e);
-            // If database save fails, try to delete the file from Google Drive
+            String hash = copyHashing(conteudo, tempFile);
+            logger.info("Received {} bytes, content hash: {}", Files.size(tempFile), hash);
             try {
-                logger.info("Attempting to clean up Google Drive file due to database save failure");
-                googleDriveService.deleteFile(googleDriveFileId);
-            } catch (IOException deleteException) {
-                logger.error("Failed to delete file from Google Drive after database save failure: {}", deleteException.getMessage(), deleteException);
-            } catch (Exception deleteException) {
-                logger.error("Failed to delete file from Google Drive after database save failure: {}", deleteException.getMessage(), deleteException);
+                return transactionTemplate.execute(status -> {
+                    Solicitacao solicitacao = solicitacaoRepository.findById(solicitacaoId)
+                            .orElseThrow(() -> new RuntimeException("Solicitação não encontrada"));
+                    try {
+                        if (googleDrive) {
+                            return requestDriveTransfer(adoptLocalFile(tempFile, hash, solicitacao, nomeArquivo, origem,
+                                    GOOGLE_DRIVE_PENDENTE));
+                        }
+                        return adoptLocalFile(tempFile, hash, solicitacao, nomeArquivo, origem, "local");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
-            throw e;
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
     }
+
+    private void ensureGoogleDriveAuthenticated() throws IOException {
+        // For Google Drive storage, we don't fallback to local storage on error
+        // We validate authentication and throw an error if it fails
+        if (!googleDriveService.hasValidTokens()) {
+            logger.error("Google Drive authentication is required but no valid tokens are available");
+            throw new IOException("Google Drive authentication is required but not available. Please authenticate with Google Drive first.");
+        }
+    }
+
+    /**
+     * Marks a staged attachment for transfer; GoogleDriveTransferService picks it up
+     * once the row is committed, or later from the pending rows if that fails.
+     */
+    private SoliArquivo requestDriveTransfer(SoliArquivo staged) {
+        staged.setTransferenciaTentativas(0);
+        staged.setTransferenciaProxima(LocalDateTime.now());
+        SoliArquivo saved = soliArquivoRepository.save(staged);
+        eventPublisher.publishEvent(new DriveTransferRequestedEvent(saved.getId()));
+        logger.info("File {} staged locally, transfer to Google Drive queued", saved.getId());
+        return saved;
+    }
+
+    /**
+     * Switches a staged attachment to its Google Drive copy and releases the local blob
+     *
+     * @param id                The ID of the file attachment
+     * @param googleDriveFileId The ID of the uploaded Google Drive file
+     * @return false if the attachment was deleted (or already transferred) meanwhile
+     */
+    public boolean concluirTransferenciaDrive(Long id, String googleDriveFileId) {
+        Optional<SoliArquivo> pendente = soliArquivoRepository.findById(id)
+                .filter(soliArquivo -> GOOGLE_DRIVE_PENDENTE.equals(soliArquivo.getStorageLocation()));
+        if (pendente.isEmpty()) {
+            logger.warn("File {} is no longer waiting for transfer to Google Drive", id);
+            return false;
+        }
+        SoliArquivo soliArquivo = pendente.get();
+        String hash = soliArquivo.getConteudoHash();
+        soliArquivo.setStorageLocation("google_drive");
+        soliArquivo.setGoogleDriveFileId(googleDriveFileId);
+        soliArquivo.setCaminhofisico(null); // No physical path for Google Drive files
+        soliArquivo.setCaminhorelativo(null); // No relative path for Google Drive files
+        soliArquivo.setConteudoHash(null);
+        soliArquivo.setTransferenciaProxima(null);
+        soliArquivo.setTransferenciaErro(null);
+        soliArquivoRepository.save(soliArquivo);
+        logger.info("File {} transferred to Google Drive with ID: {}", id, googleDriveFileId);
+        if (hash != null) {
+            collectBlobAfterCompletion(hash);
+        }
+        return true;
+    }
+
+    /**
+     * Records a failed transfer attempt and schedules the next one with exponential
+     * backoff. After the last attempt the attachment simply stays in local storage.
+     *
+     * @param id    The ID of the file attachment
+     * @param erro  The error of this attempt
+     */
+    public void registrarFalhaTransferencia(Long id, String erro) {
+        soliArquivoRepository.findById(id)
+                .filter(soliArquivo -> GOOGLE_DRIVE_PENDENTE.equals(soliArquivo.getStorageLocation()))
+                .ifPresent(soliArquivo -> {
+                    int tentativas = soliArquivo.getTransferenciaTentativas() == null ? 1
+                            : soliArquivo.getTransferenciaTentativas() + 1;
+                    soliArquivo.setTransferenciaTentativas(tentativas);
+                    soliArquivo.setTransferenciaErro(erro != null && erro.length() > 500 ? erro.substring(0, 500) : erro);
+                    if (tentativas >= transferMaxAttempts) {
+                        logger.error("Giving up transfer of file {} to Google Drive after {} attempts; keeping it in local storage: {}",
+                                id, tentativas, erro);
+                        soliArquivo.setStorageLocation("local");
+                        soliArquivo.setTransferenciaProxima(null);
+                    } else {
+                        Duration espera = transferInitialBackoff.multipliedBy(1L << Math.min(tentativas - 1, 20));
+                        if (espera.compareTo(transferMaxBackoff) > 0) {
+                            espera = transferMaxBackoff;
+                        }
+                        logger.warn("Transfer of file {} to Google Drive failed (attempt {}), retrying in {}: {}",
+                                id, tentativas, espera, erro);
+                        soliArquivo.setTransferenciaProxima(LocalDateTime.now().plus(espera));
+                    }
+                    soliArquivoRepository.save(soliArquivo);
+                });
+    }
     
     /**
-     * Save a file to the local filesystem
+     * Save a file to the local content-addressed store
+     *
+     * The content is copied once into the partial upload directory, and hashed (SHA-256)
+     * during that copy; the copy is then renamed into the store, or dropped if a blob with
+     * the same hash already exists, in which case the new row simply points at it. Blobs
+     * live under {upload-dir}/blobs/ab/cd/{hash}, and the rows of arquivosanexados
+     * that share a conteudo_hash are its references (see deletar).
      */
-    private SoliArquivo saveFileLocally(MultipartFile file, Solicitacao solicitacao, String origem) throws IOException {
+    private SoliArquivo saveFileLocally(MultipartFile file, Solicitacao solicitacao, String origem,
+                                        String storageLocation) throws IOException {
         logger.info("Starting local file save operation");
         
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            logger.info("Upload directory does not exist, creating it: {}", uploadPath);
-            Files.createDirectories(uploadPath);
-        }
-
-        // Generate a unique filename with UUID + original filename
         String originalFilename = file.getOriginalFilename();
         logger.info("Original filename: {}", originalFilename);
         
-        String fileExtension = "";
-        String fileNameWithoutExtension = originalFilename;
-        if (originalFilename != null && originalFilename.contains(".")) {
-            int lastDotIndex = originalFilename.lastIndexOf(".");
-            fileExtension = originalFilename.substring(lastDotIndex);
-            fileNameWithoutExtension = originalFilename.substring(0, lastDotIndex);
+        Path partsDir = getPartialUploadDir();
+        Files.createDirectories(partsDir);
+        Path tempFile = Files.createTempFile(partsDir, "upload-", ".tmp");
+        try {
+            String hash;
+            try (InputStream in = file.getInputStream()) {
+                hash = copyHashing(in, tempFile);
+            }
+            logger.info("Content hash: {}", hash);
+            return adoptLocalFile(tempFile, hash, solicitacao, originalFilename, origem, storageLocation);
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
-        
-        // Create filename as UUID + original filename (without extension) + extension
-        String uniqueFilename = UUID.randomUUID().toString() + "_" + fileNameWithoutExtension + fileExtension;
-        logger.info("Generated unique filename: {}", uniqueFilename);
-        
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        logger.info("Full file path: {}", filePath);
+    }
 
-        // Save the file to the filesystem
-        logger.info("Saving file to filesystem");
+    /**
+     * Attach a file that was already written to disk (e.g. by a chunked upload) to a
+     * solicitation, moving it into the content-addressed store
+     *
+     * The file must be on the same filesystem as the upload directory, so the move is
+     * a rename. If the content is already stored the file is simply deleted.
+     *
+     * @param conteudo      The complete file
+     * @param hash          The SHA-256 of the file, hex encoded
+     * @param nomeArquivo   The original filename
+     * @param solicitacaoId The ID of the solicitation to attach the file to
+     * @param origem        The origin of the file (e.g., "correspondente" or user)
+     * @return The saved SoliArquivo entity
+     * @throws IOException If the file cannot be moved into the store
+     */
+    public SoliArquivo salvarAnexoLocal(Path conteudo, String hash, String nomeArquivo, Long solicitacaoId, String origem) throws IOException {
+        logger.info("Attaching stored content {} to solicitacao ID: {}", hash, solicitacaoId);
+        Solicitacao solicitacao = solicitacaoRepository.findById(solicitacaoId)
+                .orElseThrow(() -> {
+                    logger.error("Solicitação with ID {} not found", solicitacaoId);
+                    return new RuntimeException("Solicitação não encontrada");
+                });
+
+        return adoptLocalFile(conteudo, hash, solicitacao, nomeArquivo, origem, "local");
+    }
+
+    private SoliArquivo adoptLocalFile(Path conteudo, String hash, Solicitacao solicitacao, String nomeArquivo,
+                                       String origem, String storageLocation) throws IOException {
+        Path filePath = blobPath(hash);
+        registerPendingUpload(hash);
+        boolean created;
+        ReentrantLock lock = blobLock(hash);
+        lock.lock();
         try {
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            logger.info("File saved successfully to filesystem");
-        } catch (IOException e) {
-            logger.error("Failed to save file to filesystem: {}", e.getMessage(), e);
-            throw e;
+            created = !Files.exists(filePath);
+            if (created) {
+                Files.createDirectories(filePath.getParent());
+                Files.move(conteudo, filePath, StandardCopyOption.ATOMIC_MOVE);
+                logger.info("Content moved to blob {}", filePath);
+            } else {
+                Files.deleteIfExists(conteudo);
+                logger.info("Blob already stored, reusing it");
+            }
+        } finally {
+            lock.unlock();
         }
+        return saveBlobReference(solicitacao, nomeArquivo, origem, hash, created, storageLocation);
+    }
 
+    /**
+     * Directory for files that are still being written, on the same filesystem as the
+     * blob store so they can be moved into it with a rename.
+     */
+    public Path getPartialUploadDir() {
+        return Paths.get(uploadDir, PARTS_DIR);
+    }
+
+    private SoliArquivo saveBlobReference(Solicitacao solicitacao, String originalFilename, String origem,
+                                          String hash, boolean created, String storageLocation) {
         // Create and save the SoliArquivo entity
         logger.info("Creating SoliArquivo entity for local file");
         SoliArquivo soliArquivo = new SoliArquivo();
         soliArquivo.setSolicitacao(solicitacao);
         soliArquivo.setNomearquivo(originalFilename);
         soliArquivo.setDatainclusao(LocalDateTime.now());
-        soliArquivo.setCaminhofisico(filePath.toString());
+        soliArquivo.setCaminhofisico(blobPath(hash).toString());
         soliArquivo.setOrigem(origem);
         soliArquivo.setAtivo(true); // Default to active
-        soliArquivo.setCaminhorelativo("/arquivos/" + uniqueFilename); // Relative path for HTTP access
-        soliArquivo.setStorageLocation("local");
+        soliArquivo.setCaminhorelativo("/arquivos/" + BLOB_DIR + "/" + shardedName(hash)); // Relative path for HTTP access
+        soliArquivo.setStorageLocation(storageLocation);
         soliArquivo.setGoogleDriveFileId(null);
+        soliArquivo.setConteudoHash(hash);
         soliArquivo.setUserId(null);
         
         logger.info("Saving SoliArquivo entity to database");
@@ -210,17 +401,98 @@ public class SoliArquivoService {
             return saved;
         } catch (Exception e) {
             logger.error("Failed to save SoliArquivo entity to database: {}", e.getMessage(), e);
-            // If database save fails, try to delete the file from local storage
-            try {
-                logger.info("Attempting to clean up local file due to database save failure");
-                Files.deleteIfExists(filePath);
-            } catch (IOException deleteException) {
-                logger.error("Failed to delete file from local storage after database save failure: {}", deleteException.getMessage(), deleteException);
+            // If database save fails, drop the blob unless other rows reference it
+            if (created) {
+                logger.info("Attempting to clean up local blob due to database save failure");
+                collectBlobAfterCompletion(hash);
             }
             throw e;
         }
     }
 
+    /**
+     * Copies the content to the file, computing its SHA-256 on the way.
+     *
+     * @return The hash, hex encoded
+     */
+    private static String copyHashing(InputStream conteudo, Path destino) throws IOException {
+        MessageDigest digest = newSha256();
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(destino), digest)) {
+            conteudo.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return Paths.get(uploadDir, BLOB_DIR).resolve(shardedName(hash));
+    }
+
+    private static String shardedName(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    private ReentrantLock blobLock(String hash) {
+        return blobLocks[Math.floorMod(hash.hashCode(), blobLocks.length)];
+    }
+
+    private void registerPendingUpload(String hash) {
+        pendingUploads.merge(hash, 1, Integer::sum);
+        Runnable release = () -> pendingUploads.computeIfPresent(hash, (key, count) -> count > 1 ? count - 1 : null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+
+    /**
+     * Deletes the blob once the current transaction has ended, if no row references it
+     * any more and no upload of the same content is in flight.
+     */
+    private void collectBlobAfterCompletion(String hash) {
+        Runnable collect = () -> {
+            ReentrantLock lock = blobLock(hash);
+            lock.lock();
+            try {
+                if (pendingUploads.containsKey(hash) || soliArquivoRepository.countByConteudoHash(hash) > 0) {
+                    logger.info("Blob {} is still referenced, keeping it", hash);
+                    return;
+                }
+                try {
+                    Files.deleteIfExists(blobPath(hash));
+                    logger.info("Unreferenced blob {} deleted from local storage", hash);
+                } catch (IOException e) {
+                    logger.error("Failed to delete unreferenced blob {}: {}", hash, e.getMessage(), e);
+                }
+            } finally {
+                lock.unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    collect.run();
+                }
+            });
+        } else {
+            collect.run();
+        }
+    }
+
     /**
      * Get all file attachments for a solicitacao
      *
@@ -259,6 +531,10 @@ public class SoliArquivoService {
             throw new RuntimeException("Arquivo não encontrado");
         }
         soliArquivo.setId(id);
+        // The content hash is the blob reference and is never taken from the request
+        soliArquivo.setConteudoHash(soliArquivoRepository.findById(id)
+                .map(SoliArquivo::getConteudoHash)
+                .orElse(null));
         return soliArquivoRepository.save(soliArquivo);
     }
 
@@ -279,6 +555,7 @@ public class SoliArquivoService {
 
         // Delete the physical file based on storage location
         if ("google_drive".equals(soliArquivo.getStorageLocation()) && soliArquivo.getGoogleDriveFileId() != null) {
+            driveBlobCache.invalidate(soliArquivo.getGoogleDriveFileId());
             // Delete from Google Drive
             try {
                 logger.info("Deleting file from Google Drive with ID: {}", soliArquivo.getGoogleDriveFileId());
@@ -297,6 +574,9 @@ public class SoliArquivoService {
                 // Log the error but don't stop the deletion process
                 logger.error("Failed to delete file from Google Drive: {}", e.getMessage(), e);
             }
+        } else if (soliArquivo.getConteudoHash() != null) {
+            // Content-addressed blob: collected below, once this row is gone
+            logger.info("File is a reference to blob {}", soliArquivo.getConteudoHash());
         } else if (soliArquivo.getCaminhofisico() != null) {
             // Delete from local storage
             try {
@@ -314,6 +594,10 @@ public class SoliArquivoService {
         logger.info("Deleting file attachment record from database");
         soliArquivoRepository.deleteById(id);
         logger.info("File attachment record deleted successfully");
+
+        if (soliArquivo.getConteudoHash() != null) {
+            collectBlobAfterCompletion(soliArquivo.getConteudoHash());
+        }
     }
 
     /**
@@ -384,6 +668,28 @@ public class SoliArquivoService {
         }
     }
     
+    /**
+     * Resolves the file of an attachment on local disk, so it can be streamed
+     * directly from disk. Google Drive attachments are served from the local
+     * cache, downloading them into it on a miss.
+     *
+     * @param id The ID of the file attachment
+     * @return The path of the file, or empty if the attachment is stored in Google Drive
+     *         and the cache is disabled
+     * @throws IOException If a Google Drive attachment cannot be downloaded into the cache
+     */
+    // No transaction: a cache miss downloads the whole Drive file, which must not hold a
+    // pooled connection; findById runs in its own short read-only transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Path> getLocalFilePath(Long id) throws IOException {
+        SoliArquivo soliArquivo = soliArquivoRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Arquivo não encontrado"));
+        if ("google_drive".equals(soliArquivo.getStorageLocation()) && soliArquivo.getGoogleDriveFileId() != null) {
+            return driveBlobCache.get(soliArquivo.getGoogleDriveFileId());
+        }
+        return Optional.of(Paths.get(soliArquivo.getCaminhofisico()));
+    }
+    
     /**
      * Check if Google Drive is currently available
      * 
@@ -0,0 +1,289 @@
+package br.adv.cra.service;
+
+import br.adv.cra.dto.CursorPageDTO;
+import br.adv.cra.dto.SolicitacaoBuscaDTO;
+import br.adv.cra.dto.SolicitacaoResumoDTO;
+import br.adv.cra.repository.SolicitacaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked, paginated text search over solicitacao.observacao and solicitacao.instrucoes.
+ *
+ * On PostgreSQL with database/solicitacao-fulltext.sql applied, the search uses the
+ * generated tsvector column "busca" and its GIN index: the query is parsed with
+ * websearch_to_tsquery (quotes, OR and -term work), stemmed in Portuguese and
+ * accent-insensitive, ranked with ts_rank_cd, and snippets come from ts_headline.
+ * Elsewhere (H2 in dev and tests, or before the script is applied) it falls back to a
+ * case-insensitive LIKE on the whole phrase, newest first.
+ *
+ * app.solicitacao.busca.full-text selects the mode: auto (detect the column on first
+ * use), true or false.
+ *
+ * Results are ranked, so there is no key to page on: the cursor is the plain row offset,
+ * and the database still ranks and skips every earlier hit on each page. Paging stops
+ * after the first MAX_RESULTADOS hits; past that, the query has to be refined.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SolicitacaoBuscaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolicitacaoBuscaService.class);
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_RESULTADOS = 1000;
+
+    // Matched terms are delimited with control characters, which cannot come from the
+    // database text, and turned into <mark> tags after the snippet is HTML-escaped
+    private static final String INICIO_MARCA = "\u0002";
+    private static final String FIM_MARCA = "\u0003";
+    private static final int CONTEXTO_TRECHO = 60;
+
+    private static final String OPCOES_TRECHO = "StartSel=\"" + INICIO_MARCA + "\", StopSel=\"" + FIM_MARCA + "\", "
+            + "MinWords=8, MaxWords=25, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private static final String COLUNA_EXISTE_SQL =
+            "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE table_name = 'solicitacao' AND column_name = 'busca'";
+
+    // The page is ranked in the subquery, so ts_headline only runs for the rows returned
+    private static final String FULL_TEXT_SQL =
+            "SELECT r.idsolicitacao, r.relevancia, " +
+            "ts_headline('public.portuguese_unaccent'::regconfig, concat_ws(' ', s.observacao, s.instrucoes), " +
+            "r.q, CAST(:opcoes AS text)) AS trecho " +
+            "FROM (SELECT s.idsolicitacao, ts_rank_cd(s.busca, q, 32) AS relevancia, q " +
+            "      FROM solicitacao s, websearch_to_tsquery('public.portuguese_unaccent'::regconfig, CAST(:texto AS text)) q " +
+            "      WHERE s.busca @@ q " +
+            "      ORDER BY relevancia DESC, s.idsolicitacao DESC " +
+            "      LIMIT :limite OFFSET :offset) r " +
+            "JOIN solicitacao s ON s.idsolicitacao = r.idsolicitacao " +
+            "ORDER BY r.relevancia DESC, r.idsolicitacao DESC";
+
+    private static final String LIKE_SQL =
+            "SELECT idsolicitacao, observacao, instrucoes FROM solicitacao " +
+            "WHERE LOWER(observacao) LIKE :padrao OR LOWER(instrucoes) LIKE :padrao " +
+            "ORDER BY idsolicitacao DESC LIMIT :limite OFFSET :offset";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SolicitacaoRepository solicitacaoRepository;
+    private final String modo;
+    private volatile Boolean fullText;
+
+    public SolicitacaoBuscaService(NamedParameterJdbcTemplate jdbcTemplate,
+                                   SolicitacaoRepository solicitacaoRepository,
+                                   @Value("${app.solicitacao.busca.full-text:auto}") String modo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.solicitacaoRepository = solicitacaoRepository;
+        this.modo = modo;
+    }
+
+    /**
+     * One hit of the search before the summary row is attached.
+     */
+    record Resultado(Long id, double relevancia, String trecho) {
+    }
+
+    /**
+     * Searches observacao and instrucoes.
+     *
+     * @param texto   The search text
+     * @param cursor  nextCursor of the previous page (the offset of its first row), or null for the first page
+     * @param tamanho Page size (default 20, max 100)
+     * @return The page, best matches first; the last page ends at MAX_RESULTADOS
+     * @throws IllegalArgumentException If the text is blank or the cursor is invalid or past MAX_RESULTADOS
+     */
+    public CursorPageDTO<SolicitacaoBuscaDTO> buscar(String texto, String cursor, Integer tamanho) {
+        if (texto == null || texto.isBlank()) {
+            throw new IllegalArgumentException("Informe o texto da busca");
+        }
+        int offset = offset(cursor);
+        int limite = tamanho == null || tamanho <= 0 ? DEFAULT_PAGE_SIZE : Math.min(tamanho, MAX_PAGE_SIZE);
+        limite = Math.min(limite, MAX_RESULTADOS - offset);
+
+        // One extra row tells whether there is a next page
+        List<Resultado> resultados = usaFullText()
+                ? buscarFullText(texto.trim(), limite + 1, offset)
+                : buscarLike(texto.trim(), limite + 1, offset);
+        boolean hasMore = resultados.size() > limite;
+        if (hasMore) {
+            resultados = resultados.subList(0, limite);
+            // No page starts at MAX_RESULTADOS
+            hasMore = offset + limite < MAX_RESULTADOS;
+        }
+
+        List<SolicitacaoBuscaDTO> itens = comResumo(resultados);
+        String nextCursor = hasMore ? String.valueOf(offset + limite) : null;
+        return new CursorPageDTO<>(itens, nextCursor, hasMore, itens.size());
+    }
+
+    boolean usaFullText() {
+        Boolean atual = fullText;
+        if (atual == null) {
+            atual = switch (modo) {
+                case "true" -> true;
+                case "false" -> false;
+                default -> detectarFullText();
+            };
+            fullText = atual;
+        }
+        return atual;
+    }
+
+    private boolean detectarFullText() {
+        Integer colunas = jdbcTemplate.queryForObject(COLUNA_EXISTE_SQL, Map.of(), Integer.class);
+        boolean disponivel = colunas != null && colunas > 0;
+        if (disponivel) {
+            logger.info("Solicitacao text search uses the PostgreSQL full-text index");
+        } else {
+            logger.warn("Column solicitacao.busca not found; text search falls back to LIKE. "
+                    + "Apply database/solicitacao-fulltext.sql on PostgreSQL to enable full-text search");
+        }
+        return disponivel;
+    }
+
+    private List<Resultado> buscarFullText(String texto, int limite, int offset) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("texto", texto)
+                .addValue("opcoes", OPCOES_TRECHO)
+                .addValue("limite", limite)
+                .addValue("offset", offset);
+        return jdbcTemplate.query(FULL_TEXT_SQL, parametros, (rs, rowNum) -> new Resultado(
+                rs.getLong("idsolicitacao"), rs.getDouble("relevancia"), destacar(rs.getString("trecho"))));
+    }
+
+    private List<Resultado> buscarLike(String texto, int limite, int offset) {
+        String termo = texto.toLowerCase();
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("padrao", "%" + escaparLike(termo) + "%")
+                .addValue("limite", limite)
+                .addValue("offset", offset);
+        return jdbcTemplate.query(LIKE_SQL, parametros, (rs, rowNum) -> {
+            String observacao = rs.getString("observacao");
+            String instrucoes = rs.getString("instrucoes");
+            String conteudo = observacao != null && instrucoes != null ? observacao + " " + instrucoes
+                    : observacao != null ? observacao : instrucoes;
+            return new Resultado(rs.getLong("idsolicitacao"), ocorrencias(conteudo, texto), trechoLike(conteudo, texto));
+        });
+    }
+
+    private List<SolicitacaoBuscaDTO> comResumo(List<Resultado> resultados) {
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, SolicitacaoResumoDTO> resumos = solicitacaoRepository
+                .findResumoByIds(resultados.stream().map(Resultado::id).toList()).stream()
+                .collect(Collectors.toMap(SolicitacaoResumoDTO::getIdsolicitacao, Function.identity()));
+        List<SolicitacaoBuscaDTO> itens = new ArrayList<>(resultados.size());
+        for (Resultado resultado : resultados) {
+            SolicitacaoResumoDTO resumo = resumos.get(resultado.id());
+            if (resumo != null) {
+                itens.add(new SolicitacaoBuscaDTO(resumo, resultado.relevancia(), resultado.trecho()));
+            }
+        }
+        return itens;
+    }
+
+    private static int offset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(cursor);
+            if (offset < 0 || offset >= MAX_RESULTADOS) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * HTML-escapes a snippet and turns the match delimiters into &lt;mark&gt; tags.
+     */
+    static String destacar(String trecho) {
+        if (trecho == null) {
+            return null;
+        }
+        // With an encoding only markup characters are escaped, accents are kept as is
+        return HtmlUtils.htmlEscape(trecho, StandardCharsets.UTF_8.name())
+                .replace(INICIO_MARCA, "<mark>")
+                .replace(FIM_MARCA, "</mark>");
+    }
+
+    /**
+     * Builds the snippet of the LIKE fallback: the text around the first occurrence of
+     * the term, with every occurrence in it highlighted.
+     */
+    static String trechoLike(String conteudo, String termo) {
+        if (conteudo == null) {
+            return null;
+        }
+        int primeira = indexOfIgnoreCase(conteudo, termo, 0);
+        if (primeira < 0) {
+            return destacar(conteudo.substring(0, Math.min(conteudo.length(), 2 * CONTEXTO_TRECHO)));
+        }
+        int inicio = Math.max(0, primeira - CONTEXTO_TRECHO);
+        int fim = Math.min(conteudo.length(), primeira + termo.length() + CONTEXTO_TRECHO);
+
+        StringBuilder trecho = new StringBuilder();
+        if (inicio > 0) {
+            trecho.append("… ");
+        }
+        int posicao = inicio;
+        int ocorrencia = primeira;
+        while (ocorrencia >= 0 && ocorrencia + termo.length() <= fim) {
+            trecho.append(conteudo, posicao, ocorrencia)
+                    .append(INICIO_MARCA)
+                    .append(conteudo, ocorrencia, ocorrencia + termo.length())
+                    .append(FIM_MARCA);
+            posicao = ocorrencia + termo.length();
+            ocorrencia = indexOfIgnoreCase(conteudo, termo, posicao);
+        }
+        trecho.append(conteudo, posicao, fim);
+        if (fim < conteudo.length()) {
+            trecho.append(" …");
+        }
+        return destacar(trecho.toString());
+    }
+
+    private static int ocorrencias(String conteudo, String termo) {
+        int total = 0;
+        int posicao = indexOfIgnoreCase(conteudo, termo, 0);
+        while (posicao >= 0) {
+            total++;
+            posicao = indexOfIgnoreCase(conteudo, termo, posicao + termo.length());
+        }
+        return total;
+    }
+
+    private static int indexOfIgnoreCase(String conteudo, String termo, int desde) {
+        if (conteudo == null) {
+            return -1;
+        }
+        for (int i = desde; i + termo.length() <= conteudo.length(); i++) {
+            if (conteudo.regionMatches(true, i, termo, 0, termo.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
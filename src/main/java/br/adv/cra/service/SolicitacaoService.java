@@ -1,5 +1,9 @@
 package br.adv.cra.service;
 
+import br.adv.cra.dto.CursorPageDTO;
+import br.adv.cra.dto.SolicitacaoResumoDTO;
+import br.adv.cra.dto.StatusLoteResultadoDTO;
+import br.adv.cra.dto.StatusLoteResultadoDTO.Resultado;
 import br.adv.cra.entity.Comarca;
 import br.adv.cra.entity.Correspondente;
 import br.adv.cra.entity.Processo;
@@ -8,22 +12,42 @@ import br.adv.cra.entity.StatusSolicitacao;
 import br.adv.cra.entity.Usuario;
 import br.adv.cra.repository.SolicitacaoRepository;
 import br.adv.cra.repository.StatusSolicitacaoRepository;
+import br.adv.cra.util.SolicitacaoCursor;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class SolicitacaoService {
     
+    private static final Logger logger = LoggerFactory.getLogger(SolicitacaoService.class);
+    
+    static final String STATUS_CONCLUIDA = "Concluída";
+    
+    // IDs per SELECT/UPDATE of a batch status change, well below PostgreSQL's bind parameter limit
+    static final int STATUS_LOTE_BLOCO = 500;
+    
     private final SolicitacaoRepository solicitacaoRepository;
     private final StatusSolicitacaoRepository statusSolicitacaoRepository;
     
+    @Value("${app.solicitacao.status-lote.max-ids:1000}")
+    private int statusLoteMaxIds = 1000;
+    
     public Solicitacao salvar(Solicitacao solicitacao) {
         if (solicitacao.getDatasolicitacao() == null) {
             solicitacao.setDatasolicitacao(LocalDateTime.now());
@@ -102,6 +126,76 @@ public class SolicitacaoService {
         return saved;
     }
     
+    /**
+     * Moves several solicitacoes to one status in a single transaction.
+     * 
+     * The current statuses are read with one SELECT per block of STATUS_LOTE_BLOCO IDs and
+     * the rows that actually change are updated with one UPDATE per block, instead of a
+     * findById and saveAndFlush per row. Rows already in the target status are not
+     * touched, like setStatus, so the historico trigger only fires for real changes.
+     * 
+     * The UPDATE repeats the target-status and concluded checks in its WHERE clause, so a
+     * row concluded by another transaction after the SELECT is not reopened. When it skips
+     * rows, those are read again and reported from their current status. A row moved to
+     * the target status by someone else in the meantime is reported as ATUALIZADA.
+     * 
+     * @param ids The IDs of the solicitacoes (at most app.solicitacao.status-lote.max-ids)
+     * @param statusId The ID of the new status
+     * @param podeAlterarConcluidas Whether the caller may change concluded solicitacoes
+     * @return One result per requested ID
+     * @throws IllegalArgumentException If the ID list is empty or too long
+     * @throws RuntimeException If the status does not exist
+     */
+    @Transactional
+    public StatusLoteResultadoDTO setStatusEmLote(List<Long> ids, Long statusId, boolean podeAlterarConcluidas) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma solicitação");
+        }
+        if (ids.size() > statusLoteMaxIds) {
+            throw new IllegalArgumentException("No máximo " + statusLoteMaxIds + " solicitações por lote");
+        }
+        StatusSolicitacao status = statusSolicitacaoRepository.findById(statusId)
+                .orElseThrow(() -> new RuntimeException("Status não encontrado"));
+        
+        List<Long> distintos = ids.stream().distinct().toList();
+        Map<Long, Resultado> resultados = new HashMap<>();
+        int atualizadas = 0;
+        for (int inicio = 0; inicio < distintos.size(); inicio += STATUS_LOTE_BLOCO) {
+            List<Long> bloco = distintos.subList(inicio, Math.min(inicio + STATUS_LOTE_BLOCO, distintos.size()));
+            List<Long> alterar = new ArrayList<>();
+            for (SolicitacaoRepository.StatusAtual atual : solicitacaoRepository.findStatusAtual(bloco)) {
+                Resultado resultado;
+                if (statusId.equals(atual.getStatusId())) {
+                    resultado = Resultado.INALTERADA;
+                } else if (STATUS_CONCLUIDA.equals(atual.getStatus()) && !podeAlterarConcluidas) {
+                    resultado = Resultado.PROIBIDA;
+                } else {
+                    resultado = Resultado.ATUALIZADA;
+                    alterar.add(atual.getId());
+                }
+                resultados.put(atual.getId(), resultado);
+            }
+            if (alterar.isEmpty()) {
+                continue;
+            }
+            int atualizadasBloco = solicitacaoRepository.updateStatus(alterar, status, podeAlterarConcluidas, STATUS_CONCLUIDA);
+            atualizadas += atualizadasBloco;
+            if (atualizadasBloco < alterar.size()) {
+                alterar.forEach(id -> resultados.put(id, Resultado.NAO_ENCONTRADA));
+                for (SolicitacaoRepository.StatusAtual atual : solicitacaoRepository.findStatusAtual(alterar)) {
+                    resultados.put(atual.getId(), statusId.equals(atual.getStatusId())
+                            ? Resultado.ATUALIZADA : Resultado.PROIBIDA);
+                }
+            }
+        }
+        
+        List<StatusLoteResultadoDTO.Item> itens = ids.stream()
+                .map(id -> new StatusLoteResultadoDTO.Item(id, resultados.getOrDefault(id, Resultado.NAO_ENCONTRADA)))
+                .toList();
+        logger.info("Batch status change to '{}': {} of {} solicitacoes updated", status.getStatus(), atualizadas, distintos.size());
+        return new StatusLoteResultadoDTO(status.getIdstatus(), status.getStatus(), atualizadas, itens);
+    }
+    
     public Solicitacao concluir(Long id, String observacaoConclusao) {
         Solicitacao solicitacao = buscarPorId(id)
                 .orElseThrow(() -> new RuntimeException("Solicitação não encontrada"));
@@ -237,4 +331,213 @@ public class SolicitacaoService {
         solicitacao.setPago("false");
         return solicitacaoRepository.save(solicitacao);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Keyset-paginated listing of all solicitacoes, newest first.
+     *
+     * @param cursor Opaque token returned by the previous page, or null for the first page
+     * @param tamanho Requested page size, clamped to SolicitacaoCursor.MAX_PAGE_SIZE
+     * @return The page and the token for the next one
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Solicitacao> listarTodasPaginado(String cursor, Integer tamanho) {
+        return paginarPorId(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findPagina(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Solicitacao> listarPendentesPaginado(String cursor, Integer tamanho) {
+        return paginarPorId(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findPendentesPagina(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Solicitacao> listarConcluidasPaginado(String cursor, Integer tamanho) {
+        return paginarPorId(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findConcluidasPagina(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Solicitacao> listarPagasPaginado(String cursor, Integer tamanho) {
+        return paginarPorId(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findPagasPagina(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Solicitacao> listarNaoPagasPaginado(String cursor, Integer tamanho) {
+        return paginarPorId(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findNaoPagasPagina(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Solicitacao> listarAtrasadasPaginado(String cursor, Integer tamanho) {
+        LocalDateTime agora = LocalDateTime.now();
+        return paginarPorId(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findAtrasadasPagina(agora, ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Solicitacao> buscarPorUsuarioPaginado(Long usuarioId, String cursor, Integer tamanho) {
+        return paginarPorId(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findByUsuarioPagina(usuarioId, ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Solicitacao> buscarPorCorrespondentePaginado(Long correspondenteId, String cursor, Integer tamanho) {
+        return paginarPorId(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findByCorrespondentePagina(correspondenteId, ultimoId, limite(tamanho)));
+    }
+    
+    /**
+     * Keyset-paginated listing by period, ordered by datasolicitacao then idsolicitacao.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Solicitacao> buscarPorPeriodoPaginado(LocalDateTime inicio, LocalDateTime fim, String cursor, Integer tamanho) {
+        return paginarPorPeriodo(inicio, cursor, tamanho,
+                (anterior) -> solicitacaoRepository.findByPeriodoPagina(anterior.getDatasolicitacao(), anterior.getId(), fim, limite(tamanho)),
+                (ultima) -> SolicitacaoCursor.ofData(ultima.getDatasolicitacao(), ultima.getIdsolicitacao()));
+    }
+    
+    // Summary views (?view=summary): same filters, projected to SolicitacaoResumoDTO
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> listarTodasResumo() {
+        return solicitacaoRepository.findResumo(Long.MAX_VALUE, Pageable.unpaged());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> listarPendentesResumo() {
+        return solicitacaoRepository.findPendentesResumo(Long.MAX_VALUE, Pageable.unpaged());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> listarConcluidasResumo() {
+        return solicitacaoRepository.findConcluidasResumo(Long.MAX_VALUE, Pageable.unpaged());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> listarPagasResumo() {
+        return solicitacaoRepository.findPagasResumo(Long.MAX_VALUE, Pageable.unpaged());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> listarNaoPagasResumo() {
+        return solicitacaoRepository.findNaoPagasResumo(Long.MAX_VALUE, Pageable.unpaged());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> listarAtrasadasResumo() {
+        return solicitacaoRepository.findAtrasadasResumo(LocalDateTime.now(), Long.MAX_VALUE, Pageable.unpaged());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> buscarPorUsuarioResumo(Long usuarioId) {
+        return solicitacaoRepository.findByUsuarioResumo(usuarioId, Long.MAX_VALUE, Pageable.unpaged());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> buscarPorCorrespondenteResumo(Long correspondenteId) {
+        return solicitacaoRepository.findByCorrespondenteResumo(correspondenteId, Long.MAX_VALUE, Pageable.unpaged());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> buscarPorPeriodoResumo(LocalDateTime inicio, LocalDateTime fim) {
+        return solicitacaoRepository.findByPeriodoResumo(inicio, Long.MIN_VALUE, fim, Pageable.unpaged());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> buscarPorTextoResumo(String texto) {
+        return solicitacaoRepository.findByTextoContainingResumo(texto);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> buscarPorGrupoResumo(Integer grupo) {
+        return solicitacaoRepository.findByGrupoResumo(grupo);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<SolicitacaoResumoDTO> buscarPorStatusExternoResumo(String statusexterno) {
+        return solicitacaoRepository.findByStatusexternoResumo(statusexterno);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SolicitacaoResumoDTO> listarTodasResumoPaginado(String cursor, Integer tamanho) {
+        return paginarResumo(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findResumo(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SolicitacaoResumoDTO> listarPendentesResumoPaginado(String cursor, Integer tamanho) {
+        return paginarResumo(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findPendentesResumo(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SolicitacaoResumoDTO> listarConcluidasResumoPaginado(String cursor, Integer tamanho) {
+        return paginarResumo(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findConcluidasResumo(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SolicitacaoResumoDTO> listarPagasResumoPaginado(String cursor, Integer tamanho) {
+        return paginarResumo(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findPagasResumo(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SolicitacaoResumoDTO> listarNaoPagasResumoPaginado(String cursor, Integer tamanho) {
+        return paginarResumo(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findNaoPagasResumo(ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SolicitacaoResumoDTO> listarAtrasadasResumoPaginado(String cursor, Integer tamanho) {
+        LocalDateTime agora = LocalDateTime.now();
+        return paginarResumo(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findAtrasadasResumo(agora, ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SolicitacaoResumoDTO> buscarPorUsuarioResumoPaginado(Long usuarioId, String cursor, Integer tamanho) {
+        return paginarResumo(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findByUsuarioResumo(usuarioId, ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SolicitacaoResumoDTO> buscarPorCorrespondenteResumoPaginado(Long correspondenteId, String cursor, Integer tamanho) {
+        return paginarResumo(cursor, tamanho, (ultimoId) -> solicitacaoRepository.findByCorrespondenteResumo(correspondenteId, ultimoId, limite(tamanho)));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SolicitacaoResumoDTO> buscarPorPeriodoResumoPaginado(LocalDateTime inicio, LocalDateTime fim, String cursor, Integer tamanho) {
+        return paginarPorPeriodo(inicio, cursor, tamanho,
+                (anterior) -> solicitacaoRepository.findByPeriodoResumo(anterior.getDatasolicitacao(), anterior.getId(), fim, limite(tamanho)),
+                (ultima) -> SolicitacaoCursor.ofData(ultima.getDatasolicitacao(), ultima.getIdsolicitacao()));
+    }
+    
+    private CursorPageDTO<Solicitacao> paginarPorId(String cursor, Integer tamanho, Function<Long, List<Solicitacao>> consulta) {
+        return paginarPorChave(cursor, tamanho, consulta, Solicitacao::getIdsolicitacao);
+    }
+    
+    private CursorPageDTO<SolicitacaoResumoDTO> paginarResumo(String cursor, Integer tamanho, Function<Long, List<SolicitacaoResumoDTO>> consulta) {
+        return paginarPorChave(cursor, tamanho, consulta, SolicitacaoResumoDTO::getIdsolicitacao);
+    }
+    
+    private <T> CursorPageDTO<T> paginarPorChave(String cursor, Integer tamanho, Function<Long, List<T>> consulta, Function<T, Long> id) {
+        SolicitacaoCursor anterior = SolicitacaoCursor.decode(cursor);
+        Long ultimoId = anterior != null ? anterior.getId() : Long.MAX_VALUE;
+        return montarPagina(consulta.apply(ultimoId), SolicitacaoCursor.normalizarTamanho(tamanho),
+                (ultima) -> SolicitacaoCursor.ofId(id.apply(ultima)));
+    }
+    
+    // The first page starts at (inicio, Long.MIN_VALUE) so the same keyset predicate covers every page
+    private <T> CursorPageDTO<T> paginarPorPeriodo(LocalDateTime inicio, String cursor, Integer tamanho,
+                                                  Function<SolicitacaoCursor, List<T>> consulta,
+                                                  Function<T, SolicitacaoCursor> chave) {
+        SolicitacaoCursor anterior = SolicitacaoCursor.decode(cursor);
+        if (anterior != null && anterior.getDatasolicitacao() == null) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (anterior == null) {
+            anterior = SolicitacaoCursor.ofData(inicio, Long.MIN_VALUE);
+        }
+        return montarPagina(consulta.apply(anterior), SolicitacaoCursor.normalizarTamanho(tamanho), chave);
+    }
+    
+    // One extra row is requested so we know whether another page exists without a COUNT query
+    private Pageable limite(Integer tamanho) {
+        return PageRequest.of(0, SolicitacaoCursor.normalizarTamanho(tamanho) + 1);
+    }
+    
+    private <T> CursorPageDTO<T> montarPagina(List<T> linhas, int tamanho, Function<T, SolicitacaoCursor> chave) {
+        boolean hasMore = linhas.size() > tamanho;
+        List<T> itens = hasMore ? linhas.subList(0, tamanho) : linhas;
+        String proximo = hasMore ? chave.apply(itens.get(itens.size() - 1)).encode() : null;
+        return new CursorPageDTO<>(itens, proximo, hasMore, itens.size());
+    }
+}
@@ -1,8 +1,11 @@
 package br.adv.cra.service;
 
+import br.adv.cra.config.CacheConfig;
 import br.adv.cra.entity.StatusSolicitacao;
 import br.adv.cra.repository.StatusSolicitacaoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,10 +24,12 @@ public class StatusSolicitacaoService {
     
     private final StatusSolicitacaoRepository statusSolicitacaoRepository;
     
+    @CacheEvict(cacheNames = CacheConfig.STATUS_SOLICITACAO, allEntries = true)
     public StatusSolicitacao salvar(StatusSolicitacao statusSolicitacao) {
         return statusSolicitacaoRepository.save(statusSolicitacao);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.STATUS_SOLICITACAO, allEntries = true)
     public StatusSolicitacao atualizar(StatusSolicitacao statusSolicitacao) {
         if (!statusSolicitacaoRepository.existsById(statusSolicitacao.getIdstatus())) {
             throw new RuntimeException("Status de solicitação não encontrado");
@@ -32,6 +37,7 @@ public class StatusSolicitacaoService {
         return statusSolicitacaoRepository.save(statusSolicitacao);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.STATUS_SOLICITACAO, allEntries = true)
     public void deletar(Long id) {
         if (!statusSolicitacaoRepository.existsById(id)) {
             throw new RuntimeException("Status de solicitação não encontrado");
@@ -45,12 +51,14 @@ public class StatusSolicitacaoService {
         return statusSolicitacaoRepository.findById(id);
     }
     
+    @Cacheable(cacheNames = CacheConfig.STATUS_SOLICITACAO, key = "'status:' + #status")
     @Transactional(readOnly = true)
     public Optional<StatusSolicitacao> buscarPorStatus(String status) {
         log.info("Buscando status de solicitação por status exato: {}", status);
         return statusSolicitacaoRepository.findByStatus(status);
     }
     
+    @Cacheable(cacheNames = CacheConfig.STATUS_SOLICITACAO, key = "'todos'")
     @Transactional(readOnly = true)
     public List<StatusSolicitacao> listarTodos() {
         try {
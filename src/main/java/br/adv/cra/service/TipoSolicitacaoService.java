@@ -1,8 +1,11 @@
 package br.adv.cra.service;
 
+import br.adv.cra.config.CacheConfig;
 import br.adv.cra.entity.TipoSolicitacao;
 import br.adv.cra.repository.TipoSolicitacaoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +19,12 @@ public class TipoSolicitacaoService {
     
     private final TipoSolicitacaoRepository tipoSolicitacaoRepository;
     
+    @CacheEvict(cacheNames = CacheConfig.TIPOS_SOLICITACAO, allEntries = true)
     public TipoSolicitacao salvar(TipoSolicitacao tipoSolicitacao) {
         return tipoSolicitacaoRepository.save(tipoSolicitacao);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.TIPOS_SOLICITACAO, allEntries = true)
     public TipoSolicitacao atualizar(TipoSolicitacao tipoSolicitacao) {
         if (!tipoSolicitacaoRepository.existsById(tipoSolicitacao.getIdtiposolicitacao())) {
             throw new RuntimeException("Tipo de Solicitação não encontrado");
@@ -27,6 +32,7 @@ public class TipoSolicitacaoService {
         return tipoSolicitacaoRepository.save(tipoSolicitacao);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.TIPOS_SOLICITACAO, allEntries = true)
     public void deletar(Long id) {
         if (!tipoSolicitacaoRepository.existsById(id)) {
             throw new RuntimeException("Tipo de Solicitação não encontrado");
@@ -39,11 +45,13 @@ public class TipoSolicitacaoService {
         return tipoSolicitacaoRepository.findById(id);
     }
     
+    @Cacheable(cacheNames = CacheConfig.TIPOS_SOLICITACAO, key = "'todos'")
     @Transactional(readOnly = true)
     public List<TipoSolicitacao> listarTodos() {
         return tipoSolicitacaoRepository.findAll();
     }
     
+    @Cacheable(cacheNames = CacheConfig.TIPOS_SOLICITACAO, key = "'ordenados'")
     @Transactional(readOnly = true)
     public List<TipoSolicitacao> listarTodosOrdenados() {
         return tipoSolicitacaoRepository.findAllOrderByEspecie();
@@ -1,8 +1,11 @@
 package br.adv.cra.service;
 
+import br.adv.cra.config.CacheConfig;
 import br.adv.cra.entity.Uf;
 import br.adv.cra.repository.UfRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +19,13 @@ public class UfService {
     
     private final UfRepository ufRepository;
     
+    // Comarcas embed their Uf, so every UF write also drops the comarca listings
+    @CacheEvict(cacheNames = {CacheConfig.UFS, CacheConfig.COMARCAS}, allEntries = true)
     public Uf salvar(Uf uf) {
         return ufRepository.save(uf);
     }
     
+    @CacheEvict(cacheNames = {CacheConfig.UFS, CacheConfig.COMARCAS}, allEntries = true)
     public Uf atualizar(Uf uf) {
         if (!ufRepository.existsById(uf.getId())) {
             throw new RuntimeException("UF não encontrada");
@@ -27,6 +33,7 @@ public class UfService {
         return ufRepository.save(uf);
     }
     
+    @CacheEvict(cacheNames = {CacheConfig.UFS, CacheConfig.COMARCAS}, allEntries = true)
     public void deletar(Long id) {
         if (!ufRepository.existsById(id)) {
             throw new RuntimeException("UF não encontrada");
@@ -39,11 +46,13 @@ public class UfService {
         return ufRepository.findById(id);
     }
     
+    @Cacheable(cacheNames = CacheConfig.UFS, key = "'todas'")
     @Transactional(readOnly = true)
     public List<Uf> listarTodas() {
         return ufRepository.findAllOrderByNome();
     }
     
+    @Cacheable(cacheNames = CacheConfig.UFS, key = "'sigla:' + #sigla.toUpperCase()")
     @Transactional(readOnly = true)
     public Optional<Uf> buscarPorSigla(String sigla) {
         return ufRepository.findBySigla(sigla.toUpperCase());
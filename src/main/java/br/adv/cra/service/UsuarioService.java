@@ -1,10 +1,15 @@
 package br.adv.cra.service;
 
+import br.adv.cra.config.CacheConfig;
+import br.adv.cra.dto.AutocompleteDTO;
 import br.adv.cra.entity.Usuario;
 import br.adv.cra.repository.UsuarioRepository;
+import br.adv.cra.util.IndiceAutocomplete;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -19,6 +24,8 @@ public class UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
     
+    private final IndiceAutocomplete indiceAutocomplete = new IndiceAutocomplete(() -> this.usuarioRepository.findAutocomplete());
+    
     public Usuario salvar(Usuario usuario) {
         if (usuario.getDataentrada() == null) {
             usuario.setDataentrada(LocalDateTime.now());
@@ -27,9 +34,13 @@ public class UsuarioService {
         if (usuario.getSenha() != null && !usuario.getSenha().isEmpty()) {
             usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
         }
-        return usuarioRepository.save(usuario);
+        Usuario salvo = usuarioRepository.save(usuario);
+        indiceAutocomplete.atualizar(salvo.getId(), salvo.getNomecompleto());
+        return salvo;
     }
     
+    // User writes drop the cached principals; atualizar may also change the login used as key
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPAIS, allEntries = true)
     public Usuario atualizar(Usuario usuario) {
         if (!usuarioRepository.existsById(usuario.getId())) {
             throw new RuntimeException("Usuário não encontrado");
@@ -46,7 +57,9 @@ public class UsuarioService {
                 usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
             }
         }
-        return usuarioRepository.save(usuario);
+        Usuario atualizado = usuarioRepository.save(usuario);
+        indiceAutocomplete.atualizar(atualizado.getId(), atualizado.getNomecompleto());
+        return atualizado;
     }
     
     /**
@@ -56,6 +69,7 @@ public class UsuarioService {
      * @param newPassword The new password (will be encrypted)
      * @return The updated user
      */
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPAIS, allEntries = true)
     public Usuario alterarSenha(Long userId, String newPassword) {
         Usuario usuario = usuarioRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
@@ -65,13 +79,16 @@ public class UsuarioService {
         return usuarioRepository.save(usuario);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPAIS, allEntries = true)
     public void deletar(Long id) {
         if (!usuarioRepository.existsById(id)) {
             throw new RuntimeException("Usuário não encontrado");
         }
         usuarioRepository.deleteById(id);
+        indiceAutocomplete.remover(id);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPAIS, allEntries = true)
     public void inativar(Long id) {
         Usuario usuario = buscarPorId(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
@@ -79,6 +96,7 @@ public class UsuarioService {
         usuarioRepository.save(usuario);
     }
     
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPAIS, allEntries = true)
     public void ativar(Long id) {
         Usuario usuario = buscarPorId(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
@@ -126,6 +144,12 @@ public class UsuarioService {
         return usuarioRepository.findByNomeCompletoContaining(nome);
     }
     
+    // Served from memory; NOT_SUPPORTED keeps the class-level transaction from taking a connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<AutocompleteDTO> autocompletar(String prefixo, Integer limite) {
+        return indiceAutocomplete.buscar(prefixo, limite);
+    }
+    
     @Transactional(readOnly = true)
     public List<Usuario> buscarPorEmail(String email) {
         return usuarioRepository.findByAnyEmail(email);
@@ -0,0 +1,140 @@
+package br.adv.cra.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of delimited text (RFC 4180): one record at a time, so files of any
+ * size are read in constant memory.
+ *
+ * Fields may be quoted with double quotes, and quoted fields may contain the separator,
+ * line breaks and doubled quotes. Both CRLF and LF end a record, and blank lines are
+ * skipped. Spreadsheets saved as CSV in Brazilian locales use ';' as the separator;
+ * detectarSeparador picks it from the header line.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int MAX_CAMPO = 1_000_000;
+    private static final int NENHUM = -2;
+
+    private final Reader reader;
+    private final char separador;
+    private final StringBuilder campo = new StringBuilder();
+    private int devolvido = NENHUM;
+    private long quebras;
+    private long linha;
+
+    /**
+     * @param reader    The text to read; wrap it in a BufferedReader for large inputs
+     * @param separador The field separator, usually ',' or ';'
+     */
+    public CsvReader(Reader reader, char separador) {
+        this.reader = reader;
+        this.separador = separador;
+    }
+
+    /**
+     * The separator used in a header line: ';' if it has more semicolons than commas.
+     */
+    public static char detectarSeparador(String cabecalho) {
+        long pontoEVirgula = cabecalho.chars().filter(c -> c == ';').count();
+        long virgulas = cabecalho.chars().filter(c -> c == ',').count();
+        return pontoEVirgula > virgulas ? ';' : ',';
+    }
+
+    /**
+     * Line of the input on which the last record returned by proximo starts, from 1.
+     */
+    public long getLinha() {
+        return linha;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The fields, or null at the end of the input
+     * @throws IOException If the input cannot be read, a quoted field is not closed or a
+     *                     field is larger than one million characters
+     */
+    public List<String> proximo() throws IOException {
+        int c = ler();
+        while (c == '\r' || c == '\n') {
+            c = ler();
+        }
+        if (c == -1) {
+            return null;
+        }
+        linha = quebras + 1;
+
+        List<String> campos = new ArrayList<>();
+        while (true) {
+            campo.setLength(0);
+            c = c == '"' ? lerEntreAspas() : lerSemAspas(c);
+            campos.add(campo.toString());
+            if (c != separador) {
+                break;
+            }
+            c = ler();
+        }
+        if (c == '\r') {
+            c = ler();
+            if (c != '\n') {
+                devolvido = c;
+            }
+        }
+        return campos;
+    }
+
+    private int lerSemAspas(int c) throws IOException {
+        while (c != separador && c != '\n' && c != '\r' && c != -1) {
+            acrescentar(c);
+            c = ler();
+        }
+        return c;
+    }
+
+    private int lerEntreAspas() throws IOException {
+        while (true) {
+            int c = ler();
+            if (c == -1) {
+                throw new IOException("Campo entre aspas não fechado (registro da linha " + linha + ")");
+            }
+            if (c == '"') {
+                c = ler();
+                if (c != '"') {
+                    // Closing quote; anything up to the separator is kept as is
+                    return lerSemAspas(c);
+                }
+            }
+            acrescentar(c);
+        }
+    }
+
+    private void acrescentar(int c) throws IOException {
+        if (campo.length() >= MAX_CAMPO) {
+            throw new IOException("Campo maior que " + MAX_CAMPO + " caracteres (registro da linha " + linha + ")");
+        }
+        campo.append((char) c);
+    }
+
+    private int ler() throws IOException {
+        if (devolvido != NENHUM) {
+            int c = devolvido;
+            devolvido = NENHUM;
+            return c;
+        }
+        int c = reader.read();
+        if (c == '\n') {
+            quebras++;
+        }
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,286 @@
+package br.adv.cra.util;
+
+import br.adv.cra.dto.AutocompleteDTO;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory prefix index over names, for the typeahead boxes.
+ *
+ * Every name is normalized with TextoNormalizado and kept in two sorted arrays: the
+ * whole name, and the suffixes that start at each later word ("joao da silva" also
+ * gives "da silva" and "silva"). A query is a binary search followed by a scan of
+ * the matching range that stops after the requested number of hits, so it costs a
+ * few string comparisons and no database round-trip. Names starting with the query
+ * come first, then names with a later word starting with it, each alphabetically.
+ *
+ * Readers use an immutable snapshot. The index is loaded on first use; the owning
+ * service then applies its own writes with atualizar/remover after the transaction
+ * commits, copying the arrays without going to the database. Writes made by other
+ * application instances are picked up when the snapshot is older than the validade
+ * and is reloaded: one caller reloads it while the others keep reading the old one,
+ * so only the very first load makes queries wait on the database.
+ */
+public class IndiceAutocomplete {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private static final Duration VALIDADE_PADRAO = Duration.ofMinutes(10);
+
+    private final Supplier<List<AutocompleteDTO>> carga;
+    private final long validadeNanos;
+    // Guards the loads and the writes to snapshot; a lock rather than synchronized, so a
+    // virtual thread waiting on it or reading the database under it does not pin its carrier
+    private final ReentrantLock trava = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param carga Reads every (id, nome) pair from the database
+     */
+    public IndiceAutocomplete(Supplier<List<AutocompleteDTO>> carga) {
+        this(carga, VALIDADE_PADRAO);
+    }
+
+    public IndiceAutocomplete(Supplier<List<AutocompleteDTO>> carga, Duration validade) {
+        this.carga = carga;
+        this.validadeNanos = validade.toNanos();
+    }
+
+    /**
+     * Sorted keys with the id and the stored name of each, in parallel arrays.
+     */
+    private record Chaves(String[] chaves, long[] ids, String[] nomes) {
+
+        static final Chaves VAZIA = new Chaves(new String[0], new long[0], new String[0]);
+
+        int size() {
+            return chaves.length;
+        }
+    }
+
+    private record Snapshot(Chaves inicios, Chaves palavras, long carregadoEm) {
+    }
+
+    private record Entrada(String chave, long id, String nome) {
+        static final Comparator<Entrada> ORDEM = Comparator.comparing(Entrada::chave).thenComparingLong(Entrada::id);
+    }
+
+    /**
+     * Returns the names with a word starting with the prefix.
+     *
+     * @param prefixo The typed text, compared without case and accents
+     * @param limite  Maximum number of suggestions (default 10, max 50)
+     * @return The suggestions, names starting with the prefix first
+     */
+    public List<AutocompleteDTO> buscar(String prefixo, Integer limite) {
+        String termo = TextoNormalizado.normalizar(prefixo);
+        if (termo.isEmpty()) {
+            return List.of();
+        }
+        int maximo = limite == null || limite <= 0 ? DEFAULT_LIMIT : Math.min(limite, MAX_LIMIT);
+        Snapshot atual = atual();
+
+        List<AutocompleteDTO> resultado = new ArrayList<>(maximo);
+        Set<Long> vistos = new HashSet<>();
+        coletar(atual.inicios(), termo, maximo, resultado, vistos);
+        coletar(atual.palavras(), termo, maximo, resultado, vistos);
+        return resultado;
+    }
+
+    private static void coletar(Chaves chaves, String termo, int maximo, List<AutocompleteDTO> resultado, Set<Long> vistos) {
+        for (int i = primeiraChave(chaves.chaves(), termo);
+             i < chaves.size() && resultado.size() < maximo && chaves.chaves()[i].startsWith(termo); i++) {
+            if (vistos.add(chaves.ids()[i])) {
+                resultado.add(new AutocompleteDTO(chaves.ids()[i], chaves.nomes()[i]));
+            }
+        }
+    }
+
+    /**
+     * Index of the first key not below the term.
+     */
+    private static int primeiraChave(String[] chaves, String termo) {
+        int i = Arrays.binarySearch(chaves, termo);
+        if (i < 0) {
+            return -i - 1;
+        }
+        // Equal keys from different names: step back to the first of them
+        while (i > 0 && chaves[i - 1].equals(termo)) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Adds or replaces the name of one id, once the current transaction commits.
+     */
+    public void atualizar(Long id, String nome) {
+        if (id != null) {
+            aposCommit(() -> aplicar(id, nome));
+        }
+    }
+
+    /**
+     * Removes one id, once the current transaction commits.
+     */
+    public void remover(Long id) {
+        if (id != null) {
+            aposCommit(() -> aplicar(id, null));
+        }
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private Snapshot atual() {
+        Snapshot atual = snapshot;
+        if (atual == null) {
+            // Nothing to serve yet: wait for whoever is loading it
+            trava.lock();
+            try {
+                return carregar();
+            } finally {
+                trava.unlock();
+            }
+        }
+        if (expirado(atual) && trava.tryLock()) {
+            try {
+                return carregar();
+            } finally {
+                trava.unlock();
+            }
+        }
+        // Fresh, or another caller is already reloading it
+        return atual;
+    }
+
+    private boolean expirado(Snapshot atual) {
+        return System.nanoTime() - atual.carregadoEm() >= validadeNanos;
+    }
+
+    /**
+     * Reloads the snapshot unless another caller did it meanwhile; called holding the lock.
+     */
+    private Snapshot carregar() {
+        Snapshot atual = snapshot;
+        if (atual != null && !expirado(atual)) {
+            return atual;
+        }
+        List<Entrada> inicios = new ArrayList<>();
+        List<Entrada> palavras = new ArrayList<>();
+        for (AutocompleteDTO item : carga.get()) {
+            if (item.getId() != null) {
+                entradas(item.getId(), item.getNome(), inicios, palavras);
+            }
+        }
+        atual = new Snapshot(ordenadas(inicios), ordenadas(palavras), System.nanoTime());
+        snapshot = atual;
+        return atual;
+    }
+
+    private void aplicar(long id, String nome) {
+        trava.lock();
+        try {
+            Snapshot atual = snapshot;
+            if (atual == null) {
+                // Not loaded yet: the first query reads the committed row from the database
+                return;
+            }
+            List<Entrada> inicios = new ArrayList<>(1);
+            List<Entrada> palavras = new ArrayList<>();
+            if (nome != null) {
+                entradas(id, nome, inicios, palavras);
+            }
+            snapshot = new Snapshot(mesclar(atual.inicios(), id, ordenadas(inicios)),
+                    mesclar(atual.palavras(), id, ordenadas(palavras)), atual.carregadoEm());
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private static void entradas(long id, String nome, List<Entrada> inicios, List<Entrada> palavras) {
+        String normalizado = TextoNormalizado.normalizar(nome);
+        if (normalizado.isEmpty()) {
+            return;
+        }
+        inicios.add(new Entrada(normalizado, id, nome));
+        for (int i = normalizado.indexOf(' '); i >= 0; i = normalizado.indexOf(' ', i + 1)) {
+            palavras.add(new Entrada(normalizado.substring(i + 1), id, nome));
+        }
+    }
+
+    private static Chaves ordenadas(List<Entrada> entradas) {
+        if (entradas.isEmpty()) {
+            return Chaves.VAZIA;
+        }
+        entradas.sort(Entrada.ORDEM);
+        int n = entradas.size();
+        String[] chaves = new String[n];
+        long[] ids = new long[n];
+        String[] nomes = new String[n];
+        for (int i = 0; i < n; i++) {
+            Entrada entrada = entradas.get(i);
+            chaves[i] = entrada.chave();
+            ids[i] = entrada.id();
+            nomes[i] = entrada.nome();
+        }
+        return new Chaves(chaves, ids, nomes);
+    }
+
+    /**
+     * Copy of the keys without those of the id, merged with the new (sorted) keys.
+     */
+    private static Chaves mesclar(Chaves atual, long id, Chaves novas) {
+        int capacidade = atual.size() + novas.size();
+        String[] chaves = new String[capacidade];
+        long[] ids = new long[capacidade];
+        String[] nomes = new String[capacidade];
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < atual.size(); i++) {
+            if (atual.ids()[i] == id) {
+                continue;
+            }
+            while (j < novas.size() && compare(novas, j, atual, i) < 0) {
+                chaves[n] = novas.chaves()[j];
+                ids[n] = novas.ids()[j];
+                nomes[n++] = novas.nomes()[j++];
+            }
+            chaves[n] = atual.chaves()[i];
+            ids[n] = atual.ids()[i];
+            nomes[n++] = atual.nomes()[i];
+        }
+        for (; j < novas.size(); j++) {
+            chaves[n] = novas.chaves()[j];
+            ids[n] = novas.ids()[j];
+            nomes[n++] = novas.nomes()[j];
+        }
+        return new Chaves(Arrays.copyOf(chaves, n), Arrays.copyOf(ids, n), Arrays.copyOf(nomes, n));
+    }
+
+    private static int compare(Chaves a, int i, Chaves b, int j) {
+        int porChave = a.chaves()[i].compareTo(b.chaves()[j]);
+        return porChave != 0 ? porChave : Long.compare(a.ids()[i], b.ids()[j]);
+    }
+}
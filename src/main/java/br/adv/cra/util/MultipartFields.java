@@ -0,0 +1,34 @@
+package br.adv.cra.util;
+
+import org.apache.commons.fileupload2.core.FileItemInput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the plain form fields of a multipart body parsed as a stream
+ * (JakartaServletDiskFileUpload.getItemIterator), where nothing limits their size.
+ */
+public final class MultipartFields {
+
+    public static final int MAX_FIELD_SIZE = 1024;
+
+    private MultipartFields() {
+    }
+
+    /**
+     * @param item A form field of the multipart body
+     * @return Its value, as UTF-8
+     * @throws IllegalArgumentException If the value is larger than MAX_FIELD_SIZE bytes
+     */
+    public static String read(FileItemInput item) throws IOException {
+        try (InputStream in = item.getInputStream()) {
+            byte[] valor = in.readNBytes(MAX_FIELD_SIZE + 1);
+            if (valor.length > MAX_FIELD_SIZE) {
+                throw new IllegalArgumentException("Form field too large: " + item.getFieldName());
+            }
+            return new String(valor, StandardCharsets.UTF_8);
+        }
+    }
+}
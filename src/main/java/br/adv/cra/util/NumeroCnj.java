@@ -0,0 +1,137 @@
+package br.adv.cra.util;
+
+import java.util.Optional;
+
+/**
+ * Process number in the CNJ unified format (Resolução CNJ 65/2008):
+ * NNNNNNN-DD.AAAA.J.TR.OOOO, that is sequencial, check digits, year of filing,
+ * justice segment, tribunal and origin unit, 20 digits in all.
+ *
+ * Numbers are accepted with or without punctuation. The check digits are kept as
+ * given; isDigitoValido tells whether they match the rest of the number (ISO 7064
+ * MOD 97-10), so numbers typed with a wrong digit can still be found.
+ */
+public final class NumeroCnj {
+
+    public static final int DIGITOS = 20;
+
+    private final String digitos;
+
+    private NumeroCnj(String digitos) {
+        this.digitos = digitos;
+    }
+
+    /**
+     * Parses a CNJ number.
+     *
+     * @param numero The number, formatted or digits only
+     * @return The number, or empty if it does not have exactly 20 digits
+     */
+    public static Optional<NumeroCnj> parse(String numero) {
+        if (numero == null) {
+            return Optional.empty();
+        }
+        String digitos = TextoNormalizado.somenteDigitos(numero);
+        return digitos.length() == DIGITOS ? Optional.of(new NumeroCnj(digitos)) : Optional.empty();
+    }
+
+    /**
+     * The 20 digits of a CNJ number, the form kept in processo.numerocnj.
+     *
+     * @param numero The number, formatted or digits only
+     * @return The digits, or null if it is not a CNJ number
+     */
+    public static String normalizar(String numero) {
+        return parse(numero).map(NumeroCnj::getDigitos).orElse(null);
+    }
+
+    public String getDigitos() {
+        return digitos;
+    }
+
+    public int getSequencial() {
+        return parte(0, 7);
+    }
+
+    public int getDigito() {
+        return parte(7, 9);
+    }
+
+    public int getAno() {
+        return parte(9, 13);
+    }
+
+    public int getSegmento() {
+        return parte(13, 14);
+    }
+
+    public int getTribunal() {
+        return parte(14, 16);
+    }
+
+    public int getOrigem() {
+        return parte(16, 20);
+    }
+
+    private int parte(int inicio, int fim) {
+        return Integer.parseInt(digitos, inicio, fim, 10);
+    }
+
+    /**
+     * Whether the check digits match: DD = 98 - (NNNNNNN AAAA J TR OOOO 00 mod 97).
+     */
+    public boolean isDigitoValido() {
+        String semDigito = digitos.substring(0, 7) + digitos.substring(9) + "00";
+        return getDigito() == 98 - mod97(semDigito);
+    }
+
+    private static int mod97(String numero) {
+        int resto = 0;
+        for (int i = 0; i < numero.length(); i++) {
+            resto = (resto * 10 + (numero.charAt(i) - '0')) % 97;
+        }
+        return resto;
+    }
+
+    /**
+     * The number as NNNNNNN-DD.AAAA.J.TR.OOOO.
+     */
+    public String formatado() {
+        return digitos.substring(0, 7) + "-" + digitos.substring(7, 9) + "." + digitos.substring(9, 13) + "."
+                + digitos.substring(13, 14) + "." + digitos.substring(14, 16) + "." + digitos.substring(16);
+    }
+
+    /**
+     * Smallest digit string greater than every string starting with the prefix, so that
+     * "numerocnj >= prefixo AND numerocnj < fim" selects the prefix with a plain B-tree range.
+     *
+     * @param prefixo Digits only
+     * @return The exclusive upper bound of the range
+     */
+    public static String fimDoPrefixo(String prefixo) {
+        int i = prefixo.length() - 1;
+        while (i >= 0 && prefixo.charAt(i) == '9') {
+            i--;
+        }
+        if (i < 0) {
+            // Only nines: letters sort after digits in every collation
+            return "A";
+        }
+        return prefixo.substring(0, i) + (char) (prefixo.charAt(i) + 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof NumeroCnj outro && digitos.equals(outro.digitos);
+    }
+
+    @Override
+    public int hashCode() {
+        return digitos.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return formatado();
+    }
+}
@@ -0,0 +1,83 @@
+package br.adv.cra.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination of solicitacoes.
+ *
+ * The token carries the sort key of the last row of a page: the idsolicitacao
+ * alone, or datasolicitacao plus idsolicitacao for listings ordered by date.
+ * It is Base64-URL encoded so clients treat it as an opaque string.
+ */
+public class SolicitacaoCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String SEPARATOR = "|";
+
+    private final Long id;
+    private final LocalDateTime datasolicitacao;
+
+    private SolicitacaoCursor(Long id, LocalDateTime datasolicitacao) {
+        this.id = id;
+        this.datasolicitacao = datasolicitacao;
+    }
+
+    public static SolicitacaoCursor ofId(Long id) {
+        return new SolicitacaoCursor(id, null);
+    }
+
+    public static SolicitacaoCursor ofData(LocalDateTime datasolicitacao, Long id) {
+        return new SolicitacaoCursor(id, datasolicitacao);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getDatasolicitacao() {
+        return datasolicitacao;
+    }
+
+    public String encode() {
+        String raw = datasolicitacao != null ? datasolicitacao + SEPARATOR + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The token received from the client, may be null or blank for the first page
+     * @return The decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static SolicitacaoCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            if (idx < 0) {
+                return ofId(Long.parseLong(raw));
+            }
+            return ofData(LocalDateTime.parse(raw.substring(0, idx)), Long.parseLong(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * Clamps a requested page size to the [1, MAX_PAGE_SIZE] range.
+     */
+    public static int normalizarTamanho(Integer tamanho) {
+        if (tamanho == null || tamanho <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(tamanho, MAX_PAGE_SIZE);
+    }
+}
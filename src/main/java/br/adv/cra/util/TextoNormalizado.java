@@ -0,0 +1,53 @@
+package br.adv.cra.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Accent- and case-insensitive form of names and search terms.
+ *
+ * normalizar produces the same text as lower(f_unaccent(...)) in
+ * database/processo-trigram.sql, so terms normalized here can be compared
+ * with the indexed columns.
+ */
+public final class TextoNormalizado {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern NUMERO = Pattern.compile("[\\d.\\-/\\s]+");
+    private static final Pattern NAO_DIGITOS = Pattern.compile("\\D");
+
+    private TextoNormalizado() {
+    }
+
+    /**
+     * Lower case, without accents and with runs of whitespace collapsed to one space.
+     *
+     * @param texto The text, may be null
+     * @return The normalized text, or an empty string for null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Whether the text is a process number as typed by users: digits with optional
+     * dots, dashes, slashes and spaces, e.g. "0001234-56.2024.8.26.0100".
+     */
+    public static boolean isNumero(String texto) {
+        return texto != null && !texto.isBlank() && NUMERO.matcher(texto).matches()
+                && texto.chars().anyMatch(Character::isDigit);
+    }
+
+    /**
+     * The digits of the text, the form process numbers are indexed in.
+     */
+    public static String somenteDigitos(String texto) {
+        return texto == null ? "" : NAO_DIGITOS.matcher(texto).replaceAll("");
+    }
+}
@@ -0,0 +1,34 @@
+package br.adv.cra.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the application's own worker pools.
+ *
+ * With spring.threads.virtual.enabled=true the pools run their tasks on virtual
+ * threads, like Tomcat and Spring's task executors do in that mode. The pool size
+ * then only bounds how many tasks run at once (e.g. concurrent Drive transfers);
+ * a task blocked on I/O no longer holds a platform thread.
+ */
+public final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * @param prefix  Thread name prefix; threads are named prefix1, prefix2...
+     * @param virtual Whether to create virtual threads instead of platform daemon threads
+     */
+    public static ThreadFactory factory(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package br.adv.cra.config;
+
+import br.adv.cra.controller.UfController;
+import io.micrometer.common.KeyValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MetricsConfigTest {
+
+    private final MetricsConfig.HandlerMethodObservationConvention convention =
+            new MetricsConfig.HandlerMethodObservationConvention();
+
+    private KeyValue handlerTag(MockHttpServletRequest request) {
+        ServerRequestObservationContext context =
+                new ServerRequestObservationContext(request, new MockHttpServletResponse());
+        return convention.getLowCardinalityKeyValues(context).stream()
+                .filter(kv -> kv.getKey().equals(MetricsConfig.HandlerMethodObservationConvention.HANDLER_TAG))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void tagsRequestWithControllerMethod() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/ufs");
+        HandlerMethod handler = new HandlerMethod(mock(UfController.class), UfController.class.getMethod("listarTodas"));
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler);
+
+        assertEquals("UfController.listarTodas", handlerTag(request).getValue());
+    }
+
+    @Test
+    void tagsUnmappedRequestAsNone() {
+        assertEquals("none", handlerTag(new MockHttpServletRequest("GET", "/nao-existe")).getValue());
+    }
+}
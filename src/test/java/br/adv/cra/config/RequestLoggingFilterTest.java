@@ -0,0 +1,89 @@
+package br.adv.cra.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLoggingFilterTest {
+
+    private Logger accessLogger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        accessLogger = (Logger) LoggerFactory.getLogger("br.adv.cra.access");
+        appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cra-api/api/ufs");
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    @Test
+    void writesOneCompactRecordPerRequest() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(1.0, Duration.ofSeconds(1));
+
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.INFO, event.getLevel());
+        assertTrue(event.getFormattedMessage().startsWith("method=GET uri=/cra-api/api/ufs status=200 durationMs="));
+        assertTrue(event.getFormattedMessage().endsWith("remote=10.0.0.1 user=-"));
+    }
+
+    @Test
+    void skipsUnsampledRequests() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(0.0, Duration.ofSeconds(1));
+
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void alwaysLogsSlowRequests() throws Exception {
+        RequestLoggingFilter filter = new RequestLoggingFilter(0.0, Duration.ZERO);
+
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.WARN, appender.list.get(0).getLevel());
+    }
+
+    @Test
+    void logsFailedRequestsAsServerError() {
+        RequestLoggingFilter filter = new RequestLoggingFilter(0.0, Duration.ofSeconds(1));
+        FilterChain falha = (req, res) -> {
+            throw new IllegalStateException("falha");
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request(), new MockHttpServletResponse(), falha));
+
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("status=500"));
+    }
+}
@@ -0,0 +1,74 @@
+package br.adv.cra.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new VirtualThreadPinningMonitor(new SimpleMeterRegistry(), Duration.ofMillis(10));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    private double awaitPinned(double atLeast) throws InterruptedException {
+        // JFR streams events about once a second
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (monitor.pinnedCount() < atLeast && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        return monitor.pinnedCount();
+    }
+
+    @Test
+    void countsVirtualThreadBlockedInsideMonitor() throws InterruptedException {
+        Object monitorLock = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitorLock) {
+                sleep(50);
+            }
+        }).join();
+
+        assertTrue(awaitPinned(1) >= 1);
+    }
+
+    @Test
+    void ignoresVirtualThreadBlockedOnReentrantLock() throws InterruptedException {
+        ReentrantLock lock = new ReentrantLock();
+
+        Thread.ofVirtual().start(() -> {
+            lock.lock();
+            try {
+                sleep(50);
+            } finally {
+                lock.unlock();
+            }
+        }).join();
+        Thread.sleep(2000);
+
+        assertEquals(0, monitor.pinnedCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
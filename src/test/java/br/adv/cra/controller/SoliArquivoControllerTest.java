@@ -8,15 +8,22 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -222,4 +229,94 @@ class SoliArquivoControllerTest {
         verify(soliArquivoService, times(1)).podeDeletar(id, origem);
         verify(soliArquivoService, never()).deletar(id);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDownloadAnexoLocalRange() throws Exception {
+        // Prepare test data
+        Long id = 1L;
+        Path file = Files.createTempFile("anexo", ".txt");
+        Files.writeString(file, "Test content");
+        SoliArquivo soliArquivo = new SoliArquivo();
+        soliArquivo.setId(id);
+        soliArquivo.setNomearquivo("test.txt");
+
+        // Configure mocks
+        when(soliArquivoService.buscarPorId(id)).thenReturn(Optional.of(soliArquivo));
+        when(soliArquivoService.getLocalFilePath(id)).thenReturn(Optional.of(file));
+
+        try {
+            // Execute the request
+            mockMvc.perform(get("/api/soli-arquivos/{id}/download", id)
+                    .header(HttpHeaders.RANGE, "bytes=5-11"))
+                    .andExpect(status().isPartialContent())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-11/12"))
+                    .andExpect(content().string("content"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // Verify interactions
+        verify(soliArquivoService, never()).getFileContent(id);
+    }
+
+    @Test
+    void testUploadAnexoStream() throws Exception {
+        // Prepare test data
+        ReflectionTestUtils.setField(soliArquivoController, "streamingMaxSize", 1024L);
+        String boundary = "cra-boundary";
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"solicitacaoId\"\r\n\r\n"
+                + "1\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"origem\"\r\n\r\n"
+                + "correspondente\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"procuracao.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n"
+                + "Test content\r\n"
+                + "--" + boundary + "--\r\n";
+        SoliArquivo soliArquivo = new SoliArquivo();
+        soliArquivo.setId(1L);
+        soliArquivo.setNomearquivo("procuracao.pdf");
+        AtomicReference<String> recebido = new AtomicReference<>();
+
+        // Configure mocks
+        when(soliArquivoService.salvarAnexo(any(InputStream.class), eq("procuracao.pdf"), eq("application/pdf"),
+                eq(1L), eq("correspondente"), eq("local"))).thenAnswer(invocation -> {
+                    recebido.set(new String(invocation.<InputStream>getArgument(0).readAllBytes()));
+                    return soliArquivo;
+                });
+
+        // Execute the request
+        mockMvc.perform(post("/api/soli-arquivos/upload/stream")
+                .contentType("multipart/form-data; boundary=" + boundary)
+                .content(body))
+                .andExpect(status().isCreated());
+
+        // Verify results
+        assertEquals("Test content", recebido.get());
+    }
+
+    @Test
+    void testUploadAnexoStreamRequiresSolicitacaoBeforeFile() throws Exception {
+        // Prepare test data
+        ReflectionTestUtils.setField(soliArquivoController, "streamingMaxSize", 1024L);
+        String boundary = "cra-boundary";
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"procuracao.pdf\"\r\n\r\n"
+                + "Test content\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"solicitacaoId\"\r\n\r\n"
+                + "1\r\n"
+                + "--" + boundary + "--\r\n";
+
+        // Execute the request
+        mockMvc.perform(post("/api/soli-arquivos/upload/stream")
+                .contentType("multipart/form-data; boundary=" + boundary)
+                .content(body))
+                .andExpect(status().isBadRequest());
+
+        // Verify interactions
+        verify(soliArquivoService, never()).salvarAnexo(any(InputStream.class), any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,138 @@
+package br.adv.cra.controller;
+
+import br.adv.cra.config.JacksonConfig;
+import br.adv.cra.dto.SolicitacaoResumoDTO;
+import br.adv.cra.entity.BancaProcesso;
+import br.adv.cra.entity.Processo;
+import br.adv.cra.entity.Solicitacao;
+import br.adv.cra.service.AnexoZipService;
+import br.adv.cra.service.SolicitacaoBuscaService;
+import br.adv.cra.service.SolicitacaoService;
+import br.adv.cra.service.StatusSolicitacaoService;
+import br.adv.cra.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
+
+// Completely standalone test without Spring context
+class SolicitacaoControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private SolicitacaoService solicitacaoService;
+
+    @Mock
+    private StatusSolicitacaoService statusSolicitacaoService;
+
+    @Mock
+    private UsuarioService usuarioService;
+
+    @Mock
+    private AnexoZipService anexoZipService;
+
+    @Mock
+    private SolicitacaoBuscaService solicitacaoBuscaService;
+
+    private Solicitacao solicitacao;
+    private SolicitacaoResumoDTO resumo;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        SolicitacaoController solicitacaoController = new SolicitacaoController(solicitacaoService,
+                statusSolicitacaoService, usuarioService, anexoZipService, solicitacaoBuscaService);
+        // The application's ObjectMapper, so JSON views behave as in production
+        mockMvc = standaloneSetup(solicitacaoController)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(new JacksonConfig().objectMapper()))
+                .build();
+
+        Processo processo = new Processo();
+        processo.setId(3L);
+        processo.setNumeroprocesso("0001234-56.2024.8.26.0114");
+
+        solicitacao = new Solicitacao();
+        solicitacao.setIdsolicitacao(1L);
+        solicitacao.setProcesso(processo);
+        solicitacao.setPago("false");
+
+        BancaProcesso banca = new BancaProcesso();
+        banca.setIdbanca(4L);
+        banca.setBanca("Banca Central");
+        solicitacao.setBancaProcesso(banca);
+
+        resumo = new SolicitacaoResumoDTO();
+        resumo.setIdsolicitacao(1L);
+        resumo.setDatasolicitacao(LocalDateTime.of(2024, 3, 1, 9, 0));
+        resumo.setNumeroProcesso("0001234-56.2024.8.26.0114");
+        resumo.setComarca("Campinas");
+        resumo.setPago("false");
+    }
+
+    @Test
+    void testListarTodas_SummaryViewReturnsResumo() throws Exception {
+        when(solicitacaoService.listarTodasResumo()).thenReturn(List.of(resumo));
+
+        mockMvc.perform(get("/api/solicitacoes").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].idsolicitacao").value(1L))
+                .andExpect(jsonPath("$[0].numeroProcesso").value("0001234-56.2024.8.26.0114"))
+                .andExpect(jsonPath("$[0].comarca").value("Campinas"))
+                .andExpect(jsonPath("$[0].processo").doesNotExist());
+
+        verify(solicitacaoService, never()).listarTodas();
+    }
+
+    @Test
+    void testListarTodas_DefaultReturnsEntities() throws Exception {
+        when(solicitacaoService.listarTodas()).thenReturn(List.of(solicitacao));
+
+        mockMvc.perform(get("/api/solicitacoes"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].idsolicitacao").value(1L))
+                .andExpect(jsonPath("$[0].processo.numeroprocesso").value("0001234-56.2024.8.26.0114"))
+                .andExpect(jsonPath("$[0].numeroProcesso").doesNotExist())
+                .andExpect(jsonPath("$[0].bancaProcesso").doesNotExist());
+
+        verify(solicitacaoService, never()).listarTodasResumo();
+    }
+
+    @Test
+    void testBuscarPorId_ReturnsAssociationsOutsideListView() throws Exception {
+        when(solicitacaoService.buscarPorId(1L)).thenReturn(Optional.of(solicitacao));
+
+        mockMvc.perform(get("/api/solicitacoes/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processo.numeroprocesso").value("0001234-56.2024.8.26.0114"))
+                .andExpect(jsonPath("$.bancaProcesso.banca").value("Banca Central"));
+    }
+
+    @Test
+    void testListarPendentes_SummaryViewReturnsResumo() throws Exception {
+        when(solicitacaoService.listarPendentesResumo()).thenReturn(List.of(resumo));
+
+        mockMvc.perform(get("/api/solicitacoes/pendentes").param("view", "SUMMARY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].numeroProcesso").value("0001234-56.2024.8.26.0114"));
+
+        verify(solicitacaoService, never()).listarPendentes();
+    }
+}
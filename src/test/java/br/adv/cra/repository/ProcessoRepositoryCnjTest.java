@@ -0,0 +1,81 @@
+package br.adv.cra.repository;
+
+import br.adv.cra.entity.Processo;
+import br.adv.cra.util.NumeroCnj;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class ProcessoRepositoryCnjTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProcessoRepository processoRepository;
+
+    @BeforeEach
+    void setUp() {
+        processo("0001234-71.2024.8.26.0100");
+        processo("0001235-10.2023.8.26.0100");
+        processo("0001299-00.2024.8.13.0024");
+        processo("0009999-00.2024.5.01.0001");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void processo(String numero) {
+        NumeroCnj cnj = NumeroCnj.parse(numero).orElseThrow();
+        Processo processo = new Processo();
+        processo.setNumeroprocesso(numero);
+        processo.setNumerocnj(cnj.getDigitos());
+        processo.setCnjsequencial(cnj.getSequencial());
+        processo.setCnjano(cnj.getAno());
+        processo.setCnjsegmento(cnj.getSegmento());
+        processo.setCnjtribunal(cnj.getTribunal());
+        processo.setCnjorigem(cnj.getOrigem());
+        entityManager.persist(processo);
+    }
+
+    private static List<String> numeros(List<Processo> processos) {
+        return processos.stream().map(Processo::getNumeroprocesso).toList();
+    }
+
+    @Test
+    void findByNumerocnjPrefixo_SelectsTheRangeInNumberOrder() {
+        List<Processo> processos = processoRepository.findByNumerocnjPrefixo("00012", NumeroCnj.fimDoPrefixo("00012"),
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of("0001234-71.2024.8.26.0100", "0001235-10.2023.8.26.0100", "0001299-00.2024.8.13.0024"),
+                numeros(processos));
+        assertEquals(1, processoRepository.findByNumerocnjPrefixo("00012", NumeroCnj.fimDoPrefixo("00012"),
+                PageRequest.of(0, 1)).size());
+    }
+
+    @Test
+    void findByTribunal_FiltersSegmentTribunalAndYear() {
+        assertEquals(List.of("0001234-71.2024.8.26.0100", "0001235-10.2023.8.26.0100"),
+                numeros(processoRepository.findByTribunal(8, 26, PageRequest.of(0, 10))));
+        assertEquals(List.of("0001235-10.2023.8.26.0100"),
+                numeros(processoRepository.findByTribunalEAno(8, 26, 2023, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void findNumerocnjExistentes_ReturnsOnlyStoredNumbers() {
+        List<String> existentes = processoRepository.findNumerocnjExistentes(
+                List.of("00012347120248260100", "00000000000000000000"));
+
+        assertEquals(List.of("00012347120248260100"), existentes);
+        assertTrue(processoRepository.existsByNumerocnj("00099990020245010001"));
+    }
+}
@@ -0,0 +1,234 @@
+package br.adv.cra.repository;
+
+import br.adv.cra.config.JacksonConfig;
+import br.adv.cra.entity.AuditoriaInterna;
+import br.adv.cra.entity.BancaProcesso;
+import br.adv.cra.entity.Comarca;
+import br.adv.cra.entity.Correspondente;
+import br.adv.cra.entity.Endereco;
+import br.adv.cra.entity.Enviosolicitacao;
+import br.adv.cra.entity.FormularioAudiencia;
+import br.adv.cra.entity.Orgao;
+import br.adv.cra.entity.Processo;
+import br.adv.cra.entity.ReciboPagamento;
+import br.adv.cra.entity.Renumeracao;
+import br.adv.cra.entity.Solicitacao;
+import br.adv.cra.entity.StatusSolicitacao;
+import br.adv.cra.entity.TipoSolicitacao;
+import br.adv.cra.entity.Uf;
+import br.adv.cra.entity.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the Solicitacao fetch plans: each listing must stay a single SQL statement,
+ * including the lazy loads triggered by JSON serialization, no matter how many rows it returns.
+ * Every association is populated, so a property the list view should leave out would show up
+ * as extra statements.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("test")
+class SolicitacaoRepositoryFetchPlanTest {
+
+    private static final int LINHAS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SolicitacaoRepository solicitacaoRepository;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    // How the list endpoints of SolicitacaoController write their bodies
+    private final ObjectWriter listaWriter = objectMapper.writerWithView(Solicitacao.VisaoLista.class);
+
+    private Statistics statistics;
+
+    private Long primeiroId;
+
+    @BeforeEach
+    void setUp() {
+        Uf uf = new Uf();
+        uf.setSigla("SP");
+        uf.setNome("São Paulo");
+        entityManager.persist(uf);
+
+        Orgao orgao = new Orgao();
+        orgao.setDescricao("TJSP");
+        entityManager.persist(orgao);
+
+        StatusSolicitacao status = new StatusSolicitacao();
+        status.setStatus("Pendente");
+        entityManager.persist(status);
+
+        TipoSolicitacao tipo = new TipoSolicitacao();
+        tipo.setEspecie("Audiência");
+        entityManager.persist(tipo);
+
+        for (int i = 0; i < LINHAS; i++) {
+            // Distinct associated rows per solicitacao, so an N+1 would show up as extra statements
+            Comarca comarca = new Comarca();
+            comarca.setNome("Comarca " + i);
+            comarca.setUf(uf);
+            comarca.setAtivo(true);
+            entityManager.persist(comarca);
+
+            Processo processo = new Processo();
+            processo.setNumeroprocesso("000000" + i + "-00.2024.8.26.0001");
+            processo.setComarca(comarca);
+            processo.setOrgao(orgao);
+            entityManager.persist(processo);
+
+            Endereco endereco = new Endereco();
+            endereco.setCidade("Cidade " + i);
+            endereco.setUf(uf);
+
+            Correspondente correspondente = new Correspondente();
+            correspondente.setNome("Correspondente " + i);
+            correspondente.setEnderecos(endereco);
+            entityManager.persist(correspondente);
+
+            Usuario usuario = new Usuario();
+            usuario.setLogin("usuario" + i);
+            usuario.setNomecompleto("Usuário " + i);
+            usuario.setTipo(3);
+            usuario.setCorrespondente(correspondente);
+            entityManager.persist(usuario);
+
+            Renumeracao renumeracao = new Renumeracao();
+            renumeracao.setValor(100 + i);
+            renumeracao.setAtivo(true);
+            entityManager.persist(renumeracao);
+
+            FormularioAudiencia formulario = new FormularioAudiencia();
+            formulario.setNomeadvogado("Advogado " + i);
+            entityManager.persist(formulario);
+
+            BancaProcesso banca = new BancaProcesso();
+            banca.setBanca("Banca " + i);
+            banca.setAtiva(true);
+            entityManager.persist(banca);
+
+            Enviosolicitacao envio = new Enviosolicitacao();
+            envio.setTipoenvio("Envio " + i);
+            entityManager.persist(envio);
+
+            ReciboPagamento recibo = new ReciboPagamento();
+            recibo.setAnotacao("Recibo " + i);
+            entityManager.persist(recibo);
+
+            AuditoriaInterna auditoria = new AuditoriaInterna();
+            auditoria.setAdvogadosubs("Substituto " + i);
+            entityManager.persist(auditoria);
+
+            Solicitacao solicitacao = new Solicitacao();
+            solicitacao.setDatasolicitacao(LocalDateTime.now().minusDays(i));
+            solicitacao.setComarca(comarca);
+            solicitacao.setProcesso(processo);
+            solicitacao.setStatusSolicitacao(status);
+            solicitacao.setTipoSolicitacao(tipo);
+            solicitacao.setUsuario(usuario);
+            solicitacao.setCorrespondente(correspondente);
+            solicitacao.setPago("false");
+            solicitacao.setRenumeracao(renumeracao);
+            solicitacao.setFormularioAudiencia(formulario);
+            solicitacao.setBancaProcesso(banca);
+            solicitacao.setEnviosolicitacao(envio);
+            solicitacao.setReciboPagamento(recibo);
+            solicitacao.setAuditoriaInterna(auditoria);
+            entityManager.persist(solicitacao);
+            if (primeiroId == null) {
+                primeiroId = solicitacao.getIdsolicitacao();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listarTodas_UsesSingleStatement() throws Exception {
+        List<Solicitacao> solicitacoes = solicitacaoRepository.findAll();
+        String json = listaWriter.writeValueAsString(solicitacoes);
+
+        assertEquals(LINHAS, solicitacoes.size());
+        assertListaJson(json);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listarPendentes_UsesSingleStatement() throws Exception {
+        List<Solicitacao> solicitacoes = solicitacaoRepository.findPendentes();
+        String json = listaWriter.writeValueAsString(solicitacoes);
+
+        assertEquals(LINHAS, solicitacoes.size());
+        assertListaJson(json);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listarPagina_UsesSingleStatement() throws Exception {
+        Pageable limite = PageRequest.of(0, 3);
+        List<Solicitacao> solicitacoes = solicitacaoRepository.findPendentesPagina(Long.MAX_VALUE, limite);
+        String json = listaWriter.writeValueAsString(solicitacoes);
+
+        assertEquals(3, solicitacoes.size());
+        assertListaJson(json);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listarResumo_UsesSingleStatement() throws Exception {
+        objectMapper.writeValueAsString(solicitacaoRepository.findResumo(Long.MAX_VALUE, Pageable.unpaged()));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void buscarPorId_UsesSingleStatement() throws Exception {
+        Solicitacao solicitacao = solicitacaoRepository.findById(primeiroId).orElseThrow();
+        String json = objectMapper.writeValueAsString(solicitacao);
+
+        assertTrue(json.contains("Correspondente 0"));
+        assertTrue(json.contains("Banca 0"));
+        assertTrue(json.contains("Substituto 0"));
+        assertFalse(json.contains("hibernateLazyInitializer"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static void assertListaJson(String json) {
+        assertTrue(json.contains("Correspondente "));
+        for (String fora : List.of("renumeracao", "formularioAudiencia", "bancaProcesso",
+                "enviosolicitacao", "reciboPagamento", "auditoriaInterna")) {
+            assertFalse(json.contains("\"" + fora + "\""), fora);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package br.adv.cra.repository;
+
+import br.adv.cra.dto.SolicitacaoResumoDTO;
+import br.adv.cra.entity.Comarca;
+import br.adv.cra.entity.Correspondente;
+import br.adv.cra.entity.Processo;
+import br.adv.cra.entity.Solicitacao;
+import br.adv.cra.entity.StatusSolicitacao;
+import br.adv.cra.entity.TipoSolicitacao;
+import br.adv.cra.entity.Uf;
+import br.adv.cra.entity.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that RESUMO_SELECT fills each SolicitacaoResumoDTO field from the right column,
+ * since the constructor expression only matches the arguments by position.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class SolicitacaoRepositoryResumoTest {
+
+    private static final LocalDateTime SOLICITADA = LocalDateTime.of(2024, 3, 1, 9, 0);
+    private static final LocalDateTime PRAZO = LocalDateTime.of(2024, 3, 15, 18, 0);
+    private static final LocalDateTime AGENDADA = LocalDateTime.of(2024, 3, 10, 14, 30);
+    private static final LocalDateTime CONCLUIDA = LocalDateTime.of(2024, 3, 11, 16, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SolicitacaoRepository solicitacaoRepository;
+
+    private Long completaId;
+    private Long pendenteId;
+
+    @BeforeEach
+    void setUp() {
+        Uf uf = new Uf();
+        uf.setSigla("SP");
+        uf.setNome("São Paulo");
+        entityManager.persist(uf);
+
+        Comarca comarca = new Comarca();
+        comarca.setNome("Campinas");
+        comarca.setUf(uf);
+        comarca.setAtivo(true);
+        entityManager.persist(comarca);
+
+        Processo processo = new Processo();
+        processo.setNumeroprocesso("0001234-56.2024.8.26.0114");
+        processo.setComarca(comarca);
+        entityManager.persist(processo);
+
+        StatusSolicitacao status = new StatusSolicitacao();
+        status.setStatus("Concluída");
+        entityManager.persist(status);
+
+        TipoSolicitacao tipo = new TipoSolicitacao();
+        tipo.setEspecie("Audiência");
+        entityManager.persist(tipo);
+
+        Correspondente correspondente = new Correspondente();
+        correspondente.setNome("Escritório Souza");
+        entityManager.persist(correspondente);
+
+        Usuario usuario = new Usuario();
+        usuario.setLogin("acosta");
+        usuario.setNomecompleto("Ana Costa");
+        usuario.setTipo(2);
+        entityManager.persist(usuario);
+
+        Solicitacao completa = new Solicitacao();
+        completa.setDatasolicitacao(SOLICITADA);
+        completa.setDataprazo(PRAZO);
+        completa.setDataagendamento(AGENDADA);
+        completa.setDataconclusao(CONCLUIDA);
+        completa.setProcesso(processo);
+        completa.setComarca(comarca);
+        completa.setStatusSolicitacao(status);
+        completa.setTipoSolicitacao(tipo);
+        completa.setUsuario(usuario);
+        completa.setCorrespondente(correspondente);
+        completa.setStatusexterno("CONFIRMAR");
+        completa.setPago("true");
+        completa.setValor(350.5f);
+        entityManager.persist(completa);
+        completaId = completa.getIdsolicitacao();
+
+        // No associations at all: the outer joins must still return the row
+        Solicitacao pendente = new Solicitacao();
+        pendente.setDatasolicitacao(SOLICITADA.plusDays(1));
+        pendente.setPago("false");
+        entityManager.persist(pendente);
+        pendenteId = pendente.getIdsolicitacao();
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findResumo_FillsEveryFieldFromItsColumn() {
+        List<SolicitacaoResumoDTO> resumos = solicitacaoRepository.findResumo(Long.MAX_VALUE, Pageable.unpaged());
+
+        assertEquals(List.of(pendenteId, completaId),
+                resumos.stream().map(SolicitacaoResumoDTO::getIdsolicitacao).toList());
+        SolicitacaoResumoDTO resumo = resumos.get(1);
+        assertEquals(SOLICITADA, resumo.getDatasolicitacao());
+        assertEquals(PRAZO, resumo.getDataprazo());
+        assertEquals(AGENDADA, resumo.getDataagendamento());
+        assertEquals(CONCLUIDA, resumo.getDataconclusao());
+        assertEquals("0001234-56.2024.8.26.0114", resumo.getNumeroProcesso());
+        assertEquals("Campinas", resumo.getComarca());
+        assertEquals("Concluída", resumo.getStatus());
+        assertEquals("Audiência", resumo.getTipoSolicitacao());
+        assertEquals("Ana Costa", resumo.getUsuario());
+        assertEquals("Escritório Souza", resumo.getCorrespondente());
+        assertEquals("CONFIRMAR", resumo.getStatusexterno());
+        assertEquals("true", resumo.getPago());
+        assertEquals(350.5f, resumo.getValor());
+    }
+
+    @Test
+    void findResumo_KeepsRowsWithoutAssociations() {
+        SolicitacaoResumoDTO resumo = solicitacaoRepository.findResumo(Long.MAX_VALUE, PageRequest.of(0, 1)).get(0);
+
+        assertEquals(pendenteId, resumo.getIdsolicitacao());
+        assertNull(resumo.getNumeroProcesso());
+        assertNull(resumo.getComarca());
+        assertNull(resumo.getUsuario());
+        assertNull(resumo.getCorrespondente());
+        assertEquals("false", resumo.getPago());
+    }
+
+    @Test
+    void findConcluidasResumo_AppliesTheFilterAndCursor() {
+        assertEquals(List.of(completaId), solicitacaoRepository.findConcluidasResumo(Long.MAX_VALUE, Pageable.unpaged())
+                .stream().map(SolicitacaoResumoDTO::getIdsolicitacao).toList());
+        assertTrue(solicitacaoRepository.findConcluidasResumo(completaId, Pageable.unpaged()).isEmpty());
+    }
+}
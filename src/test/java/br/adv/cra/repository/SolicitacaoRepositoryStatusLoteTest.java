@@ -0,0 +1,103 @@
+package br.adv.cra.repository;
+
+import br.adv.cra.entity.Solicitacao;
+import br.adv.cra.entity.StatusSolicitacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class SolicitacaoRepositoryStatusLoteTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SolicitacaoRepository solicitacaoRepository;
+
+    private StatusSolicitacao pendente;
+    private StatusSolicitacao concluida;
+    private Long primeiraId;
+    private Long segundaId;
+    private Long semStatusId;
+
+    @BeforeEach
+    void setUp() {
+        pendente = entityManager.persist(new StatusSolicitacao(null, "Pendente"));
+        concluida = entityManager.persist(new StatusSolicitacao(null, "Concluída"));
+        primeiraId = solicitacao(pendente);
+        segundaId = solicitacao(pendente);
+        semStatusId = solicitacao(null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Long solicitacao(StatusSolicitacao status) {
+        Solicitacao solicitacao = new Solicitacao();
+        solicitacao.setDatasolicitacao(LocalDateTime.now());
+        solicitacao.setStatusSolicitacao(status);
+        return entityManager.persist(solicitacao).getIdsolicitacao();
+    }
+
+    @Test
+    void findStatusAtual_ReturnsStatusOfExistingRows() {
+        List<SolicitacaoRepository.StatusAtual> atuais = solicitacaoRepository.findStatusAtual(
+                List.of(primeiraId, semStatusId, -1L)).stream()
+                .sorted(Comparator.comparing(SolicitacaoRepository.StatusAtual::getId))
+                .toList();
+
+        assertEquals(2, atuais.size());
+        assertEquals(primeiraId, atuais.get(0).getId());
+        assertEquals(pendente.getIdstatus(), atuais.get(0).getStatusId());
+        assertEquals("Pendente", atuais.get(0).getStatus());
+        assertNull(atuais.get(1).getStatusId());
+    }
+
+    @Test
+    void updateStatus_UpdatesOnlyListedRows() {
+        int atualizadas = solicitacaoRepository.updateStatus(List.of(primeiraId, semStatusId), concluida, false, "Concluída");
+
+        assertEquals(2, atualizadas);
+        assertEquals("Concluída", solicitacaoRepository.findById(primeiraId).orElseThrow().getStatusSolicitacao().getStatus());
+        assertEquals("Concluída", solicitacaoRepository.findById(semStatusId).orElseThrow().getStatusSolicitacao().getStatus());
+        assertEquals("Pendente", solicitacaoRepository.findById(segundaId).orElseThrow().getStatusSolicitacao().getStatus());
+    }
+    
+    @Test
+    void updateStatus_SkipsRowsAlreadyInTargetStatus() {
+        int atualizadas = solicitacaoRepository.updateStatus(List.of(primeiraId, segundaId), pendente, true, "Concluída");
+        
+        assertEquals(0, atualizadas);
+    }
+    
+    @Test
+    void updateStatus_DoesNotReopenConcludedRowsWithoutPermission() {
+        // Concluded after the caller read its status
+        solicitacaoRepository.updateStatus(List.of(primeiraId), concluida, false, "Concluída");
+        
+        int atualizadas = solicitacaoRepository.updateStatus(List.of(primeiraId, segundaId), pendente, false, "Concluída");
+        
+        assertEquals(0, atualizadas);
+        assertEquals("Concluída", solicitacaoRepository.findById(primeiraId).orElseThrow().getStatusSolicitacao().getStatus());
+    }
+    
+    @Test
+    void updateStatus_ReopensConcludedRowsWithPermission() {
+        solicitacaoRepository.updateStatus(List.of(primeiraId), concluida, false, "Concluída");
+        
+        int atualizadas = solicitacaoRepository.updateStatus(List.of(primeiraId), pendente, true, "Concluída");
+        
+        assertEquals(1, atualizadas);
+        assertEquals("Pendente", solicitacaoRepository.findById(primeiraId).orElseThrow().getStatusSolicitacao().getStatus());
+    }
+}
@@ -0,0 +1,99 @@
+package br.adv.cra.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost in AuthTokenFilter, before and after the single-parse path.
+ *
+ * legacyFilterPath reproduces the previous sequence: validateJwtToken(jwt),
+ * getUserNameFromJwtToken(jwt) and validateJwtToken(jwt, userDetails), i.e. four
+ * parses, each one deriving the HMAC key and building a parser. singleParse is
+ * the current JwtUtils.parseToken.
+ *
+ * Not run by surefire. Run it with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.adv.cra.security.JwtUtilsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET =
+            "craSecretKeyForJWTTokenGenerationThatNeedsToBeAtLeast256BitsForSecurityPurposes2024";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "refreshTokenExpirationMs", 604800000);
+        jwtUtils.init();
+        token = jwtUtils.generateTokenFromUsername("admin");
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        if (!legacyClaims(token).getSubject().isEmpty()) {
+            String username = legacyClaims(token).getSubject();
+            return username.equals(legacyClaims(token).getSubject())
+                    && !legacyClaims(token).getExpiration().before(new Date());
+        }
+        return false;
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return jwtUtils.parseToken(token).map(JwtClaims::getSubject).orElse(null);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(legacySignInKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static Key legacySignInKey() {
+        byte[] keyBytes;
+        if (SECRET.length() > 32 && SECRET.matches("^[A-Za-z0-9+/]*={0,2}$")) {
+            keyBytes = Decoders.BASE64.decode(SECRET);
+        } else {
+            keyBytes = SECRET.getBytes();
+        }
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package br.adv.cra.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = criarJwtUtils(86400000);
+    }
+
+    private JwtUtils criarJwtUtils(int expirationMs) {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret",
+                "craSecretKeyForJWTTokenGenerationThatNeedsToBeAtLeast256BitsForSecurityPurposes2024");
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(utils, "refreshTokenExpirationMs", 604800000);
+        utils.init();
+        return utils;
+    }
+
+    @Test
+    void parseToken_ValidAccessToken() {
+        String token = jwtUtils.generateTokenFromUsername("testuser");
+
+        Optional<JwtClaims> claims = jwtUtils.parseToken(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals("testuser", claims.get().getSubject());
+        assertFalse(claims.get().isRefreshToken());
+        assertTrue(claims.get().getExpiration().isAfter(Instant.now()));
+    }
+
+    @Test
+    void parseToken_RefreshToken() {
+        String token = jwtUtils.generateRefreshToken("testuser");
+
+        Optional<JwtClaims> claims = jwtUtils.parseToken(token);
+
+        assertTrue(claims.isPresent());
+        assertTrue(claims.get().isRefreshToken());
+    }
+
+    @Test
+    void parseToken_TamperedSignature() {
+        String token = jwtUtils.generateTokenFromUsername("testuser");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtUtils.parseToken(tampered).isEmpty());
+        assertFalse(jwtUtils.validateJwtToken(tampered));
+    }
+
+    @Test
+    void parseToken_ExpiredToken() {
+        String token = criarJwtUtils(-1000).generateTokenFromUsername("testuser");
+
+        assertTrue(jwtUtils.parseToken(token).isEmpty());
+    }
+
+    @Test
+    void parseToken_Malformed() {
+        assertTrue(jwtUtils.parseToken("not-a-jwt").isEmpty());
+        assertTrue(jwtUtils.parseToken("").isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+package br.adv.cra.security;
+
+import br.adv.cra.config.CacheConfig;
+import br.adv.cra.entity.Usuario;
+import br.adv.cra.repository.UsuarioRepository;
+import br.adv.cra.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(UserDetailsServiceImplCacheTest.Config.class)
+class UserDetailsServiceImplCacheTest {
+
+    @Configuration
+    @EnableCaching(proxyTargetClass = true)
+    @Import({UserDetailsServiceImpl.class, UsuarioService.class})
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.PRINCIPAIS);
+        }
+    }
+
+    @MockBean
+    private UsuarioRepository usuarioRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.PRINCIPAIS).clear();
+
+        usuario = new Usuario();
+        usuario.setId(1L);
+        usuario.setLogin("testuser");
+        usuario.setSenha("$2a$10$hash");
+        usuario.setNomecompleto("Test User");
+        usuario.setTipo(2);
+        usuario.setAtivo(true);
+        when(usuarioRepository.findByLogin("testuser")).thenReturn(Optional.of(usuario));
+    }
+
+    @Test
+    void carregarPrincipal_SecondCallIsServedFromCache() {
+        userDetailsService.carregarPrincipal("testuser");
+        UserDetailsImpl principal = userDetailsService.carregarPrincipal("testuser");
+
+        assertEquals("testuser", principal.getUsername());
+        assertNull(principal.getPassword());
+        verify(usuarioRepository, times(1)).findByLogin("testuser");
+    }
+
+    @Test
+    void loadUserByUsername_IsNotCached() {
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.loadUserByUsername("testuser");
+
+        verify(usuarioRepository, times(2)).findByLogin("testuser");
+    }
+
+    @Test
+    void inativar_EvictsCachedPrincipal() {
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuario);
+
+        userDetailsService.carregarPrincipal("testuser");
+        usuarioService.inativar(1L);
+        UserDetailsImpl principal = userDetailsService.carregarPrincipal("testuser");
+
+        assertFalse(principal.isEnabled());
+        verify(usuarioRepository, times(2)).findByLogin("testuser");
+    }
+}
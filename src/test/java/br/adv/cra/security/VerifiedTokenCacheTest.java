@@ -0,0 +1,99 @@
+package br.adv.cra.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private JwtUtils jwtUtils;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtils utils = new JwtUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret",
+                "craSecretKeyForJWTTokenGenerationThatNeedsToBeAtLeast256BitsForSecurityPurposes2024");
+        ReflectionTestUtils.setField(utils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(utils, "refreshTokenExpirationMs", 604800000);
+        utils.init();
+        jwtUtils = spy(utils);
+
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtils, meterRegistry, 100);
+    }
+
+    @Test
+    void verify_SecondCallSkipsParsing() {
+        String token = jwtUtils.generateTokenFromUsername("testuser");
+
+        verifiedTokenCache.verify(token);
+        Optional<JwtClaims> claims = verifiedTokenCache.verify(token);
+
+        assertEquals("testuser", claims.orElseThrow().getSubject());
+        verify(jwtUtils, times(1)).parseToken(token);
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", VerifiedTokenCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void verify_InvalidTokenIsNotCached() {
+        verifiedTokenCache.verify("not-a-jwt");
+        Optional<JwtClaims> claims = verifiedTokenCache.verify("not-a-jwt");
+
+        assertTrue(claims.isEmpty());
+        verify(jwtUtils, times(2)).parseToken("not-a-jwt");
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void revoke_RejectsTokenUntilExpiration() {
+        String token = jwtUtils.generateTokenFromUsername("testuser");
+        String outro = jwtUtils.generateTokenFromUsername("outro");
+        verifiedTokenCache.verify(token);
+
+        verifiedTokenCache.revoke(token);
+
+        assertTrue(verifiedTokenCache.verify(token).isEmpty());
+        assertTrue(verifiedTokenCache.verify(outro).isPresent());
+        assertEquals(1.0, meterRegistry.get("jwt.revocations").counter().count());
+    }
+
+    @Test
+    void revoke_KeepsRevocationsBeyondMaxSize() {
+        String primeiro = jwtUtils.generateTokenFromUsername("usuario0");
+        verifiedTokenCache.revoke(primeiro);
+        for (int i = 1; i <= 150; i++) {
+            verifiedTokenCache.revoke(jwtUtils.generateTokenFromUsername("usuario" + i));
+        }
+
+        assertEquals(151, verifiedTokenCache.revokedSize());
+        assertTrue(verifiedTokenCache.verify(primeiro).isEmpty());
+    }
+
+    @Test
+    void revoke_RejectsRefreshToken() {
+        String refreshToken = jwtUtils.generateRefreshToken("testuser");
+        assertTrue(verifiedTokenCache.verify(refreshToken).orElseThrow().isRefreshToken());
+
+        verifiedTokenCache.revoke(refreshToken);
+
+        assertTrue(verifiedTokenCache.verify(refreshToken).isEmpty());
+    }
+
+    @Test
+    void verify_EntryExpiresWithToken() {
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", -1000);
+        String token = jwtUtils.generateTokenFromUsername("testuser");
+
+        assertTrue(verifiedTokenCache.verify(token).isEmpty());
+        assertEquals(0, verifiedTokenCache.size());
+    }
+}
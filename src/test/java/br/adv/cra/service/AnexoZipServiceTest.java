@@ -0,0 +1,207 @@
+package br.adv.cra.service;
+
+import br.adv.cra.entity.SoliArquivo;
+import br.adv.cra.repository.SoliArquivoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AnexoZipServiceTest {
+
+    @Mock
+    private SoliArquivoRepository soliArquivoRepository;
+
+    @Mock
+    private GoogleDriveService googleDriveService;
+
+    @Mock
+    private DriveBlobCache driveBlobCache;
+
+    @TempDir
+    Path uploadDir;
+
+    private AnexoZipService anexoZipService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        anexoZipService = new AnexoZipService(soliArquivoRepository, googleDriveService, driveBlobCache,
+                new SimpleMeterRegistry(), 4, 2, false);
+        when(driveBlobCache.getIfPresent(anyString())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        anexoZipService.shutdown();
+    }
+
+    private SoliArquivo local(long id, String nome, String conteudo) throws IOException {
+        SoliArquivo anexo = new SoliArquivo();
+        anexo.setId(id);
+        anexo.setNomearquivo(nome);
+        anexo.setStorageLocation("local");
+        anexo.setCaminhofisico(Files.writeString(uploadDir.resolve("blob-" + id), conteudo).toString());
+        return anexo;
+    }
+
+    private SoliArquivo drive(long id, String nome, String fileId) {
+        SoliArquivo anexo = new SoliArquivo();
+        anexo.setId(id);
+        anexo.setNomearquivo(nome);
+        anexo.setStorageLocation("google_drive");
+        anexo.setGoogleDriveFileId(fileId);
+        return anexo;
+    }
+
+    private static Map<String, String> unzip(byte[] zip) throws IOException {
+        Map<String, String> entradas = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip), StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entradas.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entradas;
+    }
+
+    @Test
+    void escreverZip_IncludesLocalAndDriveAttachments() throws IOException {
+        // Prepare test data
+        when(soliArquivoRepository.findBySolicitacaoIdsolicitacao(1L)).thenReturn(List.of(
+                local(1L, "procuracao.pdf", "local"),
+                drive(2L, "peticao.pdf", "drive-2"),
+                local(3L, "procuracao.pdf", "outra")));
+        when(googleDriveService.downloadFile("drive-2"))
+                .thenReturn(new ByteArrayInputStream("drive".getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Execute the method
+        anexoZipService.escreverZip(List.of(1L), out);
+
+        // Verify results
+        Map<String, String> entradas = unzip(out.toByteArray());
+        assertEquals(List.of("procuracao.pdf", "peticao.pdf", "procuracao (2).pdf"), List.copyOf(entradas.keySet()));
+        assertEquals("local", entradas.get("procuracao.pdf"));
+        assertEquals("drive", entradas.get("peticao.pdf"));
+        assertEquals("outra", entradas.get("procuracao (2).pdf"));
+    }
+
+    @Test
+    void escreverZip_UsesFolderPerSolicitacao() throws IOException {
+        // Prepare test data
+        when(soliArquivoRepository.findBySolicitacaoIdsolicitacao(1L)).thenReturn(List.of(local(1L, "a.pdf", "1")));
+        when(soliArquivoRepository.findBySolicitacaoIdsolicitacao(2L)).thenReturn(List.of(local(2L, "a.pdf", "2")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Execute the method
+        anexoZipService.escreverZip(List.of(1L, 2L), out);
+
+        // Verify results
+        Map<String, String> entradas = unzip(out.toByteArray());
+        assertEquals("1", entradas.get("solicitacao-1/a.pdf"));
+        assertEquals("2", entradas.get("solicitacao-2/a.pdf"));
+    }
+
+    @Test
+    void escreverZip_ListsUnreadableAttachments() throws IOException {
+        // Prepare test data
+        SoliArquivo perdido = local(2L, "perdido.pdf", "x");
+        Files.delete(Path.of(perdido.getCaminhofisico()));
+        when(soliArquivoRepository.findBySolicitacaoIdsolicitacao(1L)).thenReturn(List.of(
+                local(1L, "ok.pdf", "ok"), perdido));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Execute the method
+        anexoZipService.escreverZip(List.of(1L), out);
+
+        // Verify results
+        Map<String, String> entradas = unzip(out.toByteArray());
+        assertEquals("ok", entradas.get("ok.pdf"));
+        assertFalse(entradas.containsKey("perdido.pdf"));
+        assertTrue(entradas.get(AnexoZipService.ERROS_ENTRY).contains("perdido.pdf (id 2)"));
+    }
+
+    @Test
+    void escreverZip_OpensAtMostParallelismAttachmentsAhead() throws IOException {
+        // Prepare test data
+        AtomicInteger abertos = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        when(googleDriveService.downloadFile(anyString())).thenAnswer(invocation -> {
+            maximo.accumulateAndGet(abertos.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            return new ByteArrayInputStream("x".getBytes(StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    abertos.decrementAndGet();
+                    super.close();
+                }
+            };
+        });
+        when(soliArquivoRepository.findBySolicitacaoIdsolicitacao(1L)).thenReturn(List.of(
+                drive(1L, "1.pdf", "d1"), drive(2L, "2.pdf", "d2"), drive(3L, "3.pdf", "d3"),
+                drive(4L, "4.pdf", "d4"), drive(5L, "5.pdf", "d5"), drive(6L, "6.pdf", "d6")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Execute the method
+        anexoZipService.escreverZip(List.of(1L), out);
+
+        // Verify results
+        assertEquals(6, unzip(out.toByteArray()).size());
+        assertTrue(maximo.get() <= 2, "At most 2 attachments open at once, was " + maximo.get());
+        assertEquals(0, abertos.get());
+    }
+
+    @Test
+    void escreverZip_ReadsCachedDriveFilesFromDisk() throws IOException {
+        // Prepare test data
+        Path cached = Files.writeString(uploadDir.resolve("cached"), "em cache");
+        when(driveBlobCache.getIfPresent("drive-1")).thenReturn(Optional.of(cached));
+        when(soliArquivoRepository.findBySolicitacaoIdsolicitacao(1L)).thenReturn(List.of(drive(1L, "a.pdf", "drive-1")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Execute the method
+        anexoZipService.escreverZip(List.of(1L), out);
+
+        // Verify results
+        assertEquals("em cache", unzip(out.toByteArray()).get("a.pdf"));
+        verify(googleDriveService, never()).downloadFile(anyString());
+    }
+
+    @Test
+    void nomeUnico_AddsCounterBeforeExtension() {
+        HashSet<String> usados = new HashSet<>();
+
+        assertEquals("a.pdf", AnexoZipService.nomeUnico("a.pdf", usados));
+        assertEquals("a (2).pdf", AnexoZipService.nomeUnico("a.pdf", usados));
+        assertEquals("leia-me", AnexoZipService.nomeUnico("leia-me", usados));
+        assertEquals("leia-me (2)", AnexoZipService.nomeUnico("leia-me", usados));
+    }
+
+    @Test
+    void validarSolicitacoes_RejectsEmptyList() {
+        assertThrows(IllegalArgumentException.class, () -> anexoZipService.validarSolicitacoes(List.of()));
+    }
+}
@@ -1,17 +1,24 @@
 package br.adv.cra.service;
 
+import br.adv.cra.dto.AutocompleteDTO;
+import br.adv.cra.dto.JwtResponse;
 import br.adv.cra.dto.RegisterRequest;
 import br.adv.cra.entity.Correspondente;
 import br.adv.cra.entity.Usuario;
 import br.adv.cra.repository.CorrespondenteRepository;
 import br.adv.cra.repository.UsuarioRepository;
+import br.adv.cra.security.JwtUtils;
+import br.adv.cra.security.UserDetailsImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,12 +36,20 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private JwtUtils jwtUtils;
+
+    private UsuarioService usuarioService;
+
     @InjectMocks
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // The real service over the same mocks, so the save and the password encoding still go through them
+        usuarioService = new UsuarioService(usuarioRepository, passwordEncoder);
+        ReflectionTestUtils.setField(authService, "usuarioService", usuarioService);
     }
 
     @Test
@@ -122,8 +137,43 @@ class AuthServiceTest {
         assertEquals("Erro: Correspondente com ID 999 não encontrado!", exception.getMessage());
         
         verify(usuarioRepository).existsByLogin("testcorrespondente");
-        verify(passwordEncoder).encode("password");
+        verify(passwordEncoder, never()).encode("password");
         verify(correspondenteRepository).findById(999L);
         verify(usuarioRepository, never()).save(any(Usuario.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRegisterAddsUserToAutocompleteIndex() {
+        // Given
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setLogin("mcosta");
+        registerRequest.setSenha("password");
+        registerRequest.setNomeCompleto("Maria Costa");
+        registerRequest.setTipo(2); // Advogado
+
+        when(usuarioRepository.findAutocomplete()).thenReturn(List.of());
+        when(usuarioRepository.existsByLogin("mcosta")).thenReturn(false);
+        when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
+        when(usuarioRepository.save(any(Usuario.class))).thenAnswer(invocation -> {
+            Usuario usuario = invocation.getArgument(0);
+            usuario.setId(7L);
+            return usuario;
+        });
+        when(jwtUtils.generateJwtToken(any(UserDetailsImpl.class))).thenReturn("access-token");
+        when(jwtUtils.generateRefreshToken("mcosta")).thenReturn("refresh-token");
+        when(jwtUtils.getExpirationDateFromToken("access-token")).thenReturn(new Date());
+        assertTrue(usuarioService.autocompletar("mar", null).isEmpty());
+
+        // When
+        JwtResponse response = authService.register(registerRequest);
+
+        // Then
+        assertEquals("access-token", response.getToken());
+        assertEquals("refresh-token", response.getRefreshToken());
+        assertEquals(7L, response.getId());
+        assertEquals("mcosta", response.getLogin());
+        assertEquals(List.of(new AutocompleteDTO(7L, "Maria Costa")), usuarioService.autocompletar("mar", null));
+        verify(passwordEncoder).encode("password");
+        verify(usuarioRepository, times(1)).findAutocomplete();
+    }
+}
@@ -0,0 +1,194 @@
+package br.adv.cra.service;
+
+import br.adv.cra.dto.UploadSessionDTO;
+import br.adv.cra.entity.SoliArquivo;
+import br.adv.cra.repository.SolicitacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChunkedUploadServiceTest {
+
+    private static final byte[] CONTENT = "gravação da audiência".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private SoliArquivoService soliArquivoService;
+
+    @Mock
+    private SolicitacaoRepository solicitacaoRepository;
+
+    @TempDir
+    Path uploadDir;
+
+    private ChunkedUploadService chunkedUploadService;
+    private final AtomicReference<byte[]> stored = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        when(soliArquivoService.getPartialUploadDir()).thenReturn(uploadDir.resolve("parts"));
+        when(solicitacaoRepository.existsById(1L)).thenReturn(true);
+        when(soliArquivoService.salvarAnexoLocal(any(Path.class), anyString(), anyString(), eq(1L), anyString()))
+                .thenAnswer(invocation -> {
+                    stored.set(Files.readAllBytes(invocation.getArgument(0)));
+                    SoliArquivo soliArquivo = new SoliArquivo();
+                    soliArquivo.setId(10L);
+                    soliArquivo.setConteudoHash(invocation.getArgument(1));
+                    soliArquivo.setNomearquivo(invocation.getArgument(2));
+                    return soliArquivo;
+                });
+        chunkedUploadService = new ChunkedUploadService(soliArquivoService, solicitacaoRepository,
+                Duration.ofHours(1), 1024, 1024);
+    }
+
+    @Test
+    void testUploadInChunks() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.iniciar(1L, "usuario", "audiencia.mp3", CONTENT.length,
+                sha256(CONTENT), "advogado");
+
+        UploadSessionDTO depoisPrimeira = chunkedUploadService.receberParte(session.getUploadId(), 0, chunk(0, 10),
+                sha256(Arrays.copyOfRange(CONTENT, 0, 10)), "advogado");
+        UploadSessionDTO depoisSegunda = chunkedUploadService.receberParte(session.getUploadId(), 10,
+                chunk(10, CONTENT.length), null, "advogado");
+        SoliArquivo soliArquivo = chunkedUploadService.finalizar(session.getUploadId(), "advogado");
+
+        assertEquals(10, depoisPrimeira.getOffset());
+        assertEquals(CONTENT.length, depoisSegunda.getOffset());
+        assertEquals(sha256(CONTENT), soliArquivo.getConteudoHash());
+        assertEquals("audiencia.mp3", soliArquivo.getNomearquivo());
+        assertArrayEquals(CONTENT, stored.get());
+        assertThrows(RuntimeException.class, () -> chunkedUploadService.status(session.getUploadId(), "advogado"));
+    }
+
+    @Test
+    void testReceberParteRejectsWrongOffset() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.iniciar(1L, "usuario", "audiencia.mp3", CONTENT.length,
+                null, "advogado");
+
+        assertThrows(IllegalStateException.class,
+                () -> chunkedUploadService.receberParte(session.getUploadId(), 5, chunk(5, 10), null, "advogado"));
+        assertEquals(0, chunkedUploadService.status(session.getUploadId(), "advogado").getOffset());
+    }
+
+    @Test
+    void testChunkWithWrongChecksumIsResent() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.iniciar(1L, "usuario", "audiencia.mp3", CONTENT.length,
+                sha256(CONTENT), "advogado");
+
+        assertThrows(IllegalArgumentException.class, () -> chunkedUploadService.receberParte(
+                session.getUploadId(), 0, chunk(0, 10), sha256("outra coisa".getBytes()), "advogado"));
+        assertEquals(0, chunkedUploadService.status(session.getUploadId(), "advogado").getOffset());
+
+        chunkedUploadService.receberParte(session.getUploadId(), 0, chunk(0, CONTENT.length), null, "advogado");
+        SoliArquivo soliArquivo = chunkedUploadService.finalizar(session.getUploadId(), "advogado");
+
+        assertEquals(sha256(CONTENT), soliArquivo.getConteudoHash());
+    }
+
+    @Test
+    void testInterruptedChunkDoesNotAdvanceOffset() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.iniciar(1L, "usuario", "audiencia.mp3", CONTENT.length,
+                null, "advogado");
+        InputStream interrompido = new InputStream() {
+            private int lidos;
+
+            @Override
+            public int read() throws IOException {
+                if (lidos++ < 5) {
+                    return 'x';
+                }
+                throw new IOException("Connection reset");
+            }
+        };
+
+        assertThrows(IOException.class,
+                () -> chunkedUploadService.receberParte(session.getUploadId(), 0, interrompido, null, "advogado"));
+        assertEquals(0, chunkedUploadService.status(session.getUploadId(), "advogado").getOffset());
+
+        chunkedUploadService.receberParte(session.getUploadId(), 0, chunk(0, CONTENT.length), null, "advogado");
+        assertEquals(sha256(CONTENT), chunkedUploadService.finalizar(session.getUploadId(), "advogado").getConteudoHash());
+    }
+
+    @Test
+    void testFinalizarRejectsIncompleteUpload() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.iniciar(1L, "usuario", "audiencia.mp3", CONTENT.length,
+                null, "advogado");
+        chunkedUploadService.receberParte(session.getUploadId(), 0, chunk(0, 10), null, "advogado");
+
+        assertThrows(IllegalStateException.class, () -> chunkedUploadService.finalizar(session.getUploadId(), "advogado"));
+        verify(soliArquivoService, never()).salvarAnexoLocal(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testFinalizarDiscardsFileWithWrongChecksum() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.iniciar(1L, "usuario", "audiencia.mp3", CONTENT.length,
+                sha256("outro arquivo".getBytes()), "advogado");
+        chunkedUploadService.receberParte(session.getUploadId(), 0, chunk(0, CONTENT.length), null, "advogado");
+
+        assertThrows(IllegalArgumentException.class, () -> chunkedUploadService.finalizar(session.getUploadId(), "advogado"));
+        assertFalse(Files.exists(uploadDir.resolve("parts").resolve(session.getUploadId() + ".part")));
+        verify(soliArquivoService, never()).salvarAnexoLocal(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testOtherUserCannotContinueUpload() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.iniciar(1L, "usuario", "audiencia.mp3", CONTENT.length,
+                null, "advogado");
+
+        assertThrows(RuntimeException.class,
+                () -> chunkedUploadService.receberParte(session.getUploadId(), 0, chunk(0, 10), null, "outro"));
+    }
+
+    @Test
+    void testIniciarRejectsFileLargerThanLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> chunkedUploadService.iniciar(1L, "usuario", "audiencia.mp3", 4096, null, "advogado"));
+    }
+
+    @Test
+    void testExpiredSessionsAreRemoved() throws Exception {
+        chunkedUploadService = new ChunkedUploadService(soliArquivoService, solicitacaoRepository,
+                Duration.ofMillis(-1), 1024, 1024);
+        UploadSessionDTO session = chunkedUploadService.iniciar(1L, "usuario", "audiencia.mp3", CONTENT.length,
+                null, "advogado");
+        Path partFile = uploadDir.resolve("parts").resolve(session.getUploadId() + ".part");
+        Path orphan = Files.createFile(uploadDir.resolve("parts").resolve("orfao.part"));
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minusSeconds(60)));
+
+        chunkedUploadService.removerSessoesExpiradas();
+
+        assertFalse(Files.exists(partFile));
+        assertFalse(Files.exists(orphan));
+        assertThrows(RuntimeException.class, () -> chunkedUploadService.status(session.getUploadId(), "advogado"));
+    }
+
+    private static InputStream chunk(int from, int to) {
+        return new ByteArrayInputStream(CONTENT, from, to - from);
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,178 @@
+package br.adv.cra.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DriveBlobCacheTest {
+
+    @Mock
+    private GoogleDriveService googleDriveService;
+
+    @TempDir
+    Path cacheDir;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(googleDriveService.downloadFile(anyString())).thenAnswer(invocation ->
+                new ByteArrayInputStream(("conteudo-" + invocation.getArgument(0)).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private DriveBlobCache cache(long maxBytes, Duration maxAge) throws IOException {
+        DriveBlobCache cache = new DriveBlobCache(googleDriveService, meterRegistry, true,
+                cacheDir.toString(), maxBytes, maxAge);
+        cache.init();
+        return cache;
+    }
+
+    @Test
+    void get_DownloadsOnceThenServesFromDisk() throws IOException {
+        DriveBlobCache cache = cache(1024, Duration.ofDays(1));
+
+        Path primeiro = cache.get("drive-1").orElseThrow();
+        Path segundo = cache.get("drive-1").orElseThrow();
+
+        assertEquals(primeiro, segundo);
+        assertEquals("conteudo-drive-1", Files.readString(segundo));
+        verify(googleDriveService, times(1)).downloadFile("drive-1");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+        assertEquals(16.0, meterRegistry.get("cache.size.bytes").gauge().value());
+    }
+
+    @Test
+    void get_ConcurrentMissesShareOneDownload() throws Exception {
+        DriveBlobCache cache = cache(1024, Duration.ofDays(1));
+        CountDownLatch downloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(googleDriveService.downloadFile("drive-1")).thenAnswer(invocation -> {
+            downloading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new ByteArrayInputStream("conteudo".getBytes(StandardCharsets.UTF_8));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Path> primeiro = executor.submit(() -> cache.get("drive-1").orElseThrow());
+            assertTrue(downloading.await(5, TimeUnit.SECONDS));
+            Future<Path> segundo = executor.submit(() -> cache.get("drive-1").orElseThrow());
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(primeiro.get(5, TimeUnit.SECONDS), segundo.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(googleDriveService, times(1)).downloadFile("drive-1");
+    }
+
+    @Test
+    void get_EvictsLeastRecentlyUsedWhenOverSize() throws IOException {
+        // Each file is 16 bytes; the cache holds two
+        DriveBlobCache cache = cache(40, Duration.ofDays(1));
+        Path a = cache.get("drive-a").orElseThrow();
+        Path b = cache.get("drive-b").orElseThrow();
+        cache.get("drive-a");
+
+        Path c = cache.get("drive-c").orElseThrow();
+
+        assertTrue(Files.exists(a));
+        assertFalse(Files.exists(b));
+        assertTrue(Files.exists(c));
+        assertEquals(32, cache.totalBytes());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count());
+    }
+
+    @Test
+    void get_DownloadsAgainAfterMaxAge() throws Exception {
+        DriveBlobCache cache = cache(1024, Duration.ofMillis(10));
+        cache.get("drive-1");
+        Thread.sleep(30);
+
+        cache.get("drive-1");
+
+        verify(googleDriveService, times(2)).downloadFile("drive-1");
+    }
+
+    @Test
+    void limparExpirados_DeletesExpiredFiles() throws Exception {
+        DriveBlobCache cache = cache(1024, Duration.ofMillis(10));
+        Path a = cache.get("drive-a").orElseThrow();
+        Path b = cache.get("drive-b").orElseThrow();
+        Thread.sleep(30);
+
+        cache.limparExpirados();
+
+        assertFalse(Files.exists(a));
+        assertFalse(Files.exists(b));
+        assertEquals(0, cache.totalBytes());
+        assertEquals(2.0, meterRegistry.get("cache.evictions").counter().count());
+    }
+
+    @Test
+    void get_DownloadsAgainWhenFileWasDeletedOnDisk() throws IOException {
+        DriveBlobCache cache = cache(1024, Duration.ofDays(1));
+        Files.delete(cache.get("drive-1").orElseThrow());
+
+        Path path = cache.get("drive-1").orElseThrow();
+
+        assertEquals("conteudo-drive-1", Files.readString(path));
+        assertEquals(16, cache.totalBytes());
+        verify(googleDriveService, times(2)).downloadFile("drive-1");
+    }
+
+    @Test
+    void init_IndexesFilesFromPreviousRun() throws IOException {
+        Path cached = cache(1024, Duration.ofDays(1)).get("drive-1").orElseThrow();
+        Files.writeString(cacheDir.resolve("partial.tmp"), "x");
+
+        DriveBlobCache reiniciado = cache(1024, Duration.ofDays(1));
+
+        assertEquals(cached, reiniciado.get("drive-1").orElseThrow());
+        assertFalse(Files.exists(cacheDir.resolve("partial.tmp")));
+        verify(googleDriveService, times(1)).downloadFile("drive-1");
+    }
+
+    @Test
+    void invalidate_DeletesCachedFile() throws IOException {
+        DriveBlobCache cache = cache(1024, Duration.ofDays(1));
+        Path cached = cache.get("drive-1").orElseThrow();
+
+        cache.invalidate("drive-1");
+
+        assertFalse(Files.exists(cached));
+        assertEquals(0, cache.totalBytes());
+    }
+
+    @Test
+    void get_DisabledCacheReturnsEmpty() throws IOException {
+        DriveBlobCache cache = new DriveBlobCache(googleDriveService, meterRegistry, false,
+                cacheDir.toString(), 1024, Duration.ofDays(1));
+        cache.init();
+
+        assertTrue(cache.get("drive-1").isEmpty());
+        verify(googleDriveService, never()).downloadFile(anyString());
+    }
+}
@@ -0,0 +1,188 @@
+package br.adv.cra.service;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.SslUtils;
+import com.google.api.services.drive.Drive;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one Drive download through GoogleDriveService, before and after the
+ * shared client.
+ *
+ * perCallClient reproduces the old createDriveService path: a new trusted transport,
+ * credential and Drive client for every call, so every call also opens a new TLS
+ * connection. sharedClient goes through the service, which reuses one client and its
+ * pooled keep-alive connections. Both talk HTTPS to a local stub Drive server whose
+ * self-signed certificate (generated with keytool) replaces Google's trust store.
+ *
+ * Not run by surefire. Run it with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.adv.cra.service.GoogleDriveClientBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GoogleDriveClientBenchmark {
+
+    private static final byte[] CONTENT = new byte[4096];
+
+    private static final char[] PASSWORD = "benchmark".toCharArray();
+
+    private HttpServer server;
+    private KeyStore trustStore;
+    private String rootUrl;
+    private GoogleDriveService googleDriveService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, GeneralSecurityException, InterruptedException {
+        // Outside Spring logback falls back to DEBUG, which would dominate the measurement
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        KeyStore serverKeys = generateKeyStore();
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(serverKeys, PASSWORD);
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keyManagers.getKeyManagers(), null, null);
+
+        trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        trustStore.load(null, null);
+        trustStore.setCertificateEntry("stub", serverKeys.getCertificate("stub"));
+
+        // Without TCP_NODELAY the stub's small writes meet delayed ACKs and every call waits ~40 ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpsServer server = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(serverContext));
+        this.server = server;
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, CONTENT.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(CONTENT);
+            }
+        });
+        server.start();
+        rootUrl = "https://127.0.0.1:" + server.getAddress().getPort() + "/";
+
+        googleDriveService = new GoogleDriveService();
+        ReflectionTestUtils.setField(googleDriveService, "clientId", "benchmark-client-id");
+        ReflectionTestUtils.setField(googleDriveService, "clientSecret", "benchmark-client-secret");
+        ReflectionTestUtils.setField(googleDriveService, "rootUrl", rootUrl);
+        // Same pooled transport the service builds, trusting the stub instead of Google's CAs
+        SSLContext clientContext = SslUtils.getTlsSslContext();
+        SslUtils.initSslContext(clientContext, trustStore, SslUtils.getPkixTrustManagerFactory());
+        ReflectionTestUtils.setField(googleDriveService, "httpTransport", new ApacheHttpTransport(
+                ApacheHttpTransport.newDefaultHttpClientBuilder()
+                        .setSSLSocketFactory(new SSLConnectionSocketFactory(clientContext))
+                        .build()));
+        googleDriveService.setTokens("benchmark-token", null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        googleDriveService.shutdown();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int perCallClient() throws IOException, GeneralSecurityException {
+        // GoogleNetHttpTransport.newTrustedTransport(), with the stub's certificate
+        HttpTransport transport = new NetHttpTransport.Builder().trustCertificates(trustStore).build();
+        GoogleCredential credential = new GoogleCredential.Builder()
+                .setTransport(transport)
+                .setJsonFactory(GsonFactory.getDefaultInstance())
+                .setClientSecrets("benchmark-client-id", "benchmark-client-secret")
+                .build();
+        credential.setAccessToken("benchmark-token");
+        HttpRequestInitializer requestInitializer = request -> {
+            credential.initialize(request);
+            request.setConnectTimeout(30000);
+            request.setReadTimeout(30000);
+        };
+        Drive drive = new Drive.Builder(transport, GsonFactory.getDefaultInstance(), requestInitializer)
+                .setApplicationName("CRA Backend")
+                .setRootUrl(rootUrl)
+                .build();
+        try (InputStream in = drive.files().get("arquivo").executeMediaAsInputStream()) {
+            return in.readAllBytes().length;
+        }
+    }
+
+    @Benchmark
+    public int sharedClient() throws IOException {
+        try (InputStream in = googleDriveService.downloadFile("arquivo")) {
+            return in.readAllBytes().length;
+        }
+    }
+
+    private static KeyStore generateKeyStore() throws IOException, GeneralSecurityException, InterruptedException {
+        Path file = Files.createTempFile("cra-drive-stub", ".p12");
+        Files.delete(file);
+        try {
+            Process keytool = new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                    "-genkeypair", "-alias", "stub", "-keyalg", "EC", "-dname", "CN=localhost",
+                    "-ext", "SAN=ip:127.0.0.1,dns:localhost", "-validity", "1",
+                    "-storetype", "PKCS12", "-keystore", file.toString(),
+                    "-storepass", new String(PASSWORD), "-keypass", new String(PASSWORD))
+                    .inheritIO()
+                    .start();
+            if (keytool.waitFor() != 0) {
+                throw new IOException("keytool failed");
+            }
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Files.newInputStream(file)) {
+                keyStore.load(in, PASSWORD);
+            }
+            return keyStore;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GoogleDriveClientBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
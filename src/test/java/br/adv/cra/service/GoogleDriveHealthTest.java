@@ -0,0 +1,107 @@
+package br.adv.cra.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleDriveHealthTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void onFailure_OpensAfterThresholdAndFailsFast() {
+        GoogleDriveHealth health = new GoogleDriveHealth(meterRegistry, 3, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(health.tryAcquire());
+            health.onFailure("download: HTTP 503");
+        }
+
+        assertEquals(GoogleDriveHealth.State.OPEN, health.getState());
+        assertFalse(health.tryAcquire());
+        assertEquals(false, health.cachedAvailability());
+        assertEquals(1.0, meterRegistry.get("google.drive.circuit.state").tag("state", "open").gauge().value());
+        assertEquals(1.0, meterRegistry.get("google.drive.circuit.transitions")
+                .tag("from", "closed").tag("to", "open").counter().count());
+        assertEquals("download: HTTP 503", health.snapshot().get("lastFailure"));
+    }
+
+    @Test
+    void onSuccess_ResetsConsecutiveFailures() {
+        GoogleDriveHealth health = new GoogleDriveHealth(meterRegistry, 2, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        health.onFailure("upload failed");
+        health.onSuccess();
+        health.onFailure("upload failed");
+
+        assertEquals(GoogleDriveHealth.State.CLOSED, health.getState());
+    }
+
+    @Test
+    void halfOpen_AllowsSingleTrialAndClosesOnSuccess() {
+        GoogleDriveHealth health = new GoogleDriveHealth(meterRegistry, 1, Duration.ZERO, Duration.ofMinutes(1));
+        health.onFailure("about: HTTP 500");
+
+        assertTrue(health.tryAcquire());
+        assertEquals(GoogleDriveHealth.State.HALF_OPEN, health.getState());
+        assertFalse(health.tryAcquire(), "Only one trial call while half-open");
+
+        health.onSuccess();
+
+        assertEquals(GoogleDriveHealth.State.CLOSED, health.getState());
+        assertTrue(health.tryAcquire());
+        assertEquals(1.0, meterRegistry.get("google.drive.circuit.transitions")
+                .tag("from", "half_open").tag("to", "closed").counter().count());
+    }
+
+    @Test
+    void halfOpen_ReopensOnFailure() {
+        GoogleDriveHealth health = new GoogleDriveHealth(meterRegistry, 1, Duration.ofMillis(50), Duration.ofMinutes(1));
+        health.onFailure("delete: HTTP 502");
+        assertFalse(health.tryAcquire());
+
+        try {
+            Thread.sleep(60);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        assertTrue(health.tryAcquire());
+        health.onFailure("delete: HTTP 502");
+
+        assertEquals(GoogleDriveHealth.State.OPEN, health.getState());
+        assertFalse(health.tryAcquire());
+    }
+
+    @Test
+    void cachedAvailability_ExpiresAndIsInvalidated() {
+        GoogleDriveHealth health = new GoogleDriveHealth(meterRegistry, 5, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        assertNull(health.cachedAvailability());
+
+        health.cacheAvailability(true);
+        assertEquals(true, health.cachedAvailability());
+
+        health.invalidateAvailability();
+        assertNull(health.cachedAvailability());
+
+        GoogleDriveHealth semCache = new GoogleDriveHealth(meterRegistry, 5, Duration.ofMinutes(1), Duration.ZERO);
+        semCache.cacheAvailability(true);
+        assertNull(semCache.cachedAvailability());
+    }
+
+    @Test
+    void isDriveFailure_OnlyThrottlingAndServerErrors() {
+        assertTrue(GoogleDriveHealth.isDriveFailure(429));
+        assertTrue(GoogleDriveHealth.isDriveFailure(503));
+        assertFalse(GoogleDriveHealth.isDriveFailure(404));
+        assertFalse(GoogleDriveHealth.isDriveFailure(401));
+    }
+}
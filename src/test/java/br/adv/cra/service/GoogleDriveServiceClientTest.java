@@ -0,0 +1,139 @@
+package br.adv.cra.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleDriveServiceClientTest {
+
+    private HttpServer server;
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private GoogleDriveService googleDriveService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Local stand-in for the Drive API
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            String resposta = exchange.getRequestURI().getPath().endsWith("/about")
+                    ? "{\"kind\":\"drive#about\",\"user\":{\"emailAddress\":\"cra@example.com\"}}"
+                    : "conteudo";
+            byte[] body = resposta.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type",
+                    resposta.startsWith("{") ? "application/json" : "application/octet-stream");
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        googleDriveService = new GoogleDriveService();
+        ReflectionTestUtils.setField(googleDriveService, "clientId", "test-client-id");
+        ReflectionTestUtils.setField(googleDriveService, "clientSecret", "test-client-secret");
+        ReflectionTestUtils.setField(googleDriveService, "rootUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    @AfterEach
+    void tearDown() {
+        googleDriveService.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void downloadFile_ReusesClientAndConnection() throws IOException {
+        // Prepare test data
+        googleDriveService.setTokens("token-1", null);
+
+        // Execute the method
+        String primeiro = read(googleDriveService.downloadFile("arquivo-1"));
+        Object client = ReflectionTestUtils.getField(googleDriveService, "drive");
+        String segundo = read(googleDriveService.downloadFile("arquivo-2"));
+
+        // Verify results
+        assertEquals("conteudo", primeiro);
+        assertEquals("conteudo", segundo);
+        assertSame(client, ReflectionTestUtils.getField(googleDriveService, "drive"));
+        assertEquals(2, authorizations.size());
+        assertEquals(1, clientPorts.size(), "Both calls should use the same keep-alive connection");
+    }
+
+    @Test
+    void setTokens_UpdatesCredentialInPlace() throws IOException {
+        // Prepare test data
+        googleDriveService.setTokens("token-1", null);
+        read(googleDriveService.downloadFile("arquivo"));
+        Object client = ReflectionTestUtils.getField(googleDriveService, "drive");
+
+        // Execute the method
+        googleDriveService.setTokens("token-2", null);
+        read(googleDriveService.downloadFile("arquivo"));
+
+        // Verify results
+        assertEquals(List.of("Bearer token-1", "Bearer token-2"), authorizations);
+        assertSame(client, ReflectionTestUtils.getField(googleDriveService, "drive"));
+    }
+
+    @Test
+    void isGoogleDriveAvailable_CachesProbeResult() {
+        // Prepare test data
+        googleDriveService.setTokens("token-1", null);
+
+        // Execute the method
+        boolean primeiro = googleDriveService.isGoogleDriveAvailable();
+        boolean segundo = googleDriveService.isGoogleDriveAvailable();
+
+        // Verify results
+        assertTrue(primeiro);
+        assertTrue(segundo);
+        assertEquals(1, authorizations.size(), "The second check should come from the cache");
+        assertEquals(true, googleDriveService.getCircuitStatus().get("available"));
+    }
+
+    @Test
+    void downloadFile_FailsFastWhileCircuitIsOpen() {
+        // Prepare test data
+        googleDriveService.setHealth(new GoogleDriveHealth(new SimpleMeterRegistry(), 1,
+                Duration.ofMinutes(1), Duration.ofMinutes(1)));
+        googleDriveService.setTokens("token-1", null);
+        status.set(503);
+
+        // Execute the method
+        boolean disponivel = googleDriveService.isGoogleDriveAvailable();
+
+        // Verify results
+        assertFalse(disponivel);
+        assertEquals("OPEN", googleDriveService.getCircuitStatus().get("state"));
+        assertThrows(GoogleDriveUnavailableException.class, () -> googleDriveService.downloadFile("arquivo"));
+        assertEquals(1, authorizations.size(), "No request should reach Drive while the circuit is open");
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
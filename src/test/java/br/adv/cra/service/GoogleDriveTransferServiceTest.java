@@ -0,0 +1,127 @@
+package br.adv.cra.service;
+
+import br.adv.cra.entity.SoliArquivo;
+import br.adv.cra.repository.SoliArquivoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GoogleDriveTransferServiceTest {
+
+    @Mock
+    private SoliArquivoRepository soliArquivoRepository;
+
+    @Mock
+    private SoliArquivoService soliArquivoService;
+
+    @Mock
+    private GoogleDriveService googleDriveService;
+
+    @TempDir
+    Path uploadDir;
+
+    private GoogleDriveTransferService transferService;
+    private SoliArquivo pendente;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        transferService = new GoogleDriveTransferService(soliArquivoRepository, soliArquivoService,
+                googleDriveService, new SimpleMeterRegistry(), 1, 10, false);
+
+        Path blob = Files.writeString(uploadDir.resolve("blob"), "Test content");
+        pendente = new SoliArquivo();
+        pendente.setId(1L);
+        pendente.setNomearquivo("procuracao.pdf");
+        pendente.setCaminhofisico(blob.toString());
+        pendente.setStorageLocation(SoliArquivoService.GOOGLE_DRIVE_PENDENTE);
+        when(soliArquivoRepository.findById(1L)).thenReturn(Optional.of(pendente));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transferService.shutdown();
+    }
+
+    @Test
+    void testTransferirUploadsAndCompletes() throws IOException {
+        when(googleDriveService.uploadFile(eq("procuracao.pdf"), eq("application/pdf"), any(InputStream.class)))
+                .thenReturn("drive-1");
+        when(soliArquivoService.concluirTransferenciaDrive(1L, "drive-1")).thenReturn(true);
+
+        transferService.transferir(1L);
+
+        verify(soliArquivoService).concluirTransferenciaDrive(1L, "drive-1");
+        verify(soliArquivoService, never()).registrarFalhaTransferencia(any(), any());
+        verify(googleDriveService, never()).deleteFile(anyString());
+    }
+
+    @Test
+    void testTransferirRecordsFailure() throws IOException {
+        when(googleDriveService.uploadFile(anyString(), anyString(), any(InputStream.class)))
+                .thenThrow(new IOException("Connection reset"));
+
+        transferService.transferir(1L);
+
+        verify(soliArquivoService).registrarFalhaTransferencia(1L, "Connection reset");
+        verify(soliArquivoService, never()).concluirTransferenciaDrive(any(), any());
+    }
+
+    @Test
+    void testTransferirDefersWhileCircuitIsOpen() throws IOException {
+        when(googleDriveService.uploadFile(anyString(), anyString(), any(InputStream.class)))
+                .thenThrow(new GoogleDriveUnavailableException("circuit open"));
+
+        transferService.transferir(1L);
+
+        verify(soliArquivoService, never()).registrarFalhaTransferencia(any(), any());
+        verify(soliArquivoService, never()).concluirTransferenciaDrive(any(), any());
+    }
+
+    @Test
+    void testTransferirDeletesDriveFileWhenAttachmentWasDeleted() throws IOException {
+        when(googleDriveService.uploadFile(anyString(), anyString(), any(InputStream.class))).thenReturn("drive-1");
+        when(soliArquivoService.concluirTransferenciaDrive(1L, "drive-1")).thenReturn(false);
+
+        transferService.transferir(1L);
+
+        verify(googleDriveService).deleteFile("drive-1");
+    }
+
+    @Test
+    void testTransferirSkipsAttachmentNoLongerPending() throws IOException {
+        pendente.setStorageLocation("google_drive");
+
+        transferService.transferir(1L);
+
+        verify(googleDriveService, never()).uploadFile(anyString(), anyString(), any(InputStream.class));
+    }
+
+    @Test
+    void testTransferirPendentesSubmitsDueRows() throws IOException {
+        when(soliArquivoRepository.findTop50ByStorageLocationAndTransferenciaProximaBeforeOrderByTransferenciaProxima(
+                eq(SoliArquivoService.GOOGLE_DRIVE_PENDENTE), any())).thenReturn(List.of(pendente));
+        when(googleDriveService.uploadFile(anyString(), anyString(), any(InputStream.class))).thenReturn("drive-1");
+        when(soliArquivoService.concluirTransferenciaDrive(1L, "drive-1")).thenReturn(true);
+
+        transferService.transferirPendentes();
+
+        verify(soliArquivoService, timeout(5000)).concluirTransferenciaDrive(1L, "drive-1");
+    }
+}
@@ -0,0 +1,177 @@
+package br.adv.cra.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process search on a generated table of one million rows: the unindexed
+ * LIKE '%...%' of /buscar/parte against the pg_trgm queries of ProcessoBuscaService.
+ *
+ * Needs PostgreSQL with the pg_trgm and unaccent extensions available. It creates a
+ * minimal "processo" table, fills it once and applies database/processo-trigram.sql,
+ * so point it at a scratch database, never at the application's:
+ * -Dcra.benchmark.url=jdbc:postgresql://localhost:5432/cra_benchmark
+ * -Dcra.benchmark.user=postgres -Dcra.benchmark.password=postgres
+ *
+ * Not run by surefire. Run it with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.adv.cra.service.ProcessoBuscaBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessoBuscaBenchmark {
+
+    private static final int LINHAS = 1_000_000;
+    private static final int LIMITE = 20;
+
+    private static final String CRIAR_TABELA_SQL =
+            "CREATE TABLE IF NOT EXISTS processo (" +
+            "idprocesso bigserial PRIMARY KEY, numeroprocesso varchar(255), numeroprocessopesq varchar(255), " +
+            "parte varchar(255), adverso varchar(255), assunto text)";
+
+    // Names repeat with different combinations, so a query matches many rows and the
+    // ranking has to pick among them, as in a real client base
+    private static final String GERAR_SQL =
+            "INSERT INTO processo (numeroprocesso, numeroprocessopesq, parte, adverso, assunto) " +
+            "SELECT lpad(g::text, 7, '0') || '-' || lpad((g % 97)::text, 2, '0') || '.' || (2000 + g % 25) " +
+            "       || '.8.26.' || lpad((g % 9973)::text, 4, '0'), " +
+            "       lpad(g::text, 7, '0') || lpad((g % 97)::text, 2, '0') || (2000 + g % 25) || '826' || lpad((g % 9973)::text, 4, '0'), " +
+            "       n[1 + g % 20] || ' ' || s[1 + (g / 20) % 20] || ' ' || s[1 + (g / 400) % 20], " +
+            "       e[1 + g % 10], " +
+            "       a[1 + g % 8] || ' - ' || s[1 + (g / 7) % 20] " +
+            "FROM generate_series(1, ?) g, " +
+            "     (SELECT ARRAY['João','Maria','José','Ana','Antônio','Francisca','Carlos','Luíza','Paulo','Márcia'," +
+            "                   'Pedro','Adriana','Lucas','Juliana','Luís','Fernanda','Marcos','Patrícia','Gabriel','Aline'] AS n, " +
+            "             ARRAY['Silva','Santos','Oliveira','Souza','Rodrigues','Ferreira','Alves','Pereira','Lima','Gomes'," +
+            "                   'Ribeiro','Carvalho','Araújo','Martins','Rocha','Conceição','Barbosa','Lopes','Simões','Magalhães'] AS s, " +
+            "             ARRAY['Banco do Brasil S.A.','Caixa Econômica Federal','Itaú Unibanco S.A.','Bradesco S.A.'," +
+            "                   'Telefônica Brasil S.A.','Claro S.A.','Município de São Paulo','Estado de São Paulo'," +
+            "                   'INSS','Companhia de Saneamento Básico'] AS e, " +
+            "             ARRAY['Ação de cobrança','Indenização por danos morais','Execução de título extrajudicial'," +
+            "                   'Revisão contratual','Reclamação trabalhista','Despejo por falta de pagamento'," +
+            "                   'Busca e apreensão','Alimentos'] AS a) nomes";
+
+    private static final String LIKE_SQL =
+            "SELECT idprocesso FROM processo WHERE parte LIKE ? ORDER BY idprocesso DESC LIMIT " + LIMITE;
+
+    private static final String TRIGRAM_SQL =
+            "SELECT idprocesso, word_similarity(?, busca_trgm) AS similaridade FROM processo " +
+            "WHERE ? <% busca_trgm ORDER BY similaridade DESC, idprocesso DESC LIMIT " + LIMITE;
+
+    private static final String TRIGRAM_NUMERO_SQL =
+            "SELECT idprocesso, word_similarity(?, busca_trgm) AS similaridade FROM processo " +
+            "WHERE busca_trgm LIKE ? ORDER BY similaridade DESC, idprocesso DESC LIMIT " + LIMITE;
+
+    /**
+     * An exact name, a name with a typo and missing accents, and a rare surname.
+     */
+    @Param({"Antônio Rocha", "antonio roxa", "Magalhães Simões"})
+    public String consulta;
+
+    private Connection connection;
+    private PreparedStatement like;
+    private PreparedStatement trigram;
+    private PreparedStatement trigramNumero;
+    private String termo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        connection = DriverManager.getConnection(
+                System.getProperty("cra.benchmark.url", "jdbc:postgresql://localhost:5432/cra_benchmark"),
+                System.getProperty("cra.benchmark.user", "postgres"),
+                System.getProperty("cra.benchmark.password", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CRIAR_TABELA_SQL);
+            if (contarLinhas(statement) != LINHAS) {
+                statement.execute("TRUNCATE processo RESTART IDENTITY");
+                try (PreparedStatement gerar = connection.prepareStatement(GERAR_SQL)) {
+                    gerar.setInt(1, LINHAS);
+                    gerar.executeUpdate();
+                }
+            }
+            statement.execute(Files.readString(Path.of("database", "processo-trigram.sql")));
+            statement.execute("ANALYZE processo");
+            statement.execute("SET pg_trgm.word_similarity_threshold = 0.4");
+        }
+        termo = ProcessoBuscaService.termo(consulta);
+        like = connection.prepareStatement(LIKE_SQL);
+        trigram = connection.prepareStatement(TRIGRAM_SQL);
+        trigramNumero = connection.prepareStatement(TRIGRAM_NUMERO_SQL);
+    }
+
+    private static long contarLinhas(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM processo")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private static int contar(PreparedStatement query) throws SQLException {
+        int linhas = 0;
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                linhas++;
+            }
+        }
+        return linhas;
+    }
+
+    @Benchmark
+    public int likeSemIndice() throws SQLException {
+        like.setString(1, "%" + consulta + "%");
+        return contar(like);
+    }
+
+    @Benchmark
+    public int trigram() throws SQLException {
+        trigram.setString(1, termo);
+        trigram.setString(2, termo);
+        return contar(trigram);
+    }
+
+    @Benchmark
+    public int trigramNumero() throws SQLException {
+        trigramNumero.setString(1, "0012345");
+        trigramNumero.setString(2, "%0012345%");
+        return contar(trigramNumero);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProcessoBuscaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
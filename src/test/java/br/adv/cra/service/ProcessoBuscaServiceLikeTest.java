@@ -0,0 +1,64 @@
+package br.adv.cra.service;
+
+import br.adv.cra.dto.ProcessoBuscaDTO;
+import br.adv.cra.entity.Processo;
+import br.adv.cra.repository.ProcessoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The LIKE fallback against the H2 test database, with the numbers stored formatted.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class ProcessoBuscaServiceLikeTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProcessoRepository processoRepository;
+
+    private ProcessoBuscaService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProcessoBuscaService(jdbcTemplate, processoRepository, "false", 0.4);
+        processo("0001234-56.2024.8.19.0001");
+        processo("0009876-12.2023.8.26.0100");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void processo(String numero) {
+        Processo processo = new Processo();
+        processo.setNumeroprocesso(numero);
+        processo.setParte("Parte " + numero);
+        entityManager.persist(processo);
+    }
+
+    private static List<String> numeros(List<ProcessoBuscaDTO> resultados) {
+        return resultados.stream().map(resultado -> resultado.getProcesso().getNumeroprocesso()).toList();
+    }
+
+    @Test
+    void buscar_MatchesFormattedNumberByAllItsDigits() {
+        // Every separator has to be stripped from the stored number, not only the first one
+        assertEquals(List.of("0001234-56.2024.8.19.0001"), numeros(service.buscar("0001234-56.2024.8.19.0001", null)));
+        assertEquals(List.of("0001234-56.2024.8.19.0001"), numeros(service.buscar("1234-56.2024.8.19", null)));
+        assertEquals(List.of("0001234-56.2024.8.19.0001"), numeros(service.buscar("00012345620248190001", null)));
+        assertTrue(service.buscar("0001234-56.2024.8.26.0001", null).isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package br.adv.cra.service;
+
+import br.adv.cra.dto.ProcessoBuscaDTO;
+import br.adv.cra.entity.Processo;
+import br.adv.cra.repository.ProcessoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProcessoBuscaServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProcessoRepository processoRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static Processo processo(Long id) {
+        Processo processo = new Processo();
+        processo.setId(id);
+        return processo;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buscar_KeepsSimilarityOrderAndNormalizesQuery() {
+        // Prepare test data
+        ProcessoBuscaService service = new ProcessoBuscaService(jdbcTemplate, processoRepository, "true", 0.4);
+        when(jdbcTemplate.query(contains("<%"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(
+                        new ProcessoBuscaService.Resultado(7L, 0.9),
+                        new ProcessoBuscaService.Resultado(3L, 0.5)));
+        when(processoRepository.findByIds(List.of(7L, 3L))).thenReturn(List.of(processo(3L), processo(7L)));
+
+        // Execute the method
+        List<ProcessoBuscaDTO> resultados = service.buscar("  João  da SILVA ", 500);
+
+        // Verify results
+        assertEquals(List.of(7L, 3L), resultados.stream().map(item -> item.getProcesso().getId()).toList());
+        assertEquals(0.9, resultados.get(0).getSimilaridade());
+        ArgumentCaptor<SqlParameterSource> parametros = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), parametros.capture(), any(RowMapper.class));
+        assertEquals("joao da silva", parametros.getValue().getValue("termo"));
+        assertEquals(ProcessoBuscaService.MAX_LIMIT, parametros.getValue().getValue("limite"));
+        verify(jdbcTemplate).queryForObject(contains("word_similarity_threshold"), anyMap(), eq(String.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buscar_MatchesProcessNumberDigitsWithoutSimilarityThreshold() {
+        // Prepare test data
+        ProcessoBuscaService service = new ProcessoBuscaService(jdbcTemplate, processoRepository, "true", 0.4);
+        when(jdbcTemplate.query(contains("LIKE"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of());
+
+        // Execute the method
+        List<ProcessoBuscaDTO> resultados = service.buscar("0001234-56.2024", null);
+
+        // Verify results
+        assertTrue(resultados.isEmpty());
+        ArgumentCaptor<MapSqlParameterSource> parametros = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).query(contains("busca_trgm LIKE"), parametros.capture(), any(RowMapper.class));
+        assertEquals("%0001234562024%", parametros.getValue().getValue("padrao"));
+        assertEquals(ProcessoBuscaService.DEFAULT_LIMIT, parametros.getValue().getValue("limite"));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), anyMap(), eq(String.class));
+        verifyNoInteractions(processoRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buscar_FallsBackToLikeWithoutTrigramColumn() {
+        // Prepare test data
+        ProcessoBuscaService service = new ProcessoBuscaService(jdbcTemplate, processoRepository, "auto", 0.4);
+        when(jdbcTemplate.queryForObject(anyString(), anyMap(), eq(Integer.class))).thenReturn(0);
+        when(jdbcTemplate.query(contains("LOWER(parte)"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(new ProcessoBuscaService.Resultado(4L, 1.0)));
+        when(processoRepository.findByIds(List.of(4L))).thenReturn(List.of(processo(4L)));
+
+        // Execute the method
+        List<ProcessoBuscaDTO> resultados = service.buscar("100%_Ação", null);
+
+        // Verify results
+        assertFalse(service.usaTrigram());
+        assertEquals(1, resultados.size());
+        ArgumentCaptor<MapSqlParameterSource> parametros = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), parametros.capture(), any(RowMapper.class));
+        assertEquals("%100\\%\\_acao%", parametros.getValue().getValue("padrao"));
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), anyMap(), eq(Integer.class));
+    }
+
+    @Test
+    void buscar_RejectsBlankQuery() {
+        ProcessoBuscaService service = new ProcessoBuscaService(jdbcTemplate, processoRepository, "false", 0.4);
+
+        assertThrows(IllegalArgumentException.class, () -> service.buscar("   ", null));
+        assertThrows(IllegalArgumentException.class, () -> service.buscar(null, null));
+    }
+
+    @Test
+    void termo_UsesDigitsForProcessNumbersAndNormalizedTextOtherwise() {
+        assertEquals("00012345620248260100", ProcessoBuscaService.termo("0001234-56.2024.8.26.0100"));
+        assertEquals("acao de cobranca 2024", ProcessoBuscaService.termo("Ação de  Cobrança 2024"));
+    }
+}
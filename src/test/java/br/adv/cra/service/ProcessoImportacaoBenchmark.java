@@ -0,0 +1,144 @@
+package br.adv.cra.service;
+
+import br.adv.cra.CraBackendApplication;
+import br.adv.cra.dto.ImportacaoProcessoDTO;
+import br.adv.cra.entity.Comarca;
+import br.adv.cra.entity.Uf;
+import br.adv.cra.repository.ComarcaRepository;
+import br.adv.cra.repository.UfRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import of a generated CSV of 50 000 processos, from the stored file to the last
+ * batch committed; linhasPorSegundo is printed after each run, against the target of
+ * 10 000 rows/s. Every row has a CNJ number and a comarca resolved by name, so the
+ * duplicate checks and the reference lookups are part of the cost.
+ *
+ * Runs the application with the test profile (H2 in memory), so it measures the
+ * parsing and batching overhead rather than PostgreSQL; the table is emptied before
+ * each invocation. A figure above the target here is necessary, not sufficient: in
+ * prod each batch also pays the network round trips of its two duplicate-check
+ * SELECTs and of the INSERTs that reWriteBatchedInserts produces.
+ *
+ * No result has been recorded yet, so the target is unverified until this is run.
+ *
+ * Not run by surefire. Run it with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.adv.cra.service.ProcessoImportacaoBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProcessoImportacaoBenchmark {
+
+    private static final int LINHAS = 50_000;
+    private static final double META_LINHAS_POR_SEGUNDO = 10_000;
+    private static final String[] COMARCAS = {"São Paulo", "Campinas", "Santos", "Ribeirão Preto", "Sorocaba"};
+
+    @Param({"500", "1000", "5000"})
+    public int tamanhoLote;
+
+    private ConfigurableApplicationContext context;
+    private ProcessoImportacaoService importacaoService;
+    private JdbcTemplate jdbcTemplate;
+    private Path diretorio;
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("importacao-benchmark");
+        context = new SpringApplicationBuilder(CraBackendApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.br.adv.cra=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "file.upload-dir=" + diretorio,
+                        "app.processo.importacao.batch-size=" + tamanhoLote)
+                .run();
+        importacaoService = context.getBean(ProcessoImportacaoService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Uf uf = context.getBean(UfRepository.class).save(new Uf(null, "SP", "São Paulo"));
+        ComarcaRepository comarcaRepository = context.getBean(ComarcaRepository.class);
+        for (String nome : COMARCAS) {
+            Comarca comarca = new Comarca();
+            comarca.setNome(nome);
+            comarca.setUf(uf);
+            comarca.setAtivo(true);
+            comarcaRepository.save(comarca);
+        }
+
+        csv = diretorio.resolve("processos.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("numeroprocesso;parte;adverso;assunto;comarca;datadistribuicao\n");
+            for (int i = 1; i <= LINHAS; i++) {
+                out.write(String.format("%07d-%02d.%d.8.26.%04d;Parte %d;Banco %d S.A.;Ação de cobrança;%s;%02d/%02d/%d%n",
+                        i, i % 97, 2000 + i % 25, i % 9973, i, i % 50, COMARCAS[i % COMARCAS.length],
+                        1 + i % 28, 1 + i % 12, 2000 + i % 25));
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void limpar() {
+        jdbcTemplate.update("DELETE FROM processo");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public long importar() throws Exception {
+        ImportacaoProcessoDTO importacao;
+        try (var conteudo = Files.newInputStream(csv)) {
+            importacao = importacaoService.iniciar(conteudo, "processos.csv", null, null);
+        }
+        while (importacao.getSituacao() == ImportacaoProcessoDTO.Situacao.AGUARDANDO
+                || importacao.getSituacao() == ImportacaoProcessoDTO.Situacao.PROCESSANDO) {
+            Thread.sleep(10);
+            importacao = importacaoService.status(importacao.getId()).orElseThrow();
+        }
+        System.out.printf("%n%d rows, %d inserted, %.0f rows/s (target %.0f: %s)%n",
+                importacao.getLinhasLidas(), importacao.getInseridas(), importacao.getLinhasPorSegundo(),
+                META_LINHAS_POR_SEGUNDO, importacao.getLinhasPorSegundo() >= META_LINHAS_POR_SEGUNDO ? "met" : "missed");
+        return importacao.getInseridas();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProcessoImportacaoBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
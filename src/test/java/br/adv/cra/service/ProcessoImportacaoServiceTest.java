@@ -0,0 +1,280 @@
+package br.adv.cra.service;
+
+import br.adv.cra.dto.AutocompleteDTO;
+import br.adv.cra.dto.ImportacaoProcessoDTO;
+import br.adv.cra.dto.ImportacaoProcessoDTO.Situacao;
+import br.adv.cra.repository.ComarcaRepository;
+import br.adv.cra.repository.OrgaoRepository;
+import br.adv.cra.repository.ProcessoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ProcessoImportacaoServiceTest {
+
+    private static final String CNJ = "0001234-71.2024.8.26.0100";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProcessoService processoService;
+
+    @Mock
+    private ProcessoRepository processoRepository;
+
+    @Mock
+    private ComarcaRepository comarcaRepository;
+
+    @Mock
+    private OrgaoRepository orgaoRepository;
+
+    @TempDir
+    Path uploadDir;
+
+    private ProcessoImportacaoService importacaoService;
+    private final List<ProcessoImportacaoService.Linha> inseridas = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(comarcaRepository.findAutocomplete()).thenReturn(List.of(
+                new AutocompleteDTO(1L, "São Paulo"),
+                new AutocompleteDTO(2L, "Campinas"),
+                new AutocompleteDTO(3L, "Bom Jesus"),
+                new AutocompleteDTO(4L, "Bom Jesus")));
+        when(orgaoRepository.findAutocomplete()).thenReturn(List.of(new AutocompleteDTO(5L, "1ª Vara Cível")));
+        when(processoRepository.findNumeroprocessoExistentes(anyCollection())).thenReturn(List.of("EXISTENTE-1"));
+        when(processoService.numerosCnjExistentes(anyCollection())).thenReturn(Set.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    inseridas.addAll((Collection<ProcessoImportacaoService.Linha>) invocation.getArgument(1));
+                    return new int[0][];
+                });
+
+        importacaoService = new ProcessoImportacaoService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                processoService, processoRepository, comarcaRepository, orgaoRepository, new ObjectMapper(),
+                new SimpleMeterRegistry(), uploadDir.toString(), 1, 2, 10, Duration.ofHours(1), false);
+    }
+
+    private ImportacaoProcessoDTO importar(String formato, String conteudo) throws IOException {
+        return importar(formato, conteudo, StandardCharsets.UTF_8);
+    }
+
+    private ImportacaoProcessoDTO importar(String formato, String conteudo, Charset charset) throws IOException {
+        Path arquivo = uploadDir.resolve("importacao." + formato);
+        Files.writeString(arquivo, conteudo, charset);
+        ProcessoImportacaoService.Importacao importacao =
+                new ProcessoImportacaoService.Importacao("1", "processos." + formato, formato, charset, arquivo, 10);
+        importacaoService.executar(importacao);
+        assertFalse(Files.exists(arquivo));
+        return importacao.toDTO();
+    }
+
+    @Test
+    void executar_Csv_InsertsValidRowsAndReportsTheOthers() throws IOException {
+        // Prepare test data
+        String csv = "﻿Número Processo;Parte;Comarca;Orgao_Id;Data Distribuição;Quant Soli\n"
+                + CNJ + ";\"Silva; João\";sao paulo;5;15/03/2024;2\n"
+                + "00012347120248260100;Outro;Campinas;;;\n"
+                + "EXISTENTE-1;Maria;;;;\n"
+                + "123;Ana;Sorocaba;;;\n"
+                + "456;Ana;Bom Jesus;;;\n"
+                + "789;Ana;;;31-12-2024;\n"
+                + "790;Ana;Campinas;;2024-01-10;\n";
+
+        // Execute
+        ImportacaoProcessoDTO resultado = importar("csv", csv);
+
+        // Verify
+        assertEquals(Situacao.CONCLUIDA, resultado.getSituacao());
+        assertEquals(7, resultado.getLinhasLidas());
+        assertEquals(2, resultado.getInseridas());
+        assertEquals(2, resultado.getDuplicadas());
+        assertEquals(3, resultado.getRejeitadas());
+        assertEquals(5, resultado.getErros().size());
+        assertNotNull(resultado.getConcluidaEm());
+
+        ProcessoImportacaoService.Linha primeira = inseridas.get(0);
+        assertEquals(CNJ, primeira.processo().getNumeroprocesso());
+        assertEquals("00012347120248260100", primeira.processo().getNumerocnj());
+        assertEquals(26, primeira.processo().getCnjtribunal());
+        assertEquals("Silva; João", primeira.processo().getParte());
+        assertEquals(2, primeira.processo().getQuantsoli());
+        assertEquals(1L, primeira.comarcaId());
+        assertEquals(5L, primeira.orgaoId());
+        assertEquals(2, primeira.numero());
+        assertEquals(2L, inseridas.get(1).comarcaId());
+
+        List<String> mensagens = resultado.getErros().stream().map(ImportacaoProcessoDTO.Erro::getMensagem).toList();
+        assertEquals("Número repetido no arquivo", mensagens.get(0));
+        assertEquals("Processo já cadastrado", mensagens.get(1));
+        assertEquals(4, resultado.getErros().get(1).getLinha());
+        assertEquals("Comarca não encontrado(a): Sorocaba", mensagens.get(2));
+        assertTrue(mensagens.get(3).contains("ambíguo"));
+        assertTrue(mensagens.get(4).startsWith("datadistribuicao"));
+    }
+
+    @Test
+    void executar_Json_ReadsNestedReferencesById() throws IOException {
+        // Prepare test data
+        String json = "[\n"
+                + "  {\"numeroprocesso\": \"111\", \"parte\": \"Ana\", \"comarca\": {\"id\": 2}, \"numorgao\": 3},\n"
+                + "  {\"numeroprocesso\": \"222\", \"orgaoId\": 9}\n"
+                + "]";
+
+        // Execute
+        ImportacaoProcessoDTO resultado = importar("json", json);
+
+        // Verify
+        assertEquals(Situacao.CONCLUIDA, resultado.getSituacao());
+        assertEquals(1, resultado.getInseridas());
+        assertEquals(1, resultado.getRejeitadas());
+        assertEquals(2L, inseridas.get(0).comarcaId());
+        assertEquals(3, inseridas.get(0).processo().getNumorgao());
+        assertEquals("111", inseridas.get(0).processo().getNumeroprocessopesq());
+        assertEquals(3, resultado.getErros().get(0).getLinha());
+        assertEquals("Órgão com ID 9 não encontrado(a)", resultado.getErros().get(0).getMensagem());
+    }
+
+    @Test
+    void executar_RetriesRejectedBatchRowByRow() throws IOException {
+        // Prepare test data
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("lote"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("valor muito longo"));
+
+        // Execute
+        ImportacaoProcessoDTO resultado = importar("csv", "numeroprocesso\n111\n222\n");
+
+        // Verify
+        assertEquals(1, resultado.getInseridas());
+        assertEquals(1, resultado.getRejeitadas());
+        assertEquals("222", resultado.getErros().get(0).getNumeroprocesso());
+        assertEquals("valor muito longo", resultado.getErros().get(0).getMensagem());
+        verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void executar_ReadsLatin1Files() throws IOException {
+        // Execute
+        ImportacaoProcessoDTO resultado = importar("csv", "numeroprocesso;parte\n111;Conceição\n",
+                Charset.forName("ISO-8859-1"));
+
+        // Verify
+        assertEquals(1, resultado.getInseridas());
+        assertEquals("Conceição", inseridas.get(0).processo().getParte());
+    }
+
+    @Test
+    void executar_FailsWithoutNumeroprocessoColumnOrOnMalformedJson() throws IOException {
+        // Execute
+        ImportacaoProcessoDTO semColuna = importar("csv", "parte,comarca\nAna,Campinas\n");
+        ImportacaoProcessoDTO jsonInvalido = importar("json", "{\"numeroprocesso\": \"111\"}");
+
+        // Verify
+        assertEquals(Situacao.FALHOU, semColuna.getSituacao());
+        assertTrue(semColuna.getFalha().contains("numeroprocesso"));
+        assertEquals(Situacao.FALHOU, jsonInvalido.getSituacao());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void removerImportacoesExpiradas_KeepsFileBeingCopied() throws Exception {
+        // Prepare test data
+        byte[] csv = "numeroprocesso\n111\n".getBytes(StandardCharsets.UTF_8);
+        InputStream conteudo = new SequenceInputStream(new ByteArrayInputStream(csv, 0, 10), new InputStream() {
+            private boolean varrido;
+            private final InputStream resto = new ByteArrayInputStream(csv, 10, csv.length - 10);
+
+            @Override
+            public int read() throws IOException {
+                if (!varrido) {
+                    // The sweep runs while the upload is still being copied
+                    varrido = true;
+                    importacaoService.removerImportacoesExpiradas();
+                }
+                return resto.read();
+            }
+        });
+
+        // Execute
+        ImportacaoProcessoDTO iniciada = importacaoService.iniciar(conteudo, "processos.csv", null, null);
+
+        // Verify
+        ImportacaoProcessoDTO status = importacaoService.status(iniciada.getId()).orElseThrow();
+        for (int i = 0; i < 100 && status.getSituacao() != Situacao.CONCLUIDA && status.getSituacao() != Situacao.FALHOU; i++) {
+            Thread.sleep(20);
+            status = importacaoService.status(iniciada.getId()).orElseThrow();
+        }
+        assertEquals(Situacao.CONCLUIDA, status.getSituacao());
+        assertEquals(1, status.getInseridas());
+    }
+
+    @Test
+    void formato_UsesExplicitValueOrExtension() {
+        assertEquals("csv", ProcessoImportacaoService.formato("processos.CSV", null));
+        assertEquals("csv", ProcessoImportacaoService.formato("processos.txt", ""));
+        assertEquals("json", ProcessoImportacaoService.formato("processos.json", null));
+        assertEquals("json", ProcessoImportacaoService.formato("exportacao", "JSON"));
+        assertThrows(IllegalArgumentException.class, () -> ProcessoImportacaoService.formato("processos.xlsx", null));
+    }
+
+    @Test
+    void iniciar_QueuesImportAndStatusReportsIt() throws Exception {
+        // Execute
+        ImportacaoProcessoDTO iniciada = importacaoService.iniciar(
+                new ByteArrayInputStream("numeroprocesso\n111\n".getBytes(StandardCharsets.UTF_8)),
+                "processos.csv", null, null);
+
+        // Verify
+        assertNotNull(iniciada.getId());
+        ImportacaoProcessoDTO status = importacaoService.status(iniciada.getId()).orElseThrow();
+        for (int i = 0; i < 100 && status.getSituacao() != Situacao.CONCLUIDA; i++) {
+            Thread.sleep(20);
+            status = importacaoService.status(iniciada.getId()).orElseThrow();
+        }
+        assertEquals(Situacao.CONCLUIDA, status.getSituacao());
+        assertEquals(1, status.getInseridas());
+        assertTrue(importacaoService.status("desconhecida").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> importacaoService.iniciar(
+                new ByteArrayInputStream(new byte[0]), "processos.csv", null, "nao-existe"));
+    }
+}
@@ -6,17 +6,33 @@ import br.adv.cra.repository.SoliArquivoRepository;
 import br.adv.cra.repository.SolicitacaoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class SoliArquivoServiceTest {
@@ -27,6 +43,18 @@ class SoliArquivoServiceTest {
     @Mock
     private SolicitacaoRepository solicitacaoRepository;
 
+    @Mock
+    private GoogleDriveService googleDriveService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DriveBlobCache driveBlobCache;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private SoliArquivoService soliArquivoService;
 
@@ -202,4 +230,254 @@ class SoliArquivoServiceTest {
         // Verify results
         assertTrue(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSalvarAnexoDeduplicatesContent(@TempDir Path uploadDir) throws IOException {
+        // Prepare test data
+        soliArquivoService.setUploadDir(uploadDir.toString());
+        Solicitacao solicitacao = new Solicitacao();
+        solicitacao.setId(1L);
+        MockMultipartFile procuracao = new MockMultipartFile("file", "procuracao.pdf", "application/pdf", "Procuração".getBytes());
+        MockMultipartFile copia = new MockMultipartFile("file", "procuracao-copia.pdf", "application/pdf", "Procuração".getBytes());
+
+        // Configure mocks
+        when(solicitacaoRepository.findById(1L)).thenReturn(Optional.of(solicitacao));
+        when(soliArquivoRepository.save(any(SoliArquivo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Execute the method
+        SoliArquivo primeiro = soliArquivoService.salvarAnexo(procuracao, 1L, "usuario", "local");
+        SoliArquivo segundo = soliArquivoService.salvarAnexo(copia, 1L, "usuario", "local");
+
+        // Verify results
+        assertNotNull(primeiro.getConteudoHash());
+        assertEquals(primeiro.getConteudoHash(), segundo.getConteudoHash());
+        assertEquals(primeiro.getCaminhofisico(), segundo.getCaminhofisico());
+        assertEquals("procuracao-copia.pdf", segundo.getNomearquivo());
+        Path blob = Path.of(primeiro.getCaminhofisico());
+        assertTrue(blob.startsWith(uploadDir.resolve("blobs")));
+        assertArrayEquals("Procuração".getBytes(), Files.readAllBytes(blob));
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void testSalvarAnexoHashesWhileCopying(@TempDir Path uploadDir) throws Exception {
+        // Prepare test data
+        soliArquivoService.setUploadDir(uploadDir.toString());
+        Solicitacao solicitacao = new Solicitacao();
+        solicitacao.setId(1L);
+        AtomicInteger leituras = new AtomicInteger();
+        MockMultipartFile file = new MockMultipartFile("file", "rg.jpg", "image/jpeg", "RG".getBytes()) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                leituras.incrementAndGet();
+                return super.getInputStream();
+            }
+        };
+
+        // Configure mocks
+        when(solicitacaoRepository.findById(1L)).thenReturn(Optional.of(solicitacao));
+        when(soliArquivoRepository.save(any(SoliArquivo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Execute the method
+        SoliArquivo result = soliArquivoService.salvarAnexo(file, 1L, "usuario", "local");
+
+        // Verify results: a single pass over the content both hashes and stores it
+        assertEquals(1, leituras.get());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest("RG".getBytes())),
+                result.getConteudoHash());
+        assertArrayEquals("RG".getBytes(), Files.readAllBytes(Path.of(result.getCaminhofisico())));
+        try (Stream<Path> files = Files.list(uploadDir.resolve(SoliArquivoService.PARTS_DIR))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testDeletarKeepsSharedBlob(@TempDir Path uploadDir) throws IOException {
+        // Prepare test data
+        SoliArquivo soliArquivo = blobReference(uploadDir);
+
+        // Configure mocks
+        when(soliArquivoRepository.findById(1L)).thenReturn(Optional.of(soliArquivo));
+        when(soliArquivoRepository.countByConteudoHash(soliArquivo.getConteudoHash())).thenReturn(1L);
+
+        // Execute the method
+        soliArquivoService.deletar(1L);
+
+        // Verify results
+        assertTrue(Files.exists(Path.of(soliArquivo.getCaminhofisico())));
+        verify(soliArquivoRepository, times(1)).deleteById(1L);
+    }
+
+    @Test
+    void testDeletarCollectsLastReference(@TempDir Path uploadDir) throws IOException {
+        // Prepare test data
+        SoliArquivo soliArquivo = blobReference(uploadDir);
+
+        // Configure mocks
+        when(soliArquivoRepository.findById(1L)).thenReturn(Optional.of(soliArquivo));
+        when(soliArquivoRepository.countByConteudoHash(soliArquivo.getConteudoHash())).thenReturn(0L);
+
+        // Execute the method
+        soliArquivoService.deletar(1L);
+
+        // Verify results
+        assertFalse(Files.exists(Path.of(soliArquivo.getCaminhofisico())));
+        verify(soliArquivoRepository, times(1)).deleteById(1L);
+    }
+
+    private SoliArquivo blobReference(Path uploadDir) throws IOException {
+        soliArquivoService.setUploadDir(uploadDir.toString());
+        Solicitacao solicitacao = new Solicitacao();
+        solicitacao.setId(1L);
+        when(solicitacaoRepository.findById(1L)).thenReturn(Optional.of(solicitacao));
+        when(soliArquivoRepository.save(any(SoliArquivo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        SoliArquivo soliArquivo = soliArquivoService.salvarAnexo(
+                new MockMultipartFile("file", "rg.jpg", "image/jpeg", "RG".getBytes()), 1L, "correspondente", "local");
+        soliArquivo.setId(1L);
+        return soliArquivo;
+    }
+
+    @Test
+    void testSalvarAnexoFromStream(@TempDir Path uploadDir) throws IOException {
+        // Prepare test data
+        soliArquivoService.setUploadDir(uploadDir.toString());
+        Solicitacao solicitacao = new Solicitacao();
+        solicitacao.setId(1L);
+
+        ByteArrayInputStream conteudo = new ByteArrayInputStream("Test content".getBytes());
+
+        // Configure mocks
+        when(solicitacaoRepository.existsById(1L)).thenReturn(true);
+        when(solicitacaoRepository.findById(1L)).thenAnswer(invocation -> {
+            // The row is loaded, in its own transaction, only after the body was read
+            assertEquals(0, conteudo.available());
+            return Optional.of(solicitacao);
+        });
+        when(soliArquivoRepository.save(any(SoliArquivo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Execute the method
+        SoliArquivo result = soliArquivoService.salvarAnexo(conteudo, "test.txt", "text/plain", 1L, "usuario", "local");
+
+        // Verify results
+        assertEquals("test.txt", result.getNomearquivo());
+        assertArrayEquals("Test content".getBytes(), Files.readAllBytes(Path.of(result.getCaminhofisico())));
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            // Only the blob remains: the stream was written once and renamed into the store
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void testSalvarAnexoFromStreamUnknownSolicitacaoSkipsBody(@TempDir Path uploadDir) {
+        // Prepare test data
+        soliArquivoService.setUploadDir(uploadDir.toString());
+        InputStream conteudo = mock(InputStream.class);
+
+        // Execute the method
+        assertThrows(RuntimeException.class, () -> soliArquivoService.salvarAnexo(conteudo, "test.txt", "text/plain",
+                99L, "usuario", "local"));
+
+        // Verify results
+        verifyNoInteractions(conteudo, transactionTemplate);
+    }
+
+    @Test
+    void testSalvarAnexoGoogleDriveStagesLocally(@TempDir Path uploadDir) throws IOException {
+        // Prepare test data
+        ReflectionTestUtils.setField(soliArquivoService, "googleDriveEnabled", true);
+        SoliArquivo soliArquivo = blobReference(uploadDir);
+        reset(soliArquivoRepository, eventPublisher);
+        when(soliArquivoRepository.save(any(SoliArquivo.class))).thenAnswer(invocation -> {
+            SoliArquivo saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
+
+        // Configure mocks
+        when(googleDriveService.hasValidTokens()).thenReturn(true);
+
+        // Execute the method
+        SoliArquivo result = soliArquivoService.salvarAnexo(
+                new MockMultipartFile("file", "rg.jpg", "image/jpeg", "RG".getBytes()), 1L, "correspondente", "google_drive");
+
+        // Verify results
+        assertEquals(SoliArquivoService.GOOGLE_DRIVE_PENDENTE, result.getStorageLocation());
+        assertEquals(soliArquivo.getCaminhofisico(), result.getCaminhofisico());
+        assertEquals(0, result.getTransferenciaTentativas());
+        verify(eventPublisher).publishEvent(new DriveTransferRequestedEvent(2L));
+        verify(googleDriveService, never()).uploadFile(any(MultipartFile.class));
+    }
+
+    @Test
+    void testConcluirTransferenciaDriveReleasesBlob(@TempDir Path uploadDir) throws IOException {
+        // Prepare test data
+        SoliArquivo soliArquivo = blobReference(uploadDir);
+        soliArquivo.setStorageLocation(SoliArquivoService.GOOGLE_DRIVE_PENDENTE);
+        Path blob = Path.of(soliArquivo.getCaminhofisico());
+
+        // Configure mocks
+        when(soliArquivoRepository.findById(1L)).thenReturn(Optional.of(soliArquivo));
+        when(soliArquivoRepository.countByConteudoHash(anyString())).thenReturn(0L);
+
+        // Execute the method
+        boolean result = soliArquivoService.concluirTransferenciaDrive(1L, "drive-1");
+
+        // Verify results
+        assertTrue(result);
+        assertEquals("google_drive", soliArquivo.getStorageLocation());
+        assertEquals("drive-1", soliArquivo.getGoogleDriveFileId());
+        assertNull(soliArquivo.getCaminhofisico());
+        assertNull(soliArquivo.getConteudoHash());
+        assertFalse(Files.exists(blob));
+    }
+
+    @Test
+    void testRegistrarFalhaTransferenciaBacksOffThenGivesUp() {
+        // Prepare test data
+        ReflectionTestUtils.setField(soliArquivoService, "transferMaxAttempts", 2);
+        SoliArquivo soliArquivo = new SoliArquivo();
+        soliArquivo.setId(1L);
+        soliArquivo.setStorageLocation(SoliArquivoService.GOOGLE_DRIVE_PENDENTE);
+        soliArquivo.setTransferenciaTentativas(0);
+
+        // Configure mocks
+        when(soliArquivoRepository.findById(1L)).thenReturn(Optional.of(soliArquivo));
+
+        // Execute the method
+        soliArquivoService.registrarFalhaTransferencia(1L, "Connection reset");
+
+        // Verify results
+        assertEquals(1, soliArquivo.getTransferenciaTentativas());
+        assertTrue(soliArquivo.getTransferenciaProxima().isAfter(LocalDateTime.now()));
+        assertEquals(SoliArquivoService.GOOGLE_DRIVE_PENDENTE, soliArquivo.getStorageLocation());
+
+        soliArquivoService.registrarFalhaTransferencia(1L, "Connection reset");
+
+        assertEquals("local", soliArquivo.getStorageLocation());
+        assertNull(soliArquivo.getTransferenciaProxima());
+        assertEquals("Connection reset", soliArquivo.getTransferenciaErro());
+    }
+
+    @Test
+    void testGetLocalFilePathServesDriveFileFromCache() throws IOException {
+        // Prepare test data
+        SoliArquivo soliArquivo = new SoliArquivo();
+        soliArquivo.setId(1L);
+        soliArquivo.setStorageLocation("google_drive");
+        soliArquivo.setGoogleDriveFileId("drive-1");
+        Path cached = Path.of(System.getProperty("java.io.tmpdir"), "drive-cache", "abc");
+
+        // Configure mocks
+        when(soliArquivoRepository.findById(1L)).thenReturn(Optional.of(soliArquivo));
+        when(driveBlobCache.get("drive-1")).thenReturn(Optional.of(cached));
+
+        // Execute the method
+        Optional<Path> result = soliArquivoService.getLocalFilePath(1L);
+
+        // Verify results
+        assertEquals(Optional.of(cached), result);
+        verify(googleDriveService, never()).downloadFile(anyString());
+    }
+}
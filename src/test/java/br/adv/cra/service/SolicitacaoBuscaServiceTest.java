@@ -0,0 +1,150 @@
+package br.adv.cra.service;
+
+import br.adv.cra.dto.CursorPageDTO;
+import br.adv.cra.dto.SolicitacaoBuscaDTO;
+import br.adv.cra.dto.SolicitacaoResumoDTO;
+import br.adv.cra.repository.SolicitacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SolicitacaoBuscaServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SolicitacaoRepository solicitacaoRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static SolicitacaoResumoDTO resumo(Long id) {
+        SolicitacaoResumoDTO resumo = new SolicitacaoResumoDTO();
+        resumo.setIdsolicitacao(id);
+        return resumo;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buscar_KeepsRankOrderAndPaginates() {
+        // Prepare test data
+        SolicitacaoBuscaService service = new SolicitacaoBuscaService(jdbcTemplate, solicitacaoRepository, "true");
+        when(jdbcTemplate.query(contains("websearch_to_tsquery"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(
+                        new SolicitacaoBuscaService.Resultado(7L, 0.9, "a"),
+                        new SolicitacaoBuscaService.Resultado(3L, 0.5, "b"),
+                        new SolicitacaoBuscaService.Resultado(5L, 0.1, "c")));
+        when(solicitacaoRepository.findResumoByIds(List.of(7L, 3L))).thenReturn(List.of(resumo(3L), resumo(7L)));
+
+        // Execute the method
+        CursorPageDTO<SolicitacaoBuscaDTO> pagina = service.buscar("citação", "10", 2);
+
+        // Verify results
+        assertEquals(List.of(7L, 3L), pagina.getItems().stream()
+                .map(item -> item.getSolicitacao().getIdsolicitacao()).toList());
+        assertTrue(pagina.isHasMore());
+        assertEquals("12", pagina.getNextCursor());
+        ArgumentCaptor<SqlParameterSource> parametros = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), parametros.capture(), any(RowMapper.class));
+        assertEquals(3, parametros.getValue().getValue("limite"));
+        assertEquals(10, parametros.getValue().getValue("offset"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buscar_FallsBackToLikeWithoutFullTextColumn() {
+        // Prepare test data
+        SolicitacaoBuscaService service = new SolicitacaoBuscaService(jdbcTemplate, solicitacaoRepository, "auto");
+        when(jdbcTemplate.queryForObject(anyString(), anyMap(), eq(Integer.class))).thenReturn(0);
+        when(jdbcTemplate.query(contains("LIKE"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of());
+
+        // Execute the method
+        CursorPageDTO<SolicitacaoBuscaDTO> pagina = service.buscar("50%_off", null, null);
+
+        // Verify results
+        assertFalse(service.usaFullText());
+        assertTrue(pagina.getItems().isEmpty());
+        assertNull(pagina.getNextCursor());
+        ArgumentCaptor<MapSqlParameterSource> parametros = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), parametros.capture(), any(RowMapper.class));
+        assertEquals("%50\\%\\_off%", parametros.getValue().getValue("padrao"));
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), anyMap(), eq(Integer.class));
+    }
+
+    @Test
+    void buscar_RejectsBlankTextAndInvalidCursor() {
+        SolicitacaoBuscaService service = new SolicitacaoBuscaService(jdbcTemplate, solicitacaoRepository, "false");
+
+        assertThrows(IllegalArgumentException.class, () -> service.buscar("  ", null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.buscar("texto", "abc", null));
+        assertThrows(IllegalArgumentException.class, () -> service.buscar("texto", "-1", null));
+        assertThrows(IllegalArgumentException.class, () -> service.buscar("texto", "1000", null));
+        assertThrows(IllegalArgumentException.class, () -> service.buscar("texto", "2147483647", null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buscar_StopsPagingAtMaxResultados() {
+        // Prepare test data
+        SolicitacaoBuscaService service = new SolicitacaoBuscaService(jdbcTemplate, solicitacaoRepository, "false");
+        when(jdbcTemplate.query(contains("LIKE"), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(
+                        new SolicitacaoBuscaService.Resultado(9L, 1, "a"),
+                        new SolicitacaoBuscaService.Resultado(8L, 1, "b"),
+                        new SolicitacaoBuscaService.Resultado(7L, 1, "c")));
+        when(solicitacaoRepository.findResumoByIds(List.of(9L, 8L))).thenReturn(List.of(resumo(9L), resumo(8L)));
+
+        // Execute the method: a page of 20 at 998 is cut to the 2 rows left before the cap
+        CursorPageDTO<SolicitacaoBuscaDTO> pagina = service.buscar("citação", "998", 20);
+
+        // Verify results
+        assertEquals(2, pagina.getItems().size());
+        assertFalse(pagina.isHasMore());
+        assertNull(pagina.getNextCursor());
+        ArgumentCaptor<SqlParameterSource> parametros = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).query(anyString(), parametros.capture(), any(RowMapper.class));
+        assertEquals(3, parametros.getValue().getValue("limite"));
+        assertEquals(998, parametros.getValue().getValue("offset"));
+    }
+
+    @Test
+    void destacar_EscapesHtmlAndMarksMatches() {
+        assertEquals("&lt;b&gt; <mark>citação</mark>",
+                SolicitacaoBuscaService.destacar("<b> \u0002citação\u0003"));
+    }
+
+    @Test
+    void trechoLike_HighlightsEveryOccurrenceAroundFirstMatch() {
+        String conteudo = "x".repeat(100) + " Audiência marcada; confirmar audiência " + "y".repeat(100);
+
+        String trecho = SolicitacaoBuscaService.trechoLike(conteudo, "audiência");
+
+        assertTrue(trecho.startsWith("… "));
+        assertTrue(trecho.endsWith(" …"));
+        assertTrue(trecho.contains("<mark>Audiência</mark> marcada; confirmar <mark>audiência</mark>"));
+    }
+
+    @Test
+    void trechoLike_ReturnsNullWithoutContent() {
+        assertNull(SolicitacaoBuscaService.trechoLike(null, "x"));
+    }
+}
@@ -1,18 +1,25 @@
 package br.adv.cra.service;
 
+import br.adv.cra.dto.CursorPageDTO;
+import br.adv.cra.dto.StatusLoteResultadoDTO;
+import br.adv.cra.dto.StatusLoteResultadoDTO.Resultado;
 import br.adv.cra.entity.Solicitacao;
 import br.adv.cra.entity.StatusSolicitacao;
 import br.adv.cra.repository.SolicitacaoRepository;
 import br.adv.cra.repository.StatusSolicitacaoRepository;
+import br.adv.cra.util.SolicitacaoCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class SolicitacaoServiceTest {
@@ -161,4 +168,160 @@ class SolicitacaoServiceTest {
         verify(statusSolicitacaoRepository, times(1)).findByStatus(statusNome);
         verify(solicitacaoRepository, never()).save(any());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testListarTodasPaginado_FirstPageHasMore() {
+        // Arrange: repository returns size + 1 rows, meaning another page exists
+        when(solicitacaoRepository.findPagina(eq(Long.MAX_VALUE), any())).thenReturn(solicitacoes(10L, 9L, 8L));
+        
+        // Act
+        CursorPageDTO<Solicitacao> pagina = solicitacaoService.listarTodasPaginado(null, 2);
+        
+        // Assert
+        assertEquals(2, pagina.getSize());
+        assertTrue(pagina.isHasMore());
+        assertEquals(9L, SolicitacaoCursor.decode(pagina.getNextCursor()).getId());
+    }
+    
+    @Test
+    void testListarTodasPaginado_LastPage() {
+        // Arrange
+        String cursor = SolicitacaoCursor.ofId(9L).encode();
+        when(solicitacaoRepository.findPagina(eq(9L), any())).thenReturn(solicitacoes(8L));
+        
+        // Act
+        CursorPageDTO<Solicitacao> pagina = solicitacaoService.listarTodasPaginado(cursor, 2);
+        
+        // Assert
+        assertEquals(1, pagina.getSize());
+        assertFalse(pagina.isHasMore());
+        assertNull(pagina.getNextCursor());
+    }
+    
+    @Test
+    void testListarTodasPaginado_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> solicitacaoService.listarTodasPaginado("@@invalido@@", 10));
+        verify(solicitacaoRepository, never()).findPagina(any(), any());
+    }
+    
+    @Test
+    void testSetStatusEmLote_ReportsEveryId() {
+        // Arrange
+        StatusSolicitacao status = new StatusSolicitacao(2L, "Em andamento");
+        when(statusSolicitacaoRepository.findById(2L)).thenReturn(Optional.of(status));
+        when(solicitacaoRepository.findStatusAtual(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                statusAtual(1L, 1L, "Pendente"),
+                statusAtual(2L, 2L, "Em andamento"),
+                statusAtual(3L, 9L, "Concluída")));
+        when(solicitacaoRepository.updateStatus(List.of(1L), status, false, "Concluída")).thenReturn(1);
+        
+        // Act
+        StatusLoteResultadoDTO resultado = solicitacaoService.setStatusEmLote(List.of(1L, 2L, 3L, 4L, 1L), 2L, false);
+        
+        // Assert
+        assertEquals(1, resultado.getAtualizadas());
+        assertEquals("Em andamento", resultado.getStatus());
+        assertEquals(List.of(Resultado.ATUALIZADA, Resultado.INALTERADA, Resultado.PROIBIDA,
+                        Resultado.NAO_ENCONTRADA, Resultado.ATUALIZADA),
+                resultado.getResultados().stream().map(StatusLoteResultadoDTO.Item::getResultado).toList());
+        verify(solicitacaoRepository, never()).saveAndFlush(any());
+    }
+    
+    @Test
+    void testSetStatusEmLote_ConcludedAllowed() {
+        // Arrange
+        StatusSolicitacao status = new StatusSolicitacao(2L, "Em andamento");
+        when(statusSolicitacaoRepository.findById(2L)).thenReturn(Optional.of(status));
+        when(solicitacaoRepository.findStatusAtual(List.of(3L))).thenReturn(List.of(statusAtual(3L, 9L, "Concluída")));
+        when(solicitacaoRepository.updateStatus(List.of(3L), status, true, "Concluída")).thenReturn(1);
+        
+        // Act
+        StatusLoteResultadoDTO resultado = solicitacaoService.setStatusEmLote(List.of(3L), 2L, true);
+        
+        // Assert
+        assertEquals(Resultado.ATUALIZADA, resultado.getResultados().get(0).getResultado());
+    }
+    
+    @Test
+    void testSetStatusEmLote_ConcludedAfterRead() {
+        // Arrange: row 1 is concluded by another transaction between the SELECT and the UPDATE
+        StatusSolicitacao status = new StatusSolicitacao(2L, "Em andamento");
+        when(statusSolicitacaoRepository.findById(2L)).thenReturn(Optional.of(status));
+        when(solicitacaoRepository.findStatusAtual(List.of(1L, 5L))).thenReturn(List.of(
+                statusAtual(1L, 1L, "Pendente"),
+                statusAtual(5L, 1L, "Pendente"))).thenReturn(List.of(
+                statusAtual(1L, 9L, "Concluída"),
+                statusAtual(5L, 2L, "Em andamento")));
+        when(solicitacaoRepository.updateStatus(List.of(1L, 5L), status, false, "Concluída")).thenReturn(1);
+        
+        // Act
+        StatusLoteResultadoDTO resultado = solicitacaoService.setStatusEmLote(List.of(1L, 5L), 2L, false);
+        
+        // Assert
+        assertEquals(1, resultado.getAtualizadas());
+        assertEquals(List.of(Resultado.PROIBIDA, Resultado.ATUALIZADA),
+                resultado.getResultados().stream().map(StatusLoteResultadoDTO.Item::getResultado).toList());
+        verify(solicitacaoRepository, times(2)).findStatusAtual(List.of(1L, 5L));
+    }
+    
+    @Test
+    void testSetStatusEmLote_SplitsLargeBatches() {
+        // Arrange
+        StatusSolicitacao status = new StatusSolicitacao(2L, "Em andamento");
+        when(statusSolicitacaoRepository.findById(2L)).thenReturn(Optional.of(status));
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= SolicitacaoService.STATUS_LOTE_BLOCO + 1; id++) {
+            ids.add(id);
+        }
+        
+        // Act
+        solicitacaoService.setStatusEmLote(ids, 2L, true);
+        
+        // Assert
+        verify(solicitacaoRepository, times(2)).findStatusAtual(any());
+    }
+    
+    @Test
+    void testSetStatusEmLote_StatusNotFound() {
+        when(statusSolicitacaoRepository.findById(99L)).thenReturn(Optional.empty());
+        
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> solicitacaoService.setStatusEmLote(List.of(1L), 99L, true));
+        assertEquals("Status não encontrado", exception.getMessage());
+        verify(solicitacaoRepository, never()).updateStatus(any(), any(), anyBoolean(), any());
+    }
+    
+    @Test
+    void testSetStatusEmLote_EmptyList() {
+        assertThrows(IllegalArgumentException.class, () -> solicitacaoService.setStatusEmLote(List.of(), 1L, true));
+    }
+    
+    private static SolicitacaoRepository.StatusAtual statusAtual(Long id, Long statusId, String status) {
+        return new SolicitacaoRepository.StatusAtual() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public Long getStatusId() {
+                return statusId;
+            }
+            
+            @Override
+            public String getStatus() {
+                return status;
+            }
+        };
+    }
+    
+    private List<Solicitacao> solicitacoes(Long... ids) {
+        List<Solicitacao> lista = new ArrayList<>();
+        for (Long id : ids) {
+            Solicitacao solicitacao = new Solicitacao();
+            solicitacao.setId(id);
+            lista.add(solicitacao);
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,121 @@
+package br.adv.cra.service;
+
+import br.adv.cra.CraBackendApplication;
+import br.adv.cra.entity.Solicitacao;
+import br.adv.cra.entity.StatusSolicitacao;
+import br.adv.cra.repository.SolicitacaoRepository;
+import br.adv.cra.repository.StatusSolicitacaoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moving N solicitacoes to a new status: N calls to setStatus (the per-row
+ * PUT /{id}/status/{statusId} path) against one setStatusEmLote.
+ *
+ * Runs the application with the test profile (H2 in memory). Each invocation flips
+ * every row between two statuses, so both paths really write. H2 has no historico
+ * trigger, so on PostgreSQL both paths pay the same extra insert per updated row.
+ *
+ * Not run by surefire. Run it with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.adv.cra.service.SolicitacaoStatusLoteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolicitacaoStatusLoteBenchmark {
+
+    @Param({"100", "500"})
+    public int solicitacoes;
+
+    private ConfigurableApplicationContext context;
+    private SolicitacaoService solicitacaoService;
+    private List<Long> ids;
+    private Long[] statusIds;
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CraBackendApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.br.adv.cra=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "app.solicitacao.status-lote.max-ids=" + solicitacoes)
+                .run();
+        solicitacaoService = context.getBean(SolicitacaoService.class);
+
+        StatusSolicitacaoRepository statusRepository = context.getBean(StatusSolicitacaoRepository.class);
+        StatusSolicitacao pendente = statusRepository.save(new StatusSolicitacao(null, "Pendente"));
+        StatusSolicitacao andamento = statusRepository.save(new StatusSolicitacao(null, "Em andamento"));
+        statusIds = new Long[] {pendente.getIdstatus(), andamento.getIdstatus()};
+
+        List<Solicitacao> novas = new ArrayList<>();
+        for (int i = 0; i < solicitacoes; i++) {
+            Solicitacao solicitacao = new Solicitacao();
+            solicitacao.setDatasolicitacao(LocalDateTime.now());
+            solicitacao.setStatusSolicitacao(pendente);
+            novas.add(solicitacao);
+        }
+        ids = context.getBean(SolicitacaoRepository.class).saveAll(novas).stream()
+                .map(Solicitacao::getIdsolicitacao)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Long proximoStatus() {
+        proximo = (proximo + 1) % statusIds.length;
+        return statusIds[proximo];
+    }
+
+    @Benchmark
+    public int chamadasIndividuais() {
+        Long statusId = proximoStatus();
+        int atualizadas = 0;
+        for (Long id : ids) {
+            solicitacaoService.setStatus(id, statusId);
+            atualizadas++;
+        }
+        return atualizadas;
+    }
+
+    @Benchmark
+    public int lote() {
+        return solicitacaoService.setStatusEmLote(ids, proximoStatus(), true).getAtualizadas();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SolicitacaoStatusLoteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
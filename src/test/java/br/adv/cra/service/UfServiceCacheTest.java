@@ -0,0 +1,94 @@
+package br.adv.cra.service;
+
+import br.adv.cra.config.CacheConfig;
+import br.adv.cra.entity.Uf;
+import br.adv.cra.repository.UfRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(UfServiceCacheTest.Config.class)
+class UfServiceCacheTest {
+
+    @Configuration
+    @EnableCaching(proxyTargetClass = true)
+    @Import(UfService.class)
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.UFS, CacheConfig.COMARCAS);
+        }
+    }
+
+    @MockBean
+    private UfRepository ufRepository;
+
+    @Autowired
+    private UfService ufService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Uf uf;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+
+        uf = new Uf();
+        uf.setId(1L);
+        uf.setSigla("SP");
+        uf.setNome("São Paulo");
+    }
+
+    @Test
+    void listarTodas_SecondCallIsServedFromCache() {
+        when(ufRepository.findAllOrderByNome()).thenReturn(List.of(uf));
+
+        ufService.listarTodas();
+        List<Uf> result = ufService.listarTodas();
+
+        assertEquals(1, result.size());
+        verify(ufRepository, times(1)).findAllOrderByNome();
+    }
+
+    @Test
+    void buscarPorSigla_IgnoresCaseForCacheKey() {
+        when(ufRepository.findBySigla("SP")).thenReturn(Optional.of(uf));
+
+        ufService.buscarPorSigla("sp");
+        Optional<Uf> result = ufService.buscarPorSigla("SP");
+
+        assertTrue(result.isPresent());
+        verify(ufRepository, times(1)).findBySigla("SP");
+    }
+
+    @Test
+    void salvar_EvictsUfAndComarcaCaches() {
+        when(ufRepository.findAllOrderByNome()).thenReturn(List.of(uf));
+        when(ufRepository.save(any(Uf.class))).thenReturn(uf);
+        cacheManager.getCache(CacheConfig.COMARCAS).put("todas", List.of());
+
+        ufService.listarTodas();
+        ufService.salvar(uf);
+        ufService.listarTodas();
+
+        verify(ufRepository, times(2)).findAllOrderByNome();
+        assertNull(cacheManager.getCache(CacheConfig.COMARCAS).get("todas"));
+    }
+}
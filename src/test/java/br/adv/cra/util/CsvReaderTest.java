@@ -0,0 +1,52 @@
+package br.adv.cra.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void proximo_ReadsQuotedFieldsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "numero,parte\r\n\"1,2\",\"Banco \"\"Alfa\"\"\nS.A.\"\r\n3,\r\n"), ',');
+
+        assertEquals(List.of("numero", "parte"), csv.proximo());
+        assertEquals(1, csv.getLinha());
+        assertEquals(List.of("1,2", "Banco \"Alfa\"\nS.A."), csv.proximo());
+        assertEquals(2, csv.getLinha());
+        assertEquals(List.of("3", ""), csv.proximo());
+        assertEquals(4, csv.getLinha());
+        assertNull(csv.proximo());
+    }
+
+    @Test
+    void proximo_SkipsBlankLinesAndReadsLastRecordWithoutLineBreak() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a;b\n\n\nc;d"), ';');
+
+        assertEquals(List.of("a", "b"), csv.proximo());
+        assertEquals(List.of("c", "d"), csv.proximo());
+        assertEquals(4, csv.getLinha());
+        assertNull(csv.proximo());
+    }
+
+    @Test
+    void proximo_FailsOnUnclosedQuote() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\n\"aberto,c\n"), ',');
+        csv.proximo();
+
+        IOException e = assertThrows(IOException.class, csv::proximo);
+        assertTrue(e.getMessage().contains("linha 2"));
+    }
+
+    @Test
+    void detectarSeparador_PrefersSemicolonWhenMoreFrequent() {
+        assertEquals(';', CsvReader.detectarSeparador("numeroprocesso;parte;comarca"));
+        assertEquals(',', CsvReader.detectarSeparador("numeroprocesso,parte,comarca"));
+        assertEquals(',', CsvReader.detectarSeparador("numeroprocesso"));
+    }
+}
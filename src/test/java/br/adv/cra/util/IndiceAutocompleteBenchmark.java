@@ -0,0 +1,86 @@
+package br.adv.cra.util;
+
+import br.adv.cra.dto.AutocompleteDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one typeahead query on IndiceAutocomplete, and cost of applying one write.
+ *
+ * The names combine common Brazilian first names and surnames, so short prefixes
+ * match a large part of the index, as the first keystrokes do.
+ *
+ * Not run by surefire. Run it with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.adv.cra.util.IndiceAutocompleteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndiceAutocompleteBenchmark {
+
+    private static final String[] NOMES = {"João", "Maria", "José", "Ana", "Antônio", "Francisca", "Carlos",
+            "Luíza", "Paulo", "Márcia", "Pedro", "Adriana", "Lucas", "Juliana", "Luís", "Fernanda"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+            "Alves", "Pereira", "Lima", "Gomes", "Ribeiro", "Carvalho", "Araújo", "Martins", "Rocha", "Conceição"};
+
+    @Param({"10000", "100000"})
+    public int nomes;
+
+    @Param({"m", "mar", "silva sou"})
+    public String prefixo;
+
+    private IndiceAutocomplete indice;
+    private long proximoId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<AutocompleteDTO> carga = new ArrayList<>(nomes);
+        for (int i = 0; i < nomes; i++) {
+            carga.add(new AutocompleteDTO((long) i, NOMES[random.nextInt(NOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)]));
+        }
+        indice = new IndiceAutocomplete(() -> carga);
+        indice.buscar("a", null);
+        proximoId = nomes;
+    }
+
+    @Benchmark
+    public List<AutocompleteDTO> buscar() {
+        return indice.buscar(prefixo, 10);
+    }
+
+    @Benchmark
+    public void atualizar() {
+        // Replaces a name in place, so the index keeps its size across invocations
+        indice.atualizar(proximoId++ % nomes, "Márcia Souza Lima");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IndiceAutocompleteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,116 @@
+package br.adv.cra.util;
+
+import br.adv.cra.dto.AutocompleteDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceAutocompleteTest {
+
+    private final AtomicInteger cargas = new AtomicInteger();
+    private final List<AutocompleteDTO> banco = new ArrayList<>(List.of(
+            new AutocompleteDTO(1L, "São Paulo"),
+            new AutocompleteDTO(2L, "Santos"),
+            new AutocompleteDTO(3L, "Ribeirão Preto"),
+            new AutocompleteDTO(4L, "Paulínia"),
+            new AutocompleteDTO(5L, "São José dos Campos")));
+
+    private IndiceAutocomplete indice(Duration validade) {
+        return new IndiceAutocomplete(() -> {
+            cargas.incrementAndGet();
+            return List.copyOf(banco);
+        }, validade);
+    }
+
+    private static List<Long> ids(List<AutocompleteDTO> sugestoes) {
+        return sugestoes.stream().map(AutocompleteDTO::getId).toList();
+    }
+
+    @Test
+    void buscar_ListsNameStartsBeforeLaterWordsIgnoringCaseAndAccents() {
+        IndiceAutocomplete indice = indice(Duration.ofMinutes(10));
+
+        // "paul" starts "Paulínia" and the second word of "São Paulo"
+        assertEquals(List.of(4L, 1L), ids(indice.buscar("PAUL", null)));
+        assertEquals(List.of(5L, 1L), ids(indice.buscar("sao", null)));
+        assertEquals(List.of(5L), ids(indice.buscar("jose dos c", null)));
+        assertEquals("São Paulo", indice.buscar("sao p", null).get(0).getNome());
+        assertTrue(indice.buscar("  ", null).isEmpty());
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void buscar_StopsAtLimitAndListsEachNameOnce() {
+        IndiceAutocomplete indice = indice(Duration.ofMinutes(10));
+
+        // "Ribeirão Preto" matches by its second word, after the names starting with "p"
+        assertEquals(List.of(4L, 1L), ids(indice.buscar("p", 2)));
+        assertEquals(List.of(4L, 1L, 3L), ids(indice.buscar("p", null)));
+        // "Pedro Paulo" has two words starting with "p" and is listed once
+        indice.atualizar(8L, "Pedro Paulo");
+        assertEquals(List.of(4L, 8L, 1L, 3L), ids(indice.buscar("p", null)));
+    }
+
+    @Test
+    void atualizarERemover_ChangeTheIndexWithoutReloading() {
+        IndiceAutocomplete indice = indice(Duration.ofMinutes(10));
+        indice.buscar("x", null);
+
+        indice.atualizar(3L, "Campinas");
+        indice.atualizar(6L, "Sorocaba");
+        indice.remover(2L);
+
+        assertTrue(indice.buscar("ribeirao", null).isEmpty());
+        assertEquals(List.of(3L, 5L), ids(indice.buscar("camp", null)));
+        assertEquals(List.of(5L, 1L, 6L), ids(indice.buscar("s", null)));
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void buscar_ReloadsExpiredSnapshot() {
+        IndiceAutocomplete indice = indice(Duration.ZERO);
+        indice.buscar("sao", null);
+        banco.add(new AutocompleteDTO(7L, "Sorocaba"));
+
+        assertEquals(List.of(7L), ids(indice.buscar("soro", null)));
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void buscar_ServesExpiredSnapshotWhileAnotherCallerReloads() throws Exception {
+        CountDownLatch recarregando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        IndiceAutocomplete indice = new IndiceAutocomplete(() -> {
+            if (cargas.incrementAndGet() > 1) {
+                recarregando.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return List.copyOf(banco);
+        }, Duration.ZERO);
+        indice.buscar("sao", null);
+        banco.add(new AutocompleteDTO(7L, "Sorocaba"));
+
+        Thread recarga = Thread.ofVirtual().start(() -> indice.buscar("soro", null));
+        assertTrue(recarregando.await(5, TimeUnit.SECONDS));
+
+        // The reload is stuck in the database: this query gets the old snapshot instead of waiting
+        assertTrue(indice.buscar("soro", null).isEmpty());
+        assertEquals(List.of(5L, 1L), ids(indice.buscar("sao", null)));
+
+        liberar.countDown();
+        recarga.join(5000);
+        assertFalse(recarga.isAlive());
+        assertEquals(2, cargas.get());
+    }
+}
@@ -0,0 +1,44 @@
+package br.adv.cra.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumeroCnjTest {
+
+    @Test
+    void parse_SplitsFormattedNumberIntoParts() {
+        NumeroCnj cnj = NumeroCnj.parse("0001234-71.2024.8.26.0100").orElseThrow();
+
+        assertEquals("00012347120248260100", cnj.getDigitos());
+        assertEquals(1234, cnj.getSequencial());
+        assertEquals(71, cnj.getDigito());
+        assertEquals(2024, cnj.getAno());
+        assertEquals(8, cnj.getSegmento());
+        assertEquals(26, cnj.getTribunal());
+        assertEquals(100, cnj.getOrigem());
+        assertEquals("0001234-71.2024.8.26.0100", cnj.formatado());
+    }
+
+    @Test
+    void parse_AcceptsDigitsOnlyAndRejectsOtherLengths() {
+        assertEquals(NumeroCnj.parse("0001234-71.2024.8.26.0100"), NumeroCnj.parse("00012347120248260100"));
+        assertTrue(NumeroCnj.parse("1234-71.2024.8.26.0100").isEmpty());
+        assertTrue(NumeroCnj.parse(null).isEmpty());
+        assertNull(NumeroCnj.normalizar("123"));
+    }
+
+    @Test
+    void isDigitoValido_ChecksMod97() {
+        assertTrue(NumeroCnj.parse("0001234-71.2024.8.26.0100").orElseThrow().isDigitoValido());
+        assertTrue(NumeroCnj.parse("0000007-34.2023.5.01.0001").orElseThrow().isDigitoValido());
+        assertFalse(NumeroCnj.parse("0001234-72.2024.8.26.0100").orElseThrow().isDigitoValido());
+    }
+
+    @Test
+    void fimDoPrefixo_IsTheNextPrefix() {
+        assertEquals("0001235", NumeroCnj.fimDoPrefixo("0001234"));
+        assertEquals("00013", NumeroCnj.fimDoPrefixo("00012999"));
+        assertEquals("A", NumeroCnj.fimDoPrefixo("999"));
+    }
+}
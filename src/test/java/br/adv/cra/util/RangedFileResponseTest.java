@@ -0,0 +1,163 @@
+package br.adv.cra.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangedFileResponseTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(tempDir.resolve("peticao.pdf"), CONTENT, StandardCharsets.US_ASCII);
+        request = new MockHttpServletRequest("GET", "/api/soli-arquivos/1/download");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void write_FullFile() throws Exception {
+        RangedFileResponse.write(file, "petição.pdf", request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(CONTENT.length(), response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).contains("filename*=UTF-8''peti%C3%A7%C3%A3o.pdf"));
+    }
+
+    @Test
+    void write_MissingFileLeavesResponseUntouched() throws Exception {
+        Files.delete(file);
+
+        assertThrows(NoSuchFileException.class, () -> RangedFileResponse.write(file, "peticao.pdf", request, response));
+
+        assertFalse(response.isCommitted());
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    void write_SingleRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+
+        RangedFileResponse.write(file, "peticao.pdf", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("56789", response.getContentAsString());
+        assertEquals("bytes 5-9/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(5, response.getContentLengthLong());
+    }
+
+    @Test
+    void write_SuffixRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        RangedFileResponse.write(file, "peticao.pdf", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("hij", response.getContentAsString());
+        assertEquals("bytes 17-19/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void write_UnsatisfiableRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=50-60");
+
+        RangedFileResponse.write(file, "peticao.pdf", request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void write_MultipleRangesFallBackToFullFile() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,5-6");
+
+        RangedFileResponse.write(file, "peticao.pdf", request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void write_IfNoneMatchReturnsNotModified() throws Exception {
+        RangedFileResponse.write(file, "peticao.pdf", request, response);
+        String etag = response.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/soli-arquivos/1/download");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        RangedFileResponse.write(file, "peticao.pdf", conditional, notModified);
+
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+    }
+
+    @Test
+    void write_StaleIfRangeReturnsFullFile() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"outra-versao\"");
+
+        RangedFileResponse.write(file, "peticao.pdf", request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void write_MatchingIfRangeReturnsRange() throws Exception {
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, RangedFileResponse.etag(CONTENT.length(), lastModified));
+
+        RangedFileResponse.write(file, "peticao.pdf", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("0123", response.getContentAsString());
+    }
+
+    @Test
+    void write_HandsBodyToSendfileWhenSupported() throws Exception {
+        request.setAttribute(RangedFileResponse.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+
+        RangedFileResponse.write(file, "peticao.pdf", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute(RangedFileResponse.SENDFILE_FILENAME));
+        assertEquals(5L, request.getAttribute(RangedFileResponse.SENDFILE_START));
+        assertEquals(10L, request.getAttribute(RangedFileResponse.SENDFILE_END));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void write_HeadSendsHeadersOnly() throws Exception {
+        request.setMethod("HEAD");
+
+        RangedFileResponse.write(file, "peticao.pdf", request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT.length(), response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}